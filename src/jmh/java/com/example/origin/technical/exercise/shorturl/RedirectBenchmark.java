@@ -0,0 +1,80 @@
+package com.example.origin.technical.exercise.shorturl;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and allocation of a redirect over HTTP, answered by the RedirectFastPathFilter or by the MVC controller.
+ * <p>
+ * Client and server share the JVM, so the allocation reported by {@code -prof gc} includes the client's share,
+ * which is the same in both modes: the difference between them is what the fast path saves per request.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RedirectBenchmark {
+
+	@Param({"true", "false"})
+	public boolean fastPath;
+
+	private ConfigurableApplicationContext context;
+	private HttpClient httpClient;
+	private HttpRequest request;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(ShorturlApplication.class)
+			.properties(
+				"server.port=0",
+				"url.shortener.redirect-fast-path=" + fastPath)
+			.run();
+		context.getBean(UrlMappingRepository.class).save(UrlMapping.builder()
+			.shortUrlPath("abc1234")
+			.fullUrl("https://example.com/articles/2025/01/benchmark?utm_source=shorturl")
+			.build());
+
+		int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+		request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/abc1234")).build();
+		httpClient = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		httpClient.close();
+		context.close();
+	}
+
+	@Benchmark
+	public int redirect() throws IOException, InterruptedException {
+		return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+}
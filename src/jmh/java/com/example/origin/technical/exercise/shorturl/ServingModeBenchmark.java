@@ -0,0 +1,119 @@
+package com.example.origin.technical.exercise.shorturl;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.IterableUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.SlowUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serve a burst of {@code concurrency} simultaneous redirects when every repository access blocks for
+ * {@code latencyMillis}, with requests served by the Tomcat platform thread pool or by virtual threads.
+ * <p>
+ * With platform threads, bursts larger than the pool ({@code server.tomcat.threads.max}, 200 by default) queue
+ * behind the blocked threads; with virtual threads, the whole burst waits on the repository at once.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServingModeBenchmark {
+
+	private static final int MAPPINGS = 1000;
+
+	@Param({"platform", "virtual"})
+	public String threads;
+
+	@Param({"10", "50"})
+	public long latencyMillis;
+
+	@Param({"100", "1000"})
+	public int concurrency;
+
+	private ConfigurableApplicationContext context;
+	private ExecutorService clientExecutor;
+	private HttpClient httpClient;
+	private HttpRequest[] requests;
+
+	@Setup
+	public void setUp() {
+		SlowUrlMappingRepository repository = new SlowUrlMappingRepository(0);
+		for (int i = 0; i < MAPPINGS; i++) {
+			repository.save(UrlMapping.builder()
+				.shortUrlPath("code" + i)
+				.fullUrl("https://example.com/" + i)
+				.build());
+		}
+
+		context = new SpringApplicationBuilder(ShorturlApplication.class)
+			.properties(
+				"server.port=0",
+				"url.shortener.repository=slow",
+				"spring.threads.virtual.enabled=" + threads.equals("virtual"))
+			.initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+				.registerBean("slowUrlMappingRepository", IterableUrlMappingRepository.class, () -> new SlowUrlMappingRepository(latencyMillis),
+					definition -> ((AbstractBeanDefinition) definition).addQualifier(new AutowireCandidateQualifier(Qualifier.class, "storage"))))
+			.run();
+		UrlMappingRepository slowRepository = context.getBean("slowUrlMappingRepository", UrlMappingRepository.class);
+		repository.forEach(slowRepository::save);
+
+		int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+		requests = new HttpRequest[MAPPINGS];
+		for (int i = 0; i < MAPPINGS; i++) {
+			requests[i] = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/code" + i)).build();
+		}
+		clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		httpClient = HttpClient.newBuilder()
+			.executor(clientExecutor)
+			.version(HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		httpClient.close();
+		clientExecutor.close();
+		context.close();
+	}
+
+	@Benchmark
+	public int redirectBurst() {
+		CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+		for (int i = 0; i < concurrency; i++) {
+			responses[i] = httpClient.sendAsync(requests[i % MAPPINGS], HttpResponse.BodyHandlers.discarding());
+		}
+		CompletableFuture.allOf(responses).join();
+		return responses.length;
+	}
+}
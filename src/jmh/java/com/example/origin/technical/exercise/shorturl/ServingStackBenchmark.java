@@ -0,0 +1,181 @@
+package com.example.origin.technical.exercise.shorturl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serve a burst of redirects and lookups over {@code connections} simultaneous keep-alive connections,
+ * with the servlet controllers on Tomcat or the reactive controllers on Netty.
+ * <p>
+ * The server runs in a JVM of its own, limited to the 1 CPU and 512M of the {@code docker-compose.yml} deployment,
+ * with the heap share of the Dockerfile, while the client sending the requests runs in the unlimited benchmark JVM,
+ * so it does not take CPU time from the server. Tomcat then still serves requests from up to 200 threads, while
+ * Netty serves every connection from a single event loop thread. The connections are opened during the warmup and
+ * kept alive by the client pool, so the measurement covers serving them, not accepting them.
+ * </p>
+ * <p>
+ * The reactive stack is only available in builds with the reactive profile:
+ * {@code mvn -Pbenchmark,reactive -DskipTests verify -Djmh.args="ServingStackBenchmark"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServingStackBenchmark {
+
+	private static final int MAPPINGS = 1000;
+	private static final List<String> SERVER_JVM_ARGS =
+		List.of("-XX:ActiveProcessorCount=1", "-XX:MaxRAM=512m", "-XX:MaxRAMPercentage=75.0");
+	private static final Duration SERVER_START_TIMEOUT = Duration.ofSeconds(60);
+
+	@Param({"servlet", "reactive"})
+	public String stack;
+
+	@Param({"100", "1000", "4000"})
+	public int connections;
+
+	private Process server;
+	private Path serverLog;
+	private ExecutorService clientExecutor;
+	private HttpClient httpClient;
+	private HttpRequest[] redirects;
+	private HttpRequest[] lookups;
+
+	@Setup
+	public void setUp() throws IOException, InterruptedException {
+		clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		httpClient = HttpClient.newBuilder()
+			.executor(clientExecutor)
+			.version(HttpClient.Version.HTTP_1_1)
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.build();
+
+		String baseUrl = "http://localhost:" + freePort();
+		startServer(baseUrl);
+		redirects = new HttpRequest[MAPPINGS];
+		lookups = new HttpRequest[MAPPINGS];
+		for (int i = 0; i < MAPPINGS; i++) {
+			String shortUrl = shorten(baseUrl, "https://example.com/" + i);
+			redirects[i] = HttpRequest.newBuilder(URI.create(shortUrl)).build();
+			lookups[i] = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/url/full?shortUrl="
+				+ URLEncoder.encode(shortUrl, StandardCharsets.UTF_8))).build();
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException, InterruptedException {
+		httpClient.close();
+		clientExecutor.close();
+		server.destroy();
+		server.waitFor();
+		Files.deleteIfExists(serverLog);
+	}
+
+	@Benchmark
+	public int redirectBurst() {
+		return burst(redirects);
+	}
+
+	@Benchmark
+	public int lookupBurst() {
+		return burst(lookups);
+	}
+
+	private int burst(HttpRequest[] requests) {
+		CompletableFuture<?>[] responses = new CompletableFuture<?>[connections];
+		for (int i = 0; i < connections; i++) {
+			responses[i] = httpClient.sendAsync(requests[i % MAPPINGS], HttpResponse.BodyHandlers.discarding());
+		}
+		CompletableFuture.allOf(responses).join();
+		return responses.length;
+	}
+
+	/**
+	 * Starts the application in a limited JVM with the classpath of the benchmark, and waits until it is ready.
+	 */
+	private void startServer(String baseUrl) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(SERVER_JVM_ARGS);
+		command.addAll(List.of(
+			"-cp", System.getProperty("java.class.path"),
+			ShorturlApplication.class.getName(),
+			"--server.port=" + URI.create(baseUrl).getPort(),
+			"--url.shortener.baseUrl=" + baseUrl + "/",
+			"--spring.main.web-application-type=" + stack,
+			"--spring.jmx.enabled=false"));
+		serverLog = Files.createTempFile("serving-stack-benchmark-", ".log");
+		server = new ProcessBuilder(command)
+			.redirectErrorStream(true)
+			.redirectOutput(serverLog.toFile())
+			.start();
+
+		HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build();
+		long deadline = System.nanoTime() + SERVER_START_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!server.isAlive()) {
+				throw new IllegalStateException("The server exited with " + server.exitValue() + ", see " + serverLog);
+			}
+			try {
+				if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+					return;
+				}
+			} catch (ConnectException e) {
+				// Not listening yet
+			}
+			Thread.sleep(100);
+		}
+		server.destroy();
+		throw new IllegalStateException("The server did not start within " + SERVER_START_TIMEOUT + ", see " + serverLog);
+	}
+
+	private String shorten(String baseUrl, String fullUrl) throws IOException, InterruptedException {
+		HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/url/short"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"url\":\"" + fullUrl + "\"}"))
+				.build(),
+			HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Failed to shorten " + fullUrl + ", status " + response.statusCode());
+		}
+		return response.body().replaceAll(".*\"shortUrl\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlRequest;
+import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
+import com.example.origin.technical.exercise.shorturl.service.AccessStatisticsService;
+import com.example.origin.technical.exercise.shorturl.service.UrlShortenerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the controller methods, called directly on an in-memory repository holding {@code size} mappings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ApiControllerBenchmark {
+
+	private static final String BASE_URL = "http://localhost:8080/";
+
+	@Param({"1000000"})
+	public int size;
+
+	private UrlMapping[] mappings;
+	private AccessEventPipeline accessEventPipeline;
+	private UrlRedirectApiController redirectController;
+	private UrlLookupApiController lookupController;
+	private UrlShorteningApiController shorteningController;
+
+	@Setup
+	public void setUp() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		config.setBaseUrl(BASE_URL);
+		InMemoryUrlMappingRepository repository = new InMemoryUrlMappingRepository();
+		AccessStatisticsService accessStatisticsService = new AccessStatisticsService();
+		accessEventPipeline = new AccessEventPipeline(accessStatisticsService, config, new SimpleMeterRegistry());
+
+		mappings = new UrlMapping[size];
+		for (int i = 0; i < size; i++) {
+			mappings[i] = repository.save(UrlMapping.builder()
+				.shortUrlPath(Long.toString(0x10000000L + i, 36))
+				.fullUrl("https://example.com/articles/" + i + "?utm_source=benchmark")
+				.build());
+		}
+
+		redirectController = new UrlRedirectApiController(repository, accessEventPipeline, new HttpCachePolicy(config));
+		lookupController = new UrlLookupApiController(repository, accessStatisticsService,
+			new LookupResponseCache(config, JsonMapper.builder().build(), new HttpCachePolicy(config)), JsonMapper.builder().build());
+		shorteningController = new UrlShorteningApiController(repository, new UrlShortenerService(), config,
+			JsonMapper.builder().build(), Validation.buildDefaultValidatorFactory().getValidator());
+	}
+
+	@TearDown
+	public void tearDown() {
+		accessEventPipeline.close();
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private final SplittableRandom random = new SplittableRandom();
+		private final String prefix = "https://example.com/" + Long.toHexString(random.nextLong()) + "/";
+		private long created;
+
+		String nextNewUrl() {
+			return prefix + created++;
+		}
+
+		UrlMapping next(UrlMapping[] mappings) {
+			return mappings[random.nextInt(mappings.length)];
+		}
+	}
+
+	@Benchmark
+	public ResponseEntity<Void> redirectToFullUrl(Cursor cursor) {
+		return redirectController._redirectToFullUrl(cursor.next(mappings).getShortUrlPath());
+	}
+
+	@Benchmark
+	public ResponseEntity<GetFullUrlResponse> getFullUrl(Cursor cursor) {
+		return lookupController._getFullUrl(BASE_URL + cursor.next(mappings).getShortUrlPath());
+	}
+
+	@Benchmark
+	public ResponseEntity<CreateShortUrlResponse> createShortUrlOfExistingUrl(Cursor cursor) {
+		return shorteningController._createShortUrl(new CreateShortUrlRequest().url(cursor.next(mappings).getFullUrl()));
+	}
+
+	@Benchmark
+	public ResponseEntity<CreateShortUrlResponse> createShortUrlOfNewUrl(Cursor cursor) {
+		return shorteningController._createShortUrl(new CreateShortUrlRequest().url(cursor.nextNewUrl()));
+	}
+}
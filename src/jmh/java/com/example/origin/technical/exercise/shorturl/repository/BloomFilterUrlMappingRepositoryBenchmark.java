@@ -0,0 +1,104 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up short URLs that were never stored, as probed by bots, in each storage backend holding
+ * {@code size} mappings, with or without a {@link BloomFilterUrlMappingRepository} in front of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BloomFilterUrlMappingRepositoryBenchmark {
+
+	private static final int PROBES = 1 << 16;
+	private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	@Param({"in-memory", "off-heap", "mapped-log"})
+	public String repository;
+
+	@Param({"false", "true"})
+	public boolean filtered;
+
+	@Param({"1000000"})
+	public int size;
+
+	private IterableUrlMappingRepository storage;
+	private UrlMappingRepository urlMappingRepository;
+	private String[] probes;
+
+	@Setup
+	public void setUp() throws IOException {
+		storage = switch (repository) {
+			case "in-memory" -> new InMemoryUrlMappingRepository();
+			case "off-heap" -> new OffHeapUrlMappingRepository();
+			case "mapped-log" -> new MappedLogUrlMappingRepository(Files.createTempDirectory("shorturl-benchmark"),
+				256 * 1024 * 1024, 64, 100);
+			default -> throw new IllegalArgumentException("Unknown repository: " + repository);
+		};
+		for (int i = 0; i < size; i++) {
+			storage.save(UrlMapping.builder()
+				.shortUrlPath(Long.toString(0x10000000L + i, 36))
+				.fullUrl("https://example.com/articles/" + i + "?utm_source=benchmark")
+				.build());
+		}
+		urlMappingRepository = filtered ? new BloomFilterUrlMappingRepository(storage, size, 0.01) : storage;
+
+		// Upper case letters never occur in the stored short URLs
+		SplittableRandom random = new SplittableRandom(42);
+		probes = new String[PROBES];
+		for (int i = 0; i < PROBES; i++) {
+			char[] probe = new char[7];
+			for (int j = 0; j < probe.length; j++) {
+				probe[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			}
+			probe[0] = 'Z';
+			probes[i] = new String(probe);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		if (storage instanceof Closeable closeable) {
+			closeable.close();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private int next = new SplittableRandom().nextInt(PROBES);
+
+		String next(String[] probes) {
+			next = (next + 1) & (PROBES - 1);
+			return probes[next];
+		}
+	}
+
+	@Benchmark
+	public Optional<UrlMapping> findUnknownShortUrlPath(Cursor cursor) {
+		return urlMappingRepository.findByShortUrlPath(cursor.next(probes));
+	}
+}
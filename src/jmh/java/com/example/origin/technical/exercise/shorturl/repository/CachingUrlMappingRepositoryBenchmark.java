@@ -0,0 +1,102 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding URL mappings by short URL in the off-heap backend, with or without a
+ * {@link CachingUrlMappingRepository} in front of it, when lookups follow the Zipf distribution of click traffic:
+ * the k-th most popular of {@code size} links is looked up with a probability proportional to 1/k^{@code skew}.
+ * <p>
+ * The hit ratio of the cache is printed after each iteration.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CachingUrlMappingRepositoryBenchmark {
+
+	private static final int SAMPLES = 1 << 20;
+
+	@Param({"0", "16777216"})
+	public long cacheBytes;
+
+	@Param({"1000000"})
+	public int size;
+
+	@Param({"0.9", "1.1"})
+	public double skew;
+
+	private UrlMappingRepository urlMappingRepository;
+	private String[] lookups;
+
+	@Setup
+	public void setUp() {
+		OffHeapUrlMappingRepository storage = new OffHeapUrlMappingRepository();
+		String[] shortUrlPaths = new String[size];
+		for (int i = 0; i < size; i++) {
+			shortUrlPaths[i] = Long.toString(0x10000000L + i, 36);
+			storage.save(UrlMapping.builder()
+				.shortUrlPath(shortUrlPaths[i])
+				.fullUrl("https://example.com/articles/" + i + "?utm_source=benchmark")
+				.build());
+		}
+		urlMappingRepository = cacheBytes > 0 ? new CachingUrlMappingRepository(storage, cacheBytes) : storage;
+
+		double[] cumulative = new double[size];
+		double total = 0;
+		for (int k = 0; k < size; k++) {
+			total += 1 / Math.pow(k + 1, skew);
+			cumulative[k] = total;
+		}
+		SplittableRandom random = new SplittableRandom(42);
+		lookups = new String[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+			lookups[i] = shortUrlPaths[Math.min(size - 1, rank < 0 ? -rank - 1 : rank)];
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void printHitRatio() {
+		if (urlMappingRepository instanceof CachingUrlMappingRepository cache) {
+			System.out.printf("hit ratio: %.3f%n", cache.stats().hitRatio());
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private int next = new SplittableRandom().nextInt(SAMPLES);
+
+		String next(String[] lookups) {
+			next = (next + 1) & (SAMPLES - 1);
+			return lookups[next];
+		}
+	}
+
+	@Benchmark
+	public Optional<UrlMapping> findByShortUrlPath(Cursor cursor) {
+		return urlMappingRepository.findByShortUrlPath(cursor.next(lookups));
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory UrlMappingRepository blocking the caller for a fixed time on every access, like a disk or database would.
+ */
+public class SlowUrlMappingRepository implements IterableUrlMappingRepository {
+
+	private final InMemoryUrlMappingRepository delegate = new InMemoryUrlMappingRepository();
+	private final long latencyMillis;
+
+	public SlowUrlMappingRepository(long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	@Override
+	public UrlMapping save(UrlMapping mapping) {
+		block();
+		return delegate.save(mapping);
+	}
+
+	@Override
+	public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+		block();
+		return delegate.findByShortUrlPath(shortUrlPath);
+	}
+
+	@Override
+	public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+		block();
+		return delegate.findByFullUrl(fullUrl);
+	}
+
+	@Override
+	public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+		block();
+		return delegate.findOrCreateByFullUrl(fullUrl, mappingFactory);
+	}
+
+	@Override
+	public boolean existsByShortUrlPath(String shortUrlPath) {
+		block();
+		return delegate.existsByShortUrlPath(shortUrlPath);
+	}
+
+	@Override
+	public boolean deleteByShortUrlPath(String shortUrlPath) {
+		block();
+		return delegate.deleteByShortUrlPath(shortUrlPath);
+	}
+
+	@Override
+	public long count() {
+		return delegate.count();
+	}
+
+	@Override
+	public void forEach(Consumer<UrlMapping> action) {
+		delegate.forEach(action);
+	}
+
+	private void block() {
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of saving and finding URL mappings in each storage backend holding {@code size} mappings.
+ * <p>
+ * Run with {@code -t <threads>} to measure contention; {@code save} overwrites existing mappings so the size stays fixed.
+ * The {@code jdbc} backend runs against an embedded in-memory H2 database, so it measures the cost of the JDBC and SQL
+ * layers rather than of disk or network I/O.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class UrlMappingRepositoryBenchmark {
+
+	@Param({"in-memory", "off-heap", "mapped-log", "jdbc"})
+	public String repository;
+
+	@Param({"1000000", "10000000"})
+	public int size;
+
+	private UrlMappingRepository urlMappingRepository;
+	private UrlMapping[] mappings;
+	private HikariDataSource dataSource;
+
+	@Setup
+	public void setUp() throws IOException {
+		urlMappingRepository = switch (repository) {
+			case "in-memory" -> new InMemoryUrlMappingRepository();
+			case "off-heap" -> new OffHeapUrlMappingRepository();
+			case "mapped-log" -> new MappedLogUrlMappingRepository(Files.createTempDirectory("shorturl-benchmark"),
+				256 * 1024 * 1024, 64, 100);
+			case "jdbc" -> new JdbcUrlMappingRepository(h2DataSource(), 500);
+			default -> throw new IllegalArgumentException("Unknown repository: " + repository);
+		};
+
+		mappings = new UrlMapping[size];
+		for (int i = 0; i < size; i++) {
+			mappings[i] = UrlMapping.builder()
+				.shortUrlPath(Long.toString(0x10000000L + i, 36))
+				.fullUrl("https://example.com/articles/" + i + "?utm_source=benchmark")
+				.build();
+			urlMappingRepository.save(mappings[i]);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		if (urlMappingRepository instanceof Closeable closeable) {
+			closeable.close();
+		}
+		if (dataSource != null) {
+			dataSource.close();
+		}
+	}
+
+	/**
+	 * @return A pool of connections to an embedded in-memory H2 database, sized for up to 64 benchmark threads
+	 */
+	private DataSource h2DataSource() {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:shorturl-benchmark;DB_CLOSE_DELAY=-1");
+		config.setMaximumPoolSize(64);
+		dataSource = new HikariDataSource(config);
+		return dataSource;
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private final SplittableRandom random = new SplittableRandom();
+
+		UrlMapping next(UrlMapping[] mappings) {
+			return mappings[random.nextInt(mappings.length)];
+		}
+	}
+
+	@Benchmark
+	public UrlMapping save(Cursor cursor) {
+		return urlMappingRepository.save(cursor.next(mappings));
+	}
+
+	@Benchmark
+	public Optional<UrlMapping> findByShortUrlPath(Cursor cursor) {
+		return urlMappingRepository.findByShortUrlPath(cursor.next(mappings).getShortUrlPath());
+	}
+
+	@Benchmark
+	public Optional<UrlMapping> findByFullUrl(Cursor cursor) {
+		return urlMappingRepository.findByFullUrl(cursor.next(mappings).getFullUrl());
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write a {@link UrlMappingSnapshot} of {@code size} mappings, and to restore it into an empty in-memory
+ * repository with {@code restoreThreads} threads.
+ * <p>
+ * The size of the snapshot file is printed after setup.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class UrlMappingSnapshotBenchmark {
+
+	private static final LocalDateTime CREATED = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	@Param({"1000000"})
+	public int size;
+
+	@Param({"1", "4"})
+	public int restoreThreads;
+
+	private InMemoryUrlMappingRepository source;
+	private UrlMappingSnapshot snapshot;
+	private Path directory;
+	private ExecutorService executor;
+	private InMemoryUrlMappingRepository target;
+
+	@Setup
+	public void setUp() throws IOException {
+		source = new InMemoryUrlMappingRepository();
+		for (int i = 0; i < size; i++) {
+			// Creation times a few seconds apart over years, clicked since, as in a long-lived store
+			LocalDateTime createdAt = CREATED.plusSeconds(97L * i).plusNanos(i * 7919L);
+			source.save(UrlMapping.builder()
+				.shortUrlPath(Long.toString(0x10000000L + i, 36))
+				.fullUrl("https://www.site" + (i % 1000) + ".example.com/articles/" + i + "?utm_source=benchmark")
+				.createdAt(createdAt)
+				.lastAccessedAt(createdAt.plusMinutes(i % 10_000))
+				.expiresAt(createdAt.plusDays(360))
+				.accessCount(i % 5000)
+				.build());
+		}
+		directory = Files.createTempDirectory("shorturl-snapshot-benchmark");
+		snapshot = new UrlMappingSnapshot(directory.resolve("url-mappings.snapshot"));
+		snapshot.write(source, 64);
+		System.out.printf("snapshot size: %d bytes%n", Files.size(directory.resolve("url-mappings.snapshot")));
+		executor = Executors.newFixedThreadPool(restoreThreads);
+	}
+
+	@Setup(Level.Invocation)
+	public void emptyTarget() {
+		target = new InMemoryUrlMappingRepository();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		executor.shutdownNow();
+		Files.deleteIfExists(directory.resolve("url-mappings.snapshot"));
+		Files.deleteIfExists(directory);
+	}
+
+	@Benchmark
+	public long write() throws IOException {
+		return snapshot.write(source, 64);
+	}
+
+	@Benchmark
+	public UrlMappingSnapshot.Restored restore() throws IOException {
+		return snapshot.restore(target::save, executor);
+	}
+}
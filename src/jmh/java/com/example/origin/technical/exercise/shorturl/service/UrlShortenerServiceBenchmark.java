@@ -0,0 +1,67 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating short URL paths with each generator, and of the Base62 encoding of the hash generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlShortenerServiceBenchmark {
+
+	private byte[] hash;
+
+	@Setup
+	public void setUp() {
+		hash = new byte[32];
+		new SecureRandom().nextBytes(hash);
+	}
+
+	@State(Scope.Benchmark)
+	public static class Generator {
+
+		@Param({"hash", "permutation"})
+		public String generator;
+
+		private UrlShortenerService urlShortenerService;
+
+		@Setup
+		public void setUp() throws IOException {
+			UrlShortenerConfig config = new UrlShortenerConfig();
+			config.setGenerator(generator);
+			config.setShortUrlLength(7);
+			config.getLeases().setFile(Files.createTempDirectory("shorturl-benchmark").resolve("leases").toString());
+			urlShortenerService = new UrlShortenerService(config);
+		}
+	}
+
+	@Benchmark
+	public String generateShortUrlPath(Generator generator) {
+		return generator.urlShortenerService.generateShortUrlPath();
+	}
+
+	@Benchmark
+	public String toBase62() {
+		return UrlShortenerService.toBase62(hash);
+	}
+}
@@ -0,0 +1,285 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.model.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Streams the elements of a bulk request, sent either as newline-delimited JSON or as a JSON array, through
+ * a batch handler and writes one result per element back in the same order and the same format.
+ * <p>
+ * The request body is read in batches, and the results of a batch are flushed before the next one is read,
+ * so memory stays bounded however many elements are sent and clients receive results while still sending.
+ * An element that cannot be read is answered with an {@link ErrorResponse} at its position; a JSON array that
+ * turns out to be malformed, or holds an element larger than {@value #MAX_LINE_LENGTH} bytes, ends with one, as the
+ * elements after the error cannot be told apart.
+ * Blank lines of newline-delimited JSON are skipped.
+ * </p>
+ */
+final class BulkJsonStream {
+
+	static final String NDJSON = "application/x-ndjson";
+	static final int MAX_LINE_LENGTH = 64 * 1024;
+
+	private final JsonMapper jsonMapper;
+	private final int batchSize;
+
+	/**
+	 * @param jsonMapper Reads the elements and writes the results
+	 * @param batchSize Maximum number of elements handled at once
+	 */
+	BulkJsonStream(JsonMapper jsonMapper, int batchSize) {
+		this.jsonMapper = jsonMapper;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @param request The request whose body holds the elements
+	 * @param response The response the results are written to
+	 * @param parser Converts an element to the object passed to the batch handler, or to the {@link ErrorResponse}
+	 *               explaining why it is not one
+	 * @param batchHandler Returns the result of every entry of a batch, in the same order; the entries are the
+	 *                     objects returned by the parser, mixed with the {@link ErrorResponse}s of unreadable elements
+	 * @throws IOException If reading the request or writing the response fails
+	 */
+	void process(HttpServletRequest request, HttpServletResponse response,
+		Function<JsonNode, Object> parser, UnaryOperator<List<Object>> batchHandler) throws IOException {
+		boolean jsonArray = APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(jsonArray ? APPLICATION_JSON_VALUE : NDJSON);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+		Source source = jsonArray
+			? new JsonArraySource(request.getInputStream(), parser)
+			: new NdjsonSource(request.getInputStream(), parser);
+		List<Object> batch = new ArrayList<>(batchSize);
+		boolean first = true;
+		if (jsonArray) {
+			writer.write('[');
+		}
+		do {
+			batch.clear();
+			Object entry;
+			while (batch.size() < batchSize && (entry = source.next()) != null) {
+				batch.add(entry);
+			}
+			for (Object result : batchHandler.apply(batch)) {
+				if (jsonArray && !first) {
+					writer.write(',');
+				}
+				writer.write(jsonMapper.writeValueAsString(result));
+				if (!jsonArray) {
+					writer.write('\n');
+				}
+				first = false;
+			}
+			writer.flush();
+		} while (batch.size() == batchSize);
+		if (jsonArray) {
+			writer.write(']');
+		}
+		writer.flush();
+	}
+
+	static ErrorResponse error(String error, String message, List<String> details) {
+		ErrorResponse errorResponse = new ErrorResponse();
+		errorResponse.setError(error);
+		errorResponse.setMessage(message);
+		errorResponse.setDetails(details.isEmpty() ? null : details);
+		errorResponse.setTimestamp(LocalDateTime.now());
+		return errorResponse;
+	}
+
+	static ErrorResponse badRequest(String message, List<String> details) {
+		return error("Bad Request", message, details);
+	}
+
+	/**
+	 * Source of the entries of a bulk request.
+	 */
+	private interface Source {
+
+		/**
+		 * @return The next entry, or null once the request body is exhausted
+		 */
+		Object next() throws IOException;
+	}
+
+	/**
+	 * Reads newline-delimited JSON one line at a time, discarding the characters of a line beyond
+	 * {@value #MAX_LINE_LENGTH}, so a single line cannot exhaust memory either.
+	 */
+	private class NdjsonSource implements Source {
+
+		private final Reader reader;
+		private final Function<JsonNode, Object> parser;
+		private final StringBuilder line = new StringBuilder();
+
+		NdjsonSource(InputStream requestBody, Function<JsonNode, Object> parser) {
+			this.reader = new BufferedReader(new InputStreamReader(requestBody, StandardCharsets.UTF_8));
+			this.parser = parser;
+		}
+
+		@Override
+		public Object next() throws IOException {
+			do {
+				if (!readLine()) {
+					return null;
+				}
+			} while (line.toString().isBlank());
+
+			if (line.length() > MAX_LINE_LENGTH) {
+				return badRequest("Line exceeds " + MAX_LINE_LENGTH + " characters", List.of());
+			}
+			JsonNode element;
+			try {
+				element = jsonMapper.readTree(line.toString());
+			} catch (JacksonException e) {
+				return badRequest("Malformed request line", List.of(e.getOriginalMessage()));
+			}
+			return parser.apply(element);
+		}
+
+		/**
+		 * @return false if the end of the stream was reached before any character of a line
+		 */
+		private boolean readLine() throws IOException {
+			line.setLength(0);
+			int c = reader.read();
+			if (c < 0) {
+				return false;
+			}
+			while (c >= 0 && c != '\n') {
+				if (line.length() <= MAX_LINE_LENGTH) {
+					line.append((char) c);
+				}
+				c = reader.read();
+			}
+			if (line.length() <= MAX_LINE_LENGTH && !line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+				line.setLength(line.length() - 1);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Reads the elements of a JSON array one at a time with a streaming parser, reading at most
+	 * {@value #MAX_LINE_LENGTH} bytes of the request body per element, so a single element cannot exhaust memory either.
+	 */
+	private class JsonArraySource implements Source {
+
+		private final ElementLimitInputStream requestBody;
+		private final JsonParser jsonParser;
+		private final Function<JsonNode, Object> parser;
+		private boolean started;
+		private boolean done;
+
+		JsonArraySource(InputStream requestBody, Function<JsonNode, Object> parser) {
+			this.requestBody = new ElementLimitInputStream(requestBody);
+			this.jsonParser = jsonMapper.createParser(this.requestBody);
+			this.parser = parser;
+		}
+
+		@Override
+		public Object next() {
+			if (done) {
+				return null;
+			}
+			requestBody.startElement();
+			try {
+				if (!started) {
+					started = true;
+					if (jsonParser.nextToken() != JsonToken.START_ARRAY) {
+						done = true;
+						return badRequest("Request body is not a JSON array", List.of());
+					}
+				}
+				if (jsonParser.nextToken() == JsonToken.END_ARRAY) {
+					done = true;
+					return null;
+				}
+				return parser.apply(jsonParser.readValueAsTree());
+			} catch (StreamReadException e) {
+				done = true;
+				if (requestBody.exceeded) {
+					return badRequest("Array element exceeds " + MAX_LINE_LENGTH + " bytes", List.of());
+				}
+				return badRequest("Malformed JSON array", List.of(e.getOriginalMessage()));
+			}
+		}
+	}
+
+	/**
+	 * Ends the request body early once {@value #MAX_LINE_LENGTH} bytes were read for the current element. As the parser
+	 * reads ahead, an element may get up to one input buffer more than that from the bytes read for the previous one.
+	 */
+	private static final class ElementLimitInputStream extends FilterInputStream {
+
+		private int remaining = MAX_LINE_LENGTH;
+		private boolean exceeded;
+
+		ElementLimitInputStream(InputStream in) {
+			super(in);
+		}
+
+		void startElement() {
+			remaining = MAX_LINE_LENGTH;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining == 0) {
+				exceeded = true;
+				return -1;
+			}
+			int b = super.read();
+			if (b >= 0) {
+				remaining--;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (remaining == 0) {
+				exceeded = true;
+				return -1;
+			}
+			int read = super.read(b, off, Math.min(len, remaining));
+			if (read > 0) {
+				remaining -= read;
+			}
+			return read;
+		}
+	}
+}
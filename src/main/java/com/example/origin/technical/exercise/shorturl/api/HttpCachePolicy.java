@@ -0,0 +1,94 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.util.Hashing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides how browsers and CDNs may cache redirects and lookups.
+ * <p>
+ * A redirect uses the status and cacheability chosen for its short URL, or the configured defaults. A cacheable
+ * redirect may be cached until its short URL expires at the latest, so a cache never keeps redirecting an expired
+ * link; any other redirect is marked {@code no-store}, so every click reaches the service and is counted.
+ * </p>
+ * <p>
+ * Lookups are never served from a cache without revalidation, as their access statistics change with every click,
+ * but carry an ETag and a Last-Modified header so that a revalidation whose details did not change is answered
+ * with 304 (Not Modified) and no body.
+ * </p>
+ */
+@Component
+public class HttpCachePolicy {
+
+	static final String NO_STORE = "no-store";
+	private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 307, 308);
+
+	private final UrlShortenerConfig.HttpCache settings;
+	private final Clock clock;
+
+	@Autowired
+	public HttpCachePolicy(UrlShortenerConfig config) {
+		this(config.getHttpCache(), Clock.systemDefaultZone());
+	}
+
+	HttpCachePolicy(UrlShortenerConfig.HttpCache settings, Clock clock) {
+		if (!REDIRECT_STATUSES.contains(settings.getRedirectStatus())) {
+			throw new IllegalArgumentException("Redirect status must be one of " + REDIRECT_STATUSES + ": " + settings.getRedirectStatus());
+		}
+		this.settings = settings;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The HTTP status of the redirects to the full URL of the mapping
+	 */
+	public int redirectStatus(UrlMapping mapping) {
+		Integer redirectStatus = mapping.getRedirectStatus();
+		return redirectStatus != null ? redirectStatus : settings.getRedirectStatus();
+	}
+
+	/**
+	 * @return The Cache-Control header value of the redirects to the full URL of the mapping
+	 */
+	public String redirectCacheControl(UrlMapping mapping) {
+		Boolean cacheable = mapping.getCacheable();
+		if (!(cacheable != null ? cacheable : settings.isCacheable())) {
+			return NO_STORE;
+		}
+		long maxAgeSeconds = settings.getMaxAgeSeconds();
+		if (mapping.getExpiresAt() != null) {
+			maxAgeSeconds = Math.min(maxAgeSeconds, Duration.between(LocalDateTime.now(clock), mapping.getExpiresAt()).toSeconds());
+		}
+		return maxAgeSeconds > 0 ? "public, max-age=" + maxAgeSeconds : NO_STORE;
+	}
+
+	/**
+	 * @return A weak ETag of the details, changing whenever any of them changes
+	 */
+	public String lookupETag(GetFullUrlResponse details) {
+		long hash = details.getAccessCount() != null ? details.getAccessCount() : 0;
+		hash = Hashing.fmix64(hash ^ Objects.hashCode(details.getFullUrl()));
+		hash = Hashing.fmix64(hash ^ Objects.hashCode(details.getCreatedAt()));
+		hash = Hashing.fmix64(hash ^ Objects.hashCode(details.getLastAccessedAt()));
+		hash = Hashing.fmix64(hash ^ Objects.hashCode(details.getExpiresAt()));
+		return "W/\"" + Long.toHexString(hash) + "\"";
+	}
+
+	/**
+	 * @return The time the details last changed: the last access, or the creation of a short URL never accessed
+	 */
+	public Instant lookupLastModified(GetFullUrlResponse details) {
+		LocalDateTime lastModified = details.getLastAccessedAt() != null ? details.getLastAccessedAt() : details.getCreatedAt();
+		return lastModified != null ? lastModified.atZone(clock.getZone()).toInstant() : null;
+	}
+}
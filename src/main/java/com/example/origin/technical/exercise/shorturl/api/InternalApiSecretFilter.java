@@ -0,0 +1,79 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingRepository;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Servlet filter rejecting the calls to the internal endpoints under {@value #INTERNAL_PATH}, those of
+ * {@link ShardApiController} and {@link ReplicationApiController}, that do not carry the secret shared by the instances in the
+ * {@value RemoteUrlMappingRepository#SECRET_HEADER} header, with HTTP 401 (Unauthorized).
+ * <p>
+ * The path is matched as decoded and normalized by the servlet container, so path parameters and encoded characters
+ * do not get a call past the filter. Serving the internal endpoints without a secret is refused on startup. The
+ * secret is compared in constant time.
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnExpression("!'${url.shortener.sharding.self:}'.isBlank() or '${url.shortener.replication.role:none}'.equalsIgnoreCase('leader')")
+public class InternalApiSecretFilter implements Filter {
+
+	private static final String INTERNAL_PATH = "/internal/";
+
+	private final byte[] secret;
+
+	@Autowired
+	public InternalApiSecretFilter(UrlShortenerConfig urlShortenerConfig) {
+		this(urlShortenerConfig.getInternalSecret());
+	}
+
+	InternalApiSecretFilter(String secret) {
+		if (secret == null || secret.isBlank()) {
+			throw new IllegalStateException("The secret shared by the instances, url.shortener.internal-secret, is not set");
+		}
+		this.secret = secret.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		if (request instanceof HttpServletRequest httpRequest
+			&& response instanceof HttpServletResponse httpResponse
+			&& isInternal(httpRequest)
+			&& !hasSecret(httpRequest)) {
+			log.warn("Rejected call to {} from {} without the internal secret", httpRequest.getRequestURI(), httpRequest.getRemoteAddr());
+			httpResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+			return;
+		}
+		chain.doFilter(request, response);
+	}
+
+	private static boolean isInternal(HttpServletRequest request) {
+		String path = request.getPathInfo() == null ? request.getServletPath() : request.getServletPath() + request.getPathInfo();
+		return path.startsWith(INTERNAL_PATH);
+	}
+
+	private boolean hasSecret(HttpServletRequest request) {
+		String header = request.getHeader(RemoteUrlMappingRepository.SECRET_HEADER);
+		return header != null && MessageDigest.isEqual(secret, header.getBytes(StandardCharsets.UTF_8));
+	}
+}
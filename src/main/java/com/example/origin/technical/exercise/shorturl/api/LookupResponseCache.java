@@ -0,0 +1,140 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of the serialized responses of the lookup endpoint, keyed by short URL path.
+ * <p>
+ * Every entry records a version stamp of the mapping it was built from: its full URL, timestamps and stored access
+ * count. An entry is only served for a mapping with the same stamp, so a short URL whose mapping changed is never
+ * answered with the details of the previous one. The access statistics recorded since the mapping was stored change
+ * with every click and are not part of the stamp; instead an entry is rebuilt once older than the configured
+ * staleness bound, which is therefore the longest the served statistics lag behind.
+ * </p>
+ * <p>
+ * Beyond the configured number of entries an arbitrary entry is evicted; links looked up repeatedly are cached
+ * again on their next lookup.
+ * </p>
+ */
+@Component
+public class LookupResponseCache {
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final int maxEntries;
+	private final long statsStalenessMillis;
+	private final JsonMapper jsonMapper;
+	private final HttpCachePolicy httpCachePolicy;
+	private final Clock clock;
+
+	@Autowired
+	public LookupResponseCache(UrlShortenerConfig config, JsonMapper jsonMapper, HttpCachePolicy httpCachePolicy) {
+		this(config.getLookupCache(), jsonMapper, httpCachePolicy, Clock.systemDefaultZone());
+	}
+
+	LookupResponseCache(UrlShortenerConfig.LookupCache settings, JsonMapper jsonMapper, HttpCachePolicy httpCachePolicy, Clock clock) {
+		this.maxEntries = settings.getMaxEntries();
+		this.statsStalenessMillis = settings.getStatsStalenessMillis();
+		this.jsonMapper = jsonMapper;
+		this.httpCachePolicy = httpCachePolicy;
+		this.clock = clock;
+	}
+
+	/**
+	 * @param mapping The mapping looked up
+	 * @param detailsOf Builds the details of the mapping, if the cached ones are missing, outdated or stale
+	 * @return The details of the mapping, serialized along with their validators
+	 */
+	public CachedFullUrlResponse get(UrlMapping mapping, Function<UrlMapping, GetFullUrlResponse> detailsOf) {
+		long now = clock.millis();
+		Entry entry = entries.get(mapping.getShortUrlPath());
+		if (entry != null && now - entry.builtAtMillis() < statsStalenessMillis && entry.version().equals(Version.of(mapping))) {
+			return entry.response();
+		}
+
+		CachedFullUrlResponse response = new CachedFullUrlResponse(detailsOf.apply(mapping));
+		response.serializedJson = jsonMapper.writeValueAsBytes(response);
+		response.eTag = httpCachePolicy.lookupETag(response);
+		response.lastModified = httpCachePolicy.lookupLastModified(response);
+		if (maxEntries > 0) {
+			if (entries.size() >= maxEntries && !entries.containsKey(mapping.getShortUrlPath())) {
+				evictOne();
+			}
+			entries.put(mapping.getShortUrlPath(), new Entry(Version.of(mapping), response, now));
+		}
+		return response;
+	}
+
+	/**
+	 * Discards the cached response of a short URL, e.g. once its mapping could no longer be found.
+	 */
+	public void invalidate(String shortUrlPath) {
+		entries.remove(shortUrlPath);
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	private void evictOne() {
+		Iterator<String> keys = entries.keySet().iterator();
+		if (keys.hasNext()) {
+			keys.next();
+			keys.remove();
+		}
+	}
+
+	/**
+	 * Details of a mapping along with their serialized JSON and validators.
+	 */
+	public static final class CachedFullUrlResponse extends GetFullUrlResponse implements SerializedJsonBody {
+
+		private byte[] serializedJson;
+		private String eTag;
+		private Instant lastModified;
+
+		private CachedFullUrlResponse(GetFullUrlResponse details) {
+			fullUrl(details.getFullUrl());
+			createdAt(details.getCreatedAt());
+			lastAccessedAt(details.getLastAccessedAt());
+			expiresAt(details.getExpiresAt());
+			accessCount(details.getAccessCount());
+		}
+
+		@Override
+		public byte[] serializedJson() {
+			return serializedJson;
+		}
+
+		public String eTag() {
+			return eTag;
+		}
+
+		public Instant lastModified() {
+			return lastModified;
+		}
+	}
+
+	private record Version(String fullUrl, LocalDateTime createdAt, LocalDateTime lastAccessedAt,
+						   LocalDateTime expiresAt, long accessCount) {
+
+		static Version of(UrlMapping mapping) {
+			return new Version(mapping.getFullUrl(), mapping.getCreatedAt(), mapping.getLastAccessedAt(),
+				mapping.getExpiresAt(), mapping.getAccessCount());
+		}
+	}
+
+	private record Entry(Version version, CachedFullUrlResponse response, long builtAtMillis) {
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Servlet filter answering redirects before the request reaches the DispatcherServlet.
+ * <p>
+ * A {@code GET /{path}} whose path is a known short URL is answered with the redirect status and the Location and
+ * Cache-Control headers of {@link UrlRedirectApiController}, written straight to the response, skipping the handler
+ * mapping, argument resolution, {@code ResponseEntity}, {@code HttpHeaders} and {@code URI} parsing of
+ * {@link UrlRedirectApiController}. Everything else falls through to the filter chain unchanged: other endpoints,
+ * unknown short URLs, paths needing URL decoding, and any lookup failing with an exception, so the controller keeps
+ * producing the same 404 and error responses.
+ * The Location value is the one prepared when the mapping was saved, so no URL is parsed here either.
+ * </p>
+ * <p>
+ * Runs after the filters registered by Spring Boot, so redirects are still observed by the HTTP server metrics.
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "url.shortener", name = "redirect-fast-path", havingValue = "true", matchIfMissing = true)
+@AllArgsConstructor
+public class RedirectFastPathFilter implements Filter {
+
+	private final UrlMappingRepository urlMappingRepository;
+	private final AccessEventPipeline accessEventPipeline;
+	private final HttpCachePolicy httpCachePolicy;
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		if (request instanceof HttpServletRequest httpRequest
+			&& response instanceof HttpServletResponse httpResponse
+			&& "GET".equals(httpRequest.getMethod())
+			&& tryRedirect(httpRequest, httpResponse)) {
+			return;
+		}
+		chain.doFilter(request, response);
+	}
+
+	private boolean tryRedirect(HttpServletRequest request, HttpServletResponse response) {
+		String path = toShortUrlPath(request);
+		if (path == null) {
+			return false;
+		}
+
+		int status;
+		String location;
+		String cacheControl;
+		try {
+			Optional<UrlMapping> mapping = urlMappingRepository.findByShortUrlPath(path);
+			if (mapping.isEmpty()) {
+				return false;
+			}
+			status = httpCachePolicy.redirectStatus(mapping.get());
+			location = mapping.get().getLocation();
+			cacheControl = httpCachePolicy.redirectCacheControl(mapping.get());
+		} catch (RuntimeException e) {
+			log.debug("Redirect fast path failed for {}, falling through", path, e);
+			return false;
+		}
+
+		accessEventPipeline.publish(path);
+		response.setStatus(status);
+		response.setHeader("Location", location);
+		response.setHeader("Cache-Control", cacheControl);
+		return true;
+	}
+
+	/**
+	 * @return The single, undecoded path segment of the request, or null if the request is not a possible redirect
+	 */
+	private static String toShortUrlPath(HttpServletRequest request) {
+		String uri = request.getRequestURI();
+		int start = request.getContextPath().length() + 1;
+		if (uri.length() <= start || uri.charAt(start - 1) != '/') {
+			return null;
+		}
+		for (int i = start; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			if (c == '/' || c == '%' || c == ';') {
+				return null;
+			}
+		}
+		return uri.substring(start);
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingChangeSource;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingChangeSource;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * REST controller serving the internal replication endpoints called by the {@link RemoteUrlMappingChangeSource}s of
+ * the followers, if {@code url.shortener.replication.role} is "leader".
+ * <p>
+ * They are meant for the followers only and must not be exposed beyond them; {@link InternalApiSecretFilter} rejects
+ * the calls without the secret shared by the instances.
+ * </p>
+ */
+@RestController
+@RequestMapping(RemoteUrlMappingChangeSource.BASE_PATH)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "url.shortener.replication", name = "role", havingValue = "leader")
+public class ReplicationApiController {
+
+	private final UrlMappingChangeSource changeSource;
+
+	public ReplicationApiController(@Qualifier("localUrlMappingRepository") UrlMappingRepository localUrlMappingRepository) {
+		if (!(localUrlMappingRepository instanceof UrlMappingChangeSource changes)) {
+			throw new IllegalStateException("The changes of the URL mappings of this instance are not logged");
+		}
+		this.changeSource = changes;
+	}
+
+	/**
+	 * @param after The sequence of the last change applied by the follower, 0 for none
+	 * @param limit Maximum number of changes to return
+	 * @return The changes following the sequence, or HTTP 410 (Gone) if they are no longer retained, for the follower
+	 *         to copy all mappings from a snapshot
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<UrlMappingChangeSource.Batch> getChanges(@RequestParam long after, @RequestParam int limit) {
+		return changeSource.changesAfter(after, limit)
+			.map(ResponseEntity::ok)
+			.orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+	}
+
+	/**
+	 * Writes a snapshot of all mappings to a temporary file, deleted once sent.
+	 *
+	 * @return The snapshot, with its position in the log in the response headers
+	 */
+	@GetMapping("/snapshot")
+	public ResponseEntity<StreamingResponseBody> getSnapshot() throws IOException {
+		Path file = Files.createTempFile("url-mappings", ".snapshot");
+		UrlMappingChangeSource.Position position;
+		long size;
+		try {
+			position = changeSource.snapshot(file);
+			size = Files.size(file);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_OCTET_STREAM)
+			.contentLength(size)
+			.header(RemoteUrlMappingChangeSource.LOG_ID_HEADER, position.logId())
+			.header(RemoteUrlMappingChangeSource.SEQUENCE_HEADER, Long.toString(position.sequence()))
+			.body(outputStream -> {
+				try {
+					Files.copy(file, outputStream);
+				} finally {
+					Files.deleteIfExists(file);
+				}
+			});
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+/**
+ * Response body whose JSON representation has already been serialized, written as is by
+ * {@link SerializedJsonHttpMessageConverter} instead of being serialized again on every response.
+ */
+public interface SerializedJsonBody {
+
+	/**
+	 * @return The UTF-8 encoded JSON representation of this body; callers must not modify it
+	 */
+	byte[] serializedJson();
+}
@@ -0,0 +1,55 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link SerializedJsonBody} responses by copying their serialized JSON.
+ * <p>
+ * Registered ahead of the Jackson converter by Spring Boot, as are all HttpMessageConverter beans.
+ * It is write-only: {@link #canRead} rejects every type, so request bodies are left to the other converters.
+ * </p>
+ */
+@Component
+public class SerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<SerializedJsonBody> {
+
+	public SerializedJsonHttpMessageConverter() {
+		super(MediaType.APPLICATION_JSON);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return SerializedJsonBody.class.isAssignableFrom(clazz);
+	}
+
+	/**
+	 * @return Always false, as serialized JSON bodies are only written
+	 */
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+
+	/**
+	 * Unreachable, since {@link #canRead} is false for every type and callers check it before reading.
+	 */
+	@Override
+	protected SerializedJsonBody readInternal(Class<? extends SerializedJsonBody> clazz, HttpInputMessage inputMessage) {
+		throw new IllegalStateException("Serialized JSON bodies are only written");
+	}
+
+	@Override
+	protected Long getContentLength(SerializedJsonBody body, MediaType contentType) {
+		return (long) body.serializedJson().length;
+	}
+
+	@Override
+	protected void writeInternal(SerializedJsonBody body, HttpOutputMessage outputMessage) throws IOException {
+		outputMessage.getBody().write(body.serializedJson());
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.AccessIncrement;
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.ShardMembershipService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
+
+/**
+ * REST controller serving the internal shard endpoints called by the {@link RemoteUrlMappingRepository}s of the peer
+ * instances, if {@code url.shortener.sharding.self} is set, or of the followers of a replication leader.
+ * <p>
+ * The mapping endpoints work on the repository of this instance and never forward a call to another instance; the
+ * member endpoints on the membership of instances in the shards. They are meant for the peers and followers only and
+ * must not be exposed beyond them.
+ * </p>
+ */
+@RestController
+@RequestMapping(RemoteUrlMappingRepository.BASE_PATH)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnExpression("!'${url.shortener.sharding.self:}'.isBlank() or '${url.shortener.replication.role:none}'.equalsIgnoreCase('leader')")
+public class ShardApiController {
+
+	private final UrlMappingRepository localUrlMappingRepository;
+	private final ShardMembershipService shardMembershipService;
+
+	public ShardApiController(@Qualifier("localUrlMappingRepository") UrlMappingRepository localUrlMappingRepository,
+							  ShardMembershipService shardMembershipService) {
+		this.localUrlMappingRepository = localUrlMappingRepository;
+		this.shardMembershipService = shardMembershipService;
+	}
+
+	@GetMapping("/mappings/{shortUrlPath}")
+	public ResponseEntity<UrlMapping> getMapping(@PathVariable String shortUrlPath) {
+		return ResponseEntity.of(localUrlMappingRepository.findByShortUrlPath(shortUrlPath));
+	}
+
+	@GetMapping(value = "/mappings", params = "fullUrl")
+	public ResponseEntity<UrlMapping> getMappingByFullUrl(@RequestParam String fullUrl) {
+		return ResponseEntity.of(localUrlMappingRepository.findByFullUrl(fullUrl));
+	}
+
+	@PostMapping("/mappings/lookup")
+	public Map<String, UrlMapping> getMappings(@RequestBody List<String> shortUrlPaths) {
+		return localUrlMappingRepository.findAllByShortUrlPaths(shortUrlPaths);
+	}
+
+	@PutMapping("/mappings")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void saveMappings(@RequestBody List<UrlMapping> mappings) {
+		localUrlMappingRepository.saveAll(mappings);
+	}
+
+	/**
+	 * Finds the mappings of the full URLs of the candidates, or stores the candidates of those without one.
+	 *
+	 * @param candidates New mappings generated by the peer, one per full URL
+	 * @return The existing or stored mappings, by full URL, or HTTP 409 (Conflict) if the short URL path of a
+	 *         candidate is taken, for the peer to try new candidates; the other candidates may have been stored
+	 */
+	@PostMapping("/mappings/find-or-create")
+	public ResponseEntity<Map<String, UrlMapping>> findOrCreateMappings(@RequestBody List<UrlMapping> candidates) {
+		Map<String, UrlMapping> candidatesByFullUrl = LinkedHashMap.newLinkedHashMap(candidates.size());
+		for (UrlMapping candidate : candidates) {
+			candidatesByFullUrl.put(candidate.getFullUrl(), candidate);
+		}
+		try {
+			return ResponseEntity.ok(localUrlMappingRepository.findOrCreateAllByFullUrls(new ArrayList<>(candidatesByFullUrl.keySet()),
+				fullUrl -> {
+					// Asked again for the same full URL once the short URL path of its candidate turned out to be taken
+					UrlMapping candidate = candidatesByFullUrl.remove(fullUrl);
+					if (candidate == null) {
+						throw new ShortUrlPathTakenException();
+					}
+					return candidate;
+				}));
+		} catch (ShortUrlPathTakenException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+	}
+
+	@DeleteMapping("/mappings/{shortUrlPath}")
+	public ResponseEntity<Void> deleteMapping(@PathVariable String shortUrlPath) {
+		return localUrlMappingRepository.deleteByShortUrlPath(shortUrlPath)
+			? ResponseEntity.noContent().build()
+			: ResponseEntity.notFound().build();
+	}
+
+	@PostMapping("/access-counts")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void incrementAccessCounts(@RequestBody List<AccessIncrement> increments) {
+		localUrlMappingRepository.incrementAccessCounts(increments);
+	}
+
+	@GetMapping("/count")
+	public long count() {
+		return localUrlMappingRepository.count();
+	}
+
+	@GetMapping("/members")
+	public Set<String> getMembers() {
+		return shardMembershipService.members();
+	}
+
+	@PostMapping(value = "/members", consumes = TEXT_PLAIN_VALUE)
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void addMember(@RequestBody String name) {
+		shardMembershipService.join(name);
+	}
+
+	@DeleteMapping(value = "/members", params = "name")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public void removeMember(@RequestParam String name) {
+		shardMembershipService.leave(name);
+	}
+
+	private static class ShortUrlPathTakenException extends RuntimeException {
+
+		ShortUrlPathTakenException() {
+			super(null, null, false, false);
+		}
+	}
+}
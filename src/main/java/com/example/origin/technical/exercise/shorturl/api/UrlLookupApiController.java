@@ -2,12 +2,29 @@ package com.example.origin.technical.exercise.shorturl.api;
 
 import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
-import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessStatisticsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.origin.technical.exercise.shorturl.api.BulkJsonStream.NDJSON;
+import static com.example.origin.technical.exercise.shorturl.api.BulkJsonStream.badRequest;
+import static com.example.origin.technical.exercise.shorturl.api.BulkJsonStream.error;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 /**
  * REST controller responsible for URL lookup operations.
@@ -15,14 +32,20 @@ import java.net.URI;
  * This controller provides an endpoint for retrieving the full URL and associated
  * metadata from a shortened URL. It extracts the short URL path, looks up the
  * corresponding mapping, and returns detailed information including access statistics
- * and expiration data.
+ * and expiration data. A second endpoint looks up many short URLs at once.
  * </p>
  */
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor
 public class UrlLookupApiController implements UrlLookupApi {
 
-	private final InMemoryUrlMappingRepository inMemoryUrlMappingRepository;
+	static final int LOOKUP_BATCH_SIZE = 1000;
+
+	private final UrlMappingRepository urlMappingRepository;
+	private final AccessStatisticsService accessStatisticsService;
+	private final LookupResponseCache lookupResponseCache;
+	private final JsonMapper jsonMapper;
 
 	/**
 	 * Retrieves the full URL and metadata for a given short URL.
@@ -36,15 +59,108 @@ public class UrlLookupApiController implements UrlLookupApi {
 	 * </p>
 	 * <p>
 	 * The response includes the full URL, creation timestamp, last access timestamp,
-	 * expiration timestamp, and total access count.
+	 * expiration timestamp, and total access count. It carries the ETag and Last-Modified
+	 * validators of the {@link HttpCachePolicy}, so Spring MVC answers a conditional request
+	 * whose details did not change with HTTP 304 (Not Modified).
+	 * </p>
+	 * <p>
+	 * The response is served from the {@link LookupResponseCache}, already serialized, as long as
+	 * the mapping is unchanged and its statistics are not stale.
 	 * </p>
 	 */
 	@Override
 	public ResponseEntity<GetFullUrlResponse> _getFullUrl(String shortUrl) {
-		var mappingOpt = inMemoryUrlMappingRepository.findByShortUrlPath(toShortPath(shortUrl));
+		String shortPath = toShortPath(shortUrl);
+		var mappingOpt = urlMappingRepository.findByShortUrlPath(shortPath);
 		return mappingOpt
-			.map(mapping -> ResponseEntity.ok(toResponse(mapping)))
-			.orElseGet(() -> ResponseEntity.notFound().build());
+			.map(mapping -> {
+				LookupResponseCache.CachedFullUrlResponse details = lookupResponseCache.get(mapping, this::toResponse);
+				ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+					.cacheControl(CacheControl.noCache())
+					.eTag(details.eTag());
+				if (details.lastModified() != null) {
+					response.lastModified(details.lastModified());
+				}
+				return response.<GetFullUrlResponse>body(details);
+			})
+			.orElseGet(() -> {
+				lookupResponseCache.invalidate(shortPath);
+				return ResponseEntity.notFound().build();
+			});
+	}
+
+	/**
+	 * Retrieves the full URL and metadata of many short URLs, sent either as newline-delimited JSON strings
+	 * or as a JSON array of strings.
+	 * <p>
+	 * Each string is a short URL or just its short URL path; a path is used as is, without parsing any URL.
+	 * The short URLs are resolved in batches of {@value #LOOKUP_BATCH_SIZE} as described in {@link BulkJsonStream},
+	 * with a single {@link UrlMappingRepository#findAllByShortUrlPaths} per batch, and one result per short URL
+	 * is written back in the same order: the {@link GetFullUrlResponse} of a short URL found, or an
+	 * {@link com.example.origin.technical.exercise.shorturl.model.ErrorResponse} reporting a miss or an invalid
+	 * short URL inline.
+	 * </p>
+	 *
+	 * @param request the request whose body holds the short URLs to look up
+	 * @param response the response the results are written to
+	 * @throws IOException if reading the request or writing the response fails
+	 */
+	@PostMapping(value = "/api/v1/url/full/batch", consumes = {NDJSON, APPLICATION_JSON_VALUE}, produces = {NDJSON, APPLICATION_JSON_VALUE})
+	public void _getFullUrls(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		new BulkJsonStream(jsonMapper, LOOKUP_BATCH_SIZE)
+			.process(request, response, UrlLookupApiController::toShortPath, this::resolveBatch);
+	}
+
+	/**
+	 * @param batch Short URL paths, mixed with the error responses of elements that are not short URLs
+	 * @return The result of every entry of the batch, in the same order
+	 */
+	private List<Object> resolveBatch(List<Object> batch) {
+		List<String> shortPaths = new ArrayList<>(batch.size());
+		for (Object entry : batch) {
+			if (entry instanceof String shortPath) {
+				shortPaths.add(shortPath);
+			}
+		}
+
+		Map<String, UrlMapping> mappings;
+		try {
+			mappings = shortPaths.isEmpty() ? Map.of() : urlMappingRepository.findAllByShortUrlPaths(shortPaths);
+		} catch (RuntimeException e) {
+			Object failure = error("Internal Server Error", e.getMessage(), List.of());
+			return batch.stream().map(entry -> entry instanceof String ? failure : entry).toList();
+		}
+
+		List<Object> results = new ArrayList<>(batch.size());
+		for (Object entry : batch) {
+			if (entry instanceof String shortPath) {
+				UrlMapping mapping = mappings.get(shortPath);
+				results.add(mapping != null
+					? toResponse(mapping)
+					: error("Not Found", "The provided short URL does not exist", List.of()));
+			} else {
+				results.add(entry);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @return The short URL path of the element, or the error response explaining why it is not a short URL
+	 */
+	private static Object toShortPath(JsonNode element) {
+		if (!element.isString()) {
+			return badRequest("Short URL is not a JSON string", List.of());
+		}
+		String shortUrl = element.asString();
+		if (shortUrl.indexOf('/') < 0) {
+			return shortUrl;
+		}
+		try {
+			return toShortPath(shortUrl);
+		} catch (IllegalArgumentException e) {
+			return badRequest(e.getMessage(), List.of());
+		}
 	}
 
 	private static String toShortPath(String shortUrl) {
@@ -52,12 +168,12 @@ public class UrlLookupApiController implements UrlLookupApi {
 		return path.startsWith("/") ? path.substring(1) : path;
 	}
 
-	private static GetFullUrlResponse toResponse(UrlMapping mapping) {
+	private GetFullUrlResponse toResponse(UrlMapping mapping) {
 		return new GetFullUrlResponse()
-			.fullUrl(URI.create(mapping.getFullUrl()))
+			.fullUrl(mapping.getFullUrl())
 			.createdAt(mapping.getCreatedAt())
-			.lastAccessedAt(mapping.getLastAccessedAt())
+			.lastAccessedAt(accessStatisticsService.getLastAccessedAt(mapping))
 			.expiresAt(mapping.getExpiresAt())
-			.accessCount(mapping.getAccessCount());
+			.accessCount(accessStatisticsService.getAccessCount(mapping));
 	}
 }
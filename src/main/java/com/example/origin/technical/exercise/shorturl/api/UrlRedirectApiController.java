@@ -1,14 +1,15 @@
 package com.example.origin.technical.exercise.shorturl.api;
 
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
-import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 
-import java.net.URI;
 import java.util.Optional;
 
 /**
@@ -16,15 +17,19 @@ import java.util.Optional;
  * <p>
  * This controller provides an endpoint for redirecting short URL paths to their
  * corresponding full URLs. When a short URL is accessed, this controller looks up
- * the mapping, increments the access counter, and returns an HTTP 302 (Found)
- * redirect response to the original full URL.
+ * the mapping, publishes an access event, and returns an HTTP 302 (Found)
+ * redirect response to the original full URL, or another redirect status and
+ * caching as decided by the {@link HttpCachePolicy}.
  * </p>
  */
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor
 public class UrlRedirectApiController implements UrlRedirectApi {
 
-	private final InMemoryUrlMappingRepository inMemoryUrlMappingRepository;
+	private final UrlMappingRepository urlMappingRepository;
+	private final AccessEventPipeline accessEventPipeline;
+	private final HttpCachePolicy httpCachePolicy;
 
 	/**
 	 * Redirects a short URL path to its corresponding full URL.
@@ -33,33 +38,36 @@ public class UrlRedirectApiController implements UrlRedirectApi {
 	 * <ul>
 	 *   <li>Looks up the URL mapping by the short URL path</li>
 	 *   <li>Returns HTTP 404 (Not Found) if the mapping doesn't exist</li>
-	 *   <li>Increments the access counter for the mapping</li>
+	 *   <li>Publishes the access to the {@link AccessEventPipeline}</li>
 	 *   <li>Returns HTTP 302 (Found) redirect response with the Location header
-	 *       set to the full URL</li>
+	 *       set to the full URL, unless another redirect status is configured,
+	 *       and a Cache-Control header allowing or preventing caching</li>
 	 * </ul>
 	 * </p>
 	 * <p>
-	 * The access count is incremented before the redirect to track how many times
-	 * each shortened URL has been accessed.
+	 * The access is published before the redirect to track how many times
+	 * each shortened URL has been accessed. It is recorded asynchronously,
+	 * so the redirect never waits for the statistics to be updated.
 	 * </p>
 	 */
 	@Override
 	public ResponseEntity<Void> _redirectToFullUrl(String path) {
-		Optional<UrlMapping> byShortUrl = inMemoryUrlMappingRepository.findByShortUrlPath(path);
+		Optional<UrlMapping> byShortUrl = urlMappingRepository.findByShortUrlPath(path);
 
 		if (byShortUrl.isEmpty()) {
 			return ResponseEntity.notFound().build();
 		}
 
 		UrlMapping urlMapping = byShortUrl.get();
-		urlMapping.incrementAccessCount();
+		accessEventPipeline.publish(path);
 
 		// Create HttpHeaders to set the Location header
 		HttpHeaders headers = new HttpHeaders();
-		// Set the Location header with the full URL
-		headers.setLocation(URI.create(urlMapping.getFullUrl()));
+		// Set the Location header with the full URL, validated and encoded when the mapping was saved
+		headers.set(HttpHeaders.LOCATION, urlMapping.getLocation());
+		headers.set(HttpHeaders.CACHE_CONTROL, httpCachePolicy.redirectCacheControl(urlMapping));
 
-		// Return a ResponseEntity with the headers and a 302 Found status
-		return new ResponseEntity<>(headers, HttpStatus.FOUND);
+		// Return a ResponseEntity with the headers and a 302 Found status, or the redirect status configured
+		return new ResponseEntity<>(headers, HttpStatusCode.valueOf(httpCachePolicy.redirectStatus(urlMapping)));
 	}
 }
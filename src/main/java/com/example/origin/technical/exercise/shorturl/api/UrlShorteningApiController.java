@@ -3,16 +3,37 @@ package com.example.origin.technical.exercise.shorturl.api;
 import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
 import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlRequest;
 import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.ErrorResponse;
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
-import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
 import com.example.origin.technical.exercise.shorturl.service.UrlShortenerService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.origin.technical.exercise.shorturl.api.BulkJsonStream.NDJSON;
+import static com.example.origin.technical.exercise.shorturl.api.BulkJsonStream.badRequest;
+import static com.example.origin.technical.exercise.shorturl.api.BulkJsonStream.error;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 /**
  * REST controller responsible for handling URL shortening operations.
@@ -20,24 +41,32 @@ import java.util.Optional;
  * This controller provides an endpoint for creating shortened URLs from full URLs.
  * It checks for existing mappings to avoid duplicate short URLs for the same
  * full URL and generates new short URLs using the {@link UrlShortenerService}.
+ * A second endpoint shortens a stream of URLs in bulk.
  * </p>
  */
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor
 public class UrlShorteningApiController implements UrlShorteningApi {
 
-	private final InMemoryUrlMappingRepository inMemoryUrlMappingRepository;
+	static final int BULK_BATCH_SIZE = 1000;
+
+	private final UrlMappingRepository urlMappingRepository;
 	private final UrlShortenerService urlShortenerService;
 	private final UrlShortenerConfig urlShortenerConfig;
-
+	private final JsonMapper jsonMapper;
+	private final Validator validator;
 
 	/**
 	 * Creates a shortened URL for the provided full URL.
 	 * <p>
-	 * This method first checks if a mapping already exists for the given full URL.
-	 * If found, it returns the existing short URL to maintain idempotency.
-	 * Otherwise, it generates a new short URL path, saves the mapping, and returns
-	 * the complete short URL.
+	 * The lookup of an existing mapping and the creation of a new one happen atomically
+	 * in the repository. If a mapping for the full URL already exists, its short URL is
+	 * returned to maintain idempotency, even when the same URL is shortened concurrently.
+	 * Otherwise, a new short URL path is generated, the mapping is saved, and the
+	 * complete short URL is returned. A new mapping expires after the optional
+	 * time to live of the request, or after the default of 360 days, and keeps the
+	 * optional redirect status and cacheability of the request.
 	 * </p>
 	 *
 	 * @param createShortUrlRequest the request containing the full URL to shorten
@@ -46,21 +75,125 @@ public class UrlShorteningApiController implements UrlShorteningApi {
 	 */
 	@Override
 	public ResponseEntity<CreateShortUrlResponse> _createShortUrl(CreateShortUrlRequest createShortUrlRequest) {
-		String fullUrl = createShortUrlRequest.getUrl();
-		Optional<UrlMapping> existingMapping = inMemoryUrlMappingRepository.findByFullUrl(fullUrl);
-		if (existingMapping.isPresent()) {
-			URI shortUrl = toShortUrl(existingMapping.get().getShortUrlPath());
-			return ResponseEntity.ok(new CreateShortUrlResponse().shortUrl(shortUrl));
+		return ResponseEntity.ok(new CreateShortUrlResponse()
+			.shortUrl(toShortUrl(shorten(createShortUrlRequest).getShortUrlPath())));
+	}
+
+	/**
+	 * Creates shortened URLs for a stream of {@link CreateShortUrlRequest}s, sent either as newline-delimited JSON
+	 * or as a JSON array.
+	 * <p>
+	 * The requests are handled in batches of {@value #BULK_BATCH_SIZE} as described in {@link BulkJsonStream}:
+	 * each batch is validated, every distinct URL of the batch is shortened once, all of them with a single
+	 * repository call where possible, and one result per request
+	 * is written back in the same order, either a {@link CreateShortUrlResponse} or an {@link ErrorResponse}
+	 * for a request that could not be shortened.
+	 * </p>
+	 *
+	 * @param request the request whose body holds the requests to shorten
+	 * @param response the response the results are written to
+	 * @throws IOException if reading the request or writing the response fails
+	 */
+	@PostMapping(value = "/api/v1/url/short/bulk", consumes = {NDJSON, APPLICATION_JSON_VALUE}, produces = {NDJSON, APPLICATION_JSON_VALUE})
+	public void _createShortUrls(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		new BulkJsonStream(jsonMapper, BULK_BATCH_SIZE).process(request, response, this::toRequest, this::shortenBatch);
+	}
+
+	/**
+	 * @param batch Parsed requests, mixed with the {@link ErrorResponse}s of lines that could not be parsed
+	 * @return The result of every entry of the batch, in the same order
+	 */
+	private List<Object> shortenBatch(List<Object> batch) {
+		Map<String, CreateShortUrlRequest> requestsByUrl = new LinkedHashMap<>();
+		for (Object entry : batch) {
+			if (entry instanceof CreateShortUrlRequest request) {
+				requestsByUrl.putIfAbsent(request.getUrl(), request);
+			}
+		}
+		Map<String, Object> resultsByUrl = shortenAll(requestsByUrl);
+		List<Object> results = new ArrayList<>(batch.size());
+		for (Object entry : batch) {
+			results.add(entry instanceof CreateShortUrlRequest request ? resultsByUrl.get(request.getUrl()) : entry);
 		}
+		return results;
+	}
 
-		var urlMapping = UrlMapping.builder()
+	/**
+	 * Shortens the distinct URLs of a batch with a single repository call, falling back to one call per URL if it
+	 * fails, so a single invalid URL is reported on its own line.
+	 */
+	private Map<String, Object> shortenAll(Map<String, CreateShortUrlRequest> requestsByUrl) {
+		Map<String, Object> results = HashMap.newHashMap(requestsByUrl.size());
+		if (requestsByUrl.isEmpty()) {
+			return results;
+		}
+		try {
+			urlMappingRepository.findOrCreateAllByFullUrls(requestsByUrl.keySet(),
+					fullUrl -> newMapping(requestsByUrl.get(fullUrl), fullUrl, urlShortenerService.generateShortUrlPath()))
+				.forEach((url, mapping) -> results.put(url, new CreateShortUrlResponse().shortUrl(toShortUrl(mapping.getShortUrlPath()))));
+		} catch (RuntimeException e) {
+			requestsByUrl.forEach((url, request) -> results.put(url, shortenQuietly(request)));
+		}
+		return results;
+	}
+
+	private Object shortenQuietly(CreateShortUrlRequest request) {
+		try {
+			return new CreateShortUrlResponse().shortUrl(toShortUrl(shorten(request).getShortUrlPath()));
+		} catch (IllegalArgumentException e) {
+			return badRequest(e.getMessage(), List.of());
+		} catch (RuntimeException e) {
+			return error("Internal Server Error", e.getMessage(), List.of());
+		}
+	}
+
+	/**
+	 * @return The request of the element, if valid, or the {@link ErrorResponse} explaining why it is not one
+	 */
+	private Object toRequest(JsonNode element) {
+		CreateShortUrlRequest request;
+		try {
+			request = element.isObject() ? jsonMapper.treeToValue(element, CreateShortUrlRequest.class) : null;
+		} catch (JacksonException e) {
+			return badRequest("Malformed request", List.of(e.getOriginalMessage()));
+		}
+		if (request == null) {
+			return badRequest("Request is not a JSON object", List.of());
+		}
+		Set<ConstraintViolation<CreateShortUrlRequest>> violations = validator.validate(request);
+		if (!violations.isEmpty()) {
+			return badRequest("Validation failed", violations.stream()
+				.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+				.sorted()
+				.toList());
+		}
+		return request;
+	}
+
+	private UrlMapping shorten(CreateShortUrlRequest createShortUrlRequest) {
+		return urlMappingRepository.findOrCreateByFullUrl(
+			createShortUrlRequest.getUrl(),
+			fullUrl -> newMapping(createShortUrlRequest, fullUrl, urlShortenerService.generateShortUrlPath()));
+	}
+
+	/**
+	 * @return A new mapping of the full URL to the short URL path, expiring after the optional time to live of the
+	 *         request, or after the default of 360 days, and keeping the optional redirect status and cacheability
+	 *         of the request
+	 */
+	public static UrlMapping newMapping(CreateShortUrlRequest createShortUrlRequest, String fullUrl, String shortUrlPath) {
+		UrlMapping mapping = UrlMapping.builder()
 			.fullUrl(fullUrl)
-			.shortUrlPath(urlShortenerService.generateShortUrlPath())
+			.shortUrlPath(shortUrlPath)
 			.build();
-		UrlMapping savedMapping = inMemoryUrlMappingRepository.save(urlMapping);
-
-		return ResponseEntity.ok(new CreateShortUrlResponse()
-			.shortUrl(toShortUrl(savedMapping.getShortUrlPath())));
+		if (createShortUrlRequest.getTtlSeconds() != null) {
+			mapping.setExpiresAt(mapping.getCreatedAt().plusSeconds(createShortUrlRequest.getTtlSeconds()));
+		}
+		if (createShortUrlRequest.getRedirectStatus() != null) {
+			mapping.setRedirectStatus(createShortUrlRequest.getRedirectStatus().getValue());
+		}
+		mapping.setCacheable(createShortUrlRequest.getCacheable());
+		return mapping;
 	}
 
 	private @NonNull URI toShortUrl(String shortUrlPath) {
@@ -0,0 +1,49 @@
+package com.example.origin.technical.exercise.shorturl.config;
+
+import org.springframework.boot.EnvironmentPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Excludes the auto-configured DataSource unless {@code url.shortener.repository} is "jdbc", so the other storage
+ * backends neither start a connection pool to an embedded database nor report its health.
+ * <p>
+ * Without a DataSource, the JDBC template, transaction manager, health indicator and pool metrics are not
+ * auto-configured either. Exclusions configured in {@code spring.autoconfigure.exclude} are kept.
+ * </p>
+ */
+public class DataSourceExclusionEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String DATA_SOURCE_AUTO_CONFIGURATION = "org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration";
+    private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if ("jdbc".equals(environment.getProperty("url.shortener.repository"))) {
+            return;
+        }
+        List<String> excluded = new ArrayList<>(Binder.get(environment)
+            .bind(EXCLUDE_PROPERTY, Bindable.listOf(String.class))
+            .orElse(List.of()));
+        excluded.add(DATA_SOURCE_AUTO_CONFIGURATION);
+        environment.getPropertySources().addFirst(new MapPropertySource("urlShortenerDataSourceExclusion",
+            Map.of(EXCLUDE_PROPERTY, String.join(",", excluded))));
+    }
+
+    /**
+     * @return Runs once the application properties are loaded
+     */
+    @Override
+    public int getOrder() {
+        return ConfigDataEnvironmentPostProcessor.ORDER + 1;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.origin.technical.exercise.shorturl.config;
+
+import com.example.origin.technical.exercise.shorturl.repository.BloomFilterUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.CachingUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.ChangeLogUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.ExpiringUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.FollowerUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.IterableUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.OffHeapUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.ShardedUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessStatisticsService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Composes the UrlMappingRepository used by the application.
+ * <p>
+ * The storage backend selected by {@code url.shortener.repository}, optionally split into partitions, is wrapped by
+ * the decorators adding behavior common to all backends: the optional cache of frequently accessed mappings, the
+ * optional filter rejecting lookups of short URLs that were never stored, whose statistics are both published as
+ * metrics, and the expiration of mappings. On a replication leader, the changes of the mappings are logged on top.
+ * This is the local repository of the instance. If {@code url.shortener.sharding.self} is set, the primary bean,
+ * which is what gets injected, shards the mappings over the local repository and those of the peer instances; on a
+ * replication follower, it forwards writes to the leader; otherwise it is the local repository itself.
+ * </p>
+ */
+@Configuration
+public class UrlMappingRepositoryConfig {
+
+    /**
+     * @return The repository of the mappings held by this instance, only injected where qualified by its name
+     */
+    @Bean(defaultCandidate = false)
+    public IterableUrlMappingRepository localUrlMappingRepository(@Qualifier("storage") IterableUrlMappingRepository storage,
+                                                                  UrlShortenerConfig urlShortenerConfig,
+                                                                  AccessStatisticsService accessStatisticsService,
+                                                                  MeterRegistry meterRegistry) {
+        IterableUrlMappingRepository repository = partitioned(storage, urlShortenerConfig.getSharding());
+        if (urlShortenerConfig.getCache().getMaxBytes() > 0) {
+            CachingUrlMappingRepository cache = new CachingUrlMappingRepository(repository, urlShortenerConfig.getCache().getMaxBytes());
+            registerCacheMetrics(cache, meterRegistry);
+            repository = cache;
+        }
+        UrlShortenerConfig.NegativeLookupFilter filterConfig = urlShortenerConfig.getNegativeLookupFilter();
+        if (filterConfig.isEnabled()) {
+            BloomFilterUrlMappingRepository filter = new BloomFilterUrlMappingRepository(repository,
+                filterConfig.getExpectedEntries(), filterConfig.getFalsePositiveRate());
+            registerFilterMetrics(filter, meterRegistry);
+            repository = filter;
+        }
+        repository = new ExpiringUrlMappingRepository(repository, urlShortenerConfig.getExpiration().getTickMillis(),
+            Clock.systemDefaultZone(), accessStatisticsService::remove);
+        if (urlShortenerConfig.getReplication().getRole() == UrlShortenerConfig.Replication.Role.LEADER) {
+            // Followers expire the mappings on their own, so only the changes above the expiration are logged
+            ChangeLogUrlMappingRepository changeLog = new ChangeLogUrlMappingRepository(repository,
+                urlShortenerConfig.getReplication().getChangeLogCapacity(), urlShortenerConfig.getSnapshot().getSections());
+            Gauge.builder("shorturl.replication.sequence", changeLog, changes -> changes.lastPosition().sequence())
+                .description("Sequence of the last change of the URL mappings logged for the followers")
+                .register(meterRegistry);
+            repository = changeLog;
+        }
+        return repository;
+    }
+
+    @Bean
+    @Primary
+    public UrlMappingRepository urlMappingRepository(@Qualifier("localUrlMappingRepository") IterableUrlMappingRepository local,
+                                                     UrlShortenerConfig urlShortenerConfig) {
+        UrlShortenerConfig.Sharding sharding = urlShortenerConfig.getSharding();
+        UrlShortenerConfig.Replication replication = urlShortenerConfig.getReplication();
+        boolean sharded = sharding.getSelf() != null && !sharding.getSelf().isBlank();
+        if (sharded && replication.getRole() != UrlShortenerConfig.Replication.Role.NONE) {
+            throw new IllegalStateException("Replication cannot be combined with sharding over instances");
+        }
+        // The short URL paths generated by a peer route to this instance, but rarely to the partition of their full URL
+        if (sharded && sharding.getPartitions() > 1) {
+            throw new IllegalStateException("Partitions cannot be combined with sharding over instances");
+        }
+        String secret = urlShortenerConfig.getInternalSecret();
+        if ((sharded || replication.getRole() == UrlShortenerConfig.Replication.Role.FOLLOWER) && (secret == null || secret.isBlank())) {
+            throw new IllegalStateException("The secret shared by the instances, url.shortener.internal-secret, is not set");
+        }
+        if (replication.getRole() == UrlShortenerConfig.Replication.Role.FOLLOWER) {
+            if (replication.getLeader() == null || replication.getLeader().isBlank()) {
+                throw new IllegalStateException("The leader of the follower is not set");
+            }
+            return new FollowerUrlMappingRepository(local,
+                new RemoteUrlMappingRepository(replication.getLeader(), secret, Duration.ofMillis(replication.getLeaderTimeoutMillis())));
+        }
+        if (!sharded) {
+            return local;
+        }
+        // The cache, filter and expiration stay below the sharding: each only holds true for the mappings of this instance
+        Duration peerTimeout = Duration.ofMillis(sharding.getPeerTimeoutMillis());
+        return new ShardedUrlMappingRepository(sharding.getSelf(), local, sharding.getPeers(),
+            peer -> new RemoteUrlMappingRepository(peer, secret, peerTimeout), sharding.getVirtualNodes());
+    }
+
+    /**
+     * Splits the in-memory and off-heap backends into partitions, the backend itself being the first one, so writes
+     * to different partitions do not contend for the same locks.
+     */
+    private static IterableUrlMappingRepository partitioned(IterableUrlMappingRepository storage, UrlShortenerConfig.Sharding sharding) {
+        if (sharding.getPartitions() <= 1) {
+            return storage;
+        }
+        Supplier<IterableUrlMappingRepository> partitionFactory = switch (storage) {
+            case InMemoryUrlMappingRepository ignored -> InMemoryUrlMappingRepository::new;
+            case OffHeapUrlMappingRepository ignored -> OffHeapUrlMappingRepository::new;
+            default -> throw new IllegalStateException("Only the in-memory and off-heap storage backends can be partitioned");
+        };
+        Map<String, IterableUrlMappingRepository> partitions = new LinkedHashMap<>();
+        partitions.put("partition-0", storage);
+        for (int i = 1; i < sharding.getPartitions(); i++) {
+            partitions.put("partition-" + i, partitionFactory.get());
+        }
+        return new ShardedUrlMappingRepository(partitions, sharding.getVirtualNodes());
+    }
+
+    private static void registerCacheMetrics(CachingUrlMappingRepository cache, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("shorturl.repository.cache.requests", cache, repository -> repository.stats().hitCount())
+            .description("Lookups of a short URL answered from the cache or forwarded to the storage backend")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("shorturl.repository.cache.requests", cache, repository -> repository.stats().missCount())
+            .description("Lookups of a short URL answered from the cache or forwarded to the storage backend")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("shorturl.repository.cache.evictions", cache, repository -> repository.stats().evictionCount())
+            .description("Mappings evicted from the cache, or not admitted, to stay within its size")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.repository.cache.hit.ratio", cache, repository -> repository.stats().hitRatio())
+            .description("Share of the lookups of a short URL answered from the cache")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.repository.cache.size", cache, repository -> repository.stats().weightedSizeBytes())
+            .description("Estimated size of the cached mappings")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    private static void registerFilterMetrics(BloomFilterUrlMappingRepository filter, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("shorturl.repository.filter.rejections", filter, repository -> repository.stats().rejectedCount())
+            .description("Lookups of a short URL answered as missing by the filter without reaching the storage backend")
+            .register(meterRegistry);
+        FunctionCounter.builder("shorturl.repository.filter.false.positives", filter, repository -> repository.stats().falsePositiveCount())
+            .description("Lookups of a missing short URL let through by the filter")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.repository.filter.false.positive.ratio", filter, repository -> repository.stats().falsePositiveRatio())
+            .description("Share of the lookups of missing short URLs let through by the filter")
+            .register(meterRegistry);
+        FunctionCounter.builder("shorturl.repository.filter.rebuilds", filter, repository -> repository.stats().rebuildCount())
+            .description("Times the filter was rebuilt from the storage backend")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.repository.filter.size", filter, repository -> repository.stats().sizeBytes())
+            .description("Size of the filter")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+}
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for URL shortener service.
  * Can be customized via application.properties
@@ -22,4 +25,383 @@ public class UrlShortenerConfig {
      * Length of generated short URL
      */
     private int shortUrlLength;
+
+    /**
+     * Short URL path generator: "hash" (default) hashes random input, "permutation" maps a counter through a keyed
+     * bijection of the Base62 code space, using shortUrlLength characters
+     */
+    private String generator = "hash";
+
+    /**
+     * Settings of the identifier blocks leased by the "permutation" generator
+     */
+    private Leases leases = new Leases();
+
+    /**
+     * Whether redirects are answered by a servlet filter ahead of the DispatcherServlet, falling back to the
+     * controller for unknown short URLs and errors
+     */
+    private boolean redirectFastPath = true;
+
+    /**
+     * HTTP caching of redirects, for the short URLs not configuring it themselves
+     */
+    private HttpCache httpCache = new HttpCache();
+
+    /**
+     * Settings of the cache of serialized lookup responses
+     */
+    private LookupCache lookupCache = new LookupCache();
+
+    /**
+     * Storage backend for URL mappings: "in-memory" (default), "off-heap", "mapped-log" or "jdbc", the latter using
+     * the {@code spring.datasource} settings
+     */
+    private String repository = "in-memory";
+
+    /**
+     * Settings of the cache of frequently accessed mappings in front of the storage backend
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Settings of the filter answering lookups of short URLs that were never stored
+     */
+    private NegativeLookupFilter negativeLookupFilter = new NegativeLookupFilter();
+
+    /**
+     * Settings of the "mapped-log" storage backend
+     */
+    private Log log = new Log();
+
+    /**
+     * Settings of the "jdbc" storage backend
+     */
+    private Jdbc jdbc = new Jdbc();
+
+    /**
+     * Settings of the asynchronous pipeline recording accesses to short URLs
+     */
+    private AccessEvents accessEvents = new AccessEvents();
+
+    /**
+     * Settings of the write-behind of the recorded access statistics into the storage backend
+     */
+    private AccessCounts accessCounts = new AccessCounts();
+
+    /**
+     * Settings of the removal of expired URL mappings
+     */
+    private Expiration expiration = new Expiration();
+
+    /**
+     * Settings of the snapshots of the URL mappings restored on startup
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Settings of the sharding of the URL mappings over local partitions or instances
+     */
+    private Sharding sharding = new Sharding();
+
+    /**
+     * Settings of the replication of the URL mappings from a leader instance to followers
+     */
+    private Replication replication = new Replication();
+
+    /**
+     * Secret shared by the instances sharding or replicating the URL mappings, sent in the calls to the internal
+     * endpoints of each other; calls without it are rejected
+     */
+    private String internalSecret;
+
+    @Data
+    public static class HttpCache {
+
+        /**
+         * HTTP status of redirects: 301 or 308 for permanent redirects, 302 or 307 for temporary ones
+         */
+        private int redirectStatus = 302;
+
+        /**
+         * Whether browsers and CDNs may cache redirects; redirects answered from a cache are not counted as accesses
+         */
+        private boolean cacheable = false;
+
+        /**
+         * Maximum time in seconds a cacheable redirect may be cached, shortened to the expiration of its short URL
+         */
+        private long maxAgeSeconds = 86_400;
+    }
+
+    @Data
+    public static class LookupCache {
+
+        /**
+         * Maximum number of short URLs whose serialized lookup response is cached, 0 to disable the cache
+         */
+        private int maxEntries = 10_000;
+
+        /**
+         * Maximum age in milliseconds of the access statistics of a cached lookup response
+         */
+        private long statsStalenessMillis = 1000;
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Maximum estimated size in bytes of the cached mappings, 0 to disable the cache; worth enabling for
+         * storage backends slower than the "in-memory" one
+         */
+        private long maxBytes = 0;
+    }
+
+    @Data
+    public static class NegativeLookupFilter {
+
+        /**
+         * Whether lookups of short URLs are checked against a Bloom filter of the stored ones before reaching the
+         * storage backend
+         */
+        private boolean enabled = true;
+
+        /**
+         * Minimum number of short URLs the filter is sized for; it is resized as more are stored
+         */
+        private long expectedEntries = 1_000_000;
+
+        /**
+         * Share of lookups of missing short URLs let through to the storage backend when the filter is full
+         */
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Data
+    public static class Log {
+
+        /**
+         * Directory holding the log segments
+         */
+        private String directory = "data/log";
+
+        /**
+         * Size in bytes of each memory-mapped log segment
+         */
+        private int segmentSize = 64 * 1024 * 1024;
+
+        /**
+         * Number of appended records after which the log is forced to disk
+         */
+        private int syncBatchSize = 64;
+
+        /**
+         * Maximum time in milliseconds an appended record waits before the log is forced to disk
+         */
+        private long syncIntervalMillis = 100;
+    }
+
+    @Data
+    public static class Jdbc {
+
+        /**
+         * Number of inserts sent to the database in one JDBC batch when shortening URLs in bulk
+         */
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Leases {
+
+        /**
+         * File recording the leased identifier blocks; instances sharing it never generate the same short URL path
+         */
+        private String file = "data/short-url-path.leases";
+
+        /**
+         * Number of identifiers leased at a time by each stripe of the generator
+         */
+        private long blockSize = 10_000;
+    }
+
+    @Data
+    public static class Snapshot {
+
+        /**
+         * Whether the URL mappings are written to a snapshot periodically and on shutdown, and restored from it on
+         * startup into an empty storage backend
+         */
+        private boolean enabled = false;
+
+        /**
+         * Path of the snapshot file
+         */
+        private String file = "data/url-mappings.snapshot";
+
+        /**
+         * Interval in milliseconds at which a snapshot is written
+         */
+        private long intervalMillis = 300_000;
+
+        /**
+         * Number of sections the mappings are spread over in a snapshot, restored in parallel
+         */
+        private int sections = 64;
+
+        /**
+         * Number of threads restoring a snapshot, 0 for one per available processor
+         */
+        private int restoreThreads = 0;
+    }
+
+    @Data
+    public static class Sharding {
+
+        /**
+         * Number of partitions of the "in-memory" or "off-heap" storage backend, each with its own tables and locks
+         */
+        private int partitions = 1;
+
+        /**
+         * Base URL at which the other instances reach this one, such as "http://10.0.0.1:8080"; when set, the
+         * mappings are sharded over this instance and its peers
+         */
+        private String self;
+
+        /**
+         * Base URLs of the other instances sharing the mappings; instances announcing themselves join them
+         */
+        private List<String> peers = new ArrayList<>();
+
+        /**
+         * Number of points of each partition or instance on the consistent hash ring
+         */
+        private int virtualNodes = 128;
+
+        /**
+         * Maximum time in milliseconds to connect to a peer, and to wait for each of its responses
+         */
+        private long peerTimeoutMillis = 2000;
+
+        /**
+         * Interval in milliseconds at which this instance announces itself to its peers and moves the mappings
+         * routed to another instance to it
+         */
+        private long rebalanceIntervalMillis = 60_000;
+
+        /**
+         * Whether this instance leaves the shards on shutdown, handing its mappings over to its peers; disable for
+         * storage backends keeping the mappings across restarts
+         */
+        private boolean leaveOnShutdown = true;
+    }
+
+    @Data
+    public static class Replication {
+
+        /**
+         * Role of this instance: "none", "leader" logging the changes of its URL mappings, or "follower" applying the
+         * changes of its leader; cannot be combined with sharding over instances
+         */
+        private Role role = Role.NONE;
+
+        /**
+         * Base URL of the leader of a follower, such as "http://10.0.0.1:8080"
+         */
+        private String leader;
+
+        /**
+         * Number of latest changes retained by a leader; a follower fallen further behind copies all URL mappings again
+         */
+        private int changeLogCapacity = 100_000;
+
+        /**
+         * Interval in milliseconds at which a follower polls its leader for changes once it applied all of them
+         */
+        private long pollIntervalMillis = 100;
+
+        /**
+         * Maximum number of changes a follower fetches at once
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Maximum time in milliseconds for a follower to connect to its leader, and to wait for each of its responses
+         */
+        private long leaderTimeoutMillis = 2000;
+
+        /**
+         * Maximum time in milliseconds for a follower to wait for its leader to write a snapshot of all URL mappings
+         */
+        private long snapshotTimeoutMillis = 300_000;
+
+        public enum Role {
+            NONE,
+            LEADER,
+            FOLLOWER
+        }
+    }
+
+    @Data
+    public static class Expiration {
+
+        /**
+         * Interval in milliseconds at which expired URL mappings are swept
+         */
+        private long tickMillis = 1000;
+    }
+
+    @Data
+    public static class AccessEvents {
+
+        /**
+         * Capacity of the access event ring buffer, rounded up to a power of two
+         */
+        private int bufferSize = 65536;
+
+        /**
+         * Number of background threads aggregating access events
+         */
+        private int consumerThreads = 1;
+
+        /**
+         * Maximum number of access events aggregated before the statistics are updated
+         */
+        private int batchSize = 1024;
+
+        /**
+         * What to do with access events while the ring buffer is full
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * With the SAMPLE overflow policy, one in this many overflowing events is recorded with this weight
+         */
+        private int sampleRate = 16;
+
+        public enum OverflowPolicy {
+            DROP,
+            SAMPLE
+        }
+    }
+
+    @Data
+    public static class AccessCounts {
+
+        /**
+         * Whether the recorded access statistics are written to the storage backend, or only kept in memory
+         */
+        private boolean writeBehind = true;
+
+        /**
+         * Interval in milliseconds at which the recorded access statistics are written, the most that is lost on a crash
+         */
+        private long flushIntervalMillis = 1000;
+
+        /**
+         * Maximum number of short URLs whose access statistics are written in a single batch
+         */
+        private int batchSize = 500;
+    }
 }
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 
 /**
@@ -35,6 +36,21 @@ public class UrlMapping {
     @Builder.Default
     private long accessCount = 0;
 
+    /**
+     * Full URL validated and encoded as the ASCII value of a Location header, see {@link #prepareLocation()}
+     */
+    private String location;
+
+    /**
+     * HTTP status of the redirects to the full URL (301, 302, 307 or 308), or null for the configured default
+     */
+    private Integer redirectStatus;
+
+    /**
+     * Whether redirects to the full URL may be cached, or null for the configured default
+     */
+    private Boolean cacheable;
+
     public UrlMapping(String shortUrlPath, String fullUrl) {
         this.shortUrlPath = shortUrlPath;
         this.fullUrl = fullUrl;
@@ -44,6 +60,32 @@ public class UrlMapping {
         this.accessCount = 0;
     }
 
+    public void setFullUrl(String fullUrl) {
+        this.fullUrl = fullUrl;
+        this.location = null;
+    }
+
+    /**
+     * Validates the full URL and encodes it as a Location header value, unless already done.
+     * Repositories call this when a mapping is saved, so the redirect and lookup paths never parse URLs.
+     *
+     * @return This mapping
+     * @throws IllegalArgumentException If the full URL is not a valid URI
+     */
+    public UrlMapping prepareLocation() {
+        if (location == null) {
+            location = URI.create(fullUrl).toASCIIString();
+        }
+        return this;
+    }
+
+    /**
+     * @return The full URL as the value of a Location header, prepared now if it was not when the mapping was saved
+     */
+    public String getLocation() {
+        return prepareLocation().location;
+    }
+
     public void incrementAccessCount() {
         this.accessCount++;
         this.lastAccessedAt = LocalDateTime.now();
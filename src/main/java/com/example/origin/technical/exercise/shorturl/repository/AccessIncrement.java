@@ -0,0 +1,13 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Accesses to a short URL recorded since its access statistics were last stored.
+ *
+ * @param shortUrlPath The accessed short URL path
+ * @param count The number of accesses to add to the stored access count
+ * @param lastAccessedAt The time of the latest of these accesses
+ */
+public record AccessIncrement(String shortUrlPath, long count, LocalDateTime lastAccessedAt) {
+}
@@ -0,0 +1,105 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter of strings, which may report a string it never saw as present but never misses one it saw.
+ * <p>
+ * Each string sets its bits within a single 512-bit block, the size of a cache line, so a query touches one cache
+ * line instead of one per bit, at the cost of a slightly higher false positive rate than a classic Bloom filter of
+ * the same size. Bits are set with compare-and-set, so strings can be added and queried concurrently without locking.
+ * Strings cannot be removed.
+ * </p>
+ */
+final class BloomFilter {
+
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+    private static final int MAX_BLOCKS = 1 << 24;
+    private static final int MAX_HASHES = 16;
+
+    private final AtomicLongArray bits;
+    private final int blockMask;
+    private final int hashes;
+    private final long expectedEntries;
+
+    /**
+     * @param expectedEntries Number of strings the filter is sized for
+     * @param falsePositiveRate Share of absent strings reported as present once it holds the expected number of strings
+     */
+    BloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing: " + expectedEntries + " entries at "
+                + falsePositiveRate + " false positive rate");
+        }
+        double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long blocks = (long) Math.ceil(expectedEntries * bitsPerEntry / BLOCK_BITS);
+        int blockCount = (int) Math.min(MAX_BLOCKS, Long.highestOneBit(Math.max(1, blocks - 1)) << 1);
+        this.bits = new AtomicLongArray(blockCount * BLOCK_LONGS);
+        this.blockMask = blockCount - 1;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerEntry * Math.log(2))));
+        this.expectedEntries = expectedEntries;
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int base = block(hash);
+        long mixed = mix(hash);
+        int first = (int) mixed;
+        int step = (int) (mixed >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (first + i * step) >>> 23;
+            setBit(base + (bit >>> 6), 1L << bit);
+        }
+    }
+
+    /**
+     * @return false if the string was definitely never added, true if it probably was
+     */
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int base = block(hash);
+        long mixed = mix(hash);
+        int first = (int) mixed;
+        int step = (int) (mixed >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (first + i * step) >>> 23;
+            if ((bits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long expectedEntries() {
+        return expectedEntries;
+    }
+
+    long sizeBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    private void setBit(int index, long mask) {
+        long current = bits.get(index);
+        while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask)) {
+            current = bits.get(index);
+        }
+    }
+
+    private int block(long hash) {
+        return ((int) (hash >>> 32) & blockMask) * BLOCK_LONGS;
+    }
+
+    private static long hash(String value) {
+        long hash = 0x9e3779b97f4a7c15L ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0xbf58476d1ce4e5b9L;
+        }
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long mix(long hash) {
+        long mixed = (hash ^ (hash >>> 29)) * 0x94d049bb133111ebL;
+        return mixed ^ (mixed >>> 32);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decorator of a UrlMappingRepository answering lookups of short URLs that were never stored without reaching it.
+ * <p>
+ * A {@link BloomFilter} holds every stored short URL: it is filled from the underlying repository on creation, and
+ * every short URL is added before it is written, so the filter never misses a stored short URL. Lookups of the
+ * random paths probed by bots are then mostly rejected by the filter; the few it lets through are counted as false
+ * positives.
+ * </p>
+ * <p>
+ * Deleted and expired short URLs cannot be removed from the filter and raise its false positive rate like stored
+ * ones. Once the short URLs added since the filter was built reach half the entries it is sized for, a new one,
+ * sized for twice the mappings stored then, is built from the underlying repository on a background thread and
+ * replaces it. Short URLs written meanwhile are added to both.
+ * </p>
+ */
+@Slf4j
+public class BloomFilterUrlMappingRepository implements IterableUrlMappingRepository {
+
+    private final IterableUrlMappingRepository delegate;
+    private final long minExpectedEntries;
+    private final double falsePositiveRate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final LongAdder additions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private volatile BloomFilter filter;
+    private volatile BloomFilter pendingFilter;
+
+    /**
+     * @param delegate The repository holding the mappings
+     * @param expectedEntries Number of short URLs the filter is sized for at least
+     * @param falsePositiveRate Share of lookups of absent short URLs let through once the filter holds the expected
+     *                          number of short URLs
+     */
+    public BloomFilterUrlMappingRepository(IterableUrlMappingRepository delegate, long expectedEntries, double falsePositiveRate) {
+        this.delegate = delegate;
+        this.minExpectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = build(new BloomFilter(Math.max(expectedEntries, 2 * delegate.count()), falsePositiveRate));
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        add(mapping.getShortUrlPath());
+        UrlMapping saved = delegate.save(mapping);
+        addToRebuiltFilter(mapping.getShortUrlPath());
+        return saved;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        if (!filter.mightContain(shortUrlPath)) {
+            rejections.increment();
+            return Optional.empty();
+        }
+        Optional<UrlMapping> mapping = delegate.findByShortUrlPath(shortUrlPath);
+        if (mapping.isEmpty()) {
+            falsePositives.increment();
+        }
+        return mapping;
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        BloomFilter current = filter;
+        List<String> candidates = shortUrlPaths.stream().filter(current::mightContain).toList();
+        rejections.add(shortUrlPaths.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, UrlMapping> mappings = delegate.findAllByShortUrlPaths(candidates);
+        falsePositives.add(candidates.size() - mappings.size());
+        return mappings;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return delegate.findByFullUrl(fullUrl);
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        UrlMapping[] created = new UrlMapping[1];
+        UrlMapping mapping = delegate.findOrCreateByFullUrl(fullUrl, key -> {
+            created[0] = mappingFactory.apply(key);
+            add(created[0].getShortUrlPath());
+            return created[0];
+        });
+        if (mapping == created[0]) {
+            addToRebuiltFilter(mapping.getShortUrlPath());
+        }
+        return mapping;
+    }
+
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        Map<String, UrlMapping> mappings = delegate.findOrCreateAllByFullUrls(fullUrls, fullUrl -> {
+            UrlMapping created = mappingFactory.apply(fullUrl);
+            add(created.getShortUrlPath());
+            return created;
+        });
+        mappings.values().forEach(mapping -> addToRebuiltFilter(mapping.getShortUrlPath()));
+        return mappings;
+    }
+
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        delegate.incrementAccessCounts(increments);
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return filter.mightContain(shortUrlPath) && delegate.existsByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        return delegate.deleteByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        delegate.forEach(action);
+    }
+
+    /**
+     * @return The lookups rejected or let through wrongly by the filter since creation, and its current sizing
+     */
+    public Stats stats() {
+        BloomFilter current = filter;
+        return new Stats(rejections.sum(), falsePositives.sum(), rebuilds.sum(), current.expectedEntries(), current.sizeBytes());
+    }
+
+    /**
+     * Replaces the filter by one built from the mappings currently stored, sized for twice as many.
+     */
+    void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(minExpectedEntries, 2 * delegate.count()), falsePositiveRate);
+        pendingFilter = rebuilt;
+        additions.reset();
+        build(rebuilt);
+        filter = rebuilt;
+        pendingFilter = null;
+        rebuilds.increment();
+    }
+
+    private BloomFilter build(BloomFilter empty) {
+        delegate.forEach(mapping -> empty.add(mapping.getShortUrlPath()));
+        return empty;
+    }
+
+    /**
+     * Adds a short URL about to be written to the filter, starting a rebuild once the filter is full: it is sized
+     * for twice the short URLs it was built from.
+     */
+    private void add(String shortUrlPath) {
+        BloomFilter current = filter;
+        current.add(shortUrlPath);
+        additions.increment();
+        if (additions.sum() > current.expectedEntries() / 2 && rebuilding.compareAndSet(false, true)) {
+            Thread.ofPlatform().daemon().name("url-mapping-filter-rebuild").start(this::rebuildQuietly);
+        }
+    }
+
+    /**
+     * Adds a written short URL to the filter being rebuilt, or to the rebuilt one if it replaced the filter since
+     * {@link #add(String)}; a rebuild starting later reads it from the underlying repository.
+     */
+    private void addToRebuiltFilter(String shortUrlPath) {
+        BloomFilter pending = pendingFilter;
+        if (pending != null) {
+            pending.add(shortUrlPath);
+        }
+        filter.add(shortUrlPath);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild the filter of stored short URLs", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Statistics of the filter.
+     *
+     * @param rejectedCount Lookups of a short URL answered as missing by the filter alone
+     * @param falsePositiveCount Lookups of a missing short URL let through by the filter
+     * @param rebuildCount Times the filter was replaced by a rebuilt one
+     * @param expectedEntries Number of short URLs the current filter is sized for
+     * @param sizeBytes Size of the current filter
+     */
+    public record Stats(long rejectedCount, long falsePositiveCount, long rebuildCount, long expectedEntries, long sizeBytes) {
+
+        /**
+         * @return The share of lookups of missing short URLs let through by the filter, or 0 if there was none yet
+         */
+        public double falsePositiveRatio() {
+            long negatives = rejectedCount + falsePositiveCount;
+            return negatives == 0 ? 0 : (double) falsePositiveCount / negatives;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decorator of a UrlMappingRepository caching the mappings of frequently accessed short URLs, bounded by their
+ * estimated size in bytes.
+ * <p>
+ * Admission and eviction follow W-TinyLFU. A mapping loaded on a miss enters a small LRU window, 1% of the capacity,
+ * which absorbs bursts of new links. Mappings leaving the window compete for the main space, a segmented LRU of a
+ * probation and a protected segment: the candidate is only admitted if a {@link FrequencySketch} of recent accesses
+ * rates it more popular than the mapping it would evict, so one-off lookups of the long tail do not flush the few
+ * hundred links taking most redirects. A mapping accessed again while on probation is promoted to the protected
+ * segment, 80% of the main space.
+ * </p>
+ * <p>
+ * Hits are served from a concurrent map without locking; the access is then recorded in the policy only if its lock
+ * is free, so under contention some accesses go unrecorded rather than making readers wait. Saving or deleting a
+ * mapping invalidates its short URL after the underlying repository was updated, and a mapping loaded concurrently
+ * with such a write is not cached, so the cache never serves a mapping older than the last write. Incremented access
+ * counts instead reload the cached mappings in place, so writing the statistics of the most accessed links does not
+ * evict them. Lookups by full URL, counts and iterations go to the underlying repository.
+ * </p>
+ */
+public class CachingUrlMappingRepository implements IterableUrlMappingRepository {
+
+    /**
+     * Estimated bytes of a cached mapping besides the characters of its URLs: the node, its map entry, the mapping,
+     * its timestamps and the headers of its strings
+     */
+    static final long ENTRY_OVERHEAD_BYTES = 320;
+    private static final long AVERAGE_ENTRY_BYTES = 400;
+    private static final int EPOCH_STRIPES = 64;
+
+    private final IterableUrlMappingRepository delegate;
+    private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedSegment = new AccessOrder();
+    private final long maxBytes;
+    private final long windowMaxBytes;
+    private final long mainMaxBytes;
+    private final long protectedMaxBytes;
+    private long evictions;
+
+    /**
+     * @param delegate The repository holding the mappings
+     * @param maxBytes Maximum estimated size of the cached mappings
+     */
+    public CachingUrlMappingRepository(IterableUrlMappingRepository delegate, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        this.windowMaxBytes = Math.max(1, maxBytes / 100);
+        this.mainMaxBytes = maxBytes - windowMaxBytes;
+        this.protectedMaxBytes = mainMaxBytes * 8 / 10;
+        this.sketch = new FrequencySketch(maxBytes / AVERAGE_ENTRY_BYTES);
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        UrlMapping saved = delegate.save(mapping);
+        invalidate(mapping.getShortUrlPath());
+        return saved;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        Node node = data.get(shortUrlPath);
+        if (node != null) {
+            hits.increment();
+            recordAccess(node);
+            return Optional.of(node.mapping);
+        }
+
+        misses.increment();
+        long epoch = epochs.get(stripe(shortUrlPath));
+        Optional<UrlMapping> mapping = delegate.findByShortUrlPath(shortUrlPath);
+        mapping.ifPresent(loaded -> admit(shortUrlPath, loaded, epoch));
+        return mapping;
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(shortUrlPaths.size());
+        List<String> missing = new ArrayList<>();
+        for (String shortUrlPath : shortUrlPaths) {
+            Node node = data.get(shortUrlPath);
+            if (node != null) {
+                hits.increment();
+                recordAccess(node);
+                mappings.put(shortUrlPath, node.mapping);
+            } else {
+                missing.add(shortUrlPath);
+            }
+        }
+        if (missing.isEmpty()) {
+            return mappings;
+        }
+
+        misses.add(missing.size());
+        long[] missingEpochs = new long[missing.size()];
+        for (int i = 0; i < missingEpochs.length; i++) {
+            missingEpochs[i] = epochs.get(stripe(missing.get(i)));
+        }
+        Map<String, UrlMapping> loaded = delegate.findAllByShortUrlPaths(missing);
+        for (int i = 0; i < missingEpochs.length; i++) {
+            UrlMapping mapping = loaded.get(missing.get(i));
+            if (mapping != null) {
+                admit(missing.get(i), mapping, missingEpochs[i]);
+                mappings.put(missing.get(i), mapping);
+            }
+        }
+        return mappings;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return delegate.findByFullUrl(fullUrl);
+    }
+
+    /**
+     * A mapping created here or by {@link #findOrCreateAllByFullUrls(Collection, Function)} has a short URL that was
+     * not stored before, so it cannot be cached yet; an existing mapping is returned as stored. Neither needs an
+     * invalidation.
+     */
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        return delegate.findOrCreateByFullUrl(fullUrl, mappingFactory);
+    }
+
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        return delegate.findOrCreateAllByFullUrls(fullUrls, mappingFactory);
+    }
+
+    /**
+     * Reloads the cached mappings among the incremented ones in a single call to the underlying repository, keeping
+     * their place in the cache, and keeps mappings loaded concurrently with the increments from being cached.
+     */
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        delegate.incrementAccessCounts(increments);
+        List<String> cached = new ArrayList<>();
+        for (AccessIncrement increment : increments) {
+            if (data.containsKey(increment.shortUrlPath())) {
+                cached.add(increment.shortUrlPath());
+            } else {
+                epochs.incrementAndGet(stripe(increment.shortUrlPath()));
+            }
+        }
+        if (cached.isEmpty()) {
+            return;
+        }
+
+        long[] cachedEpochs = new long[cached.size()];
+        for (int i = 0; i < cachedEpochs.length; i++) {
+            cachedEpochs[i] = epochs.get(stripe(cached.get(i)));
+        }
+        Map<String, UrlMapping> reloaded = delegate.findAllByShortUrlPaths(cached);
+        policyLock.lock();
+        try {
+            for (int i = 0; i < cachedEpochs.length; i++) {
+                String shortUrlPath = cached.get(i);
+                Node node = data.get(shortUrlPath);
+                UrlMapping mapping = reloaded.get(shortUrlPath);
+                if (node == null) {
+                    continue;
+                }
+                if (mapping != null && epochs.get(stripe(shortUrlPath)) == cachedEpochs[i]) {
+                    node.mapping = mapping;
+                } else {
+                    // Written or deleted meanwhile
+                    data.remove(shortUrlPath, node);
+                    node.segment.remove(node);
+                }
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return data.containsKey(shortUrlPath) || delegate.existsByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        boolean deleted = delegate.deleteByShortUrlPath(shortUrlPath);
+        invalidate(shortUrlPath);
+        return deleted;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        delegate.forEach(action);
+    }
+
+    /**
+     * @return The hit, miss and eviction counts since creation, and the current content of the cache
+     */
+    public Stats stats() {
+        policyLock.lock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions, data.size(),
+                window.bytes + probation.bytes + protectedSegment.bytes, maxBytes);
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Estimated size in bytes of a cached mapping: its URLs, stored as Latin-1 strings for the full URL and its
+     * Location header value, and a fixed overhead.
+     */
+    static long weigh(String shortUrlPath, UrlMapping mapping) {
+        return ENTRY_OVERHEAD_BYTES + shortUrlPath.length() + 2L * mapping.getFullUrl().length();
+    }
+
+    private void invalidate(String shortUrlPath) {
+        epochs.incrementAndGet(stripe(shortUrlPath));
+        policyLock.lock();
+        try {
+            Node node = data.remove(shortUrlPath);
+            if (node != null) {
+                node.segment.remove(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void recordAccess(Node node) {
+        if (!policyLock.tryLock()) {
+            return;
+        }
+        try {
+            if (node.segment == null) {
+                return;
+            }
+            sketch.increment(node.key.hashCode());
+            if (node.segment == probation) {
+                probation.remove(node);
+                protectedSegment.addLast(node);
+                while (protectedSegment.bytes > protectedMaxBytes) {
+                    probation.addLast(protectedSegment.removeFirst());
+                }
+            } else {
+                node.segment.moveToLast(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Caches a mapping loaded from the underlying repository, unless its short URL was written since it was loaded.
+     */
+    private void admit(String shortUrlPath, UrlMapping mapping, long epoch) {
+        long weight = weigh(shortUrlPath, mapping);
+        if (weight > mainMaxBytes) {
+            return;
+        }
+        policyLock.lock();
+        try {
+            if (epochs.get(stripe(shortUrlPath)) != epoch || data.containsKey(shortUrlPath)) {
+                return;
+            }
+            Node node = new Node(shortUrlPath, mapping, weight);
+            data.put(shortUrlPath, node);
+            sketch.increment(shortUrlPath.hashCode());
+            window.addLast(node);
+            while (window.bytes > windowMaxBytes) {
+                admitToMain(window.removeFirst());
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Moves a candidate leaving the window into probation, evicting the least recently used mappings of the main
+     * space while the candidate is more frequent than them, or evicts the candidate itself.
+     */
+    private void admitToMain(Node candidate) {
+        int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+        while (probation.bytes + protectedSegment.bytes + candidate.weight > mainMaxBytes) {
+            Node victim = probation.first() != null ? probation.first() : protectedSegment.first();
+            if (victim == null || candidateFrequency <= sketch.frequency(victim.key.hashCode())) {
+                evict(candidate);
+                return;
+            }
+            victim.segment.remove(victim);
+            evict(victim);
+        }
+        probation.addLast(candidate);
+    }
+
+    private void evict(Node node) {
+        data.remove(node.key, node);
+        evictions++;
+    }
+
+    private static int stripe(String shortUrlPath) {
+        return shortUrlPath.hashCode() & (EPOCH_STRIPES - 1);
+    }
+
+    /**
+     * Statistics of the cache.
+     *
+     * @param hitCount Lookups of a short URL answered from the cache
+     * @param missCount Lookups of a short URL forwarded to the underlying repository
+     * @param evictionCount Mappings evicted, or not admitted, to stay within the size bound
+     * @param size Number of cached mappings
+     * @param weightedSizeBytes Estimated size of the cached mappings
+     * @param maxBytes Maximum estimated size of the cached mappings
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, long size, long weightedSizeBytes, long maxBytes) {
+
+        /**
+         * @return The share of lookups answered from the cache, or 0 if there was none yet
+         */
+        public double hitRatio() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0 : (double) hitCount / requests;
+        }
+    }
+
+    private static final class Node {
+
+        final String key;
+        volatile UrlMapping mapping;
+        final long weight;
+        AccessOrder segment;
+        Node previous;
+        Node next;
+
+        Node(String key, UrlMapping mapping, long weight) {
+            this.key = key;
+            this.mapping = mapping;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes from least to most recently used, tracking their total weight.
+     */
+    private static final class AccessOrder {
+
+        private Node head;
+        private Node tail;
+        long bytes;
+
+        Node first() {
+            return head;
+        }
+
+        void addLast(Node node) {
+            node.segment = this;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            bytes += node.weight;
+        }
+
+        Node removeFirst() {
+            Node node = head;
+            remove(node);
+            return node;
+        }
+
+        void remove(Node node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.segment = null;
+            bytes -= node.weight;
+        }
+
+        void moveToLast(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
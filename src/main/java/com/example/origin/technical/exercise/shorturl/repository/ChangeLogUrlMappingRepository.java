@@ -0,0 +1,222 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Decorator of a UrlMappingRepository logging every save and deletion of a mapping, as the
+ * {@link UrlMappingChangeSource} of a leader instance.
+ * <p>
+ * Changes are numbered in the order they are logged, right after being written to the underlying repository, and the
+ * latest {@code capacity} of them are retained in a ring buffer. Concurrent writes of the same short URL path may be
+ * logged in another order than they were written; short URL paths are unique, so only saves of a mapping racing with
+ * its deletion are. Mappings found rather than created by {@link #findOrCreateByFullUrl(String, Function)} are not
+ * logged, nor are access statistics: followers forward the accesses they serve to the leader.
+ * </p>
+ */
+public class ChangeLogUrlMappingRepository implements IterableUrlMappingRepository, UrlMappingChangeSource, Closeable {
+
+    private final IterableUrlMappingRepository delegate;
+    private final int snapshotSections;
+    private final String logId = UUID.randomUUID().toString();
+    private final UrlMappingChange[] changes;
+    private long lastSequence;
+
+    /**
+     * @param delegate The repository holding the mappings
+     * @param capacity Number of latest changes retained
+     * @param snapshotSections Number of sections of the snapshots written, see
+     *                         {@link UrlMappingSnapshot#write(IterableUrlMappingRepository, int)}
+     */
+    public ChangeLogUrlMappingRepository(IterableUrlMappingRepository delegate, int capacity, int snapshotSections) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid change log capacity: " + capacity);
+        }
+        this.delegate = delegate;
+        this.snapshotSections = snapshotSections;
+        this.changes = new UrlMappingChange[capacity];
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        UrlMapping saved = delegate.save(mapping);
+        logSaves(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public void saveAll(Collection<UrlMapping> mappings) {
+        delegate.saveAll(mappings);
+        logSaves(mappings);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return delegate.findByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        return delegate.findAllByShortUrlPaths(shortUrlPaths);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return delegate.findByFullUrl(fullUrl);
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        UrlMapping[] created = new UrlMapping[1];
+        UrlMapping mapping = delegate.findOrCreateByFullUrl(fullUrl, key -> created[0] = mappingFactory.apply(key));
+        if (mapping == created[0]) {
+            logSaves(List.of(mapping));
+        }
+        return mapping;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the delegate fails partway, the mappings it created before are logged all the same: the generated mappings
+     * are looked up by their short URL paths, and those stored with their own full URL were created.
+     * </p>
+     */
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        Set<UrlMapping> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<String, UrlMapping> mappings;
+        try {
+            mappings = delegate.findOrCreateAllByFullUrls(fullUrls, fullUrl -> {
+                UrlMapping mapping = mappingFactory.apply(fullUrl);
+                created.add(mapping);
+                return mapping;
+            });
+        } catch (RuntimeException e) {
+            try {
+                logSaves(stored(created));
+            } catch (RuntimeException lookupFailure) {
+                e.addSuppressed(lookupFailure);
+            }
+            throw e;
+        }
+        logSaves(mappings.values().stream().filter(created::contains).toList());
+        return mappings;
+    }
+
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        delegate.incrementAccessCounts(increments);
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return delegate.existsByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        if (!delegate.deleteByShortUrlPath(shortUrlPath)) {
+            return false;
+        }
+        synchronized (this) {
+            append(UrlMappingChange.Type.DELETE, shortUrlPath, null);
+        }
+        return true;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public synchronized Optional<Batch> changesAfter(long sequence, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Invalid number of changes: " + limit);
+        }
+        if (sequence < lastSequence - changes.length || sequence > lastSequence) {
+            return Optional.empty();
+        }
+        int size = (int) Math.min(limit, lastSequence - sequence);
+        List<UrlMappingChange> batch = new ArrayList<>(size);
+        for (long next = sequence + 1; next <= sequence + size; next++) {
+            batch.add(changes[slot(next)]);
+        }
+        return Optional.of(new Batch(logId, lastSequence, batch));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The position is taken before the mappings are read: the changes up to it were written before.
+     * </p>
+     */
+    @Override
+    public Position snapshot(Path file) throws IOException {
+        Position position = lastPosition();
+        new UrlMappingSnapshot(file).write(delegate, snapshotSections);
+        return position;
+    }
+
+    /**
+     * @return The position of the last change logged
+     */
+    public synchronized Position lastPosition() {
+        return new Position(logId, lastSequence);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * @return The given generated mappings that were stored, as stored
+     */
+    private List<UrlMapping> stored(Collection<UrlMapping> generated) {
+        Map<String, List<UrlMapping>> generatedByShortUrlPath = generated.stream()
+            .collect(Collectors.groupingBy(UrlMapping::getShortUrlPath));
+        return delegate.findAllByShortUrlPaths(generatedByShortUrlPath.keySet()).values().stream()
+            .filter(mapping -> generatedByShortUrlPath.get(mapping.getShortUrlPath()).stream()
+                .anyMatch(candidate -> candidate.getFullUrl().equals(mapping.getFullUrl())))
+            .toList();
+    }
+
+    private synchronized void logSaves(Collection<UrlMapping> mappings) {
+        for (UrlMapping mapping : mappings) {
+            append(UrlMappingChange.Type.SAVE, mapping.getShortUrlPath(), mapping);
+        }
+    }
+
+    private void append(UrlMappingChange.Type type, String shortUrlPath, UrlMapping mapping) {
+        lastSequence++;
+        changes[slot(lastSequence)] = new UrlMappingChange(lastSequence, type, shortUrlPath, mapping);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % changes.length);
+    }
+}
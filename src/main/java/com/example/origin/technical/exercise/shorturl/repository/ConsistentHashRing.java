@@ -0,0 +1,111 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.util.Hashing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable consistent hash ring routing keys to named members.
+ * <p>
+ * Each member is placed on a ring of 64-bit hashes at {@code virtualNodes} points derived from its name, and a key
+ * belongs to the member of the first point at or after the hash of the key, wrapping around. Routing only depends
+ * on the member names, so instances knowing the same members route every key alike. When a member joins, it only
+ * takes keys over from the others, about one in {@code members} of them, and when it leaves only its keys move.
+ * </p>
+ * <p>
+ * The points are kept in a sorted {@code long[]} next to the index of their member, so routing a key is a hash and a
+ * binary search.
+ * </p>
+ *
+ * @param <T> The type of the members
+ */
+final class ConsistentHashRing<T> {
+
+    private final Map<String, T> members;
+    private final int virtualNodes;
+    private final long[] points;
+    private final Object[] owners;
+
+    /**
+     * @param members The members by name
+     * @param virtualNodes Number of points of each member on the ring
+     */
+    ConsistentHashRing(Map<String, T> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+        }
+        this.members = Collections.unmodifiableMap(new LinkedHashMap<>(members));
+        this.virtualNodes = virtualNodes;
+
+        // Sorts the points along with their owner; ties are ordered by name, so the order of the members does not matter
+        int size = members.size() * virtualNodes;
+        long[] unsortedPoints = new long[size];
+        Integer[] order = new Integer[size];
+        String[] names = members.keySet().toArray(String[]::new);
+        for (int member = 0; member < names.length; member++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                int i = member * virtualNodes + node;
+                unsortedPoints[i] = hash(names[member] + "#" + node);
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byPoint = Long.compare(unsortedPoints[a], unsortedPoints[b]);
+            return byPoint != 0 ? byPoint : names[a / virtualNodes].compareTo(names[b / virtualNodes]);
+        });
+        this.points = new long[size];
+        this.owners = new Object[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = unsortedPoints[order[i]];
+            owners[i] = members.get(names[order[i] / virtualNodes]);
+        }
+    }
+
+    /**
+     * @return The member owning the key
+     * @throws IllegalStateException If the ring has no member
+     */
+    @SuppressWarnings("unchecked")
+    T route(String key) {
+        if (points.length == 0) {
+            throw new IllegalStateException("No member to route " + key + " to");
+        }
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+            if (i == points.length) {
+                i = 0;
+            }
+        }
+        return (T) owners[i];
+    }
+
+    /**
+     * @return The members by name, in the order given on creation
+     */
+    Map<String, T> members() {
+        return members;
+    }
+
+    /**
+     * @return A ring of the same points per member, with the given members
+     */
+    <U> ConsistentHashRing<U> withMembers(Map<String, U> members) {
+        return new ConsistentHashRing<>(members, virtualNodes);
+    }
+
+    /**
+     * 64-bit hash of the characters of the value, finished by the MurmurHash3 mixer so that the points of names only
+     * differing in their last character spread over the whole ring.
+     */
+    static long hash(String value) {
+        long hash = 0x9e3779b97f4a7c15L ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0xbf58476d1ce4e5b9L;
+        }
+        return Hashing.fmix64(hash);
+    }
+}
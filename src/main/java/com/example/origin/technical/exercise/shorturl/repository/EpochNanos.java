@@ -0,0 +1,40 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions between {@link LocalDateTime} and UTC epoch nanoseconds for repositories storing timestamps as {@code long}s.
+ */
+final class EpochNanos {
+
+    /**
+     * Marker for a {@code null} timestamp.
+     */
+    static final long NONE = Long.MIN_VALUE;
+
+    private EpochNanos() {
+    }
+
+    /**
+     * @throws IllegalArgumentException If the timestamp is not within the years 1677 to 2262 that fit into a {@code long}
+     */
+    static long of(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NONE;
+        }
+        try {
+            return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), dateTime.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Timestamp out of range: " + dateTime);
+        }
+    }
+
+    static LocalDateTime toLocalDateTime(long epochNanos) {
+        if (epochNanos == NONE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(epochNanos, 1_000_000_000L), (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
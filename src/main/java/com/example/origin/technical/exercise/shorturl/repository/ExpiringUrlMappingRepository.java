@@ -0,0 +1,219 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decorator of a UrlMappingRepository enforcing {@link UrlMapping#getExpiresAt()}.
+ * <p>
+ * Reads treat an expired mapping as missing and delete it from the underlying repository on the spot.
+ * In addition, every saved mapping is scheduled on a {@link TimingWheel}, which a background thread advances
+ * once per tick to delete the mappings that expired meanwhile, so links that are never accessed again are
+ * reclaimed as well. Writers only enqueue the mappings to schedule; the wheel itself is confined to the sweeper thread.
+ * </p>
+ */
+@Slf4j
+public class ExpiringUrlMappingRepository implements IterableUrlMappingRepository, Closeable {
+
+    private final IterableUrlMappingRepository delegate;
+    private final Clock clock;
+    private final Consumer<String> expirationListener;
+    private final Queue<UrlMapping> pendingSchedules = new ConcurrentLinkedQueue<>();
+    private final TimingWheel<String> timingWheel;
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param delegate The repository holding the mappings
+     * @param tickMillis Resolution of the background sweep
+     * @param clock Clock deciding whether a mapping is expired
+     * @param expirationListener Notified with the short URL path of every mapping removed because it expired
+     */
+    public ExpiringUrlMappingRepository(IterableUrlMappingRepository delegate, long tickMillis, Clock clock, Consumer<String> expirationListener) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.expirationListener = expirationListener;
+        this.timingWheel = new TimingWheel<>(tickMillis, clock.millis());
+
+        delegate.forEach(pendingSchedules::add);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "url-mapping-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        UrlMapping saved = delegate.save(mapping);
+        pendingSchedules.add(saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return unlessExpired(delegate.findByShortUrlPath(shortUrlPath));
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        Map<String, UrlMapping> mappings = delegate.findAllByShortUrlPaths(shortUrlPaths);
+        mappings.values().removeIf(mapping -> {
+            if (isExpired(mapping)) {
+                expire(mapping.getShortUrlPath());
+                return true;
+            }
+            return false;
+        });
+        return mappings;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return unlessExpired(delegate.findByFullUrl(fullUrl));
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        while (true) {
+            UrlMapping[] created = new UrlMapping[1];
+            UrlMapping mapping = delegate.findOrCreateByFullUrl(fullUrl, key -> {
+                created[0] = mappingFactory.apply(key);
+                pendingSchedules.add(created[0]);
+                return created[0];
+            });
+            // A mapping created by this call is returned even if already expired, so a bad factory cannot loop forever
+            if (mapping == created[0] || !isExpired(mapping)) {
+                return mapping;
+            }
+            expire(mapping.getShortUrlPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Full URLs whose existing mapping turns out to be expired are then found or created again one by one.
+     * </p>
+     */
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        Set<UrlMapping> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<String, UrlMapping> mappings = delegate.findOrCreateAllByFullUrls(fullUrls, fullUrl -> {
+            UrlMapping mapping = mappingFactory.apply(fullUrl);
+            created.add(mapping);
+            pendingSchedules.add(mapping);
+            return mapping;
+        });
+        mappings.replaceAll((fullUrl, mapping) -> created.contains(mapping) || !isExpired(mapping)
+            ? mapping
+            : findOrCreateByFullUrl(fullUrl, mappingFactory));
+        return mappings;
+    }
+
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        // The expiration times are left unchanged, so are the scheduled expirations
+        delegate.incrementAccessCounts(increments);
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return findByShortUrlPath(shortUrlPath).isPresent();
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        return delegate.deleteByShortUrlPath(shortUrlPath);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Includes expired mappings that have not been swept yet.
+     * </p>
+     */
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        delegate.forEach(mapping -> {
+            if (!isExpired(mapping)) {
+                action.accept(mapping);
+            }
+        });
+    }
+
+    /**
+     * Schedules the mappings saved since the last sweep and deletes the mappings whose expiration time has passed.
+     */
+    void sweep() {
+        UrlMapping mapping;
+        while ((mapping = pendingSchedules.poll()) != null) {
+            if (mapping.getExpiresAt() != null) {
+                timingWheel.add(mapping.getShortUrlPath(), toEpochMillis(mapping.getExpiresAt()));
+            }
+        }
+        timingWheel.advance(clock.millis(), this::expire);
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("Failed to sweep expired URL mappings", e);
+        }
+    }
+
+    private Optional<UrlMapping> unlessExpired(Optional<UrlMapping> mapping) {
+        if (mapping.isPresent() && isExpired(mapping.get())) {
+            expire(mapping.get().getShortUrlPath());
+            return Optional.empty();
+        }
+        return mapping;
+    }
+
+    /**
+     * Deletes the mapping of the short URL path if it is (still) expired; it may have been replaced by a live one meanwhile.
+     */
+    private void expire(String shortUrlPath) {
+        Optional<UrlMapping> current = delegate.findByShortUrlPath(shortUrlPath);
+        if (current.isPresent() && isExpired(current.get()) && delegate.deleteByShortUrlPath(shortUrlPath)) {
+            expirationListener.accept(shortUrlPath);
+        }
+    }
+
+    private boolean isExpired(UrlMapping mapping) {
+        return mapping.getExpiresAt() != null && !mapping.getExpiresAt().isAfter(LocalDateTime.now(clock));
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
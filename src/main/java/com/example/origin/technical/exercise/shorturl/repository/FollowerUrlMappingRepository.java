@@ -0,0 +1,113 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * UrlMappingRepository of a follower instance: reads are served by the repository of the follower, which applies the
+ * changes of the leader, and writes are forwarded to the leader.
+ * <p>
+ * Mappings written through the leader are stored by the follower as well, so it finds them right away rather than
+ * once their change is applied. Full URLs already shortened are found by the follower without asking the leader.
+ * Access statistics are only stored by the leader: the follower finds the ones of a mapping as of its last save.
+ * </p>
+ */
+public class FollowerUrlMappingRepository implements IterableUrlMappingRepository {
+
+    private final IterableUrlMappingRepository local;
+    private final UrlMappingRepository leader;
+
+    /**
+     * @param local The repository of this instance, to which the changes of the leader are applied
+     * @param leader The repository of the leader
+     */
+    public FollowerUrlMappingRepository(IterableUrlMappingRepository local, UrlMappingRepository leader) {
+        this.local = local;
+        this.leader = leader;
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        return local.save(leader.save(mapping));
+    }
+
+    @Override
+    public void saveAll(Collection<UrlMapping> mappings) {
+        leader.saveAll(mappings);
+        local.saveAll(mappings);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return local.findByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        return local.findAllByShortUrlPaths(shortUrlPaths);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return local.findByFullUrl(fullUrl);
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        return local.findByFullUrl(fullUrl)
+            .orElseGet(() -> local.save(leader.findOrCreateByFullUrl(fullUrl, mappingFactory)));
+    }
+
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(fullUrls.size());
+        List<String> missing = new ArrayList<>();
+        for (String fullUrl : fullUrls) {
+            local.findByFullUrl(fullUrl).ifPresentOrElse(mapping -> mappings.put(fullUrl, mapping), () -> missing.add(fullUrl));
+        }
+        if (!missing.isEmpty()) {
+            Map<String, UrlMapping> found = leader.findOrCreateAllByFullUrls(missing, mappingFactory);
+            local.saveAll(found.values());
+            mappings.putAll(found);
+        }
+        return mappings;
+    }
+
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        leader.incrementAccessCounts(increments);
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return local.existsByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        boolean deleted = leader.deleteByShortUrlPath(shortUrlPath);
+        local.deleteByShortUrlPath(shortUrlPath);
+        return deleted;
+    }
+
+    /**
+     * @return The number of mappings held by this instance
+     */
+    @Override
+    public long count() {
+        return local.count();
+    }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        local.forEach(action);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+/**
+ * Count-min sketch estimating how often keys were seen recently, with 4-bit counters.
+ * <p>
+ * Every key increments one counter in each of four rows; its frequency is the smallest of those counters, which
+ * overestimates it only where all four collide with other keys. Counters saturate at 15, enough to tell hot keys
+ * from cold ones. Once the number of increments reaches ten times the width of the sketch, all counters are halved,
+ * so the frequencies follow how popular keys are now rather than how popular they were since startup.
+ * </p>
+ * <p>
+ * Not thread-safe.
+ * </p>
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedKeys Number of distinct keys expected to be tracked, rounded up to a power of two
+     */
+    FrequencySketch(long expectedKeys) {
+        int width = (int) Math.min(1 << 24, Long.highestOneBit(Math.max(16, expectedKeys) - 1) << 1);
+        this.table = new long[width];
+        this.tableMask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * @return The estimated number of times the key was seen recently, between 0 and 15
+     */
+    int frequency(int hash) {
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long spread = spread(hash, row);
+            int shift = counterShift(spread);
+            frequency = Math.min(frequency, (int) ((table[index(spread)] >>> shift) & MAX_FREQUENCY));
+        }
+        return frequency;
+    }
+
+    /**
+     * Records that the key was seen once more, halving all counters once the sample size is reached.
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long spread = spread(hash, row);
+            int index = index(spread);
+            int shift = counterShift(spread);
+            if (((table[index] >>> shift) & MAX_FREQUENCY) < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long spread(int hash, int row) {
+        long spread = (hash + SEEDS[row]) * SEEDS[row];
+        return spread ^ (spread >>> 29);
+    }
+
+    private int index(long spread) {
+        return (int) spread & tableMask;
+    }
+
+    /**
+     * @return The offset of the 4-bit counter of the row within its long, one of 16 slots
+     */
+    private static int counterShift(long spread) {
+        return (int) (spread >>> 60) << 2;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.util.Hashing;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reverse index from full URLs to their mappings, keyed on a 128-bit fingerprint of the full URL.
+ * <p>
+ * Each of the {@value #SEGMENTS} segments is an open-addressing table of fingerprints in a {@code long[]} next to
+ * the mappings they point to, so no key object or hash node is kept per entry. A fingerprint hit is confirmed
+ * against {@link UrlMapping#getFullUrl()} of the stored mapping, which makes collisions harmless.
+ * </p>
+ * <p>
+ * Reads are optimistic and never block; writes only lock the segment of the full URL being changed.
+ * </p>
+ */
+final class FullUrlIndex {
+
+    private static final int SEGMENTS = 64;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    FullUrlIndex() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    UrlMapping get(String fullUrl) {
+        Fingerprint fingerprint = Fingerprint.of(fullUrl);
+        return segmentOf(fingerprint).get(fullUrl, fingerprint);
+    }
+
+    /**
+     * Returns the mapping of the full URL, creating it with the factory while holding the lock of its segment if absent.
+     * The factory may throw to abort the creation.
+     */
+    UrlMapping computeIfAbsent(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        Fingerprint fingerprint = Fingerprint.of(fullUrl);
+        return segmentOf(fingerprint).computeIfAbsent(fullUrl, fingerprint, mappingFactory);
+    }
+
+    /**
+     * Associates the mapping with its full URL, replacing any previous mapping of that full URL.
+     */
+    void put(UrlMapping mapping) {
+        Fingerprint fingerprint = Fingerprint.of(mapping.getFullUrl());
+        segmentOf(fingerprint).put(mapping, fingerprint);
+    }
+
+    /**
+     * Removes the entry of the mapping's full URL only if it still points to an equal mapping.
+     */
+    boolean remove(UrlMapping mapping) {
+        Fingerprint fingerprint = Fingerprint.of(mapping.getFullUrl());
+        return segmentOf(fingerprint).remove(mapping, fingerprint);
+    }
+
+    private Segment segmentOf(Fingerprint fingerprint) {
+        return segments[(int) (fingerprint.high() >>> SEGMENT_SHIFT)];
+    }
+
+    /**
+     * MurmurHash3 x64 128-bit of the UTF-16 code units of a string, computed without copying it into a byte array.
+     */
+    record Fingerprint(long high, long low) {
+
+        static Fingerprint of(String value) {
+            int length = value.length();
+            long h1 = 0;
+            long h2 = 0;
+
+            int blockEnd = length & ~7;
+            for (int i = 0; i < blockEnd; i += 8) {
+                h1 ^= mixK1(chars(value, i, 4));
+                h1 = Long.rotateLeft(h1, 27) + h2;
+                h1 = h1 * 5 + 0x52DCE729;
+                h2 ^= mixK2(chars(value, i + 4, 4));
+                h2 = Long.rotateLeft(h2, 31) + h1;
+                h2 = h2 * 5 + 0x38495AB5;
+            }
+
+            int tail = length - blockEnd;
+            h1 ^= mixK1(chars(value, blockEnd, Math.min(tail, 4)));
+            h2 ^= mixK2(chars(value, blockEnd + 4, Math.max(tail - 4, 0)));
+
+            h1 ^= 2L * length;
+            h2 ^= 2L * length;
+            h1 += h2;
+            h2 += h1;
+            h1 = Hashing.fmix64(h1);
+            h2 = Hashing.fmix64(h2);
+            h1 += h2;
+            h2 += h1;
+            return new Fingerprint(h1, h2);
+        }
+
+        private static long chars(String value, int offset, int count) {
+            long block = 0;
+            for (int i = 0; i < count; i++) {
+                block |= (long) value.charAt(offset + i) << (16 * i);
+            }
+            return block;
+        }
+
+        private static long mixK1(long k1) {
+            return Long.rotateLeft(k1 * C1, 31) * C2;
+        }
+
+        private static long mixK2(long k2) {
+            return Long.rotateLeft(k2 * C2, 33) * C1;
+        }
+    }
+
+    /**
+     * Linear-probing table; slot {@code i} holds its fingerprint at {@code 2i} and {@code 2i + 1} of {@link #fingerprints}
+     * and is empty while {@code mappings[i]} is {@code null}.
+     */
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private long[] fingerprints = new long[INITIAL_SEGMENT_CAPACITY * 2];
+        private UrlMapping[] mappings = new UrlMapping[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+
+        UrlMapping get(String fullUrl, Fingerprint fingerprint) {
+            return read(() -> {
+                long[] currentFingerprints = fingerprints;
+                UrlMapping[] currentMappings = mappings;
+                int slot = slotOf(currentFingerprints, currentMappings, fullUrl, fingerprint);
+                return slot < 0 ? null : currentMappings[slot];
+            });
+        }
+
+        UrlMapping computeIfAbsent(String fullUrl, Fingerprint fingerprint, Function<String, UrlMapping> mappingFactory) {
+            UrlMapping existing = get(fullUrl, fingerprint);
+            if (existing != null) {
+                return existing;
+            }
+
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotOf(fingerprints, mappings, fullUrl, fingerprint);
+                if (slot >= 0) {
+                    return mappings[slot];
+                }
+                UrlMapping mapping = mappingFactory.apply(fullUrl);
+                insert(mapping, fingerprint);
+                return mapping;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void put(UrlMapping mapping, Fingerprint fingerprint) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotOf(fingerprints, mappings, mapping.getFullUrl(), fingerprint);
+                if (slot >= 0) {
+                    mappings[slot] = mapping;
+                } else {
+                    insert(mapping, fingerprint);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(UrlMapping mapping, Fingerprint fingerprint) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = slotOf(fingerprints, mappings, mapping.getFullUrl(), fingerprint);
+                if (slot < 0 || !mapping.equals(mappings[slot])) {
+                    return false;
+                }
+                removeSlot(slot);
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Runs a read optimistically and falls back to the read lock if a write happened meanwhile.
+         * A torn optimistic read may fail with an exception, which is treated the same way.
+         */
+        private <T> T read(Supplier<T> reader) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                try {
+                    T result = reader.get();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return reader.get();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static int slotOf(long[] fingerprints, UrlMapping[] mappings, String fullUrl, Fingerprint fingerprint) {
+            int mask = mappings.length - 1;
+            int slot = (int) fingerprint.low() & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                UrlMapping candidate = mappings[slot];
+                if (candidate == null) {
+                    return -1;
+                }
+                if (fingerprints[2 * slot] == fingerprint.high() && fingerprints[2 * slot + 1] == fingerprint.low()
+                    && fullUrl.equals(candidate.getFullUrl())) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(UrlMapping mapping, Fingerprint fingerprint) {
+            if ((size + 1) * 10L > mappings.length * 6L) {
+                resize();
+            }
+            int slot = freeSlotOf(mappings, fingerprint.low());
+            fingerprints[2 * slot] = fingerprint.high();
+            fingerprints[2 * slot + 1] = fingerprint.low();
+            mappings[slot] = mapping;
+            size++;
+        }
+
+        private static int freeSlotOf(UrlMapping[] mappings, long low) {
+            int mask = mappings.length - 1;
+            int slot = (int) low & mask;
+            while (mappings[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Removes an entry by shifting the following entries of its probe sequence backwards, so lookups never need tombstones.
+         */
+        private void removeSlot(int slot) {
+            int mask = mappings.length - 1;
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (mappings[next] == null) {
+                    break;
+                }
+                int home = (int) fingerprints[2 * next + 1] & mask;
+                // Move the entry unless its home slot lies cyclically within (hole, next]
+                boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+                if (!stays) {
+                    fingerprints[2 * hole] = fingerprints[2 * next];
+                    fingerprints[2 * hole + 1] = fingerprints[2 * next + 1];
+                    mappings[hole] = mappings[next];
+                    hole = next;
+                }
+            }
+            fingerprints[2 * hole] = 0;
+            fingerprints[2 * hole + 1] = 0;
+            mappings[hole] = null;
+        }
+
+        private void resize() {
+            long[] oldFingerprints = fingerprints;
+            UrlMapping[] oldMappings = mappings;
+            long[] newFingerprints = new long[oldFingerprints.length * 2];
+            UrlMapping[] newMappings = new UrlMapping[oldMappings.length * 2];
+
+            for (int i = 0; i < oldMappings.length; i++) {
+                if (oldMappings[i] != null) {
+                    int slot = freeSlotOf(newMappings, oldFingerprints[2 * i + 1]);
+                    newFingerprints[2 * slot] = oldFingerprints[2 * i];
+                    newFingerprints[2 * slot + 1] = oldFingerprints[2 * i + 1];
+                    newMappings[slot] = oldMappings[i];
+                }
+            }
+
+            fingerprints = newFingerprints;
+            mappings = newMappings;
+        }
+    }
+}
@@ -1,27 +1,45 @@
 package com.example.origin.technical.exercise.shorturl.repository;
 
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * In-memory implementation of the UrlMappingRepository interface based on the {@link HashMap}.
+ * In-memory implementation of the UrlMappingRepository interface based on the {@link ConcurrentHashMap}.
+ * <p>
+ * Reads never block. New mappings are published through {@link #findOrCreateByFullUrl(String, Function)},
+ * which only locks the segment of the full URL being created, so both indexes stay consistent without a global lock.
+ * The full URL index is a {@link FullUrlIndex} keyed on 128-bit fingerprints rather than a second String-keyed map.
+ * </p>
  *
- * NOTE: This is purely for demonstration and testing purposes only. The real implementation should use a persistent storage solution leveraging Spring Data and JPA.
+ * NOTE: This is purely for demonstration and testing purposes only. Mappings are persisted by the
+ * {@link MappedLogUrlMappingRepository} or, in a relational database, by the {@link JdbcUrlMappingRepository}.
  */
 @Repository
-public class InMemoryUrlMappingRepository implements UrlMappingRepository {
+@Qualifier("storage")
+@ConditionalOnProperty(prefix = "url.shortener", name = "repository", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryUrlMappingRepository implements IterableUrlMappingRepository {
 
-    private final Map<String, UrlMapping> urlMappingStoreByShortUrlPath = new HashMap<>();
-	private final Map<String, UrlMapping> urlMappingStoreByFullUrl = new HashMap<>();
+    private static final int MAX_SHORT_URL_PATH_ATTEMPTS = 10;
+
+    private final Map<String, UrlMapping> urlMappingStoreByShortUrlPath = new ConcurrentHashMap<>();
+	private final FullUrlIndex urlMappingStoreByFullUrl = new FullUrlIndex();
 
     @Override
     public UrlMapping save(UrlMapping mapping) {
-        urlMappingStoreByShortUrlPath.put(mapping.getShortUrlPath(), mapping);
-		urlMappingStoreByFullUrl.put(mapping.getFullUrl(), mapping);
+        mapping.prepareLocation();
+        UrlMapping previous = urlMappingStoreByShortUrlPath.put(mapping.getShortUrlPath(), mapping);
+		if (previous != null && !previous.getFullUrl().equals(mapping.getFullUrl())) {
+			urlMappingStoreByFullUrl.remove(previous);
+		}
+		urlMappingStoreByFullUrl.put(mapping);
 
         return mapping;
     }
@@ -36,6 +54,21 @@ public class InMemoryUrlMappingRepository implements UrlMappingRepository {
 		 return Optional.ofNullable(urlMappingStoreByFullUrl.get(fullUrl));
     }
 
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+		// The short URL index is published before the full URL index, so a reader never sees
+		// a full URL that cannot be resolved by its short URL path.
+		return urlMappingStoreByFullUrl.computeIfAbsent(fullUrl, key -> {
+			for (int attempt = 0; attempt < MAX_SHORT_URL_PATH_ATTEMPTS; attempt++) {
+				UrlMapping mapping = mappingFactory.apply(key).prepareLocation();
+				if (urlMappingStoreByShortUrlPath.putIfAbsent(mapping.getShortUrlPath(), mapping) == null) {
+					return mapping;
+				}
+			}
+			throw new IllegalStateException("Unable to allocate a unique short URL path for " + key);
+		});
+    }
+
     @Override
     public boolean existsByShortUrlPath(String shortUrlPath) {
         return urlMappingStoreByShortUrlPath.containsKey(shortUrlPath);
@@ -45,7 +78,7 @@ public class InMemoryUrlMappingRepository implements UrlMappingRepository {
     public boolean deleteByShortUrlPath(String shortUrlPath) {
 		UrlMapping removed = urlMappingStoreByShortUrlPath.remove(shortUrlPath);
 		if (removed != null) {
-			urlMappingStoreByFullUrl.remove(removed.getFullUrl());
+			urlMappingStoreByFullUrl.remove(removed);
 		}
 		return removed != null;
     }
@@ -54,4 +87,9 @@ public class InMemoryUrlMappingRepository implements UrlMappingRepository {
     public long count() {
         return urlMappingStoreByShortUrlPath.size();
     }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        urlMappingStoreByShortUrlPath.values().forEach(action);
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+import java.util.function.Consumer;
+
+/**
+ * UrlMappingRepository holding its mappings in this process, or in storage reached by this process alone, so they can
+ * be iterated: the storage backends and the decorators around them. The repositories of other instances, such as
+ * {@link RemoteUrlMappingRepository}, are not iterable.
+ */
+public interface IterableUrlMappingRepository extends UrlMappingRepository {
+
+    /**
+     * Performs the given action for each stored mapping.
+     * Mappings saved or deleted during the iteration may or may not be visited.
+     * The action must not modify this repository.
+     *
+     * @param action The action to perform
+     */
+    void forEach(Consumer<UrlMapping> action);
+
+}
@@ -0,0 +1,411 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.util.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Relational implementation of the UrlMappingRepository interface, storing the mappings in a single
+ * {@code url_mapping} table of the configured DataSource, which is created if missing.
+ * <p>
+ * Mappings are looked up by their short URL path, the primary key, or by a 64-bit hash of their full URL, which has
+ * an index of its own, together with the full URL itself, so full URLs with the same hash are told apart. A mapping
+ * saved for a full URL that already has one takes over its hash, as the other backends index the last saved mapping.
+ * </p>
+ * <p>
+ * {@link #findOrCreateByFullUrl(String, Function)} is atomic across concurrent callers of an instance. Instances
+ * sharing the database can still both create a mapping of the same full URL; each then reads the mappings of the
+ * full URL again and keeps the one with the smallest short URL path, deleting its own if it lost. Only if one of them
+ * read before the other one inserted do both keep theirs, giving the full URL two working short URLs.
+ * </p>
+ * <p>
+ * Every statement has a fixed text, so the driver or pool can reuse its prepared form on each pooled connection;
+ * multi-key reads pad their keys to one of a few list lengths for the same reason. Bulk creations insert all new
+ * mappings of a batch with JDBC batches in a single transaction.
+ * </p>
+ */
+@Slf4j
+@Repository
+@Qualifier("storage")
+@ConditionalOnProperty(prefix = "url.shortener", name = "repository", havingValue = "jdbc")
+public class JdbcUrlMappingRepository implements IterableUrlMappingRepository {
+
+    private static final int MAX_SHORT_URL_PATH_ATTEMPTS = 10;
+    private static final int[] IN_LIST_SIZES = {1, 4, 16, 64};
+    private static final int MAX_IN_LIST_SIZE = IN_LIST_SIZES[IN_LIST_SIZES.length - 1];
+    private static final int FETCH_SIZE = 1000;
+    private static final int CREATE_LOCK_STRIPES = 64;
+
+    private static final String COLUMNS = "short_url_path, full_url, location, created_at, last_accessed_at, expires_at, "
+        + "access_count, redirect_status, cacheable";
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS url_mapping (
+            short_url_path VARCHAR(64) PRIMARY KEY,
+            full_url VARCHAR(8192) NOT NULL,
+            full_url_hash BIGINT,
+            location VARCHAR(8192) NOT NULL,
+            created_at TIMESTAMP(9) NOT NULL,
+            last_accessed_at TIMESTAMP(9) NOT NULL,
+            expires_at TIMESTAMP(9),
+            access_count BIGINT NOT NULL,
+            redirect_status INT,
+            cacheable BOOLEAN
+        )""";
+    private static final String CREATE_FULL_URL_INDEX =
+        "CREATE INDEX IF NOT EXISTS url_mapping_full_url_hash_lookup ON url_mapping (full_url_hash)";
+    private static final String SELECT_BY_SHORT_URL_PATH = "SELECT " + COLUMNS + " FROM url_mapping WHERE short_url_path = ?";
+    private static final String SELECT_BY_FULL_URL = "SELECT " + COLUMNS + " FROM url_mapping "
+        + "WHERE full_url_hash = ? AND full_url = ? ORDER BY short_url_path";
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM url_mapping";
+    private static final String EXISTS = "SELECT COUNT(*) FROM url_mapping WHERE short_url_path = ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM url_mapping";
+    private static final String INSERT = "INSERT INTO url_mapping (full_url_hash, " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE url_mapping SET full_url_hash = ?, short_url_path = ?, full_url = ?, location = ?, "
+        + "created_at = ?, last_accessed_at = ?, expires_at = ?, access_count = ?, redirect_status = ?, cacheable = ? "
+        + "WHERE short_url_path = ?";
+    private static final String RELEASE_FULL_URL_HASH =
+        "UPDATE url_mapping SET full_url_hash = NULL WHERE full_url_hash = ? AND full_url = ? AND short_url_path <> ?";
+    private static final String INCREMENT_ACCESS_COUNT = "UPDATE url_mapping SET access_count = access_count + ?, "
+        + "last_accessed_at = CASE WHEN last_accessed_at < ? THEN ? ELSE last_accessed_at END "
+        + "WHERE short_url_path = ?";
+    private static final String DELETE = "DELETE FROM url_mapping WHERE short_url_path = ?";
+
+    private static final RowMapper<UrlMapping> ROW_MAPPER = (resultSet, rowNum) -> toMapping(resultSet);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final String[] selectByShortUrlPaths = new String[IN_LIST_SIZES.length];
+    private final String[] selectByFullUrlHashes = new String[IN_LIST_SIZES.length];
+    private final ReentrantLock[] createLocks = new ReentrantLock[CREATE_LOCK_STRIPES];
+
+    @Autowired
+    public JdbcUrlMappingRepository(DataSource dataSource, UrlShortenerConfig urlShortenerConfig) {
+        this(dataSource, urlShortenerConfig.getJdbc().getBatchSize());
+    }
+
+    /**
+     * @param dataSource Pool of connections to the database holding the {@code url_mapping} table
+     * @param batchSize Number of inserts sent to the database at once by bulk creations
+     */
+    public JdbcUrlMappingRepository(DataSource dataSource, int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.batchSize = Math.max(1, batchSize);
+        for (int i = 0; i < IN_LIST_SIZES.length; i++) {
+            String parameters = String.join(", ", Collections.nCopies(IN_LIST_SIZES[i], "?"));
+            selectByShortUrlPaths[i] = "SELECT " + COLUMNS + " FROM url_mapping WHERE short_url_path IN (" + parameters + ")";
+            selectByFullUrlHashes[i] = "SELECT " + COLUMNS + " FROM url_mapping WHERE full_url_hash IN (" + parameters + ") "
+                + "ORDER BY short_url_path";
+        }
+        for (int i = 0; i < CREATE_LOCK_STRIPES; i++) {
+            createLocks[i] = new ReentrantLock();
+        }
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        jdbcTemplate.execute(CREATE_FULL_URL_INDEX);
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        mapping.prepareLocation();
+        long hash = hash(mapping.getFullUrl());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(RELEASE_FULL_URL_HASH, hash, mapping.getFullUrl(), mapping.getShortUrlPath());
+            if (jdbcTemplate.update(UPDATE, statement -> {
+                setValues(statement, hash, mapping);
+                statement.setString(11, mapping.getShortUrlPath());
+            }) == 0) {
+                jdbcTemplate.update(INSERT, statement -> setValues(statement, hash, mapping));
+            }
+        });
+        return mapping;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return jdbcTemplate.query(SELECT_BY_SHORT_URL_PATH, ROW_MAPPER, shortUrlPath).stream().findFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The keys are resolved with one query per {@value #MAX_IN_LIST_SIZE} keys.
+     * </p>
+     */
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(shortUrlPaths.size());
+        List<String> keys = List.copyOf(shortUrlPaths);
+        for (int from = 0; from < keys.size(); from += MAX_IN_LIST_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + MAX_IN_LIST_SIZE));
+            int inList = inListIndex(chunk.size());
+            jdbcTemplate.query(selectByShortUrlPaths[inList], statement -> setPadded(statement, chunk, inList),
+                resultSet -> {
+                    UrlMapping mapping = toMapping(resultSet);
+                    mappings.put(mapping.getShortUrlPath(), mapping);
+                });
+        }
+        return mappings;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return findByFullUrl(fullUrl, hash(fullUrl));
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        long hash = hash(fullUrl);
+        ReentrantLock createLock = createLocks[(int) hash & (CREATE_LOCK_STRIPES - 1)];
+        createLock.lock();
+        try {
+            for (int attempt = 0; attempt < MAX_SHORT_URL_PATH_ATTEMPTS; attempt++) {
+                Optional<UrlMapping> existing = findByFullUrl(fullUrl, hash);
+                if (existing.isPresent()) {
+                    return existing.get();
+                }
+                UrlMapping mapping = mappingFactory.apply(fullUrl).prepareLocation();
+                try {
+                    jdbcTemplate.update(INSERT, statement -> setValues(statement, hash, mapping));
+                } catch (DuplicateKeyException e) {
+                    log.debug("Failed to insert mapping of {} as {}, short URL path is taken", fullUrl, mapping.getShortUrlPath(), e);
+                    continue;
+                }
+                return keepFirst(mapping, findByFullUrl(fullUrl, hash).orElse(mapping));
+            }
+        } finally {
+            createLock.unlock();
+        }
+        throw new IllegalStateException("Unable to allocate a unique short URL path for " + fullUrl);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The existing mappings are found with one query per {@value #MAX_IN_LIST_SIZE} full URLs, and the new ones are
+     * inserted with JDBC batches in a single transaction, after which the mappings of the new full URLs are read once
+     * more to keep the first of those created concurrently. If the inserts fail because a short URL path is taken,
+     * nothing is inserted and the full URLs are created one by one instead.
+     * </p>
+     */
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        Map<String, UrlMapping> mappings = findAllByFullUrls(fullUrls);
+        List<UrlMapping> created = new ArrayList<>();
+        for (String fullUrl : fullUrls) {
+            if (!mappings.containsKey(fullUrl)) {
+                created.add(mappingFactory.apply(fullUrl).prepareLocation());
+            }
+        }
+        if (created.isEmpty()) {
+            return mappings;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, created, batchSize,
+                (statement, mapping) -> setValues(statement, hash(mapping.getFullUrl()), mapping)));
+        } catch (DuplicateKeyException e) {
+            log.debug("Failed to insert {} mappings in a batch, inserting them one by one", created.size(), e);
+            created.forEach(mapping -> mappings.put(mapping.getFullUrl(), findOrCreateByFullUrl(mapping.getFullUrl(), mappingFactory)));
+            return mappings;
+        }
+        Map<String, UrlMapping> first = findAllByFullUrls(created.stream().map(UrlMapping::getFullUrl).toList());
+        created.forEach(mapping -> mappings.put(mapping.getFullUrl(), keepFirst(mapping, first.getOrDefault(mapping.getFullUrl(), mapping))));
+        return mappings;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each access count is incremented by the database, so increments of concurrent instances add up, with JDBC
+     * batches in a single transaction. The rows are updated in the order of their short URL paths, so two such
+     * transactions cannot deadlock.
+     * </p>
+     */
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        List<AccessIncrement> sorted = increments.stream().sorted(Comparator.comparing(AccessIncrement::shortUrlPath)).toList();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INCREMENT_ACCESS_COUNT, sorted, batchSize,
+            (statement, increment) -> {
+                statement.setLong(1, increment.count());
+                statement.setObject(2, increment.lastAccessedAt());
+                statement.setObject(3, increment.lastAccessedAt());
+                statement.setString(4, increment.shortUrlPath());
+            }));
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        Long count = jdbcTemplate.queryForObject(EXISTS, Long.class, shortUrlPath);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        return jdbcTemplate.update(DELETE, shortUrlPath) > 0;
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject(COUNT, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The mappings are streamed from a single query, {@value #FETCH_SIZE} rows at a time.
+     * </p>
+     */
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        jdbcTemplate.query(SELECT_ALL, (RowCallbackHandler) resultSet -> action.accept(toMapping(resultSet)));
+    }
+
+    /**
+     * @return The mapping of the full URL with the smallest short URL path, if any
+     */
+    private Optional<UrlMapping> findByFullUrl(String fullUrl, long hash) {
+        return jdbcTemplate.query(SELECT_BY_FULL_URL, ROW_MAPPER, hash, fullUrl).stream().findFirst();
+    }
+
+    /**
+     * @return The mapping with the smallest short URL path of each full URL that has one; mappings of other full URLs
+     *         with the same hash are skipped
+     */
+    private Map<String, UrlMapping> findAllByFullUrls(Collection<String> fullUrls) {
+        Set<String> requested = new HashSet<>(fullUrls);
+        List<Long> hashes = requested.stream().map(JdbcUrlMappingRepository::hash).distinct().toList();
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(requested.size());
+        for (int from = 0; from < hashes.size(); from += MAX_IN_LIST_SIZE) {
+            List<Long> chunk = hashes.subList(from, Math.min(hashes.size(), from + MAX_IN_LIST_SIZE));
+            int inList = inListIndex(chunk.size());
+            jdbcTemplate.query(selectByFullUrlHashes[inList], statement -> setPadded(statement, chunk, inList),
+                resultSet -> {
+                    UrlMapping mapping = toMapping(resultSet);
+                    if (requested.contains(mapping.getFullUrl())) {
+                        mappings.putIfAbsent(mapping.getFullUrl(), mapping);
+                    }
+                });
+        }
+        return mappings;
+    }
+
+    /**
+     * Resolves the creation of a mapping racing with another instance for the same full URL.
+     *
+     * @param created The mapping just inserted, not returned to anyone yet
+     * @param first The mapping of its full URL with the smallest short URL path
+     * @return The first mapping, after deleting the created one if it is not the first
+     */
+    private UrlMapping keepFirst(UrlMapping created, UrlMapping first) {
+        if (!first.getShortUrlPath().equals(created.getShortUrlPath())) {
+            jdbcTemplate.update(DELETE, created.getShortUrlPath());
+        }
+        return first;
+    }
+
+    /**
+     * @return The index of the smallest IN list length holding the number of keys
+     */
+    private static int inListIndex(int keys) {
+        int inList = 0;
+        while (IN_LIST_SIZES[inList] < keys) {
+            inList++;
+        }
+        return inList;
+    }
+
+    /**
+     * Binds the keys to the parameters of an IN list, repeating the first key in the parameters beyond them.
+     */
+    private static void setPadded(PreparedStatement statement, List<?> keys, int inList) throws SQLException {
+        for (int i = 0; i < IN_LIST_SIZES[inList]; i++) {
+            statement.setObject(i + 1, keys.get(i < keys.size() ? i : 0));
+        }
+    }
+
+    private static void setValues(PreparedStatement statement, long hash, UrlMapping mapping) throws SQLException {
+        statement.setLong(1, hash);
+        statement.setString(2, mapping.getShortUrlPath());
+        statement.setString(3, mapping.getFullUrl());
+        statement.setString(4, mapping.getLocation());
+        statement.setObject(5, mapping.getCreatedAt());
+        statement.setObject(6, mapping.getLastAccessedAt());
+        statement.setObject(7, mapping.getExpiresAt());
+        statement.setLong(8, mapping.getAccessCount());
+        if (mapping.getRedirectStatus() != null) {
+            statement.setInt(9, mapping.getRedirectStatus());
+        } else {
+            statement.setNull(9, Types.INTEGER);
+        }
+        if (mapping.getCacheable() != null) {
+            statement.setBoolean(10, mapping.getCacheable());
+        } else {
+            statement.setNull(10, Types.BOOLEAN);
+        }
+    }
+
+    private static UrlMapping toMapping(ResultSet resultSet) throws SQLException {
+        int redirectStatus = resultSet.getInt("redirect_status");
+        Integer redirectStatusOrNull = resultSet.wasNull() ? null : redirectStatus;
+        boolean cacheable = resultSet.getBoolean("cacheable");
+        Boolean cacheableOrNull = resultSet.wasNull() ? null : cacheable;
+        return UrlMapping.builder()
+            .shortUrlPath(resultSet.getString("short_url_path"))
+            .fullUrl(resultSet.getString("full_url"))
+            .location(resultSet.getString("location"))
+            .createdAt(resultSet.getObject("created_at", LocalDateTime.class))
+            .lastAccessedAt(resultSet.getObject("last_accessed_at", LocalDateTime.class))
+            .expiresAt(resultSet.getObject("expires_at", LocalDateTime.class))
+            .accessCount(resultSet.getLong("access_count"))
+            .redirectStatus(redirectStatusOrNull)
+            .cacheable(cacheableOrNull)
+            .build();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of a full URL, finalized with a MurmurHash3 mix.
+     */
+    static long hash(String fullUrl) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : fullUrl.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return Hashing.fmix64(hash);
+    }
+}
@@ -0,0 +1,536 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable implementation of the UrlMappingRepository interface based on an append-only log of memory-mapped segments.
+ * <p>
+ * Every {@link #save(UrlMapping)} and {@link #deleteByShortUrlPath(String)} appends a checksummed record to the
+ * current segment before updating an {@link InMemoryUrlMappingRepository} index, which serves all reads.
+ * {@link #incrementAccessCounts(Collection)} appends a short record holding only the new access statistics.
+ * Segments are forced to disk in group-commit batches: once {@code syncBatchSize} records are pending, or at the
+ * latest every {@code syncIntervalMillis}, so a crash loses at most one batch of writes.
+ * </p>
+ * <p>
+ * When the current segment is full and the log holds at least {@value #COMPACTION_RATIO} records per mapping of the
+ * index, most of them overwritten or deleted since, the log is compacted: the mappings of the index are written to
+ * new segments, which are forced to disk before the previous segments are deleted. If a crash leaves both behind,
+ * replaying the new segments after the previous ones only saves the same mappings again. Writers wait for the
+ * compaction while reads go on, and the log stays within a small multiple of the size of the mappings however often
+ * they are updated.
+ * </p>
+ * <p>
+ * On startup the index is rebuilt by replaying all segments in order. A record with an invalid length or checksum in
+ * the last segment marks a torn write, and the log is truncated there. Anything else cannot be left behind by a
+ * crash, since a segment is forced to disk before the next one is created: an invalid record in an earlier segment,
+ * or a record with a valid checksum that cannot be decoded, fails startup rather than dropping the writes after it.
+ * </p>
+ * <p>
+ * Record layout: {@code int length | int crc32 | byte type | payload}, where the length and checksum cover the type
+ * and payload. The length is written last, so a record is only visible once it is complete.
+ * </p>
+ */
+@Slf4j
+@Repository
+@Qualifier("storage")
+@ConditionalOnProperty(prefix = "url.shortener", name = "repository", havingValue = "mapped-log")
+public class MappedLogUrlMappingRepository implements IterableUrlMappingRepository, Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_SHORT_URL_PATH_ATTEMPTS = 10;
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+    private static final byte ACCESS = 3;
+    private static final int COMPACTION_RATIO = 2;
+
+    private final InMemoryUrlMappingRepository index = new InMemoryUrlMappingRepository();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Path directory;
+    private final int segmentSize;
+    private final int syncBatchSize;
+    private final ScheduledExecutorService syncScheduler;
+
+    private long segmentId;
+    private MappedByteBuffer segment;
+    private int writePosition;
+    private int syncedPosition;
+    private int pendingRecords;
+    private long loggedRecords;
+
+    @Autowired
+    public MappedLogUrlMappingRepository(UrlShortenerConfig urlShortenerConfig) throws IOException {
+        this(Path.of(urlShortenerConfig.getLog().getDirectory()),
+            urlShortenerConfig.getLog().getSegmentSize(),
+            urlShortenerConfig.getLog().getSyncBatchSize(),
+            urlShortenerConfig.getLog().getSyncIntervalMillis());
+    }
+
+    /**
+     * @param directory Directory holding the log segments, created if missing
+     * @param segmentSize Size in bytes of each segment; larger records get a segment of their own size
+     * @param syncBatchSize Number of pending records that triggers a sync
+     * @param syncIntervalMillis Period of the background sync of pending records, or 0 to only sync full batches
+     */
+    public MappedLogUrlMappingRepository(Path directory, int segmentSize, int syncBatchSize, long syncIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncBatchSize = Math.max(1, syncBatchSize);
+
+        Files.createDirectories(directory);
+        recover();
+
+        if (syncIntervalMillis > 0) {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "url-mapping-log-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncScheduler = null;
+        }
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        mapping.prepareLocation();
+        boolean batchFull;
+        writeLock.lock();
+        try {
+            batchFull = append(encodeSave(mapping));
+            index.save(mapping);
+        } finally {
+            writeLock.unlock();
+        }
+        if (batchFull) {
+            sync();
+        }
+        return mapping;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return index.findByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return index.findByFullUrl(fullUrl);
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        Optional<UrlMapping> existing = index.findByFullUrl(fullUrl);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        UrlMapping created = null;
+        boolean batchFull = false;
+        writeLock.lock();
+        try {
+            existing = index.findByFullUrl(fullUrl);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            for (int attempt = 0; attempt < MAX_SHORT_URL_PATH_ATTEMPTS && created == null; attempt++) {
+                UrlMapping mapping = mappingFactory.apply(fullUrl).prepareLocation();
+                if (!index.existsByShortUrlPath(mapping.getShortUrlPath())) {
+                    batchFull = append(encodeSave(mapping));
+                    index.save(mapping);
+                    created = mapping;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (created == null) {
+            throw new IllegalStateException("Unable to allocate a unique short URL path for " + fullUrl);
+        }
+        if (batchFull) {
+            sync();
+        }
+        return created;
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return index.existsByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        boolean batchFull;
+        writeLock.lock();
+        try {
+            if (!index.existsByShortUrlPath(shortUrlPath)) {
+                return false;
+            }
+            batchFull = append(encodeDelete(shortUrlPath));
+            index.deleteByShortUrlPath(shortUrlPath);
+        } finally {
+            writeLock.unlock();
+        }
+        if (batchFull) {
+            sync();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Appends one record per mapping with its new access count and last access time, rather than the whole mapping.
+     * </p>
+     */
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        boolean batchFull = false;
+        writeLock.lock();
+        try {
+            for (AccessIncrement increment : increments) {
+                Optional<UrlMapping> found = index.findByShortUrlPath(increment.shortUrlPath());
+                if (found.isEmpty()) {
+                    continue;
+                }
+                UrlMapping mapping = found.get();
+                long accessCount = mapping.getAccessCount() + increment.count();
+                LocalDateTime lastAccessedAt = mapping.getLastAccessedAt();
+                if (lastAccessedAt == null || increment.lastAccessedAt().isAfter(lastAccessedAt)) {
+                    lastAccessedAt = increment.lastAccessedAt();
+                }
+                batchFull |= append(encodeAccess(mapping.getShortUrlPath(), accessCount, lastAccessedAt));
+                mapping.setAccessCount(accessCount);
+                mapping.setLastAccessedAt(lastAccessedAt);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (batchFull) {
+            sync();
+        }
+    }
+
+    @Override
+    public long count() {
+        return index.count();
+    }
+
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        index.forEach(action);
+    }
+
+    /**
+     * Forces all pending records to disk. The force itself runs outside the write lock,
+     * so writers can keep appending to the rest of the segment meanwhile.
+     */
+    public void sync() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        writeLock.lock();
+        try {
+            if (pendingRecords == 0) {
+                return;
+            }
+            target = segment;
+            from = syncedPosition;
+            to = writePosition;
+            syncedPosition = writePosition;
+            pendingRecords = 0;
+        } finally {
+            writeLock.unlock();
+        }
+        target.force(from, to - from);
+    }
+
+    @Override
+    public void close() {
+        if (syncScheduler != null) {
+            syncScheduler.shutdown();
+        }
+        sync();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to sync URL mapping log", e);
+        }
+    }
+
+    /**
+     * Appends a record to the current segment, compacting the log first if the record does not fit and most of the
+     * logged records are obsolete.
+     *
+     * @return true if the pending records fill a sync batch
+     */
+    private boolean append(byte[] payload) {
+        if (writePosition + HEADER_SIZE + payload.length > segment.capacity() && loggedRecords >= COMPACTION_RATIO * index.count()) {
+            compact();
+        }
+        write(payload);
+        return ++pendingRecords >= syncBatchSize;
+    }
+
+    /**
+     * Writes a record to the current segment, rolling over to a new segment when it does not fit.
+     */
+    private void write(byte[] payload) {
+        int required = HEADER_SIZE + payload.length;
+        if (writePosition + required > segment.capacity()) {
+            rollOver(required);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        segment.put(writePosition + HEADER_SIZE, payload);
+        segment.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(writePosition, payload.length);
+        writePosition += required;
+        loggedRecords++;
+    }
+
+    /**
+     * Writes the mappings of the index to new segments and deletes the previous ones once the new ones are on disk.
+     */
+    private void compact() {
+        long lastObsoleteSegmentId = segmentId;
+        rollOver(0);
+        loggedRecords = 0;
+        index.forEach(mapping -> write(encodeSave(mapping)));
+        segment.force(syncedPosition, writePosition - syncedPosition);
+        syncedPosition = writePosition;
+        pendingRecords = 0;
+        try {
+            for (long id : listSegmentIds()) {
+                if (id <= lastObsoleteSegmentId) {
+                    Files.delete(segmentPath(id));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete compacted URL mapping log segments", e);
+        }
+        log.info("Compacted URL mapping log into {} records", loggedRecords);
+    }
+
+    private void rollOver(int required) {
+        segment.force(syncedPosition, writePosition - syncedPosition);
+        try {
+            segment = map(segmentPath(segmentId + 1), Math.max(segmentSize, required));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create URL mapping log segment", e);
+        }
+        segmentId++;
+        writePosition = 0;
+        syncedPosition = 0;
+    }
+
+    /**
+     * Replays all segments into the index and positions the writer after the last valid record.
+     */
+    private void recover() throws IOException {
+        List<Long> segmentIds = listSegmentIds();
+        if (segmentIds.isEmpty()) {
+            segmentId = 0;
+            segment = map(segmentPath(segmentId), segmentSize);
+            return;
+        }
+
+        for (int i = 0; i < segmentIds.size(); i++) {
+            segmentId = segmentIds.get(i);
+            Path path = segmentPath(segmentId);
+            segment = map(path, (int) Files.size(path));
+            writePosition = replay(path, segment);
+
+            boolean torn = writePosition < segment.capacity() - HEADER_SIZE && segment.getInt(writePosition) != 0;
+            if (torn && i < segmentIds.size() - 1) {
+                throw new IllegalStateException("Corrupt URL mapping log " + path + " at offset " + writePosition
+                    + ", followed by " + (segmentIds.size() - 1 - i) + " later segment(s)");
+            }
+            if (torn) {
+                log.warn("Truncating torn URL mapping log {} at offset {}", path, writePosition);
+            }
+        }
+
+        // Clear anything left behind the last record by a torn write, so it cannot be mistaken for a record later
+        boolean dirty = false;
+        for (int position = writePosition; position < segment.capacity(); position++) {
+            if (segment.get(position) != 0) {
+                segment.put(position, (byte) 0);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            segment.force();
+        }
+        syncedPosition = writePosition;
+    }
+
+    /**
+     * @return The position after the last valid record of the segment
+     * @throws IllegalStateException If a record with a valid checksum cannot be decoded
+     */
+    private int replay(Path path, ByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - HEADER_SIZE) {
+                return position;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_SIZE, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                return position;
+            }
+            if (!apply(ByteBuffer.wrap(payload))) {
+                throw new IllegalStateException("Undecodable URL mapping log record in " + path + " at offset " + position);
+            }
+            position += HEADER_SIZE + length;
+            loggedRecords++;
+        }
+        return position;
+    }
+
+    private boolean apply(ByteBuffer record) {
+        try {
+            byte type = record.get();
+            if (type == SAVE) {
+                UrlMapping mapping = UrlMapping.builder()
+                    .shortUrlPath(getString(record, Short.toUnsignedInt(record.getShort())))
+                    .fullUrl(getString(record, record.getInt()))
+                    .createdAt(EpochNanos.toLocalDateTime(record.getLong()))
+                    .lastAccessedAt(EpochNanos.toLocalDateTime(record.getLong()))
+                    .expiresAt(EpochNanos.toLocalDateTime(record.getLong()))
+                    .accessCount(record.getLong())
+                    .build();
+                int options = record.getInt();
+                mapping.setRedirectStatus(RedirectOptions.redirectStatus(options));
+                mapping.setCacheable(RedirectOptions.cacheable(options));
+                index.save(mapping);
+                return true;
+            }
+            if (type == DELETE) {
+                index.deleteByShortUrlPath(getString(record, Short.toUnsignedInt(record.getShort())));
+                return true;
+            }
+            if (type == ACCESS) {
+                Optional<UrlMapping> mapping = index.findByShortUrlPath(getString(record, Short.toUnsignedInt(record.getShort())));
+                long accessCount = record.getLong();
+                LocalDateTime lastAccessedAt = EpochNanos.toLocalDateTime(record.getLong());
+                mapping.ifPresent(found -> {
+                    found.setAccessCount(accessCount);
+                    found.setLastAccessedAt(lastAccessedAt);
+                });
+                return true;
+            }
+            return false;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static byte[] encodeSave(UrlMapping mapping) {
+        byte[] shortUrlPath = toShortUrlPathBytes(mapping.getShortUrlPath());
+        byte[] fullUrl = mapping.getFullUrl().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + Short.BYTES + shortUrlPath.length + Integer.BYTES + fullUrl.length + 4 * Long.BYTES + Integer.BYTES)
+            .put(SAVE)
+            .putShort((short) shortUrlPath.length).put(shortUrlPath)
+            .putInt(fullUrl.length).put(fullUrl)
+            .putLong(EpochNanos.of(mapping.getCreatedAt()))
+            .putLong(EpochNanos.of(mapping.getLastAccessedAt()))
+            .putLong(EpochNanos.of(mapping.getExpiresAt()))
+            .putLong(mapping.getAccessCount())
+            .putInt(RedirectOptions.of(mapping))
+            .array();
+    }
+
+    private static byte[] encodeDelete(String shortUrlPath) {
+        byte[] bytes = toShortUrlPathBytes(shortUrlPath);
+        return ByteBuffer.allocate(1 + Short.BYTES + bytes.length)
+            .put(DELETE)
+            .putShort((short) bytes.length).put(bytes)
+            .array();
+    }
+
+    private static byte[] encodeAccess(String shortUrlPath, long accessCount, LocalDateTime lastAccessedAt) {
+        byte[] bytes = toShortUrlPathBytes(shortUrlPath);
+        return ByteBuffer.allocate(1 + Short.BYTES + bytes.length + 2 * Long.BYTES)
+            .put(ACCESS)
+            .putShort((short) bytes.length).put(bytes)
+            .putLong(accessCount)
+            .putLong(EpochNanos.of(lastAccessedAt))
+            .array();
+    }
+
+    private static byte[] toShortUrlPathBytes(String shortUrlPath) {
+        byte[] bytes = shortUrlPath.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Short URL path is too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Long> listSegmentIds() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
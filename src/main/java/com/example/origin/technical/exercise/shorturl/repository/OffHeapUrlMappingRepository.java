@@ -0,0 +1,621 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.util.Hashing;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Primitive-keyed implementation of the UrlMappingRepository interface with near-zero GC pressure.
+ * <p>
+ * Short URL paths of up to {@value #MAX_PACKED_LENGTH} Base62 characters are packed into a {@code long}
+ * and used as keys of an open-addressing table stored in a single {@code long[]}. Timestamps are kept as
+ * epoch nanoseconds and full URLs as UTF-8 bytes in direct {@link ByteBuffer} chunks, followed by their Location
+ * header value when it differs from the full URL itself, so the heap only
+ * holds a handful of arrays no matter how many mappings are stored. The full URL index is a second
+ * open-addressing table keyed on a 64-bit hash of the URL bytes, confirmed against the stored bytes on hit.
+ * </p>
+ * <p>
+ * Reads are optimistic and never block; writes are serialized by a {@link StampedLock}.
+ * Mappings returned by this repository are detached snapshots: changes made to them are only
+ * stored by calling {@link #save(UrlMapping)} again.
+ * </p>
+ */
+@Repository
+@Qualifier("storage")
+@ConditionalOnProperty(prefix = "url.shortener", name = "repository", havingValue = "off-heap")
+public class OffHeapUrlMappingRepository implements IterableUrlMappingRepository {
+
+    static final int MAX_PACKED_LENGTH = 10;
+
+    private static final String BASE62_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final byte[] BASE62_DIGITS = new byte[128];
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+    private static final int DEFAULT_ARENA_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_SHORT_URL_PATH_ATTEMPTS = 10;
+    private static final long EMPTY = 0L;
+    private static final long LOCATION_IS_FULL_URL = -1L;
+
+    // Layout of an entry in the mapping table
+    private static final int STRIDE = 8;
+    private static final int KEY = 0;
+    private static final int URL_REF = 1;
+    private static final int CREATED_AT = 2;
+    private static final int LAST_ACCESSED_AT = 3;
+    private static final int EXPIRES_AT = 4;
+    private static final int ACCESS_COUNT = 5;
+    private static final int LOCATION_REF = 6;
+    private static final int REDIRECT_OPTIONS = 7;
+
+    // Layout of an entry in the full URL index
+    private static final int URL_STRIDE = 2;
+    private static final int URL_HASH = 0;
+    private static final int URL_KEY = 1;
+
+    static {
+        Arrays.fill(BASE62_DIGITS, (byte) -1);
+        for (int i = 0; i < BASE62_ALPHABET.length(); i++) {
+            BASE62_DIGITS[BASE62_ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final int arenaChunkSize;
+
+    private long[] mappings;
+    private long[] fullUrlIndex;
+    private UrlArena arena;
+    private int size;
+
+    public OffHeapUrlMappingRepository() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_ARENA_CHUNK_SIZE);
+    }
+
+    /**
+     * @param initialCapacity Initial number of table slots, rounded up to a power of two
+     * @param arenaChunkSize Size in bytes of each off-heap chunk holding full URLs
+     */
+    public OffHeapUrlMappingRepository(int initialCapacity, int arenaChunkSize) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1);
+        this.arenaChunkSize = arenaChunkSize;
+        this.mappings = new long[capacity * STRIDE];
+        this.fullUrlIndex = new long[capacity * URL_STRIDE];
+        this.arena = new UrlArena(arenaChunkSize);
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        long key = requirePacked(mapping.getShortUrlPath());
+        mapping.prepareLocation();
+        byte[] fullUrl = mapping.getFullUrl().getBytes(StandardCharsets.UTF_8);
+        long hash = hash(fullUrl);
+
+        long stamp = lock.writeLock();
+        try {
+            store(key, fullUrl, hash, mapping);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return mapping;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        long key = pack(shortUrlPath);
+        if (key == EMPTY) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(read(() -> {
+            int slot = slotOf(mappings, key);
+            return slot < 0 ? null : toMapping(shortUrlPath, slot);
+        }));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All keys are resolved under a single read of the table.
+     * </p>
+     */
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        return read(() -> {
+            Map<String, UrlMapping> found = HashMap.newHashMap(shortUrlPaths.size());
+            for (String shortUrlPath : shortUrlPaths) {
+                long key = pack(shortUrlPath);
+                int slot = key == EMPTY ? -1 : slotOf(mappings, key);
+                if (slot >= 0) {
+                    found.put(shortUrlPath, toMapping(shortUrlPath, slot));
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        byte[] bytes = fullUrl.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes);
+        return Optional.ofNullable(read(() -> {
+            int slot = slotOfFullUrl(bytes, hash);
+            return slot < 0 ? null : toMapping(unpack(mappings[slot * STRIDE + KEY]), slot);
+        }));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The mapping factory is invoked while holding the write lock and must therefore be fast.
+     * </p>
+     */
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        Optional<UrlMapping> existing = findByFullUrl(fullUrl);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        byte[] bytes = fullUrl.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOfFullUrl(bytes, hash);
+            if (slot >= 0) {
+                return toMapping(unpack(mappings[slot * STRIDE + KEY]), slot);
+            }
+            for (int attempt = 0; attempt < MAX_SHORT_URL_PATH_ATTEMPTS; attempt++) {
+                UrlMapping mapping = mappingFactory.apply(fullUrl).prepareLocation();
+                long key = requirePacked(mapping.getShortUrlPath());
+                if (slotOf(mappings, key) < 0) {
+                    store(key, bytes, hash, mapping);
+                    return mapping;
+                }
+            }
+            throw new IllegalStateException("Unable to allocate a unique short URL path for " + fullUrl);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        long key = pack(shortUrlPath);
+        return key != EMPTY && read(() -> slotOf(mappings, key) >= 0);
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        long key = pack(shortUrlPath);
+        if (key == EMPTY) {
+            return false;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(mappings, key);
+            if (slot < 0) {
+                return false;
+            }
+            long urlRef = mappings[slot * STRIDE + URL_REF];
+            removeFullUrlEntry(arena.hash(urlRef), key);
+            releaseStrings(slot);
+            removeSlot(mappings, STRIDE, KEY, KEY, slot);
+            size--;
+            compactArenaIfNeeded();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long count() {
+        return read(() -> size);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The action runs under the read lock, so writes wait until the iteration is done.
+     * </p>
+     */
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < capacity(); slot++) {
+                long key = mappings[slot * STRIDE + KEY];
+                if (key != EMPTY) {
+                    action.accept(toMapping(unpack(key), slot));
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Packs a short URL path into a non-zero {@code long}, using one base-63 digit per character
+     * so that leading zero characters remain significant.
+     *
+     * @param shortUrlPath The short URL path
+     * @return The packed key, or {@code 0} if the path is not a Base62 string of up to {@value #MAX_PACKED_LENGTH} characters
+     */
+    static long pack(String shortUrlPath) {
+        if (shortUrlPath == null || shortUrlPath.isEmpty() || shortUrlPath.length() > MAX_PACKED_LENGTH) {
+            return EMPTY;
+        }
+        long key = 0;
+        for (int i = 0; i < shortUrlPath.length(); i++) {
+            char c = shortUrlPath.charAt(i);
+            int digit = c < 128 ? BASE62_DIGITS[c] : -1;
+            if (digit < 0) {
+                return EMPTY;
+            }
+            key = key * 63 + digit + 1;
+        }
+        return key;
+    }
+
+    static String unpack(long key) {
+        char[] chars = new char[MAX_PACKED_LENGTH];
+        int position = chars.length;
+        while (key != 0) {
+            chars[--position] = BASE62_ALPHABET.charAt((int) (key % 63) - 1);
+            key /= 63;
+        }
+        return new String(chars, position, chars.length - position);
+    }
+
+    private static long requirePacked(String shortUrlPath) {
+        long key = pack(shortUrlPath);
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Short URL path must be 1-" + MAX_PACKED_LENGTH + " Base62 characters: " + shortUrlPath);
+        }
+        return key;
+    }
+
+    /**
+     * Runs a read optimistically and falls back to the read lock if a write happened meanwhile.
+     * A torn optimistic read may fail with an exception, which is treated the same way.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void store(long key, byte[] fullUrl, long hash, UrlMapping mapping) {
+        // Converted first, so a timestamp out of range leaves the tables untouched
+        long createdAt = EpochNanos.of(mapping.getCreatedAt());
+        long lastAccessedAt = EpochNanos.of(mapping.getLastAccessedAt());
+        long expiresAt = EpochNanos.of(mapping.getExpiresAt());
+        int slot = slotOf(mappings, key);
+        if (slot >= 0) {
+            removeFullUrlEntry(arena.hash(mappings[slot * STRIDE + URL_REF]), key);
+            releaseStrings(slot);
+        } else {
+            if ((size + 1) * 10L > capacity() * 6L) {
+                resize();
+            }
+            slot = freeSlotOf(mappings, STRIDE, KEY, Hashing.fmix64(key));
+            size++;
+        }
+
+        int base = slot * STRIDE;
+        mappings[base + URL_REF] = arena.append(fullUrl);
+        String location = mapping.getLocation();
+        mappings[base + LOCATION_REF] = location.equals(mapping.getFullUrl())
+            ? LOCATION_IS_FULL_URL
+            : arena.append(location.getBytes(StandardCharsets.US_ASCII));
+        mappings[base + CREATED_AT] = createdAt;
+        mappings[base + LAST_ACCESSED_AT] = lastAccessedAt;
+        mappings[base + EXPIRES_AT] = expiresAt;
+        mappings[base + ACCESS_COUNT] = mapping.getAccessCount();
+        mappings[base + REDIRECT_OPTIONS] = RedirectOptions.of(mapping);
+        mappings[base + KEY] = key;
+        putFullUrlEntry(fullUrl, hash, key);
+        compactArenaIfNeeded();
+    }
+
+    private void releaseStrings(int slot) {
+        arena.release(mappings[slot * STRIDE + URL_REF]);
+        long locationRef = mappings[slot * STRIDE + LOCATION_REF];
+        if (locationRef != LOCATION_IS_FULL_URL) {
+            arena.release(locationRef);
+        }
+    }
+
+    private UrlMapping toMapping(String shortUrlPath, int slot) {
+        int base = slot * STRIDE;
+        String fullUrl = arena.readString(mappings[base + URL_REF]);
+        long locationRef = mappings[base + LOCATION_REF];
+        return UrlMapping.builder()
+            .shortUrlPath(shortUrlPath)
+            .fullUrl(fullUrl)
+            .location(locationRef == LOCATION_IS_FULL_URL ? fullUrl : arena.readString(locationRef))
+            .createdAt(EpochNanos.toLocalDateTime(mappings[base + CREATED_AT]))
+            .lastAccessedAt(EpochNanos.toLocalDateTime(mappings[base + LAST_ACCESSED_AT]))
+            .expiresAt(EpochNanos.toLocalDateTime(mappings[base + EXPIRES_AT]))
+            .accessCount(mappings[base + ACCESS_COUNT])
+            .redirectStatus(RedirectOptions.redirectStatus((int) mappings[base + REDIRECT_OPTIONS]))
+            .cacheable(RedirectOptions.cacheable((int) mappings[base + REDIRECT_OPTIONS]))
+            .build();
+    }
+
+    private int capacity() {
+        return mappings.length / STRIDE;
+    }
+
+    private static int slotOf(long[] table, long key) {
+        int mask = table.length / STRIDE - 1;
+        int slot = (int) Hashing.fmix64(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long candidate = table[slot * STRIDE + KEY];
+            if (candidate == key) {
+                return slot;
+            }
+            if (candidate == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The slot in the mapping table whose full URL equals the given bytes, or -1
+     */
+    private int slotOfFullUrl(byte[] fullUrl, long hash) {
+        long[] index = fullUrlIndex;
+        int mask = index.length / URL_STRIDE - 1;
+        int slot = (int) Hashing.fmix64(hash) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long key = index[slot * URL_STRIDE + URL_KEY];
+            if (key == EMPTY) {
+                return -1;
+            }
+            if (index[slot * URL_STRIDE + URL_HASH] == hash) {
+                int mappingSlot = slotOf(mappings, key);
+                if (mappingSlot >= 0 && arena.contentEquals(mappings[mappingSlot * STRIDE + URL_REF], fullUrl)) {
+                    return mappingSlot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void putFullUrlEntry(byte[] fullUrl, long hash, long key) {
+        int mask = fullUrlIndex.length / URL_STRIDE - 1;
+        int slot = (int) Hashing.fmix64(hash) & mask;
+        while (fullUrlIndex[slot * URL_STRIDE + URL_KEY] != EMPTY) {
+            if (fullUrlIndex[slot * URL_STRIDE + URL_HASH] == hash) {
+                // The latest mapping saved for a full URL wins, like in the other repositories
+                int mappingSlot = slotOf(mappings, fullUrlIndex[slot * URL_STRIDE + URL_KEY]);
+                if (mappingSlot >= 0 && arena.contentEquals(mappings[mappingSlot * STRIDE + URL_REF], fullUrl)) {
+                    fullUrlIndex[slot * URL_STRIDE + URL_KEY] = key;
+                    return;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        fullUrlIndex[slot * URL_STRIDE + URL_HASH] = hash;
+        fullUrlIndex[slot * URL_STRIDE + URL_KEY] = key;
+    }
+
+    private void removeFullUrlEntry(long hash, long key) {
+        int mask = fullUrlIndex.length / URL_STRIDE - 1;
+        int slot = (int) Hashing.fmix64(hash) & mask;
+        while (fullUrlIndex[slot * URL_STRIDE + URL_KEY] != EMPTY) {
+            if (fullUrlIndex[slot * URL_STRIDE + URL_KEY] == key) {
+                removeSlot(fullUrlIndex, URL_STRIDE, URL_HASH, URL_KEY, slot);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int freeSlotOf(long[] table, int stride, int keyField, long hash) {
+        int mask = table.length / stride - 1;
+        int slot = (int) hash & mask;
+        while (table[slot * stride + keyField] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes an entry from a linear-probing table by shifting the following entries of its
+     * probe sequence backwards, so lookups never need tombstones.
+     */
+    private static void removeSlot(long[] table, int stride, int hashField, int keyField, int slot) {
+        int mask = table.length / stride - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (table[next * stride + keyField] == EMPTY) {
+                break;
+            }
+            int home = (int) Hashing.fmix64(table[next * stride + hashField]) & mask;
+            // Move the entry unless its home slot lies cyclically within (hole, next]
+            boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stays) {
+                System.arraycopy(table, next * stride, table, hole * stride, stride);
+                hole = next;
+            }
+        }
+        Arrays.fill(table, hole * stride, hole * stride + stride, EMPTY);
+    }
+
+    private void resize() {
+        long[] oldMappings = mappings;
+        long[] oldFullUrlIndex = fullUrlIndex;
+        int newCapacity = capacity() * 2;
+        long[] newMappings = new long[newCapacity * STRIDE];
+        long[] newFullUrlIndex = new long[newCapacity * URL_STRIDE];
+
+        for (int base = 0; base < oldMappings.length; base += STRIDE) {
+            long key = oldMappings[base + KEY];
+            if (key != EMPTY) {
+                int slot = freeSlotOf(newMappings, STRIDE, KEY, Hashing.fmix64(key));
+                System.arraycopy(oldMappings, base, newMappings, slot * STRIDE, STRIDE);
+            }
+        }
+        for (int base = 0; base < oldFullUrlIndex.length; base += URL_STRIDE) {
+            if (oldFullUrlIndex[base + URL_KEY] != EMPTY) {
+                int slot = freeSlotOf(newFullUrlIndex, URL_STRIDE, URL_KEY, Hashing.fmix64(oldFullUrlIndex[base + URL_HASH]));
+                System.arraycopy(oldFullUrlIndex, base, newFullUrlIndex, slot * URL_STRIDE, URL_STRIDE);
+            }
+        }
+
+        mappings = newMappings;
+        fullUrlIndex = newFullUrlIndex;
+    }
+
+    /**
+     * Copies live full URLs and Location values into a fresh arena once more than half of the arena has been released
+     * by deletes and overwrites. The old chunks are freed by the garbage collector.
+     */
+    private void compactArenaIfNeeded() {
+        if (arena.releasedBytes < arenaChunkSize || arena.releasedBytes * 2 < arena.usedBytes) {
+            return;
+        }
+        UrlArena compacted = new UrlArena(arenaChunkSize);
+        for (int base = 0; base < mappings.length; base += STRIDE) {
+            if (mappings[base + KEY] != EMPTY) {
+                mappings[base + URL_REF] = compacted.copyFrom(arena, mappings[base + URL_REF]);
+                if (mappings[base + LOCATION_REF] != LOCATION_IS_FULL_URL) {
+                    mappings[base + LOCATION_REF] = compacted.copyFrom(arena, mappings[base + LOCATION_REF]);
+                }
+            }
+        }
+        arena = compacted;
+    }
+
+    private static long hash(byte[] bytes) {
+        long hash = 0xCBF29CE484222325L ^ bytes.length;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return Hashing.fmix64(hash);
+    }
+
+    /**
+     * Append-only storage of length-prefixed UTF-8 strings in direct byte buffers.
+     * A reference packs the chunk index in the upper and the offset in the lower 32 bits.
+     */
+    private static final class UrlArena {
+
+        private final int chunkSize;
+        private ByteBuffer[] chunks = new ByteBuffer[8];
+        private int chunkCount;
+        private long usedBytes;
+        private long releasedBytes;
+
+        UrlArena(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        long append(byte[] bytes) {
+            int required = Integer.BYTES + bytes.length;
+            ByteBuffer chunk = chunkCount == 0 ? null : chunks[chunkCount - 1];
+            if (chunk == null || chunk.remaining() < required) {
+                chunk = ByteBuffer.allocateDirect(Math.max(chunkSize, required));
+                if (chunkCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                }
+                chunks[chunkCount++] = chunk;
+            }
+            int offset = chunk.position();
+            chunk.putInt(bytes.length).put(bytes);
+            usedBytes += required;
+            return ((long) (chunkCount - 1) << 32) | offset;
+        }
+
+        long copyFrom(UrlArena source, long ref) {
+            return append(source.read(ref));
+        }
+
+        void release(long ref) {
+            releasedBytes += Integer.BYTES + length(ref);
+        }
+
+        String readString(long ref) {
+            return new String(read(ref), StandardCharsets.UTF_8);
+        }
+
+        boolean contentEquals(long ref, byte[] bytes) {
+            ByteBuffer chunk = chunk(ref);
+            int offset = offset(ref);
+            if (chunk.getInt(offset) != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (chunk.get(offset + Integer.BYTES + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long hash(long ref) {
+            return OffHeapUrlMappingRepository.hash(read(ref));
+        }
+
+        private byte[] read(long ref) {
+            ByteBuffer chunk = chunk(ref);
+            int offset = offset(ref);
+            int length = chunk.getInt(offset);
+            if (length < 0 || length > chunk.capacity() - offset - Integer.BYTES) {
+                throw new IllegalStateException("Corrupt arena reference " + ref);
+            }
+            byte[] bytes = new byte[length];
+            chunk.get(offset + Integer.BYTES, bytes);
+            return bytes;
+        }
+
+        private int length(long ref) {
+            return chunk(ref).getInt(offset(ref));
+        }
+
+        private ByteBuffer chunk(long ref) {
+            return chunks[(int) (ref >>> 32)];
+        }
+
+        private static int offset(long ref) {
+            return (int) ref;
+        }
+    }
+}
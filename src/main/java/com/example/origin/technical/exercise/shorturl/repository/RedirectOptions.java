@@ -0,0 +1,42 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+/**
+ * Packs the redirect status and cacheability of a {@link UrlMapping} into an {@code int} for repositories storing
+ * mappings as primitives: the status in the low 16 bits, 0 for the default, and the cacheability in the next 2 bits,
+ * 0 for the default, 1 for not cacheable and 2 for cacheable. A mapping with neither option set packs to 0.
+ */
+final class RedirectOptions {
+
+    static final int NONE = 0;
+
+    private static final int STATUS_MASK = 0xFFFF;
+    private static final int CACHEABLE_SHIFT = 16;
+    private static final int NOT_CACHEABLE = 1;
+    private static final int CACHEABLE = 2;
+
+    private RedirectOptions() {
+    }
+
+    static int of(UrlMapping mapping) {
+        int options = mapping.getRedirectStatus() != null ? mapping.getRedirectStatus() & STATUS_MASK : 0;
+        if (mapping.getCacheable() != null) {
+            options |= (mapping.getCacheable() ? CACHEABLE : NOT_CACHEABLE) << CACHEABLE_SHIFT;
+        }
+        return options;
+    }
+
+    static Integer redirectStatus(int options) {
+        int status = options & STATUS_MASK;
+        return status != 0 ? status : null;
+    }
+
+    static Boolean cacheable(int options) {
+        return switch (options >>> CACHEABLE_SHIFT) {
+            case NOT_CACHEABLE -> false;
+            case CACHEABLE -> true;
+            default -> null;
+        };
+    }
+}
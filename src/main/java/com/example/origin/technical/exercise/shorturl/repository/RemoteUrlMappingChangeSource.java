@@ -0,0 +1,102 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * UrlMappingChangeSource of a leader instance, reached over HTTP through the internal replication endpoints it serves
+ * under {@value #BASE_PATH}.
+ * <p>
+ * Snapshots are sent as {@link UrlMappingSnapshot} files, with their position in the log in the
+ * {@value #LOG_ID_HEADER} and {@value #SEQUENCE_HEADER} headers. Failures, including timeouts, are thrown as
+ * {@link IllegalStateException}s.
+ * </p>
+ */
+public class RemoteUrlMappingChangeSource implements UrlMappingChangeSource {
+
+    /**
+     * Path of the internal replication endpoints
+     */
+    public static final String BASE_PATH = "/internal/v1/replication";
+
+    /**
+     * Response header holding the log ID of a snapshot
+     */
+    public static final String LOG_ID_HEADER = "X-Change-Log-Id";
+
+    /**
+     * Response header holding the sequence of a snapshot
+     */
+    public static final String SEQUENCE_HEADER = "X-Change-Sequence";
+
+    private final String leader;
+    private final RestClient restClient;
+    private final RestClient snapshotClient;
+
+    /**
+     * @param leader Base URL of the leader, such as {@code http://10.0.0.1:8080}
+     * @param secret Secret shared by the instances
+     * @param timeout Maximum time to connect to the leader, and to wait for each of its responses
+     * @param snapshotTimeout Maximum time to wait for the leader to write a snapshot
+     */
+    public RemoteUrlMappingChangeSource(String leader, String secret, Duration timeout, Duration snapshotTimeout) {
+        this.leader = leader;
+        this.restClient = RemoteUrlMappingRepository.restClient(leader, BASE_PATH, secret, timeout);
+        this.snapshotClient = RemoteUrlMappingRepository.restClient(leader, BASE_PATH, secret, snapshotTimeout);
+    }
+
+    @Override
+    public Optional<Batch> changesAfter(long sequence, int limit) {
+        return call(restClient.get().uri(uri -> uri.path("/changes").queryParam("after", sequence).queryParam("limit", limit).build()),
+            (request, response) -> response.getStatusCode().isSameCodeAs(HttpStatus.GONE)
+                ? Optional.empty()
+                : Optional.ofNullable(response.bodyTo(Batch.class)), HttpStatus.GONE);
+    }
+
+    @Override
+    public Position snapshot(Path file) {
+        return call(snapshotClient.get().uri("/snapshot"), (request, response) -> {
+            try (InputStream body = response.getBody()) {
+                Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sequence = response.getHeaders().getFirst(SEQUENCE_HEADER);
+            return new Position(response.getHeaders().getFirst(LOG_ID_HEADER), sequence != null ? Long.parseLong(sequence) : 0);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return leader;
+    }
+
+    /**
+     * Sends the request and reads a successful response, or one with the expected status, with the handler.
+     *
+     * @throws IllegalStateException If the leader could not be reached or answered with another status
+     */
+    private <T> T call(RestClient.RequestHeadersSpec<?> request, RestClient.RequestHeadersSpec.ExchangeFunction<T> handler,
+                       HttpStatus... expected) {
+        Set<HttpStatus> expectedStatuses = Set.of(expected);
+        try {
+            return request.exchange((clientRequest, response) -> {
+                if (!response.getStatusCode().is2xxSuccessful()
+                    && !expectedStatuses.contains(HttpStatus.resolve(response.getStatusCode().value()))) {
+                    throw new IllegalStateException(leader + " answered " + response.getStatusCode() + " to "
+                        + clientRequest.getMethod() + " " + clientRequest.getURI().getPath());
+                }
+                return handler.exchange(clientRequest, response);
+            });
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Failed to reach " + leader, e);
+        }
+    }
+}
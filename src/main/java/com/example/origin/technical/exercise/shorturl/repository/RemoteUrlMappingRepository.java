@@ -0,0 +1,219 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.ErrorResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_PLAIN;
+
+/**
+ * UrlMappingRepository of a peer instance, reached over HTTP through the internal shard endpoints it serves under
+ * {@value #BASE_PATH}; also the leader of a {@link FollowerUrlMappingRepository}.
+ * <p>
+ * Calls reach the repository of the peer itself rather than its {@link ShardedUrlMappingRepository}, so they are never
+ * forwarded again. New mappings are generated here and sent to the peer as candidates: it keeps the existing mapping
+ * of a full URL or stores the candidate, and answers 409 (Conflict) if the short URL path of a candidate is taken,
+ * upon which new candidates are generated. Full URLs rejected by the peer are thrown as
+ * {@link IllegalArgumentException}s, other failures, including timeouts, as {@link IllegalStateException}s.
+ * </p>
+ * <p>
+ * The mappings of a peer are not iterated remotely, so unlike the repositories of this instance it is not an
+ * {@link IterableUrlMappingRepository}.
+ * </p>
+ */
+public class RemoteUrlMappingRepository implements UrlMappingRepository {
+
+    /**
+     * Path of the internal shard endpoints
+     */
+    public static final String BASE_PATH = "/internal/v1/shard";
+
+    /**
+     * Request header holding the secret shared by the instances, required by their internal endpoints
+     */
+    public static final String SECRET_HEADER = "X-Internal-Secret";
+
+    private static final int MAX_SHORT_URL_PATH_ATTEMPTS = 10;
+    private static final ParameterizedTypeReference<Map<String, UrlMapping>> MAPPINGS = new ParameterizedTypeReference<>() {
+    };
+
+    private final String peer;
+    private final RestClient restClient;
+
+    /**
+     * @param peer Base URL of the peer, such as {@code http://10.0.0.2:8080}
+     * @param secret Secret shared by the instances
+     * @param timeout Maximum time to connect to the peer, and to wait for each of its responses
+     */
+    public RemoteUrlMappingRepository(String peer, String secret, Duration timeout) {
+        this.peer = peer;
+        this.restClient = restClient(peer, BASE_PATH, secret, timeout);
+    }
+
+    /**
+     * @param instance Base URL of another instance
+     * @param basePath Path of its endpoints to call
+     * @param secret Secret shared by the instances, sent in the {@value #SECRET_HEADER} header of each call
+     * @param timeout Maximum time to connect to the instance, and to wait for each of its responses
+     * @return A client of the endpoints of the instance
+     */
+    static RestClient restClient(String instance, String basePath, String secret, Duration timeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build());
+        requestFactory.setReadTimeout(timeout);
+        return RestClient.builder()
+            .baseUrl(instance.replaceAll("/+$", "") + basePath)
+            .requestFactory(requestFactory)
+            .defaultHeader(SECRET_HEADER, secret)
+            .build();
+    }
+
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        saveAll(List.of(mapping));
+        return mapping;
+    }
+
+    @Override
+    public void saveAll(Collection<UrlMapping> mappings) {
+        mappings.forEach(UrlMapping::prepareLocation);
+        call(restClient.put().uri("/mappings").contentType(APPLICATION_JSON).body(mappings), (request, response) -> null);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return find(restClient.get().uri("/mappings/{shortUrlPath}", shortUrlPath));
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        return call(restClient.post().uri("/mappings/lookup").contentType(APPLICATION_JSON).body(shortUrlPaths),
+            (request, response) -> response.bodyTo(MAPPINGS));
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return find(restClient.get().uri(uri -> uri.path("/mappings").queryParam("fullUrl", "{fullUrl}").build(fullUrl)));
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        return findOrCreateAllByFullUrls(List.of(fullUrl), mappingFactory).get(fullUrl);
+    }
+
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        for (int attempt = 0; attempt < MAX_SHORT_URL_PATH_ATTEMPTS; attempt++) {
+            List<UrlMapping> candidates = new ArrayList<>(fullUrls.size());
+            for (String fullUrl : fullUrls) {
+                candidates.add(mappingFactory.apply(fullUrl).prepareLocation());
+            }
+            Map<String, UrlMapping> mappings = call(
+                restClient.post().uri("/mappings/find-or-create").contentType(APPLICATION_JSON).body(candidates),
+                (request, response) -> response.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT) ? null : response.bodyTo(MAPPINGS),
+                HttpStatus.CONFLICT);
+            if (mappings != null) {
+                return mappings;
+            }
+        }
+        throw new IllegalStateException("Unable to allocate unique short URL paths on " + peer);
+    }
+
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        call(restClient.post().uri("/access-counts").contentType(APPLICATION_JSON).body(increments), (request, response) -> null);
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return findByShortUrlPath(shortUrlPath).isPresent();
+    }
+
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        return call(restClient.delete().uri("/mappings/{shortUrlPath}", shortUrlPath),
+            (request, response) -> !response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * @return The number of mappings held by the peer
+     */
+    @Override
+    public long count() {
+        return call(restClient.get().uri("/count"), (request, response) -> response.bodyTo(Long.class));
+    }
+
+    /**
+     * Tells the peer that an instance joined the shards.
+     *
+     * @param member Name of the instance
+     */
+    public void addMember(String member) {
+        call(restClient.post().uri("/members").contentType(TEXT_PLAIN).body(member), (request, response) -> null);
+    }
+
+    /**
+     * Tells the peer that an instance left the shards.
+     *
+     * @param member Name of the instance
+     */
+    public void removeMember(String member) {
+        call(restClient.delete().uri(uri -> uri.path("/members").queryParam("name", "{member}").build(member)),
+            (request, response) -> null);
+    }
+
+    @Override
+    public String toString() {
+        return peer;
+    }
+
+    private Optional<UrlMapping> find(RestClient.RequestHeadersSpec<?> request) {
+        return call(request, (ignored, response) -> response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)
+            ? Optional.empty()
+            : Optional.ofNullable(response.bodyTo(UrlMapping.class)), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Sends the request and reads a successful response, or one of the expected statuses, with the handler.
+     *
+     * @throws IllegalArgumentException If the peer rejected the request as invalid
+     * @throws IllegalStateException If the peer could not be reached or answered with another status
+     */
+    private <T> T call(RestClient.RequestHeadersSpec<?> request, RestClient.RequestHeadersSpec.ExchangeFunction<T> handler,
+                       HttpStatus... expected) {
+        Set<HttpStatus> expectedStatuses = Set.of(expected);
+        try {
+            return request.exchange((clientRequest, response) -> {
+                HttpStatus status = HttpStatus.resolve(response.getStatusCode().value());
+                if (status == HttpStatus.BAD_REQUEST) {
+                    ErrorResponse error = response.bodyTo(ErrorResponse.class);
+                    throw new IllegalArgumentException(error != null ? error.getMessage() : "Rejected by " + peer);
+                }
+                if (!response.getStatusCode().is2xxSuccessful() && !expectedStatuses.contains(status)) {
+                    throw new IllegalStateException(peer + " answered " + response.getStatusCode() + " to "
+                        + clientRequest.getMethod() + " " + clientRequest.getURI().getPath());
+                }
+                return handler.exchange(clientRequest, response);
+            });
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Failed to reach " + peer, e);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * UrlMappingRepository spreading the mappings over shards by consistent hashing.
+ * <p>
+ * The shards are either local partitions, several backends in this process that each lock and resize their own
+ * tables, or the instances of a cluster: the repository of this instance and a {@link RemoteUrlMappingRepository} per
+ * peer. A {@link ConsistentHashRing} with virtual nodes routes each short URL path to its shard, and each full URL to
+ * its home shard. New mappings are created on the home shard of their full URL, with a short URL path routed to that
+ * shard too, so lookups by short URL path and by full URL, as well as the atomicity of
+ * {@link #findOrCreateByFullUrl(String, Function)}, stay within a single shard. Bulk calls are split into one call per
+ * shard.
+ * </p>
+ * <p>
+ * Only about one in {@code members} generated short URL paths routes to a given shard. The others are parked, up to
+ * {@value #MAX_PARKED_SHORT_URL_PATHS} per shard, and given to the next mappings created on their own shard, so
+ * generators handing out each identifier once, such as the "permutation" generator, do not use up their identifiers
+ * {@code members} times faster. Only the paths parked when a shard's pool is full, or when this process stops, are
+ * lost.
+ * </p>
+ * <p>
+ * Instances join and leave a cluster through {@link #addMember(String)} and {@link #removeMember(String)}, which only
+ * change the routing; {@link #rebalance()} then moves the local mappings routed to another shard over to it. A joining
+ * instance takes over about one in {@code members} mappings from the others, and only the mappings of a leaving
+ * instance move. As the short URL path and the full URL of a mapping may then route to different shards, the home
+ * shard of the full URL keeps a copy of the mapping, so the full URL is not shortened again. Copies are only used to
+ * find mappings by full URL; their access statistics are not updated.
+ * </p>
+ * <p>
+ * {@link #count()} and {@link #forEach(Consumer)} only cover the shards held in this process, copies included: all of
+ * the partitions, or the mappings of this instance in a cluster.
+ * </p>
+ */
+@Slf4j
+public class ShardedUrlMappingRepository implements IterableUrlMappingRepository {
+
+    private static final int ROUTING_ATTEMPTS_PER_SHARD = 32;
+    private static final int REBALANCE_BATCH_SIZE = 500;
+    private static final int MAX_PARKED_SHORT_URL_PATHS = 1024;
+
+    private final Map<String, IterableUrlMappingRepository> localShards;
+    private final Function<String, UrlMappingRepository> peerFactory;
+    private volatile ConsistentHashRing<UrlMappingRepository> ring;
+    private ConsistentHashRing<UrlMappingRepository> rebalancedRing;
+    // Generated short URL paths not used yet, by the shard they route to
+    private final Map<UrlMappingRepository, Queue<String>> parkedShortUrlPaths = new ConcurrentHashMap<>();
+
+    /**
+     * Spreads the mappings over local partitions, whose members are fixed.
+     *
+     * @param partitions The partitions by name
+     * @param virtualNodes Number of points of each partition on the hash ring
+     */
+    public ShardedUrlMappingRepository(Map<String, ? extends IterableUrlMappingRepository> partitions, int virtualNodes) {
+        this.localShards = new LinkedHashMap<>(partitions);
+        this.peerFactory = null;
+        this.ring = new ConsistentHashRing<>(new LinkedHashMap<String, UrlMappingRepository>(partitions), virtualNodes);
+    }
+
+    /**
+     * Spreads the mappings over the instances of a cluster.
+     *
+     * @param self Name of this instance, the same for all instances of the cluster
+     * @param local The repository holding the mappings of this instance
+     * @param peers Names of the other instances
+     * @param peerFactory Creates the repository of another instance from its name
+     * @param virtualNodes Number of points of each instance on the hash ring
+     */
+    public ShardedUrlMappingRepository(String self, IterableUrlMappingRepository local, Collection<String> peers,
+                                       Function<String, UrlMappingRepository> peerFactory, int virtualNodes) {
+        this.localShards = Map.of(self, local);
+        this.peerFactory = peerFactory;
+        Map<String, UrlMappingRepository> members = new LinkedHashMap<>();
+        members.put(self, local);
+        for (String peer : peers) {
+            members.computeIfAbsent(peer, peerFactory);
+        }
+        this.ring = new ConsistentHashRing<>(members, virtualNodes);
+    }
+
+    /**
+     * Saves the mapping on the shard of its short URL path and, if different, copies it to the home shard of its full
+     * URL.
+     */
+    @Override
+    public UrlMapping save(UrlMapping mapping) {
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        UrlMappingRepository shard = current.route(mapping.getShortUrlPath());
+        UrlMapping saved = shard.save(mapping);
+        UrlMappingRepository home = current.route(mapping.getFullUrl());
+        if (home != shard) {
+            home.save(mapping);
+        }
+        return saved;
+    }
+
+    @Override
+    public void saveAll(Collection<UrlMapping> mappings) {
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        Map<UrlMappingRepository, List<UrlMapping>> byShard = groupByShard(current, mappings, UrlMapping::getShortUrlPath);
+        for (UrlMapping mapping : mappings) {
+            UrlMappingRepository home = current.route(mapping.getFullUrl());
+            if (home != current.route(mapping.getShortUrlPath())) {
+                byShard.computeIfAbsent(home, shard -> new ArrayList<>()).add(mapping);
+            }
+        }
+        byShard.forEach(UrlMappingRepository::saveAll);
+    }
+
+    @Override
+    public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+        return ring.route(shortUrlPath).findByShortUrlPath(shortUrlPath);
+    }
+
+    @Override
+    public Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrlPaths) {
+        Map<UrlMappingRepository, List<String>> byShard = groupByShard(ring, shortUrlPaths, Function.identity());
+        if (byShard.size() == 1) {
+            Map.Entry<UrlMappingRepository, List<String>> only = byShard.entrySet().iterator().next();
+            return only.getKey().findAllByShortUrlPaths(only.getValue());
+        }
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(shortUrlPaths.size());
+        byShard.forEach((shard, keys) -> mappings.putAll(shard.findAllByShortUrlPaths(keys)));
+        return mappings;
+    }
+
+    @Override
+    public Optional<UrlMapping> findByFullUrl(String fullUrl) {
+        return ring.route(fullUrl).findByFullUrl(fullUrl);
+    }
+
+    @Override
+    public UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        UrlMappingRepository shard = current.route(fullUrl);
+        return shard.findOrCreateByFullUrl(fullUrl, routedTo(current, shard, mappingFactory));
+    }
+
+    @Override
+    public Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(fullUrls.size());
+        groupByShard(current, fullUrls, Function.identity()).forEach((shard, group) ->
+            mappings.putAll(shard.findOrCreateAllByFullUrls(group, routedTo(current, shard, mappingFactory))));
+        return mappings;
+    }
+
+    @Override
+    public void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        groupByShard(ring, increments, AccessIncrement::shortUrlPath).forEach(UrlMappingRepository::incrementAccessCounts);
+    }
+
+    @Override
+    public boolean existsByShortUrlPath(String shortUrlPath) {
+        return ring.route(shortUrlPath).existsByShortUrlPath(shortUrlPath);
+    }
+
+    /**
+     * Deletes the mapping from the shard of its short URL path and its copy from the home shard of its full URL.
+     */
+    @Override
+    public boolean deleteByShortUrlPath(String shortUrlPath) {
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        UrlMappingRepository shard = current.route(shortUrlPath);
+        shard.findByShortUrlPath(shortUrlPath).ifPresent(mapping -> {
+            UrlMappingRepository home = current.route(mapping.getFullUrl());
+            if (home != shard) {
+                home.deleteByShortUrlPath(shortUrlPath);
+            }
+        });
+        return shard.deleteByShortUrlPath(shortUrlPath);
+    }
+
+    /**
+     * @return The number of mappings held in this process
+     */
+    @Override
+    public long count() {
+        long count = 0;
+        for (IterableUrlMappingRepository shard : localShards.values()) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    /**
+     * Performs the given action for each mapping held in this process.
+     */
+    @Override
+    public void forEach(Consumer<UrlMapping> action) {
+        localShards.values().forEach(shard -> shard.forEach(action));
+    }
+
+    /**
+     * @return The repositories of the members of the hash ring, by name
+     */
+    public Map<String, UrlMappingRepository> members() {
+        return ring.members();
+    }
+
+    /**
+     * Adds an instance to the hash ring, unless it is already a member. The mappings it now owns are only moved to it
+     * by {@link #rebalance()}.
+     *
+     * @param name Name of the instance
+     * @return Whether the instance was added
+     * @throws IllegalStateException If the shards are local partitions
+     */
+    public synchronized boolean addMember(String name) {
+        requireCluster();
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        if (current.members().containsKey(name)) {
+            return false;
+        }
+        Map<String, UrlMappingRepository> members = new LinkedHashMap<>(current.members());
+        members.put(name, localShards.containsKey(name) ? localShards.get(name) : peerFactory.apply(name));
+        ring = current.withMembers(members);
+        log.info("{} joined the shards, now {}", name, members.keySet());
+        return true;
+    }
+
+    /**
+     * Removes an instance from the hash ring, if it is a member. If it is this instance, {@link #rebalance()} then
+     * moves all of its mappings to the other members.
+     *
+     * @param name Name of the instance
+     * @return Whether the instance was removed
+     * @throws IllegalStateException If the shards are local partitions, or the instance is the last member
+     */
+    public synchronized boolean removeMember(String name) {
+        requireCluster();
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        if (!current.members().containsKey(name)) {
+            return false;
+        }
+        if (current.members().size() == 1) {
+            throw new IllegalStateException("Cannot remove " + name + ", the last member of the shards");
+        }
+        Map<String, UrlMappingRepository> members = new LinkedHashMap<>(current.members());
+        members.remove(name);
+        ring = current.withMembers(members);
+        log.info("{} left the shards, now {}", name, members.keySet());
+        return true;
+    }
+
+    /**
+     * Moves the mappings held in this process that are routed to other shards over to them, unless the routing did not
+     * change since the last complete rebalance.
+     * <p>
+     * Each mapping must be held by the shard of its short URL path and by the home shard of its full URL. Mappings are
+     * copied to those of the two shards that are elsewhere in batches, skipping those the shard already holds with as
+     * many accesses, and are then deleted here unless this is one of the two shards; so a mapping is always held by
+     * one of them. The mappings failing to be copied stay here until the next rebalance.
+     * </p>
+     *
+     * @return The number of mappings moved away
+     */
+    public synchronized long rebalance() {
+        ConsistentHashRing<UrlMappingRepository> current = ring;
+        if (current == rebalancedRing) {
+            return 0;
+        }
+        long moved = 0;
+        boolean complete = true;
+        for (IterableUrlMappingRepository shard : localShards.values()) {
+            Map<UrlMappingRepository, List<UrlMapping>> copies = new HashMap<>();
+            List<UrlMapping> misplaced = new ArrayList<>();
+            shard.forEach(mapping -> {
+                UrlMappingRepository owner = current.route(mapping.getShortUrlPath());
+                UrlMappingRepository home = current.route(mapping.getFullUrl());
+                if (owner != shard) {
+                    copies.computeIfAbsent(owner, key -> new ArrayList<>()).add(mapping);
+                }
+                if (home != shard && home != owner) {
+                    copies.computeIfAbsent(home, key -> new ArrayList<>()).add(mapping);
+                }
+                if (owner != shard && home != shard) {
+                    misplaced.add(mapping);
+                }
+            });
+            Set<String> failed = new HashSet<>();
+            copies.forEach((to, mappings) -> failed.addAll(copy(to, mappings)));
+            for (UrlMapping mapping : misplaced) {
+                if (!failed.contains(mapping.getShortUrlPath())) {
+                    shard.deleteByShortUrlPath(mapping.getShortUrlPath());
+                    moved++;
+                }
+            }
+            complete &= failed.isEmpty();
+        }
+        if (complete) {
+            rebalancedRing = current;
+        }
+        return moved;
+    }
+
+    /**
+     * Copies the mappings to a shard, unless it holds them with at least as many accesses.
+     *
+     * @return The short URL paths of the mappings that failed to be copied
+     */
+    private static List<String> copy(UrlMappingRepository to, List<UrlMapping> mappings) {
+        int copied = 0;
+        try {
+            for (; copied < mappings.size(); copied += REBALANCE_BATCH_SIZE) {
+                List<UrlMapping> batch = mappings.subList(copied, Math.min(copied + REBALANCE_BATCH_SIZE, mappings.size()));
+                Map<String, UrlMapping> held = to.findAllByShortUrlPaths(batch.stream().map(UrlMapping::getShortUrlPath).toList());
+                List<UrlMapping> missing = batch.stream()
+                    .filter(mapping -> !held.containsKey(mapping.getShortUrlPath())
+                        || held.get(mapping.getShortUrlPath()).getAccessCount() < mapping.getAccessCount())
+                    .toList();
+                if (!missing.isEmpty()) {
+                    to.saveAll(missing);
+                }
+            }
+            return List.of();
+        } catch (RuntimeException e) {
+            log.warn("Failed to copy {} of {} mappings to {}, retrying on the next rebalance", mappings.size() - copied,
+                mappings.size(), to, e);
+            return mappings.subList(copied, mappings.size()).stream().map(UrlMapping::getShortUrlPath).toList();
+        }
+    }
+
+    private void requireCluster() {
+        if (peerFactory == null) {
+            throw new IllegalStateException("The members of local partitions are fixed");
+        }
+    }
+
+    /**
+     * @return The number of generated short URL paths parked for later mappings
+     */
+    int parkedShortUrlPaths() {
+        return parkedShortUrlPaths.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    /**
+     * Wraps a factory of new mappings so their short URL paths route to the given shard. A generated path routed to
+     * another shard is parked for it, and replaced by a path parked for the given shard, if any, or else by the
+     * next generated one.
+     */
+    private Function<String, UrlMapping> routedTo(ConsistentHashRing<UrlMappingRepository> ring, UrlMappingRepository shard,
+                                                  Function<String, UrlMapping> mappingFactory) {
+        int attempts = ROUTING_ATTEMPTS_PER_SHARD * ring.members().size();
+        return fullUrl -> {
+            for (int attempt = 0; attempt < attempts; attempt++) {
+                UrlMapping mapping = mappingFactory.apply(fullUrl);
+                UrlMappingRepository owner = ring.route(mapping.getShortUrlPath());
+                if (owner == shard) {
+                    return mapping;
+                }
+                park(owner, mapping.getShortUrlPath());
+                String parked = unpark(ring, shard);
+                if (parked != null) {
+                    mapping.setShortUrlPath(parked);
+                    return mapping;
+                }
+            }
+            throw new IllegalStateException("Unable to generate a short URL path routed to the shard of " + fullUrl);
+        };
+    }
+
+    private void park(UrlMappingRepository shard, String shortUrlPath) {
+        if (!parkedShortUrlPaths.computeIfAbsent(shard, key -> new ArrayBlockingQueue<>(MAX_PARKED_SHORT_URL_PATHS)).offer(shortUrlPath)) {
+            log.debug("Dropped short URL path {}, too many are parked for {}", shortUrlPath, shard);
+        }
+    }
+
+    /**
+     * @return A parked short URL path routed to the shard, or null if there is none; paths parked for the shard
+     *         that route elsewhere since the members changed are parked again for their new shard
+     */
+    private String unpark(ConsistentHashRing<UrlMappingRepository> ring, UrlMappingRepository shard) {
+        Queue<String> parked = parkedShortUrlPaths.get(shard);
+        String shortUrlPath;
+        while (parked != null && (shortUrlPath = parked.poll()) != null) {
+            UrlMappingRepository owner = ring.route(shortUrlPath);
+            if (owner == shard) {
+                return shortUrlPath;
+            }
+            park(owner, shortUrlPath);
+        }
+        return null;
+    }
+
+    private static <E> Map<UrlMappingRepository, List<E>> groupByShard(ConsistentHashRing<UrlMappingRepository> ring,
+                                                                       Collection<E> elements, Function<E, String> key) {
+        Map<UrlMappingRepository, List<E>> byShard = new LinkedHashMap<>();
+        for (E element : elements) {
+            byShard.computeIfAbsent(ring.route(key.apply(element)), shard -> new ArrayList<>()).add(element);
+        }
+        return byShard;
+    }
+}
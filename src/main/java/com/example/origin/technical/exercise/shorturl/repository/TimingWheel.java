@@ -0,0 +1,102 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel firing items once their deadline has passed.
+ * <p>
+ * Level {@code L} has {@value #WHEEL_SIZE} buckets of {@code tick * 64^L} milliseconds each. An item is placed on the
+ * lowest level whose buckets ahead of the current time reach its deadline; whenever the current time enters a bucket
+ * of a higher level, the items of that bucket are cascaded to the lower levels. Adding an item and advancing by one
+ * tick are O(1), no matter how many items are scheduled, so expiring a few links never scans all of them.
+ * </p>
+ * <p>
+ * Not thread-safe: callers confine it to a single thread.
+ * </p>
+ *
+ * @param <T> Type of the scheduled items
+ */
+final class TimingWheel<T> {
+
+    static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 5;
+
+    private final long tickMillis;
+    private final long[] bucketMillis = new long[LEVELS];
+    private final List<List<Entry<T>>> buckets = new ArrayList<>(LEVELS * WHEEL_SIZE);
+    private long currentTime;
+    private int size;
+
+    /**
+     * @param tickMillis Resolution of the wheel
+     * @param startMillis Current time in epoch milliseconds
+     */
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            bucketMillis[level] = level == 0 ? tickMillis : bucketMillis[level - 1] * WHEEL_SIZE;
+        }
+        for (int i = 0; i < LEVELS * WHEEL_SIZE; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTime = Math.floorDiv(startMillis, tickMillis) * tickMillis;
+    }
+
+    /**
+     * Schedules an item; an item whose deadline has already passed fires on the next {@link #advance(long, Consumer)}.
+     */
+    void add(T item, long deadlineMillis) {
+        place(new Entry<>(item, Math.max(deadlineMillis, currentTime)));
+        size++;
+    }
+
+    /**
+     * Advances the wheel to the given time and passes every item whose deadline lies before it to the consumer.
+     */
+    void advance(long nowMillis, Consumer<T> expired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            // Taken out before cascading, which may refill the same bucket with items due one rotation later
+            List<Entry<T>> bucket = bucket(0, currentTime);
+            List<Entry<T>> due = bucket.isEmpty() ? List.of() : new ArrayList<>(bucket);
+            bucket.clear();
+            currentTime += tickMillis;
+
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if (currentTime % bucketMillis[level] == 0) {
+                    List<Entry<T>> cascaded = bucket(level, currentTime);
+                    if (!cascaded.isEmpty()) {
+                        List<Entry<T>> entries = new ArrayList<>(cascaded);
+                        cascaded.clear();
+                        entries.forEach(this::place);
+                    }
+                }
+            }
+
+            size -= due.size();
+            due.forEach(entry -> expired.accept(entry.item()));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        int level = 0;
+        while (level < LEVELS - 1
+            && Math.floorDiv(entry.deadlineMillis(), bucketMillis[level]) - Math.floorDiv(currentTime, bucketMillis[level]) >= WHEEL_SIZE) {
+            level++;
+        }
+        bucket(level, entry.deadlineMillis()).add(entry);
+    }
+
+    private List<Entry<T>> bucket(int level, long timeMillis) {
+        int index = (int) Math.floorMod(Math.floorDiv(timeMillis, bucketMillis[level]), WHEEL_SIZE);
+        return buckets.get(level * WHEEL_SIZE + index);
+    }
+
+    private record Entry<T>(T item, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+
+/**
+ * Change of a URL mapping, as logged by a leader instance and applied by its followers.
+ *
+ * @param sequence Position of the change in the log, one more than the previous change
+ * @param type Whether the mapping was saved or deleted
+ * @param shortUrlPath The short URL path of the mapping
+ * @param mapping The saved mapping, null for a deletion
+ */
+public record UrlMappingChange(long sequence, Type type, String shortUrlPath, UrlMapping mapping) {
+
+    public enum Type {
+        SAVE,
+        DELETE
+    }
+}
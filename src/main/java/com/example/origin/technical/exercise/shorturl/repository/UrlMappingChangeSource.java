@@ -0,0 +1,52 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ordered stream of the changes of the URL mappings of a leader instance, which its followers apply to their own
+ * repository.
+ * <p>
+ * The changes are numbered from 1 in a log identified by {@link Batch#logId()}, a new one whenever the leader
+ * restarts. Only the latest changes are retained: a follower starting, or fallen further behind, first copies all
+ * mappings from a {@link #snapshot(Path)} and then applies the changes after it.
+ * </p>
+ */
+public interface UrlMappingChangeSource {
+
+    /**
+     * @param sequence The sequence of the last change applied, 0 for none
+     * @param limit Maximum number of changes to return
+     * @return The changes following the sequence, in order, or empty if they are no longer retained, or if the
+     *         sequence is ahead of the log
+     * @throws IllegalArgumentException If the limit is not positive
+     */
+    Optional<Batch> changesAfter(long sequence, int limit);
+
+    /**
+     * Writes all mappings into a {@link UrlMappingSnapshot} file.
+     *
+     * @param file The file to write the snapshot to, replaced if it exists
+     * @return The position in the log as of which the snapshot holds all mappings; the changes following it may or
+     *         may not be in the snapshot already, so they are applied on top of it
+     * @throws IOException If the snapshot could not be written
+     */
+    Position snapshot(Path file) throws IOException;
+
+    /**
+     * @param logId Identifies the log of the changes
+     * @param lastSequence The sequence of the last change in the log
+     * @param changes The changes requested, in order
+     */
+    record Batch(String logId, long lastSequence, List<UrlMappingChange> changes) {
+    }
+
+    /**
+     * @param logId Identifies the log of the changes
+     * @param sequence The sequence of a change in the log
+     */
+    record Position(String logId, long sequence) {
+    }
+}
@@ -2,7 +2,11 @@ package com.example.origin.technical.exercise.shorturl.repository;
 
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Repository interface for managing URL mappings.
@@ -12,12 +16,27 @@ public interface UrlMappingRepository {
 
     /**
      * Saves a URL mapping with short URL as the key.
+     * The Location header value of the mapping is prepared before it is stored, see {@link UrlMapping#prepareLocation()}.
      *
      * @param mapping The URL mapping to save
      * @return The saved URL mapping
+     * @throws IllegalArgumentException If the full URL is not a valid URI
      */
     UrlMapping save(UrlMapping mapping);
 
+    /**
+     * Saves many URL mappings at once, as {@link #save(UrlMapping)} does for each of them.
+     * Backends override it where saving the mappings together is cheaper than one at a time.
+     *
+     * @param mappings The URL mappings to save
+     * @throws IllegalArgumentException If a full URL is not a valid URI; other mappings may have been saved
+     */
+    default void saveAll(Collection<UrlMapping> mappings) {
+        for (UrlMapping mapping : mappings) {
+            save(mapping);
+        }
+    }
+
     /**
      * Finds a URL mapping by short URL (key).
      *
@@ -26,6 +45,21 @@ public interface UrlMappingRepository {
      */
     Optional<UrlMapping> findByShortUrlPath(String shortUrl);
 
+    /**
+     * Finds the URL mappings of many short URLs (keys) at once.
+     * Backends override it where resolving the keys together is cheaper than one lookup each.
+     *
+     * @param shortUrls The short URL keys
+     * @return The mappings found, by short URL key; keys without a mapping are absent
+     */
+    default Map<String, UrlMapping> findAllByShortUrlPaths(Collection<String> shortUrls) {
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(shortUrls.size());
+        for (String shortUrl : shortUrls) {
+            findByShortUrlPath(shortUrl).ifPresent(mapping -> mappings.put(shortUrl, mapping));
+        }
+        return mappings;
+    }
+
     /**
      * Finds a URL mapping by full URL.
      * Useful to check if a full URL has already been shortened.
@@ -35,6 +69,56 @@ public interface UrlMappingRepository {
      */
     Optional<UrlMapping> findByFullUrl(String fullUrl);
 
+    /**
+     * Atomically finds the URL mapping for a full URL or creates it if none exists.
+     * Both lookups by short URL and by full URL observe the new mapping once this method returns,
+     * and concurrent calls for the same full URL always resolve to a single mapping.
+     *
+     * @param fullUrl The full URL
+     * @param mappingFactory Creates a new mapping for the full URL; invoked again if the generated short URL is already taken
+     * @return The existing or newly created mapping
+     * @throws IllegalArgumentException If the full URL is not a valid URI
+     */
+    UrlMapping findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory);
+
+    /**
+     * Finds or creates the URL mappings of many full URLs at once, as {@link #findOrCreateByFullUrl(String, Function)}
+     * does for each of them.
+     * Backends override it where creating the mappings together is cheaper than one at a time.
+     *
+     * @param fullUrls The distinct full URLs
+     * @param mappingFactory Creates a new mapping for a full URL; invoked again if the generated short URL is already taken
+     * @return The existing or newly created mappings, by full URL
+     * @throws IllegalArgumentException If a full URL is not a valid URI; mappings of other full URLs may have been created
+     */
+    default Map<String, UrlMapping> findOrCreateAllByFullUrls(Collection<String> fullUrls, Function<String, UrlMapping> mappingFactory) {
+        Map<String, UrlMapping> mappings = HashMap.newHashMap(fullUrls.size());
+        for (String fullUrl : fullUrls) {
+            mappings.put(fullUrl, findOrCreateByFullUrl(fullUrl, mappingFactory));
+        }
+        return mappings;
+    }
+
+    /**
+     * Adds accesses recorded in memory to the access count and last access time stored with the mappings,
+     * keeping the later of the stored and the recorded last access time.
+     * Short URLs without a mapping are skipped.
+     * Backends override it to update the statistics in place, without rewriting the mappings, and in one batch.
+     *
+     * @param increments The accesses to add, at most one per short URL key
+     */
+    default void incrementAccessCounts(Collection<AccessIncrement> increments) {
+        for (AccessIncrement increment : increments) {
+            findByShortUrlPath(increment.shortUrlPath()).ifPresent(mapping -> {
+                mapping.setAccessCount(mapping.getAccessCount() + increment.count());
+                if (mapping.getLastAccessedAt() == null || increment.lastAccessedAt().isAfter(mapping.getLastAccessedAt())) {
+                    mapping.setLastAccessedAt(increment.lastAccessedAt());
+                }
+                save(mapping);
+            });
+        }
+    }
+
     /**
      * Checks if a short URL already exists.
      *
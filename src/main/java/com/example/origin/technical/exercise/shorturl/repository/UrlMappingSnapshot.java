@@ -0,0 +1,441 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary snapshot of all URL mappings of a repository in a single file.
+ * <p>
+ * The mappings are spread over independent sections by short URL, so a snapshot is restored by several threads,
+ * one section each. Every section starts with a dictionary of the origins ({@code scheme://host:port}) of its full
+ * URLs, each a length-prefixed UTF-8 string, followed by its mappings: a full URL is stored as the dictionary index
+ * of its origin and the rest of it. Timestamps are stored as variable-length deltas, in milliseconds and the
+ * nanoseconds beyond: the creation time against the one of the previous mapping of the section, the other timestamps
+ * against the creation time, so most of them take a few bytes. The Location header value is only stored where it differs from the full URL,
+ * so restored mappings need not encode their full URL again.
+ * </p>
+ * <p>
+ * Layout: {@code magic | int version | long createdAtMillis | int sections | (long offset | int length | int count |
+ * int crc32c) per section | int crc32c of the header | sections}. A snapshot is written to a temporary file which
+ * then atomically replaces the previous one, so a crash while writing leaves the previous snapshot intact. A section
+ * whose checksum does not match is skipped on restore.
+ * </p>
+ */
+@Slf4j
+public class UrlMappingSnapshot {
+
+    private static final byte[] MAGIC = "URLSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int HEADER_FIXED_SIZE = MAGIC.length + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int SECTION_ENTRY_SIZE = Long.BYTES + 3 * Integer.BYTES;
+    private static final int MAX_SECTIONS = 4096;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private static final int HAS_CREATED_AT = 1;
+    private static final int HAS_LAST_ACCESSED_AT = 1 << 1;
+    private static final int HAS_EXPIRES_AT = 1 << 2;
+    private static final int HAS_LOCATION = 1 << 3;
+    private static final int HAS_REDIRECT_STATUS = 1 << 4;
+    private static final int HAS_CACHEABLE = 1 << 5;
+    private static final int CACHEABLE = 1 << 6;
+    private static final int LOCATION_IS_FULL_URL = 1 << 7;
+
+    private final Path file;
+
+    /**
+     * @param file The snapshot file
+     */
+    public UrlMappingSnapshot(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return Whether a snapshot was written to the file
+     */
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    /**
+     * Writes all mappings of a repository into a new snapshot, replacing the previous one once complete.
+     * The repository is read with a single {@link IterableUrlMappingRepository#forEach(Consumer)}, so the snapshot holds
+     * the mappings saved meanwhile only as far as the iteration does.
+     *
+     * @param repository The repository whose mappings to write
+     * @param sections Number of sections the mappings are spread over, the parallelism of their restore
+     * @return The number of mappings written
+     * @throws IOException If the snapshot could not be written
+     */
+    public long write(IterableUrlMappingRepository repository, int sections) throws IOException {
+        if (sections <= 0 || sections > MAX_SECTIONS) {
+            throw new IllegalArgumentException("Invalid number of snapshot sections: " + sections);
+        }
+        SectionWriter[] writers = new SectionWriter[sections];
+        for (int i = 0; i < sections; i++) {
+            writers[i] = new SectionWriter();
+        }
+        long[] count = new long[1];
+        repository.forEach(mapping -> {
+            writers[Math.floorMod(mapping.getShortUrlPath().hashCode(), sections)].add(mapping);
+            count[0]++;
+        });
+
+        ByteBuffer[] bodies = new ByteBuffer[sections];
+        ByteBuffer header = ByteBuffer.allocate(HEADER_FIXED_SIZE + sections * SECTION_ENTRY_SIZE + Integer.BYTES)
+            .put(MAGIC)
+            .putInt(VERSION)
+            .putLong(System.currentTimeMillis())
+            .putInt(sections);
+        long offset = header.capacity();
+        for (int i = 0; i < sections; i++) {
+            bodies[i] = writers[i].finish();
+            CRC32C crc = new CRC32C();
+            crc.update(bodies[i].duplicate());
+            header.putLong(offset).putInt(bodies[i].remaining()).putInt(writers[i].count).putInt((int) crc.getValue());
+            offset += bodies[i].remaining();
+        }
+        CRC32C headerCrc = new CRC32C();
+        headerCrc.update(header.array(), 0, header.position());
+        header.putInt((int) headerCrc.getValue()).flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, header);
+                for (ByteBuffer body : bodies) {
+                    writeFully(channel, body);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return count[0];
+    }
+
+    /**
+     * Reads all mappings of the snapshot, one section per task of the executor.
+     *
+     * @param action Receives the mappings; called concurrently for mappings of different sections
+     * @param executor Runs the restore of the sections
+     * @return The number of mappings restored and of sections skipped because they are corrupt
+     * @throws IOException If the snapshot cannot be read or its header is corrupt
+     */
+    public Restored restore(Consumer<UrlMapping> action, ExecutorService executor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Section> sections = readHeader(channel);
+            List<Future<Integer>> results = new ArrayList<>(sections.size());
+            for (Section section : sections) {
+                results.add(executor.submit(() -> restore(channel, section, action)));
+            }
+
+            long mappings = 0;
+            int corruptSections = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    mappings += results.get(i).get();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof CorruptSectionException)) {
+                        results.forEach(result -> result.cancel(true));
+                        throw new IOException("Failed to restore section " + i + " of snapshot " + file, e.getCause());
+                    }
+                    log.error("Skipped section {} of snapshot {}", i, file, e.getCause());
+                    corruptSections++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.forEach(result -> result.cancel(true));
+                    throw new IOException("Interrupted while restoring snapshot " + file, e);
+                }
+            }
+            return new Restored(mappings, corruptSections);
+        }
+    }
+
+    private List<Section> readHeader(FileChannel channel) throws IOException {
+        ByteBuffer fixed = readFully(channel, 0, HEADER_FIXED_SIZE);
+        byte[] magic = new byte[MAGIC.length];
+        fixed.get(magic);
+        int version = fixed.getInt();
+        fixed.getLong();
+        int sectionCount = fixed.getInt();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION || sectionCount <= 0 || sectionCount > MAX_SECTIONS) {
+            throw new IOException("Not a snapshot of version " + VERSION + ": " + file);
+        }
+
+        ByteBuffer table = readFully(channel, HEADER_FIXED_SIZE, sectionCount * SECTION_ENTRY_SIZE + Integer.BYTES);
+        CRC32C crc = new CRC32C();
+        crc.update(fixed.flip());
+        crc.update(table.slice(0, sectionCount * SECTION_ENTRY_SIZE));
+        if ((int) crc.getValue() != table.getInt(sectionCount * SECTION_ENTRY_SIZE)) {
+            throw new IOException("Corrupt snapshot header: " + file);
+        }
+        List<Section> sections = new ArrayList<>(sectionCount);
+        for (int i = 0; i < sectionCount; i++) {
+            sections.add(new Section(table.getLong(), table.getInt(), table.getInt(), table.getInt()));
+        }
+        return sections;
+    }
+
+    private static int restore(FileChannel channel, Section section, Consumer<UrlMapping> action) throws IOException {
+        ByteBuffer body = channel.map(FileChannel.MapMode.READ_ONLY, section.offset(), section.length());
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if (body.remaining() != section.length() || (int) crc.getValue() != section.crc()) {
+            throw new CorruptSectionException("Checksum mismatch");
+        }
+
+        // The checksum matched, so a decoding failure means the snapshot was written by an incompatible version
+        try {
+            String[] origins = new String[(int) readVarLong(body)];
+            for (int i = 0; i < origins.length; i++) {
+                origins[i] = readString(body);
+            }
+            long createdAt = 0;
+            for (int i = 0; i < section.count(); i++) {
+                int flags = body.get() & 0xff;
+                String shortUrlPath = readString(body);
+                String fullUrl = origins[(int) readVarLong(body)] + readString(body);
+                String location = (flags & HAS_LOCATION) != 0 ? readString(body)
+                    : (flags & LOCATION_IS_FULL_URL) != 0 ? fullUrl : null;
+                if ((flags & HAS_CREATED_AT) != 0) {
+                    createdAt += readTimeDelta(body);
+                }
+                long lastAccessedAt = (flags & HAS_LAST_ACCESSED_AT) != 0 ? createdAt + readTimeDelta(body) : EpochNanos.NONE;
+                long expiresAt = (flags & HAS_EXPIRES_AT) != 0 ? createdAt + readTimeDelta(body) : EpochNanos.NONE;
+                long accessCount = readVarLong(body);
+                Integer redirectStatus = (flags & HAS_REDIRECT_STATUS) != 0 ? (int) readVarLong(body) : null;
+                Boolean cacheable = (flags & HAS_CACHEABLE) != 0 ? (flags & CACHEABLE) != 0 : null;
+
+                action.accept(UrlMapping.builder()
+                    .shortUrlPath(shortUrlPath)
+                    .fullUrl(fullUrl)
+                    .location(location)
+                    .createdAt((flags & HAS_CREATED_AT) != 0 ? EpochNanos.toLocalDateTime(createdAt) : null)
+                    .lastAccessedAt(EpochNanos.toLocalDateTime(lastAccessedAt))
+                    .expiresAt(EpochNanos.toLocalDateTime(expiresAt))
+                    .accessCount(accessCount)
+                    .redirectStatus(redirectStatus)
+                    .cacheable(cacheable)
+                    .build());
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new CorruptSectionException("Truncated or undecodable section");
+        }
+        return section.count();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated snapshot header: " + file);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("Variable-length number longer than 64 bits");
+    }
+
+    private static long readZigZag(ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readTimeDelta(ByteBuffer buffer) {
+        return readZigZag(buffer) * NANOS_PER_MILLI + readVarLong(buffer);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) readVarLong(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Outcome of a restore.
+     *
+     * @param mappings Number of mappings restored
+     * @param corruptSections Number of sections skipped because their checksum did not match
+     */
+    public record Restored(long mappings, int corruptSections) {
+    }
+
+    private record Section(long offset, int length, int count, int crc) {
+    }
+
+    private static final class CorruptSectionException extends RuntimeException {
+
+        CorruptSectionException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Encodes the mappings of a section into a growing buffer, and its origins into a dictionary written before them.
+     */
+    private static final class SectionWriter {
+
+        private final Map<String, Integer> originIndexes = new HashMap<>();
+        private final Buffer origins = new Buffer();
+        private final Buffer entries = new Buffer();
+        private long previousCreatedAt;
+        private int count;
+
+        void add(UrlMapping mapping) {
+            String fullUrl = mapping.getFullUrl();
+            int originEnd = originEnd(fullUrl);
+            Integer origin = originIndexes.get(fullUrl.substring(0, originEnd));
+            if (origin == null) {
+                origin = originIndexes.size();
+                originIndexes.put(fullUrl.substring(0, originEnd), origin);
+                origins.putString(fullUrl.substring(0, originEnd));
+            }
+
+            long createdAt = EpochNanos.of(mapping.getCreatedAt());
+            long reference = createdAt != EpochNanos.NONE ? createdAt : previousCreatedAt;
+            long lastAccessedAt = EpochNanos.of(mapping.getLastAccessedAt());
+            long expiresAt = EpochNanos.of(mapping.getExpiresAt());
+            String location = mapping.getLocation();
+            int flags = (createdAt != EpochNanos.NONE ? HAS_CREATED_AT : 0)
+                | (lastAccessedAt != EpochNanos.NONE ? HAS_LAST_ACCESSED_AT : 0)
+                | (expiresAt != EpochNanos.NONE ? HAS_EXPIRES_AT : 0)
+                | (location == null ? 0 : location.equals(fullUrl) ? LOCATION_IS_FULL_URL : HAS_LOCATION)
+                | (mapping.getRedirectStatus() != null ? HAS_REDIRECT_STATUS : 0)
+                | (mapping.getCacheable() != null ? HAS_CACHEABLE : 0)
+                | (Boolean.TRUE.equals(mapping.getCacheable()) ? CACHEABLE : 0);
+
+            entries.put((byte) flags);
+            entries.putString(mapping.getShortUrlPath());
+            entries.putVarLong(origin);
+            entries.putString(fullUrl.substring(originEnd));
+            if ((flags & HAS_LOCATION) != 0) {
+                entries.putString(location);
+            }
+            if ((flags & HAS_CREATED_AT) != 0) {
+                entries.putTimeDelta(createdAt - previousCreatedAt);
+                previousCreatedAt = createdAt;
+            }
+            if ((flags & HAS_LAST_ACCESSED_AT) != 0) {
+                entries.putTimeDelta(lastAccessedAt - reference);
+            }
+            if ((flags & HAS_EXPIRES_AT) != 0) {
+                entries.putTimeDelta(expiresAt - reference);
+            }
+            entries.putVarLong(mapping.getAccessCount());
+            if ((flags & HAS_REDIRECT_STATUS) != 0) {
+                entries.putVarLong(mapping.getRedirectStatus());
+            }
+            count++;
+        }
+
+        ByteBuffer finish() {
+            Buffer section = new Buffer();
+            section.putVarLong(originIndexes.size());
+            section.put(origins.bytes, 0, origins.size);
+            section.put(entries.bytes, 0, entries.size);
+            return ByteBuffer.wrap(section.bytes, 0, section.size);
+        }
+
+        /**
+         * @return The end of the {@code scheme://authority} part of a URL, or 0 if it has none
+         */
+        private static int originEnd(String url) {
+            int scheme = url.indexOf("://");
+            if (scheme < 0) {
+                return 0;
+            }
+            int path = url.indexOf('/', scheme + 3);
+            return path < 0 ? url.length() : path;
+        }
+    }
+
+    private static final class Buffer {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void put(byte b) {
+            ensureCapacity(1);
+            bytes[size++] = b;
+        }
+
+        void put(byte[] source, int from, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, from, bytes, size, length);
+            size += length;
+        }
+
+        void putVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7fL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void putZigZag(long value) {
+            putVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * Puts a difference of epoch nanoseconds as milliseconds and the nanoseconds beyond them, so timestamps of
+         * millisecond resolution, such as the access times, take a single byte more than their milliseconds.
+         */
+        void putTimeDelta(long nanos) {
+            putZigZag(Math.floorDiv(nanos, NANOS_PER_MILLI));
+            putVarLong(Math.floorMod(nanos, NANOS_PER_MILLI));
+        }
+
+        void putString(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(encoded.length);
+            put(encoded, 0, encoded.length);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + additional, bytes.length * 2));
+            }
+        }
+    }
+}
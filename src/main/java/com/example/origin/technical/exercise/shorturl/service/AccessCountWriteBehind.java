@@ -0,0 +1,154 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.repository.AccessIncrement;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service writing the access statistics recorded in memory by the {@link AccessStatisticsService} behind the
+ * redirects into the storage backend, so redirects never write to it.
+ * <p>
+ * Every configured interval, the accesses recorded for each short URL since the previous flush are added to its
+ * stored statistics with {@link UrlMappingRepository#incrementAccessCounts(java.util.Collection)}, in batches of
+ * the configured number of short URLs. A flush only writes the short URLs pending when it starts, so under steady
+ * load it still ends: those accessed again meanwhile are written with the next one. However often a link is clicked
+ * in an interval, it is written once. If a batch fails, its accesses are kept and written with the next flush.
+ * On shutdown, the access events still in the {@link AccessEventPipeline} are recorded and everything is flushed, so
+ * only a crash loses accesses: those of the last interval and of a flush in progress.
+ * </p>
+ * <p>
+ * The {@code shorturl.access.counts.flush.lag} metric is the time since the last flush that wrote all pending
+ * short URLs started, an upper bound of the age of the oldest access not written yet.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AccessCountWriteBehind implements Closeable {
+
+    private final AccessStatisticsService accessStatisticsService;
+    private final AccessEventPipeline accessEventPipeline;
+    private final UrlMappingRepository urlMappingRepository;
+    private final int batchSize;
+    private final Clock clock;
+    private final Counter flushedAccesses;
+    private final Counter failedFlushes;
+    private final ScheduledExecutorService executor;
+
+    private volatile long lastCompleteFlushMillis;
+
+    @Autowired
+    public AccessCountWriteBehind(AccessStatisticsService accessStatisticsService, AccessEventPipeline accessEventPipeline,
+                                  UrlMappingRepository urlMappingRepository, UrlShortenerConfig urlShortenerConfig,
+                                  MeterRegistry meterRegistry) {
+        this(accessStatisticsService, accessEventPipeline, urlMappingRepository, urlShortenerConfig.getAccessCounts(),
+            meterRegistry, Clock.systemUTC());
+    }
+
+    AccessCountWriteBehind(AccessStatisticsService accessStatisticsService, AccessEventPipeline accessEventPipeline,
+                           UrlMappingRepository urlMappingRepository, UrlShortenerConfig.AccessCounts settings,
+                           MeterRegistry meterRegistry, Clock clock) {
+        this.accessStatisticsService = accessStatisticsService;
+        this.accessEventPipeline = accessEventPipeline;
+        this.urlMappingRepository = urlMappingRepository;
+        this.batchSize = Math.max(1, settings.getBatchSize());
+        this.clock = clock;
+        this.lastCompleteFlushMillis = clock.millis();
+
+        this.flushedAccesses = Counter.builder("shorturl.access.counts.flushed")
+            .description("Accesses written to the stored access statistics")
+            .register(meterRegistry);
+        this.failedFlushes = Counter.builder("shorturl.access.counts.flush.failures")
+            .description("Batches of access statistics that failed to be written and were kept for the next flush")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.access.counts.pending", accessStatisticsService, AccessStatisticsService::pendingCount)
+            .description("Short URLs accessed since their access statistics were last written")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.access.counts.flush.lag", this, writeBehind -> writeBehind.flushLagMillis())
+            .description("Milliseconds since the last flush of all pending access statistics started")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+
+        if (settings.isWriteBehind()) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "access-count-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::flushQuietly, settings.getFlushIntervalMillis(),
+                settings.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Writes the access statistics of all short URLs accessed since the previous flush on the calling thread.
+     *
+     * @return true if all pending short URLs were written, false if a batch failed and was kept for the next flush
+     */
+    public synchronized boolean flush() {
+        long startedAtMillis = clock.millis();
+        // Short URLs are queued in the order of their first pending access, so these are the ones pending now
+        int remaining = accessStatisticsService.pendingCount();
+        List<AccessIncrement> increments;
+        while (remaining > 0 && !(increments = accessStatisticsService.startFlush(Math.min(batchSize, remaining))).isEmpty()) {
+            remaining -= increments.size();
+            try {
+                urlMappingRepository.incrementAccessCounts(increments);
+            } catch (RuntimeException e) {
+                accessStatisticsService.abortFlush(increments);
+                failedFlushes.increment();
+                log.warn("Failed to write the access statistics of {} short URLs, retrying with the next flush", increments.size(), e);
+                return false;
+            }
+            accessStatisticsService.completeFlush(increments);
+            flushedAccesses.increment(increments.stream().mapToLong(AccessIncrement::count).sum());
+        }
+        lastCompleteFlushMillis = startedAtMillis;
+        return true;
+    }
+
+    /**
+     * Stops the periodic flushes, then records the access events still in the pipeline and writes all pending
+     * access statistics.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        accessEventPipeline.flush();
+        flush();
+    }
+
+    long flushLagMillis() {
+        return Math.max(0, clock.millis() - lastCompleteFlushMillis);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush the access statistics", e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig.AccessEvents.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service decoupling the recording of accesses from the redirect requests.
+ * <p>
+ * Redirects {@link #publish(String) publish} an access event into a bounded lock-free {@link AccessEventRingBuffer}
+ * and return immediately. Background consumer threads drain the buffer in batches, aggregate the events per short
+ * URL path and apply each aggregate to the {@link AccessStatisticsService} at once, so a burst of clicks on the same
+ * link results in a single statistics update.
+ * </p>
+ * <p>
+ * A consumer finding the buffer empty backs off with exponentially growing pauses, then parks until a publisher
+ * unparks it, so idle consumers do not keep waking up.
+ * </p>
+ * <p>
+ * While the buffer is full, events are either dropped or, with the {@code SAMPLE} overflow policy, one in
+ * {@code sampleRate} of them is recorded synchronously with a weight of {@code sampleRate}. Both outcomes are counted
+ * by the {@code shorturl.access.events.overflow} metric.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AccessEventPipeline implements Closeable {
+
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Only bounds the wait should a wake-up be missed
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 1_000;
+
+    private final AccessStatisticsService accessStatisticsService;
+    private final AccessEventRingBuffer ringBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int batchSize;
+    private final Clock clock;
+    private final Counter droppedEvents;
+    private final Counter sampledEvents;
+    private final List<Thread> consumers = new ArrayList<>();
+    private final Queue<Thread> idleConsumers = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public AccessEventPipeline(AccessStatisticsService accessStatisticsService, UrlShortenerConfig urlShortenerConfig, MeterRegistry meterRegistry) {
+        this(accessStatisticsService, urlShortenerConfig.getAccessEvents(), meterRegistry, Clock.systemUTC());
+    }
+
+    AccessEventPipeline(AccessStatisticsService accessStatisticsService, UrlShortenerConfig.AccessEvents settings,
+                        MeterRegistry meterRegistry, Clock clock) {
+        this.accessStatisticsService = accessStatisticsService;
+        this.ringBuffer = new AccessEventRingBuffer(settings.getBufferSize());
+        this.overflowPolicy = settings.getOverflowPolicy();
+        this.sampleRate = Math.max(1, settings.getSampleRate());
+        this.batchSize = Math.max(1, settings.getBatchSize());
+        this.clock = clock;
+
+        this.droppedEvents = Counter.builder("shorturl.access.events.overflow")
+            .description("Access events that did not fit into the ring buffer")
+            .tag("outcome", "dropped")
+            .register(meterRegistry);
+        this.sampledEvents = Counter.builder("shorturl.access.events.overflow")
+            .description("Access events that did not fit into the ring buffer")
+            .tag("outcome", "sampled")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.access.events.pending", ringBuffer, buffer -> buffer.size())
+            .description("Access events waiting to be aggregated")
+            .register(meterRegistry);
+
+        for (int i = 0; i < settings.getConsumerThreads(); i++) {
+            Thread consumer = new Thread(this::consume, "access-event-consumer-" + i);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+    }
+
+    /**
+     * Publishes an access to a short URL without waiting for it to be recorded.
+     *
+     * @param shortUrlPath The accessed short URL path
+     */
+    public void publish(String shortUrlPath) {
+        long now = clock.millis();
+        if (ringBuffer.offer(shortUrlPath, now)) {
+            if (!idleConsumers.isEmpty()) {
+                LockSupport.unpark(idleConsumers.poll());
+            }
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.SAMPLE && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            accessStatisticsService.recordAccesses(shortUrlPath, sampleRate, now);
+            sampledEvents.increment();
+        } else {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Records all events published so far on the calling thread.
+     */
+    public void flush() {
+        Map<String, Aggregate> batch = new HashMap<>();
+        while (drainBatch(batch) > 0) {
+            // Keep draining until the buffer is empty
+        }
+    }
+
+    /**
+     * Stops the consumers and records the events still in the buffer.
+     */
+    @Override
+    public void close() {
+        running = false;
+        consumers.forEach(LockSupport::unpark);
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flush();
+    }
+
+    private void consume() {
+        Map<String, Aggregate> batch = new HashMap<>();
+        long backoffNanos = MIN_BACKOFF_NANOS;
+        while (running) {
+            try {
+                if (drainBatch(batch) > 0) {
+                    backoffNanos = MIN_BACKOFF_NANOS;
+                } else if (backoffNanos <= MAX_BACKOFF_NANOS) {
+                    LockSupport.parkNanos(this, backoffNanos);
+                    backoffNanos *= 2;
+                } else {
+                    awaitEvents();
+                }
+            } catch (RuntimeException e) {
+                batch.clear();
+                log.warn("Failed to record access events", e);
+            }
+        }
+    }
+
+    /**
+     * @return The number of consumers parked until events are published
+     */
+    int idleConsumers() {
+        return idleConsumers.size();
+    }
+
+    /**
+     * Parks the calling consumer until a publisher wakes it up, unless events were published in the meantime.
+     */
+    private void awaitEvents() {
+        Thread consumer = Thread.currentThread();
+        idleConsumers.add(consumer);
+        if (running && ringBuffer.size() == 0) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        idleConsumers.remove(consumer);
+    }
+
+    private int drainBatch(Map<String, Aggregate> batch) {
+        int drained = ringBuffer.drain((shortUrlPath, accessedAtMillis) ->
+            batch.computeIfAbsent(shortUrlPath, key -> new Aggregate()).add(accessedAtMillis), batchSize);
+        batch.forEach((shortUrlPath, aggregate) ->
+            accessStatisticsService.recordAccesses(shortUrlPath, aggregate.count, aggregate.lastAccessedAtMillis));
+        batch.clear();
+        return drained;
+    }
+
+    private static final class Aggregate {
+
+        private long count;
+        private long lastAccessedAtMillis = Long.MIN_VALUE;
+
+        void add(long accessedAtMillis) {
+            count++;
+            lastAccessedAtMillis = Math.max(lastAccessedAtMillis, accessedAtMillis);
+        }
+    }
+}
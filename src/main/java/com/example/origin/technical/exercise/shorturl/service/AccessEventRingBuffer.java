@@ -0,0 +1,108 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue of access events.
+ * <p>
+ * Each slot holds the accessed short URL path and the access time in epoch milliseconds, in preallocated arrays,
+ * so publishing an event allocates nothing. Every slot carries a sequence number telling producers and consumers
+ * whose turn it is (Vyukov's bounded queue): a producer claims a slot by advancing the tail and publishes the event
+ * by bumping the slot's sequence, and a consumer claims it by advancing the head.
+ * </p>
+ */
+final class AccessEventRingBuffer {
+
+    /**
+     * Receives the events drained from the buffer.
+     */
+    @FunctionalInterface
+    interface EventHandler {
+
+        void onEvent(String shortUrlPath, long accessedAtMillis);
+    }
+
+    private final int mask;
+    private final String[] shortUrlPaths;
+    private final long[] accessedAtMillis;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AccessEventRingBuffer(int capacity) {
+        int size = Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.mask = size - 1;
+        this.shortUrlPaths = new String[size];
+        this.accessedAtMillis = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(String shortUrlPath, long accessedAt) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long lag = sequences.getAcquire(slot) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    shortUrlPaths[slot] = shortUrlPath;
+                    accessedAtMillis[slot] = accessedAt;
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code maxEvents} events and passes them to the handler.
+     *
+     * @return The number of drained events
+     */
+    int drain(EventHandler handler, int maxEvents) {
+        int drained = 0;
+        long position = head.get();
+        while (drained < maxEvents) {
+            int slot = (int) position & mask;
+            long lag = sequences.getAcquire(slot) - (position + 1);
+            if (lag == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    String shortUrlPath = shortUrlPaths[slot];
+                    long accessedAt = accessedAtMillis[slot];
+                    shortUrlPaths[slot] = null;
+                    sequences.setRelease(slot, position + mask + 1);
+                    handler.onEvent(shortUrlPath, accessedAt);
+                    drained++;
+                }
+                position = head.get();
+            } else if (lag < 0) {
+                break;
+            } else {
+                position = head.get();
+            }
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return The approximate number of events waiting to be drained
+     */
+    long size() {
+        return Math.max(0, tail.get() - head.get());
+    }
+}
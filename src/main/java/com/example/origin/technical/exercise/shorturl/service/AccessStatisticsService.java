@@ -0,0 +1,191 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.AccessIncrement;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service recording how often and how recently short URLs are accessed.
+ * <p>
+ * Access counts are kept in striped {@link LongAdder}s, so concurrent redirects of the same viral link
+ * do not contend on a single counter. The last access time is a coarse epoch millisecond stamp that is
+ * only rewritten once per {@value #LAST_ACCESS_RESOLUTION_MILLIS} ms, keeping its cache line read-mostly.
+ * Recording an access to a link that has been accessed before allocates nothing.
+ * </p>
+ * <p>
+ * The recorded statistics are added on top of the access count and last access time stored with each {@link UrlMapping}.
+ * A short URL accessed since its statistics were last flushed is queued once as pending, so the
+ * {@link AccessCountWriteBehind} can move the accesses recorded for it into storage without scanning all counters.
+ * Accesses being flushed still count until the flush completes.
+ * </p>
+ */
+@Service
+public class AccessStatisticsService {
+
+    static final long LAST_ACCESS_RESOLUTION_MILLIS = 1_000;
+
+    // Far enough in the past for the first access to be stamped, without overflowing the resolution check
+    private static final long NEVER = Long.MIN_VALUE / 2;
+
+    private final ConcurrentHashMap<String, AccessCounter> counters = new ConcurrentHashMap<>();
+    private final Queue<String> pendingShortUrlPaths = new ConcurrentLinkedQueue<>();
+    private final Clock clock;
+
+    public AccessStatisticsService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    AccessStatisticsService(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Records an access to a short URL.
+     *
+     * @param shortUrlPath The accessed short URL path
+     */
+    public void recordAccess(String shortUrlPath) {
+        recordAccesses(shortUrlPath, 1, clock.millis());
+    }
+
+    /**
+     * Records a batch of accesses to a short URL.
+     *
+     * @param shortUrlPath The accessed short URL path
+     * @param count The number of accesses
+     * @param lastAccessedAtMillis The time of the latest access in epoch milliseconds
+     */
+    public void recordAccesses(String shortUrlPath, long count, long lastAccessedAtMillis) {
+        AccessCounter counter = counters.get(shortUrlPath);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(shortUrlPath, key -> new AccessCounter());
+        }
+        counter.count.add(count);
+
+        if (lastAccessedAtMillis - counter.lastAccessedAtMillis >= LAST_ACCESS_RESOLUTION_MILLIS) {
+            counter.lastAccessedAtMillis = lastAccessedAtMillis;
+        }
+        markPending(shortUrlPath, counter);
+    }
+
+    /**
+     * @param mapping The URL mapping
+     * @return The access count stored with the mapping plus the accesses recorded since
+     */
+    public long getAccessCount(UrlMapping mapping) {
+        AccessCounter counter = counters.get(mapping.getShortUrlPath());
+        return counter == null ? mapping.getAccessCount() : mapping.getAccessCount() + counter.count.sum() + counter.flushing;
+    }
+
+    /**
+     * @param mapping The URL mapping
+     * @return The later of the last access time stored with the mapping and the last recorded access
+     */
+    public LocalDateTime getLastAccessedAt(UrlMapping mapping) {
+        AccessCounter counter = counters.get(mapping.getShortUrlPath());
+        long lastAccessedAtMillis = counter == null ? NEVER : counter.lastAccessedAtMillis;
+        if (lastAccessedAtMillis == NEVER) {
+            return mapping.getLastAccessedAt();
+        }
+        LocalDateTime recorded = LocalDateTime.ofInstant(Instant.ofEpochMilli(lastAccessedAtMillis), clock.getZone());
+        LocalDateTime stored = mapping.getLastAccessedAt();
+        return stored == null || recorded.isAfter(stored) ? recorded : stored;
+    }
+
+    /**
+     * Discards the statistics of a short URL, e.g. once its mapping has been deleted.
+     *
+     * @param shortUrlPath The short URL path
+     */
+    public void remove(String shortUrlPath) {
+        counters.remove(shortUrlPath);
+    }
+
+    /**
+     * Starts flushing the accesses recorded for up to the given number of pending short URLs: they keep counting
+     * until the flush is either {@link #completeFlush(List) completed} or {@link #abortFlush(List) aborted}.
+     * Must not be called again before either.
+     *
+     * @param maxShortUrlPaths Maximum number of short URLs to flush
+     * @return The accesses to store, at most one per short URL; empty once no short URL is pending
+     */
+    public List<AccessIncrement> startFlush(int maxShortUrlPaths) {
+        List<AccessIncrement> increments = new ArrayList<>(Math.min(maxShortUrlPaths, 1024));
+        String shortUrlPath;
+        while (increments.size() < maxShortUrlPaths && (shortUrlPath = pendingShortUrlPaths.poll()) != null) {
+            AccessCounter counter = counters.get(shortUrlPath);
+            if (counter == null) {
+                continue;
+            }
+            // Cleared before taking the count, so an access recorded meanwhile queues the short URL again
+            counter.pending.set(false);
+            counter.flushing += counter.count.sumThenReset();
+            if (counter.flushing > 0) {
+                increments.add(new AccessIncrement(shortUrlPath, counter.flushing,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(counter.lastAccessedAtMillis), clock.getZone())));
+            }
+        }
+        return increments;
+    }
+
+    /**
+     * Completes a flush once its accesses were added to the statistics stored with the mappings.
+     *
+     * @param increments The accesses returned by {@link #startFlush(int)}
+     */
+    public void completeFlush(List<AccessIncrement> increments) {
+        for (AccessIncrement increment : increments) {
+            AccessCounter counter = counters.get(increment.shortUrlPath());
+            if (counter != null) {
+                counter.flushing -= increment.count();
+            }
+        }
+    }
+
+    /**
+     * Aborts a flush whose accesses could not be stored, so they are flushed again with the next one.
+     *
+     * @param increments The accesses returned by {@link #startFlush(int)}
+     */
+    public void abortFlush(List<AccessIncrement> increments) {
+        for (AccessIncrement increment : increments) {
+            AccessCounter counter = counters.get(increment.shortUrlPath());
+            if (counter != null) {
+                markPending(increment.shortUrlPath(), counter);
+            }
+        }
+    }
+
+    /**
+     * @return The number of short URLs accessed since their statistics were last flushed
+     */
+    public int pendingCount() {
+        return pendingShortUrlPaths.size();
+    }
+
+    private void markPending(String shortUrlPath, AccessCounter counter) {
+        if (!counter.pending.get() && counter.pending.compareAndSet(false, true)) {
+            pendingShortUrlPaths.add(shortUrlPath);
+        }
+    }
+
+    private static final class AccessCounter {
+
+        private final LongAdder count = new LongAdder();
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private volatile long lastAccessedAtMillis = NEVER;
+        // Accesses taken by a flush in progress; only written by the flushing thread
+        private volatile long flushing;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IdBlockLeaseStore keeping the key and the next unleased identifier in a small file.
+ * <p>
+ * Each lease locks the file, reads the next identifier, advances it past the block and forces the file to disk before
+ * the block is handed out, so every process sharing the file, including later restarts, leases disjoint blocks.
+ * The key is drawn once, when the file is created.
+ * </p>
+ * <p>
+ * File layout: {@code long key | long nextId}.
+ * </p>
+ */
+final class FileIdBlockLeaseStore implements IdBlockLeaseStore {
+
+    private static final int FILE_SIZE = 2 * Long.BYTES;
+
+    // File locks are held per process, so threads of this process take turns before locking the file
+    private static final Map<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final ReentrantLock lock;
+    private final long key;
+
+    FileIdBlockLeaseStore(Path file) {
+        this.file = file;
+        this.lock = PROCESS_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), path -> new ReentrantLock());
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the directory of " + file, e);
+        }
+        this.key = update(0)[0];
+    }
+
+    @Override
+    public long key() {
+        return key;
+    }
+
+    @Override
+    public long lease(long blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        return update(blockSize)[1];
+    }
+
+    /**
+     * Advances the next identifier by the given number of identifiers, initializing the file first if necessary.
+     *
+     * @return The key and the next identifier before the update
+     */
+    private long[] update(long increment) {
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+            long key;
+            long nextId;
+            if (channel.size() < FILE_SIZE) {
+                key = new SecureRandom().nextLong();
+                nextId = 0;
+            } else {
+                while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+                    // Keep reading until the buffer is full
+                }
+                buffer.flip();
+                key = buffer.getLong();
+                nextId = buffer.getLong();
+            }
+
+            buffer.clear();
+            buffer.putLong(key).putLong(Math.addExact(nextId, increment)).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            channel.force(false);
+            return new long[]{key, nextId};
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to lease identifiers from " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
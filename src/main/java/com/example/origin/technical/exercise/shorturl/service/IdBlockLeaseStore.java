@@ -0,0 +1,24 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+/**
+ * Durable record of the blocks of identifiers handed out to generators of short URL paths.
+ * <p>
+ * Every leased block is disjoint from all blocks leased before, by this or any other process sharing the store,
+ * including before a restart. Identifiers are only ever taken from leased blocks, so none is issued twice.
+ * </p>
+ */
+interface IdBlockLeaseStore {
+
+    /**
+     * @return Secret shared by all generators using this store, so their identifiers map to the same short URL paths
+     */
+    long key();
+
+    /**
+     * Leases the next block of identifiers.
+     *
+     * @param blockSize Number of identifiers in the block
+     * @return The first identifier of the block; the block ends before {@code first + blockSize}
+     */
+    long lease(long blockSize);
+}
@@ -0,0 +1,65 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out unique identifiers from blocks leased from an {@link IdBlockLeaseStore}.
+ * <p>
+ * Threads are spread over a fixed number of stripes, each consuming its own leased block behind its own lock, so
+ * concurrent callers rarely touch the same memory and only go to the store once per {@code blockSize} identifiers.
+ * Stripes are used rather than thread locals so that short-lived threads do not each lease a block of their own.
+ * Identifiers left in the blocks when the process stops are never issued.
+ * </p>
+ */
+final class LeasedIdAllocator {
+
+    private final IdBlockLeaseStore leaseStore;
+    private final long blockSize;
+    private final long limit;
+    private final Stripe[] stripes;
+
+    /**
+     * @param leaseStore Store recording the leased blocks
+     * @param blockSize Number of identifiers leased at a time
+     * @param limit Identifiers are below this limit
+     */
+    LeasedIdAllocator(IdBlockLeaseStore leaseStore, long blockSize, long limit) {
+        this.leaseStore = leaseStore;
+        this.blockSize = blockSize;
+        this.limit = limit;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return An identifier never returned before by any allocator sharing the lease store
+     * @throws IllegalStateException If all identifiers below the limit have been leased
+     */
+    long next() {
+        Stripe stripe = stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+        stripe.lock.lock();
+        try {
+            if (stripe.next == stripe.end) {
+                long first = leaseStore.lease(blockSize);
+                if (first >= limit) {
+                    throw new IllegalStateException("All " + limit + " identifiers have been leased");
+                }
+                stripe.next = first;
+                stripe.end = Math.min(first + blockSize, limit);
+            }
+            return stripe.next++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.IterableUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingChangeSource;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingChange;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingChangeSource;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service applying the changes of the URL mappings of the leader to the repository of this instance, if
+ * {@code url.shortener.replication.role} is "follower".
+ * <p>
+ * Once the application is ready, this instance copies all mappings from a snapshot of the leader, deleting the ones
+ * it holds besides, and then polls the leader for the changes that followed at the configured interval, fetching
+ * batches back to back while behind. It copies all mappings again whenever the changes it needs are no longer
+ * retained, or the leader restarted. Until the first copy, {@link #syncState()} is {@link SyncState#SYNCING}.
+ * </p>
+ * <p>
+ * The lag behind the leader is published as metrics: the number of changes of the leader not applied yet, as of the
+ * last poll, and the time since this instance last applied all of them, which keeps growing while the leader cannot
+ * be reached.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ReplicationFollowerService implements Closeable {
+
+    private final UrlMappingChangeSource leader;
+    private final IterableUrlMappingRepository urlMappingRepository;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final ScheduledExecutorService executor;
+    private final Counter appliedChanges;
+    private final Counter resyncs;
+
+    private String logId;
+    private volatile SyncState syncState;
+    private volatile long appliedSequence;
+    private volatile long leaderSequence;
+    private volatile long caughtUpAtMillis = System.currentTimeMillis();
+
+    @Autowired
+    public ReplicationFollowerService(@Qualifier("localUrlMappingRepository") IterableUrlMappingRepository urlMappingRepository,
+                                      UrlShortenerConfig urlShortenerConfig, MeterRegistry meterRegistry) {
+        this(leader(urlShortenerConfig), urlMappingRepository, urlShortenerConfig.getReplication(), meterRegistry);
+    }
+
+    ReplicationFollowerService(UrlMappingChangeSource leader, IterableUrlMappingRepository urlMappingRepository,
+                               UrlShortenerConfig.Replication settings, MeterRegistry meterRegistry) {
+        this.leader = leader;
+        this.urlMappingRepository = urlMappingRepository;
+        this.batchSize = settings.getBatchSize();
+        this.pollIntervalMillis = settings.getPollIntervalMillis();
+        if (leader == null) {
+            this.syncState = SyncState.DISABLED;
+            this.executor = null;
+            this.appliedChanges = null;
+            this.resyncs = null;
+            return;
+        }
+        this.syncState = SyncState.SYNCING;
+        this.appliedChanges = Counter.builder("shorturl.replication.applied")
+            .description("Changes of the URL mappings of the leader applied by this follower")
+            .register(meterRegistry);
+        this.resyncs = Counter.builder("shorturl.replication.resyncs")
+            .description("Copies of all URL mappings of the leader, on startup or when the changes to apply were no longer retained")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.replication.lag.changes", this, service -> service.leaderSequence - service.appliedSequence)
+            .description("Changes of the URL mappings of the leader not applied yet, as of the last poll")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.replication.lag", this, service -> (System.currentTimeMillis() - service.caughtUpAtMillis) / 1000.0)
+            .description("Time since this follower last applied all changes of the URL mappings of the leader")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replication-follower");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts following the leader once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (executor != null) {
+            executor.scheduleWithFixedDelay(this::syncQuietly, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return Whether this instance follows a leader and has copied its mappings yet
+     */
+    public SyncState syncState() {
+        return syncState;
+    }
+
+    /**
+     * @return The sequence of the last change of the leader applied
+     */
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * @return The number of changes of the leader not applied yet, as of the last poll
+     */
+    public long lagChanges() {
+        return leaderSequence - appliedSequence;
+    }
+
+    /**
+     * Stops following the leader.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies the changes of the leader until none is left, after copying all of its mappings if needed, on the
+     * calling thread. Not to be called concurrently.
+     *
+     * @return The number of changes applied
+     * @throws IOException If a snapshot of the leader could not be stored or read
+     */
+    long sync() throws IOException {
+        if (logId == null) {
+            resync();
+        }
+        long applied = 0;
+        while (true) {
+            Optional<UrlMappingChangeSource.Batch> batch = leader.changesAfter(appliedSequence, batchSize);
+            if (batch.isEmpty() || !batch.get().logId().equals(logId)) {
+                log.info("The changes of the URL mappings after {} are no longer retained by the leader, copying all of them again",
+                    appliedSequence);
+                resync();
+                return applied;
+            }
+            List<UrlMappingChange> changes = batch.get().changes();
+            apply(changes);
+            applied += changes.size();
+            appliedChanges.increment(changes.size());
+            if (!changes.isEmpty()) {
+                appliedSequence = changes.getLast().sequence();
+            }
+            leaderSequence = batch.get().lastSequence();
+            if (appliedSequence >= leaderSequence) {
+                caughtUpAtMillis = System.currentTimeMillis();
+                return applied;
+            }
+        }
+    }
+
+    /**
+     * Applies the changes in order, saving runs of consecutive saves at once.
+     */
+    private void apply(List<UrlMappingChange> changes) {
+        List<UrlMapping> saves = new ArrayList<>();
+        for (UrlMappingChange change : changes) {
+            switch (change.type()) {
+                case SAVE -> saves.add(change.mapping());
+                case DELETE -> {
+                    saveAll(saves);
+                    urlMappingRepository.deleteByShortUrlPath(change.shortUrlPath());
+                }
+            }
+        }
+        saveAll(saves);
+    }
+
+    private void saveAll(List<UrlMapping> saves) {
+        if (!saves.isEmpty()) {
+            urlMappingRepository.saveAll(saves);
+            saves.clear();
+        }
+    }
+
+    /**
+     * Copies all mappings from a snapshot of the leader and deletes the others.
+     */
+    private void resync() throws IOException {
+        long startedAtNanos = System.nanoTime();
+        Path file = Files.createTempFile("url-mappings", ".snapshot");
+        try {
+            UrlMappingChangeSource.Position position = leader.snapshot(file);
+            Set<String> shortUrlPaths = ConcurrentHashMap.newKeySet();
+            UrlMappingSnapshot.Restored restored;
+            int threads = Runtime.getRuntime().availableProcessors();
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService restoreExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "replication-follower-restore-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                restored = new UrlMappingSnapshot(file).restore(mapping -> {
+                    urlMappingRepository.save(mapping);
+                    shortUrlPaths.add(mapping.getShortUrlPath());
+                }, restoreExecutor);
+            } finally {
+                restoreExecutor.shutdownNow();
+            }
+            if (restored.corruptSections() > 0) {
+                throw new IllegalStateException("The snapshot of the leader has " + restored.corruptSections() + " corrupt sections");
+            }
+
+            List<String> stale = new ArrayList<>();
+            urlMappingRepository.forEach(mapping -> {
+                if (!shortUrlPaths.contains(mapping.getShortUrlPath())) {
+                    stale.add(mapping.getShortUrlPath());
+                }
+            });
+            stale.forEach(urlMappingRepository::deleteByShortUrlPath);
+
+            logId = position.logId();
+            appliedSequence = position.sequence();
+            leaderSequence = position.sequence();
+            syncState = SyncState.SYNCED;
+            resyncs.increment();
+            log.info("Copied {} URL mappings from the leader as of change {} in {} ms, deleted {} others", restored.mappings(),
+                position.sequence(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos), stale.size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to apply the changes of the URL mappings of the leader: {}", e.getMessage());
+        }
+    }
+
+    private static UrlMappingChangeSource leader(UrlShortenerConfig urlShortenerConfig) {
+        UrlShortenerConfig.Replication settings = urlShortenerConfig.getReplication();
+        if (settings.getRole() != UrlShortenerConfig.Replication.Role.FOLLOWER) {
+            return null;
+        }
+        return new RemoteUrlMappingChangeSource(settings.getLeader(), urlShortenerConfig.getInternalSecret(),
+            Duration.ofMillis(settings.getLeaderTimeoutMillis()), Duration.ofMillis(settings.getSnapshotTimeoutMillis()));
+    }
+
+    public enum SyncState {
+        /**
+         * This instance does not follow a leader
+         */
+        DISABLED,
+        /**
+         * The mappings of the leader are being copied
+         */
+        SYNCING,
+        /**
+         * The mappings of the leader were copied, and their changes are being applied
+         */
+        SYNCED
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the replication of the URL mappings of the leader to a follower, part of the readiness group: out of
+ * service until the follower copied the mappings of the leader, so no traffic is routed to an instance missing them.
+ */
+@Component
+public class ReplicationHealthIndicator implements HealthIndicator {
+
+    private final ReplicationFollowerService replicationFollowerService;
+
+    public ReplicationHealthIndicator(ReplicationFollowerService replicationFollowerService) {
+        this.replicationFollowerService = replicationFollowerService;
+    }
+
+    @Override
+    public Health health() {
+        ReplicationFollowerService.SyncState state = replicationFollowerService.syncState();
+        Health.Builder health = switch (state) {
+            case DISABLED, SYNCED -> Health.up();
+            case SYNCING -> Health.outOfService();
+        };
+        health.withDetail("sync", state);
+        if (state == ReplicationFollowerService.SyncState.SYNCED) {
+            health.withDetail("appliedSequence", replicationFollowerService.appliedSequence())
+                .withDetail("lagChanges", replicationFollowerService.lagChanges());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.ShardedUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Service managing the membership of this instance in the shards of the URL mappings, if
+ * {@code url.shortener.sharding.self} is set.
+ * <p>
+ * Once the application is ready, and then at the configured interval, this instance announces itself to its peers,
+ * which add it to their hash ring unless they already know it and move the mappings it owns over to it, and moves its
+ * own mappings routed to another instance. Moves that failed, for instance to a peer still starting, are thus retried.
+ * Peers announcing themselves or leaving are handled by {@link #join(String)} and {@link #leave(String)}.
+ * </p>
+ * <p>
+ * Unless disabled, this instance leaves the shards on shutdown: it tells its peers, which stop routing to it, and
+ * hands all of its mappings over to them. Lookups of the mappings being moved may miss meanwhile.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ShardMembershipService implements Closeable {
+
+    private final ShardedUrlMappingRepository shards;
+    private final String self;
+    private final long rebalanceIntervalMillis;
+    private final boolean leaveOnShutdown;
+    private final ScheduledExecutorService executor;
+    private final Counter movedMappings;
+
+    @Autowired
+    public ShardMembershipService(UrlMappingRepository urlMappingRepository, UrlShortenerConfig urlShortenerConfig,
+                                  MeterRegistry meterRegistry) {
+        this(urlMappingRepository instanceof ShardedUrlMappingRepository sharded ? sharded : null,
+            urlShortenerConfig.getSharding(), meterRegistry);
+    }
+
+    ShardMembershipService(ShardedUrlMappingRepository shards, UrlShortenerConfig.Sharding settings, MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.self = settings.getSelf();
+        this.rebalanceIntervalMillis = settings.getRebalanceIntervalMillis();
+        this.leaveOnShutdown = settings.isLeaveOnShutdown();
+        if (shards == null) {
+            this.executor = null;
+            this.movedMappings = null;
+            return;
+        }
+        this.movedMappings = Counter.builder("shorturl.shards.moved")
+            .description("URL mappings moved from this instance to the instance they are routed to")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.shards.members", shards, repository -> repository.members().size())
+            .description("Instances the URL mappings are sharded over")
+            .register(meterRegistry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-rebalance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts announcing this instance to its peers and moving its mappings routed to another instance, once it serves
+     * the requests of its peers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (executor != null) {
+            executor.scheduleWithFixedDelay(this::announceAndRebalance, 0, rebalanceIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return The instances the mappings are sharded over
+     * @throws IllegalStateException If the mappings are not sharded over instances
+     */
+    public Set<String> members() {
+        return requireShards().members().keySet();
+    }
+
+    /**
+     * Adds an instance to the shards, moving the mappings it now owns over to it in the background.
+     *
+     * @param member Base URL of the instance
+     * @throws IllegalStateException If the mappings are not sharded over instances
+     */
+    public void join(String member) {
+        if (requireShards().addMember(member)) {
+            executor.execute(this::rebalanceQuietly);
+        }
+    }
+
+    /**
+     * Removes another instance from the shards; its mappings are handed over by the instance itself.
+     *
+     * @param member Base URL of the instance
+     * @throws IllegalArgumentException If the instance is this one
+     * @throws IllegalStateException If the mappings are not sharded over instances
+     */
+    public void leave(String member) {
+        if (member.equals(self)) {
+            throw new IllegalArgumentException("This instance only leaves the shards on shutdown");
+        }
+        requireShards().removeMember(member);
+    }
+
+    /**
+     * Stops the periodic rebalancing and, unless disabled, leaves the shards, handing all mappings of this instance
+     * over to its peers.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!leaveOnShutdown || shards.members().size() == 1) {
+            return;
+        }
+        forEachPeer(peer -> peer.removeMember(self), "leaving");
+        shards.removeMember(self);
+        long moved = shards.rebalance();
+        movedMappings.increment(moved);
+        long left = shards.count();
+        if (left > 0) {
+            log.warn("Left the shards handing {} URL mappings over to {}, {} could not be", moved, members(), left);
+        } else {
+            log.info("Left the shards handing {} URL mappings over to {}", moved, members());
+        }
+    }
+
+    /**
+     * Moves the mappings of this instance routed to another instance on the calling thread.
+     *
+     * @return The number of mappings moved
+     */
+    long rebalance() {
+        long moved = shards.rebalance();
+        movedMappings.increment(moved);
+        if (moved > 0) {
+            log.info("Moved {} URL mappings to the instances they are routed to", moved);
+        }
+        return moved;
+    }
+
+    private ShardedUrlMappingRepository requireShards() {
+        if (shards == null) {
+            throw new IllegalStateException("The URL mappings are not sharded over instances");
+        }
+        return shards;
+    }
+
+    private void announceAndRebalance() {
+        forEachPeer(peer -> peer.addMember(self), "joining");
+        rebalanceQuietly();
+    }
+
+    private void rebalanceQuietly() {
+        try {
+            rebalance();
+        } catch (RuntimeException e) {
+            log.warn("Failed to move the URL mappings routed to another instance", e);
+        }
+    }
+
+    private void forEachPeer(Consumer<RemoteUrlMappingRepository> action, String what) {
+        for (Map.Entry<String, UrlMappingRepository> member : shards.members().entrySet()) {
+            if (member.getValue() instanceof RemoteUrlMappingRepository peer) {
+                try {
+                    action.accept(peer);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to tell {} this instance is {} the shards: {}", member.getKey(), what, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.util.Hashing;
+
+/**
+ * Keyed bijection over the {@code 62^length} Base62 short URL paths of a given length.
+ * <p>
+ * A balanced Feistel network permutes the smallest even-width bit domain covering {@code 62^length}; values falling
+ * outside the code space are encrypted again until they land inside it (cycle walking), which keeps the mapping a
+ * bijection on the code space itself. Distinct inputs therefore always yield distinct paths, while consecutive inputs
+ * yield paths that look unrelated to anyone not knowing the key.
+ * </p>
+ */
+final class ShortUrlPathPermutation {
+
+    static final String BASE62_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    static final int MAX_LENGTH = 10;
+    private static final int ROUNDS = 8;
+
+    private final int length;
+    private final long size;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys;
+
+    /**
+     * @param length Length of the short URL paths, at most {@value #MAX_LENGTH} so the code space fits in a long
+     * @param key Secret selecting the permutation
+     */
+    ShortUrlPathPermutation(int length, long key) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Short URL length must be between 1 and " + MAX_LENGTH + ": " + length);
+        }
+        this.length = length;
+
+        long size = 1;
+        for (int i = 0; i < length; i++) {
+            size *= BASE62_ALPHABET.length();
+        }
+        this.size = size;
+
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+
+        this.roundKeys = new long[ROUNDS];
+        long state = key;
+        for (int round = 0; round < ROUNDS; round++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[round] = Hashing.fmix64(state);
+        }
+    }
+
+    /**
+     * @return Number of distinct short URL paths, i.e. {@code 62^length}
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Maps a value of the code space to another one; distinct values always map to distinct results.
+     *
+     * @param value A value between 0 (inclusive) and {@link #size()} (exclusive)
+     * @return The permuted value, between 0 (inclusive) and {@link #size()} (exclusive)
+     */
+    long permute(long value) {
+        if (value < 0 || value >= size) {
+            throw new IllegalArgumentException("Value outside of the short URL space: " + value);
+        }
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return value;
+    }
+
+    /**
+     * Encodes a value of the code space as a fixed-length Base62 path, padded with leading zeros.
+     */
+    String encode(long value) {
+        char[] path = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = BASE62_ALPHABET.charAt((int) (value % 62));
+            value /= 62;
+        }
+        return new String(path);
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (Hashing.fmix64(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingSnapshot;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the restore of the URL mappings snapshot, part of the readiness group: out of service while the
+ * snapshot is being restored, so no traffic is routed to an instance missing most of its mappings, and down if it
+ * could not be restored.
+ */
+@Component
+public class UrlMappingSnapshotHealthIndicator implements HealthIndicator {
+
+    private final UrlMappingSnapshotService urlMappingSnapshotService;
+
+    public UrlMappingSnapshotHealthIndicator(UrlMappingSnapshotService urlMappingSnapshotService) {
+        this.urlMappingSnapshotService = urlMappingSnapshotService;
+    }
+
+    @Override
+    public Health health() {
+        UrlMappingSnapshotService.RestoreState state = urlMappingSnapshotService.restoreState();
+        Health.Builder health = switch (state) {
+            case DISABLED, RESTORED -> Health.up();
+            case RESTORING -> Health.outOfService();
+            case FAILED -> Health.down();
+        };
+        health.withDetail("restore", state);
+        UrlMappingSnapshot.Restored restored = urlMappingSnapshotService.restored();
+        if (restored != null) {
+            health.withDetail("restoredMappings", restored.mappings())
+                .withDetail("corruptSections", restored.corruptSections())
+                .withDetail("lastSnapshotMappings", urlMappingSnapshotService.lastSnapshotMappings());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.repository.IterableUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service keeping a {@link UrlMappingSnapshot} of all URL mappings of this instance, so an instance whose storage
+ * backend starts empty, such as the in-memory ones, starts with the mappings of its previous run.
+ * <p>
+ * On startup, if the storage backend is empty, the snapshot is restored in the background by several threads, one
+ * section at a time; until then {@link #restoreState()} is {@link RestoreState#RESTORING} and the
+ * {@link UrlMappingSnapshotHealthIndicator} keeps the instance out of the readiness group. Afterwards a new snapshot is
+ * written at the configured interval from a single iteration over the repository, which only blocks writes if the
+ * backend's iteration does, and a last one on shutdown, once the {@link AccessCountWriteBehind} wrote all recorded
+ * accesses. Mappings created since the last snapshot are lost on a crash.
+ * </p>
+ * <p>
+ * If the snapshot cannot be restored, no snapshot is written over it and the instance stays unready.
+ * </p>
+ */
+@Slf4j
+@Service
+public class UrlMappingSnapshotService implements Closeable {
+
+    private final IterableUrlMappingRepository urlMappingRepository;
+    private final AccessCountWriteBehind accessCountWriteBehind;
+    private final UrlMappingSnapshot snapshot;
+    private final int sections;
+    private final int restoreThreads;
+    private final Counter failedSnapshots;
+    private final ScheduledExecutorService executor;
+    private final CountDownLatch restoreDone = new CountDownLatch(1);
+
+    private volatile RestoreState restoreState;
+    private volatile UrlMappingSnapshot.Restored restored;
+    private volatile long lastSnapshotMappings;
+
+    @Autowired
+    public UrlMappingSnapshotService(@Qualifier("localUrlMappingRepository") IterableUrlMappingRepository urlMappingRepository,
+                                     AccessCountWriteBehind accessCountWriteBehind,
+                                     UrlShortenerConfig urlShortenerConfig, MeterRegistry meterRegistry) {
+        this(urlMappingRepository, accessCountWriteBehind, urlShortenerConfig.getSnapshot(), meterRegistry);
+    }
+
+    UrlMappingSnapshotService(IterableUrlMappingRepository urlMappingRepository, AccessCountWriteBehind accessCountWriteBehind,
+                              UrlShortenerConfig.Snapshot settings, MeterRegistry meterRegistry) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.accessCountWriteBehind = accessCountWriteBehind;
+        this.snapshot = new UrlMappingSnapshot(Path.of(settings.getFile()));
+        this.sections = settings.getSections();
+        this.restoreThreads = settings.getRestoreThreads() > 0 ? settings.getRestoreThreads() : Runtime.getRuntime().availableProcessors();
+
+        this.failedSnapshots = Counter.builder("shorturl.snapshot.failures")
+            .description("Snapshots of the URL mappings that failed to be written")
+            .register(meterRegistry);
+        Gauge.builder("shorturl.snapshot.mappings", this, service -> service.lastSnapshotMappings)
+            .description("URL mappings written in the last snapshot")
+            .register(meterRegistry);
+
+        if (!settings.isEnabled()) {
+            this.restoreState = RestoreState.DISABLED;
+            this.executor = null;
+            restoreDone.countDown();
+            return;
+        }
+        this.restoreState = RestoreState.RESTORING;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "url-mapping-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Runs before the first snapshot on the same thread, so a snapshot never overwrites one not restored yet
+        executor.execute(this::restore);
+        executor.scheduleWithFixedDelay(this::snapshotQuietly, settings.getIntervalMillis(), settings.getIntervalMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Whether the snapshot of the previous run is still being restored, was restored or failed to
+     */
+    public RestoreState restoreState() {
+        return restoreState;
+    }
+
+    /**
+     * @return The outcome of the restore, or null unless {@link RestoreState#RESTORED}
+     */
+    public UrlMappingSnapshot.Restored restored() {
+        return restored;
+    }
+
+    /**
+     * @return The number of mappings written in the last snapshot
+     */
+    public long lastSnapshotMappings() {
+        return lastSnapshotMappings;
+    }
+
+    /**
+     * Writes a snapshot of all mappings on the calling thread.
+     *
+     * @return The number of mappings written
+     * @throws IOException If the snapshot could not be written
+     * @throws IllegalStateException If the snapshot of the previous run was not restored
+     */
+    public synchronized long snapshot() throws IOException {
+        if (restoreState != RestoreState.RESTORED) {
+            throw new IllegalStateException("Snapshot not restored: " + restoreState);
+        }
+        long startedAtNanos = System.nanoTime();
+        long mappings = snapshot.write(urlMappingRepository, sections);
+        lastSnapshotMappings = mappings;
+        log.debug("Wrote a snapshot of {} URL mappings in {} ms", mappings,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos));
+        return mappings;
+    }
+
+    /**
+     * Stops the periodic snapshots and, unless the restore is still running or failed, writes the recorded accesses
+     * and a last snapshot.
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (restoreState == RestoreState.RESTORED) {
+            accessCountWriteBehind.close();
+            snapshotQuietly();
+        }
+    }
+
+    /**
+     * Waits for the restore to complete, or fail.
+     */
+    boolean awaitRestore(long timeout, TimeUnit unit) throws InterruptedException {
+        return restoreDone.await(timeout, unit);
+    }
+
+    private void restore() {
+        try {
+            if (!snapshot.exists() || urlMappingRepository.count() > 0) {
+                log.info("Not restoring a snapshot: {}", snapshot.exists() ? "the storage backend is not empty" : "none was written");
+                restored = new UrlMappingSnapshot.Restored(0, 0);
+                restoreState = RestoreState.RESTORED;
+                return;
+            }
+
+            long startedAtNanos = System.nanoTime();
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService restoreExecutor = Executors.newFixedThreadPool(restoreThreads, runnable -> {
+                Thread thread = new Thread(runnable, "url-mapping-snapshot-restore-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                restored = snapshot.restore(urlMappingRepository::save, restoreExecutor);
+            } finally {
+                restoreExecutor.shutdownNow();
+            }
+            restoreState = RestoreState.RESTORED;
+            log.info("Restored {} URL mappings from a snapshot in {} ms with {} threads", restored.mappings(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos), restoreThreads);
+        } catch (IOException | RuntimeException e) {
+            restoreState = RestoreState.FAILED;
+            log.error("Failed to restore the snapshot of URL mappings, no snapshot will be written over it", e);
+        } finally {
+            restoreDone.countDown();
+        }
+    }
+
+    private void snapshotQuietly() {
+        if (restoreState != RestoreState.RESTORED) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            failedSnapshots.increment();
+            log.warn("Failed to write a snapshot of the URL mappings", e);
+        }
+    }
+
+    public enum RestoreState {
+        /**
+         * Snapshots are disabled
+         */
+        DISABLED,
+        /**
+         * The snapshot of the previous run is being restored
+         */
+        RESTORING,
+        /**
+         * The snapshot of the previous run was restored, or there was none to restore
+         */
+        RESTORED,
+        /**
+         * The snapshot of the previous run could not be restored
+         */
+        FAILED
+    }
+}
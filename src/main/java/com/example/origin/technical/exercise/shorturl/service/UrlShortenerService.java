@@ -1,16 +1,24 @@
 package com.example.origin.technical.exercise.shorturl.service;
 
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service for generating unique, short, and non-sequential URLs using one-way hashing.
- * Uses SHA-256 hashing with salt and Base62 encoding to create irreversible short URLs.
+ * Service for generating unique, short, and non-sequential URLs.
+ * <p>
+ * By default, uses SHA-256 hashing with salt and Base62 encoding to create irreversible short URLs.
+ * With the "permutation" generator, identifiers are instead taken from blocks leased by a {@link LeasedIdAllocator}
+ * and mapped through a keyed {@link ShortUrlPathPermutation} of the Base62 code space, which needs no hashing and
+ * never yields the same path twice, not even across restarts or instances sharing the lease file.
+ * </p>
  */
 @Service
 public class UrlShortenerService {
@@ -22,20 +30,52 @@ public class UrlShortenerService {
     private final AtomicLong counter;
     private final String salt;
     private final SecureRandom secureRandom;
+    private final int shortUrlLength;
+    private final ShortUrlPathPermutation permutation;
+    private final LeasedIdAllocator idAllocator;
 
     public UrlShortenerService() {
         this.counter = new AtomicLong(System.currentTimeMillis());
         this.salt = generateRandomSalt();
         this.secureRandom = new SecureRandom();
+        this.shortUrlLength = SHORT_URL_LENGTH;
+        this.permutation = null;
+        this.idAllocator = null;
+    }
+
+    @Autowired
+    public UrlShortenerService(UrlShortenerConfig urlShortenerConfig) {
+        this(urlShortenerConfig, "permutation".equals(urlShortenerConfig.getGenerator())
+            ? new FileIdBlockLeaseStore(Path.of(urlShortenerConfig.getLeases().getFile()))
+            : null);
+    }
+
+    UrlShortenerService(UrlShortenerConfig urlShortenerConfig, IdBlockLeaseStore leaseStore) {
+        this.counter = new AtomicLong(System.currentTimeMillis());
+        this.salt = generateRandomSalt();
+        this.secureRandom = new SecureRandom();
+        if (leaseStore != null) {
+            this.shortUrlLength = urlShortenerConfig.getShortUrlLength() > 0 ? urlShortenerConfig.getShortUrlLength() : SHORT_URL_LENGTH;
+            this.permutation = new ShortUrlPathPermutation(shortUrlLength, leaseStore.key());
+            this.idAllocator = new LeasedIdAllocator(leaseStore, urlShortenerConfig.getLeases().getBlockSize(), permutation.size());
+        } else {
+            this.shortUrlLength = SHORT_URL_LENGTH;
+            this.permutation = null;
+            this.idAllocator = null;
+        }
     }
 
     /**
-     * Generates a unique short URL identifier using one-way hashing.
-     * Combines timestamp, counter, and random value for uniqueness.
+     * Generates a unique short URL identifier.
+     * Combines timestamp, counter, and random value for uniqueness, or permutes a leased identifier with the "permutation" generator.
      *
      * @return A short, unique, non-sequential identifier (e.g., "aB3xK9p")
      */
     public String generateShortUrlPath() {
+        if (permutation != null) {
+            return generatePermutedShortUrlPath();
+        }
+
         // Create unique input by combining multiple sources
         long id = counter.incrementAndGet();
         long timestamp = System.nanoTime();
@@ -54,6 +94,15 @@ public class UrlShortenerService {
         }
     }
 
+    /**
+     * Maps the next leased identifier through the permutation; unique until the whole code space has been leased.
+     *
+     * @return A short, unique, non-sequential identifier
+     */
+    private String generatePermutedShortUrlPath() {
+        return permutation.encode(permutation.permute(idAllocator.next()));
+    }
+
     /**
      * Converts a byte array to Base62 encoded string.
      * Base62 uses alphanumeric characters (0-9, A-Z, a-z) for URL-friendly output.
@@ -61,7 +110,7 @@ public class UrlShortenerService {
      * @param bytes The byte array to encode
      * @return Base62 encoded string
      */
-    private String toBase62(byte[] bytes) {
+    static String toBase62(byte[] bytes) {
         StringBuilder result = new StringBuilder();
 
         // Convert bytes to a large number and encode in Base62
@@ -96,7 +145,7 @@ public class UrlShortenerService {
             return false;
         }
 
-        if (shortUrl.length() != SHORT_URL_LENGTH) {
+        if (shortUrl.length() != shortUrlLength) {
             return false;
         }
 
@@ -0,0 +1,23 @@
+package com.example.origin.technical.exercise.shorturl.util;
+
+/**
+ * Hash functions shared by the repositories, services and controllers.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Finalizer of MurmurHash3 ({@code fmix64}), spreading every input bit over the whole output. Being a bijection on
+     * {@code long}s, it never maps distinct inputs to the same output.
+     */
+    public static long fmix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
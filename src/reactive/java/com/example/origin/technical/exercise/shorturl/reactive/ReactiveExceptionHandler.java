@@ -0,0 +1,44 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.exception.GlobalExceptionHandler;
+import com.example.origin.technical.exercise.shorturl.model.ErrorResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Handles the exceptions specific to WebFlux, ahead of the {@link GlobalExceptionHandler} handling all others.
+ * <p>
+ * An invalid request body fails with a {@link WebExchangeBindException} instead of the
+ * {@link org.springframework.web.bind.MethodArgumentNotValidException} of Spring MVC, and is answered with the
+ * same {@link ErrorResponse}.
+ * </p>
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveExceptionHandler {
+
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex) {
+		List<String> details = ex.getBindingResult()
+			.getFieldErrors()
+			.stream()
+			.map(error -> error.getField() + ": " + error.getDefaultMessage())
+			.toList();
+
+		ErrorResponse errorResponse = new ErrorResponse();
+		errorResponse.setError("Bad Request");
+		errorResponse.setMessage("Validation failed");
+		errorResponse.setDetails(details);
+		errorResponse.setTimestamp(LocalDateTime.now());
+
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+	}
+}
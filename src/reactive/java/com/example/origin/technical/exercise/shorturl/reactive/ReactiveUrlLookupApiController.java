@@ -0,0 +1,69 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.LookupResponseCache;
+import com.example.origin.technical.exercise.shorturl.api.UrlLookupApiController;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.service.AccessStatisticsService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Reactive counterpart of {@link UrlLookupApiController}, serving lookups on WebFlux.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+public class ReactiveUrlLookupApiController implements UrlLookupApi {
+
+	private final ReactiveUrlMappingRepository urlMappingRepository;
+	private final AccessStatisticsService accessStatisticsService;
+	private final LookupResponseCache lookupResponseCache;
+
+	/**
+	 * Retrieves the full URL and metadata of a short URL, as {@link UrlLookupApiController#_getFullUrl} does:
+	 * HTTP 404 (Not Found) for an unknown short URL, otherwise the details from the {@link LookupResponseCache}
+	 * along with their validators, so WebFlux answers a conditional request whose details did not change with
+	 * HTTP 304 (Not Modified).
+	 */
+	@Override
+	public Mono<ResponseEntity<GetFullUrlResponse>> _getFullUrl(String shortUrl, ServerWebExchange exchange) {
+		String shortPath = toShortPath(shortUrl);
+		return urlMappingRepository.findByShortUrlPath(shortPath)
+			.map(mapping -> {
+				LookupResponseCache.CachedFullUrlResponse details = lookupResponseCache.get(mapping, this::toResponse);
+				ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+					.cacheControl(CacheControl.noCache())
+					.eTag(details.eTag());
+				if (details.lastModified() != null) {
+					response.lastModified(details.lastModified());
+				}
+				return response.<GetFullUrlResponse>body(details);
+			})
+			.switchIfEmpty(Mono.fromSupplier(() -> {
+				lookupResponseCache.invalidate(shortPath);
+				return ResponseEntity.notFound().build();
+			}));
+	}
+
+	private static String toShortPath(String shortUrl) {
+		String path = URI.create(shortUrl).getPath();
+		return path.startsWith("/") ? path.substring(1) : path;
+	}
+
+	private GetFullUrlResponse toResponse(UrlMapping mapping) {
+		return new GetFullUrlResponse()
+			.fullUrl(mapping.getFullUrl())
+			.createdAt(mapping.getCreatedAt())
+			.lastAccessedAt(accessStatisticsService.getLastAccessedAt(mapping))
+			.expiresAt(mapping.getExpiresAt())
+			.accessCount(accessStatisticsService.getAccessCount(mapping));
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.FollowerUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.ShardedUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reactive adapter of the {@link UrlMappingRepository} used by the application.
+ * <p>
+ * The in-memory and off-heap backends answer every call from memory, and the mapped-log backend answers reads
+ * from memory, so those calls run on the subscribing Netty event loop without a thread hop. Calls that may block
+ * are moved to the bounded elastic scheduler, so they never stall an event loop: writes to the mapped-log backend
+ * waiting for their group commit, every call to any other backend, and whatever the repository injected sends to
+ * another instance, which is every call of a {@link ShardedUrlMappingRepository} and the writes of a
+ * {@link FollowerUrlMappingRepository}. Writes are offloaded with the "permutation" generator too, as creating a
+ * mapping may then lease identifiers from a file.
+ * </p>
+ */
+@Component
+public class ReactiveUrlMappingRepository {
+
+	private static final Set<String> NON_BLOCKING_READS = Set.of("in-memory", "off-heap", "mapped-log");
+	private static final Set<String> NON_BLOCKING_WRITES = Set.of("in-memory", "off-heap");
+
+	private final UrlMappingRepository urlMappingRepository;
+	private final Scheduler readScheduler;
+	private final Scheduler writeScheduler;
+
+	@Autowired
+	public ReactiveUrlMappingRepository(UrlMappingRepository urlMappingRepository, UrlShortenerConfig config) {
+		this(urlMappingRepository,
+			readsBlock(urlMappingRepository, config) ? Schedulers.boundedElastic() : null,
+			writesBlock(urlMappingRepository, config) ? Schedulers.boundedElastic() : null);
+	}
+
+	/**
+	 * @param readScheduler The scheduler reads run on, or null to run them on the subscribing thread
+	 * @param writeScheduler The scheduler writes run on, or null to run them on the subscribing thread
+	 */
+	ReactiveUrlMappingRepository(UrlMappingRepository urlMappingRepository, Scheduler readScheduler, Scheduler writeScheduler) {
+		this.urlMappingRepository = urlMappingRepository;
+		this.readScheduler = readScheduler;
+		this.writeScheduler = writeScheduler;
+	}
+
+	/**
+	 * @see UrlMappingRepository#findByShortUrlPath(String)
+	 * @return The mapping of the short URL, or an empty Mono if there is none
+	 */
+	public Mono<UrlMapping> findByShortUrlPath(String shortUrl) {
+		return call(() -> urlMappingRepository.findByShortUrlPath(shortUrl).orElse(null), readScheduler);
+	}
+
+	/**
+	 * @see UrlMappingRepository#findOrCreateByFullUrl(String, Function)
+	 */
+	public Mono<UrlMapping> findOrCreateByFullUrl(String fullUrl, Function<String, UrlMapping> mappingFactory) {
+		return call(() -> urlMappingRepository.findOrCreateByFullUrl(fullUrl, mappingFactory), writeScheduler);
+	}
+
+	private static boolean readsBlock(UrlMappingRepository urlMappingRepository, UrlShortenerConfig config) {
+		return !NON_BLOCKING_READS.contains(config.getRepository())
+			|| urlMappingRepository instanceof ShardedUrlMappingRepository;
+	}
+
+	private static boolean writesBlock(UrlMappingRepository urlMappingRepository, UrlShortenerConfig config) {
+		return !NON_BLOCKING_WRITES.contains(config.getRepository())
+			|| urlMappingRepository instanceof ShardedUrlMappingRepository
+			|| urlMappingRepository instanceof FollowerUrlMappingRepository
+			|| "permutation".equals(config.getGenerator());
+	}
+
+	private static <T> Mono<T> call(Supplier<T> call, Scheduler scheduler) {
+		Mono<T> result = Mono.fromSupplier(call);
+		return scheduler != null ? result.subscribeOn(scheduler) : result;
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.HttpCachePolicy;
+import com.example.origin.technical.exercise.shorturl.api.UrlRedirectApiController;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link UrlRedirectApiController}, serving redirects on WebFlux.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+public class ReactiveUrlRedirectApiController implements UrlRedirectApi {
+
+	private final ReactiveUrlMappingRepository urlMappingRepository;
+	private final AccessEventPipeline accessEventPipeline;
+	private final HttpCachePolicy httpCachePolicy;
+
+	/**
+	 * Redirects a short URL path to its corresponding full URL, as {@link UrlRedirectApiController#_redirectToFullUrl}
+	 * does: HTTP 404 (Not Found) for an unknown short URL, otherwise the access is published and the redirect status,
+	 * Location and Cache-Control headers of the {@link HttpCachePolicy} are returned.
+	 */
+	@Override
+	public Mono<ResponseEntity<Void>> _redirectToFullUrl(String path, ServerWebExchange exchange) {
+		return urlMappingRepository.findByShortUrlPath(path)
+			.map(urlMapping -> {
+				accessEventPipeline.publish(path);
+				HttpHeaders headers = new HttpHeaders();
+				headers.set(HttpHeaders.LOCATION, urlMapping.getLocation());
+				headers.set(HttpHeaders.CACHE_CONTROL, httpCachePolicy.redirectCacheControl(urlMapping));
+				return new ResponseEntity<Void>(headers, HttpStatusCode.valueOf(httpCachePolicy.redirectStatus(urlMapping)));
+			})
+			.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+}
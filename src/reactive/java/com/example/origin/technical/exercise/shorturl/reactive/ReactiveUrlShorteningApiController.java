@@ -0,0 +1,44 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.UrlShorteningApiController;
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlRequest;
+import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlResponse;
+import com.example.origin.technical.exercise.shorturl.service.UrlShortenerService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Reactive counterpart of {@link UrlShorteningApiController}, creating short URLs on WebFlux.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+public class ReactiveUrlShorteningApiController implements UrlShorteningApi {
+
+	private final ReactiveUrlMappingRepository urlMappingRepository;
+	private final UrlShortenerService urlShortenerService;
+	private final UrlShortenerConfig urlShortenerConfig;
+
+	/**
+	 * Creates a shortened URL for the provided full URL, as {@link UrlShorteningApiController#_createShortUrl} does:
+	 * the short URL of the existing mapping of the full URL, or of a new mapping created atomically with it.
+	 * An invalid request fails with a {@link org.springframework.web.bind.support.WebExchangeBindException}.
+	 */
+	@Override
+	public Mono<ResponseEntity<CreateShortUrlResponse>> _createShortUrl(Mono<CreateShortUrlRequest> createShortUrlRequest,
+																		ServerWebExchange exchange) {
+		return createShortUrlRequest
+			.flatMap(request -> urlMappingRepository.findOrCreateByFullUrl(
+				request.getUrl(),
+				fullUrl -> UrlShorteningApiController.newMapping(request, fullUrl, urlShortenerService.generateShortUrlPath())))
+			.map(mapping -> ResponseEntity.ok(new CreateShortUrlResponse()
+				.shortUrl(URI.create(urlShortenerConfig.getBaseUrl() + mapping.getShortUrlPath()))));
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * WebFlux settings of the reactive variant of the API.
+ * <p>
+ * Registers the {@link SerializedJsonEncoder}; as it only writes serialized bodies, WebFlux consults it ahead of
+ * the Jackson encoder.
+ * </p>
+ */
+@Configuration
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+	@Override
+	public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+		configurer.customCodecs().register(new SerializedJsonEncoder());
+	}
+}
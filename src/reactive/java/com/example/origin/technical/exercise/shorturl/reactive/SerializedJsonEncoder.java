@@ -0,0 +1,42 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.SerializedJsonBody;
+import com.example.origin.technical.exercise.shorturl.api.SerializedJsonHttpMessageConverter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Encodes {@link SerializedJsonBody} responses by wrapping their serialized JSON, the WebFlux counterpart of
+ * {@link SerializedJsonHttpMessageConverter}.
+ */
+public class SerializedJsonEncoder extends AbstractEncoder<SerializedJsonBody> {
+
+	public SerializedJsonEncoder() {
+		super(MediaType.APPLICATION_JSON);
+	}
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+		return SerializedJsonBody.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends SerializedJsonBody> inputStream, DataBufferFactory bufferFactory,
+								   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		return Flux.from(inputStream).map(body -> encodeValue(body, bufferFactory, elementType, mimeType, hints));
+	}
+
+	@Override
+	public DataBuffer encodeValue(SerializedJsonBody body, DataBufferFactory bufferFactory,
+								  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+		return bufferFactory.wrap(body.serializedJson());
+	}
+}
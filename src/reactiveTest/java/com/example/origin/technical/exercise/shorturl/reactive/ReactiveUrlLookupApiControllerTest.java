@@ -0,0 +1,79 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.HttpCachePolicy;
+import com.example.origin.technical.exercise.shorturl.api.LookupResponseCache;
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.exception.GlobalExceptionHandler;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveUrlLookupApiControllerTest {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	private InMemoryUrlMappingRepository repository;
+	private AccessStatisticsService accessStatisticsService;
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		repository = new InMemoryUrlMappingRepository();
+		accessStatisticsService = new AccessStatisticsService();
+		client = WebTestClient.bindToController(new ReactiveUrlLookupApiController(
+				new ReactiveUrlMappingRepository(repository, null, null), accessStatisticsService,
+				new LookupResponseCache(config, JSON_MAPPER, new HttpCachePolicy(config))))
+			.controllerAdvice(new ReactiveExceptionHandler(), new GlobalExceptionHandler())
+			.httpMessageCodecs(codecs -> codecs.customCodecs().register(new SerializedJsonEncoder()))
+			.build();
+	}
+
+	@Test
+	void testGetFullUrlSuccess() {
+		repository.save(new UrlMapping("abc123", "https://example.com/long/path"));
+		accessStatisticsService.recordAccess("abc123");
+
+		client.get().uri(uri -> uri.path("/api/v1/url/full").queryParam("shortUrl", "http://localhost:8080/abc123").build())
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(MediaType.APPLICATION_JSON)
+			.expectHeader().cacheControl(CacheControl.noCache())
+			.expectBody()
+			.jsonPath("$.fullUrl").isEqualTo("https://example.com/long/path")
+			.jsonPath("$.accessCount").isEqualTo(1);
+	}
+
+	@Test
+	void testGetFullUrlNotFound() {
+		client.get().uri(uri -> uri.path("/api/v1/url/full").queryParam("shortUrl", "http://localhost:8080/unknown").build())
+			.exchange()
+			.expectStatus().isNotFound();
+	}
+
+	@Test
+	void testGetFullUrlAnswersUnchangedDetailsWithNotModified() {
+		repository.save(new UrlMapping("abc123", "https://example.com"));
+
+		String eTag = client.get().uri(uri -> uri.path("/api/v1/url/full").queryParam("shortUrl", "http://localhost:8080/abc123").build())
+			.exchange()
+			.expectStatus().isOk()
+			.returnResult(String.class).getResponseHeaders().getETag();
+		assertNotNull(eTag);
+
+		client.get().uri(uri -> uri.path("/api/v1/url/full").queryParam("shortUrl", "http://localhost:8080/abc123").build())
+			.header(HttpHeaders.IF_NONE_MATCH, eTag)
+			.exchange()
+			.expectStatus().isNotModified()
+			.expectBody().isEmpty();
+	}
+}
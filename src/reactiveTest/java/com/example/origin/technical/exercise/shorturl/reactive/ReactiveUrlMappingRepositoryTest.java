@@ -0,0 +1,157 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.FollowerUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.ShardedUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveUrlMappingRepositoryTest {
+
+	private UrlMappingRepository repository;
+	private Scheduler scheduler;
+
+	@BeforeEach
+	void setUp() {
+		repository = new InMemoryUrlMappingRepository();
+		scheduler = Schedulers.newSingle("blocking-repository");
+	}
+
+	@AfterEach
+	void tearDown() {
+		scheduler.dispose();
+	}
+
+	@Test
+	void testFindByShortUrlPath() {
+		ReactiveUrlMappingRepository reactiveRepository = new ReactiveUrlMappingRepository(repository, null, null);
+		repository.save(new UrlMapping("abc123", "https://example.com"));
+
+		assertEquals("https://example.com", reactiveRepository.findByShortUrlPath("abc123").block().getFullUrl());
+		assertNull(reactiveRepository.findByShortUrlPath("unknown").block());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrl() {
+		ReactiveUrlMappingRepository reactiveRepository = new ReactiveUrlMappingRepository(repository, null, null);
+
+		UrlMapping created = reactiveRepository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping("abc123", fullUrl)).block();
+		UrlMapping found = reactiveRepository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping("def456", fullUrl)).block();
+
+		assertEquals("abc123", created.getShortUrlPath());
+		assertEquals("abc123", found.getShortUrlPath());
+		assertTrue(repository.existsByShortUrlPath("abc123"));
+	}
+
+	@Test
+	void testCallsAreLazy() {
+		ReactiveUrlMappingRepository reactiveRepository = new ReactiveUrlMappingRepository(repository, null, null);
+
+		Mono<UrlMapping> created = reactiveRepository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping("abc123", fullUrl));
+
+		assertEquals(0, repository.count());
+		created.block();
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	void testRunsCallsOnSubscribingThreadWithoutScheduler() {
+		ReactiveUrlMappingRepository reactiveRepository = new ReactiveUrlMappingRepository(repository, null, null);
+		AtomicReference<String> thread = new AtomicReference<>();
+
+		reactiveRepository.findOrCreateByFullUrl("https://example.com", fullUrl -> {
+			thread.set(Thread.currentThread().getName());
+			return new UrlMapping("abc123", fullUrl);
+		}).block();
+
+		assertEquals(Thread.currentThread().getName(), thread.get());
+	}
+
+	@Test
+	void testRunsCallsOnScheduler() {
+		ReactiveUrlMappingRepository reactiveRepository = new ReactiveUrlMappingRepository(repository, scheduler, scheduler);
+		AtomicReference<String> thread = new AtomicReference<>();
+
+		reactiveRepository.findOrCreateByFullUrl("https://example.com", fullUrl -> {
+			thread.set(Thread.currentThread().getName());
+			return new UrlMapping("abc123", fullUrl);
+		}).block();
+
+		assertTrue(thread.get().startsWith("blocking-repository"));
+	}
+
+	@Test
+	void testOffloadsOnlyCallsOfBlockingBackends() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		AtomicReference<String> thread = new AtomicReference<>();
+
+		config.setRepository("mapped-log");
+		new ReactiveUrlMappingRepository(repository, config).findOrCreateByFullUrl("https://example.com", fullUrl -> {
+			thread.set(Thread.currentThread().getName());
+			return new UrlMapping("abc123", fullUrl);
+		}).block();
+		assertNotEquals(Thread.currentThread().getName(), thread.get());
+
+		config.setRepository("in-memory");
+		new ReactiveUrlMappingRepository(repository, config).findOrCreateByFullUrl("https://example.com/other", fullUrl -> {
+			thread.set(Thread.currentThread().getName());
+			return new UrlMapping("def456", fullUrl);
+		}).block();
+		assertEquals(Thread.currentThread().getName(), thread.get());
+	}
+
+	@Test
+	void testOffloadsCallsSentToOtherInstances() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		ShardedUrlMappingRepository sharded = new ShardedUrlMappingRepository("a", new InMemoryUrlMappingRepository(), List.of(),
+			name -> new InMemoryUrlMappingRepository(), 16);
+		FollowerUrlMappingRepository follower = new FollowerUrlMappingRepository(new InMemoryUrlMappingRepository(),
+			new InMemoryUrlMappingRepository());
+
+		assertNotEquals(Thread.currentThread().getName(), writingThread(new ReactiveUrlMappingRepository(sharded, config)));
+		assertNotEquals(Thread.currentThread().getName(), readingThread(new ReactiveUrlMappingRepository(sharded, config)));
+		assertNotEquals(Thread.currentThread().getName(), writingThread(new ReactiveUrlMappingRepository(follower, config)));
+		assertEquals(Thread.currentThread().getName(), readingThread(new ReactiveUrlMappingRepository(follower, config)));
+	}
+
+	@Test
+	void testOffloadsWritesWithPermutationGenerator() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		config.setGenerator("permutation");
+
+		assertNotEquals(Thread.currentThread().getName(), writingThread(new ReactiveUrlMappingRepository(repository, config)));
+		assertEquals(Thread.currentThread().getName(), readingThread(new ReactiveUrlMappingRepository(repository, config)));
+	}
+
+	private static String writingThread(ReactiveUrlMappingRepository reactiveRepository) {
+		AtomicReference<String> thread = new AtomicReference<>();
+		reactiveRepository.findOrCreateByFullUrl("https://example.com/written", fullUrl -> {
+			thread.set(Thread.currentThread().getName());
+			return new UrlMapping("written", fullUrl);
+		}).block();
+		return thread.get();
+	}
+
+	private static String readingThread(ReactiveUrlMappingRepository reactiveRepository) {
+		AtomicReference<String> thread = new AtomicReference<>();
+		reactiveRepository.findByShortUrlPath("unknown")
+			.doOnSuccess(mapping -> thread.set(Thread.currentThread().getName()))
+			.block();
+		return thread.get();
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.HttpCachePolicy;
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.CacheControl;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUrlRedirectApiControllerTest {
+
+	@Mock
+	private AccessEventPipeline accessEventPipeline;
+
+	private InMemoryUrlMappingRepository repository;
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		repository = new InMemoryUrlMappingRepository();
+		client = WebTestClient.bindToController(new ReactiveUrlRedirectApiController(
+				new ReactiveUrlMappingRepository(repository, null, null), accessEventPipeline,
+				new HttpCachePolicy(new UrlShortenerConfig())))
+			.build();
+	}
+
+	@Test
+	void testRedirectToFullUrlSuccess() {
+		repository.save(new UrlMapping("abc123", "https://example.com/long/path"));
+
+		client.get().uri("/abc123").exchange()
+			.expectStatus().isFound()
+			.expectHeader().location("https://example.com/long/path")
+			.expectHeader().cacheControl(CacheControl.noStore())
+			.expectBody().isEmpty();
+
+		verify(accessEventPipeline).publish("abc123");
+	}
+
+	@Test
+	void testRedirectUsesOptionsOfMapping() {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		mapping.setRedirectStatus(301);
+		mapping.setCacheable(true);
+		repository.save(mapping);
+
+		client.get().uri("/abc123").exchange()
+			.expectStatus().isEqualTo(301)
+			.expectHeader().valueMatches("Cache-Control", "public, max-age=\\d+");
+	}
+
+	@Test
+	void testRedirectToFullUrlNotFound() {
+		client.get().uri("/unknown").exchange()
+			.expectStatus().isNotFound();
+
+		verifyNoInteractions(accessEventPipeline);
+	}
+}
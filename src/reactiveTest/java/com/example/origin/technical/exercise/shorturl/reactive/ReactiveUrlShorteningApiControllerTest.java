@@ -0,0 +1,88 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.exception.GlobalExceptionHandler;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.UrlShortenerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUrlShorteningApiControllerTest {
+
+	@Mock
+	private UrlShortenerService urlShortenerService;
+
+	private InMemoryUrlMappingRepository repository;
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		config.setBaseUrl("http://localhost:8080/");
+		repository = new InMemoryUrlMappingRepository();
+		client = WebTestClient.bindToController(new ReactiveUrlShorteningApiController(
+				new ReactiveUrlMappingRepository(repository, null, null), urlShortenerService, config))
+			.controllerAdvice(new ReactiveExceptionHandler(), new GlobalExceptionHandler())
+			.build();
+	}
+
+	@Test
+	void testCreateShortUrlSuccess() {
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("abc123");
+
+		client.post().uri("/api/v1/url/short")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue("{\"url\":\"https://example.com/long/path\",\"ttlSeconds\":60,\"redirectStatus\":307}")
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.shortUrl").isEqualTo("http://localhost:8080/abc123");
+
+		var mapping = repository.findByShortUrlPath("abc123").orElseThrow();
+		assertEquals("https://example.com/long/path", mapping.getFullUrl());
+		assertEquals(mapping.getCreatedAt().plusSeconds(60), mapping.getExpiresAt());
+		assertEquals(307, mapping.getRedirectStatus());
+	}
+
+	@Test
+	void testCreateShortUrlReturnsExistingMapping() {
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("abc123");
+
+		for (int i = 0; i < 2; i++) {
+			client.post().uri("/api/v1/url/short")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"url\":\"https://example.com\"}")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.shortUrl").isEqualTo("http://localhost:8080/abc123");
+		}
+
+		verify(urlShortenerService, times(1)).generateShortUrlPath();
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	void testCreateShortUrlRejectsInvalidRequest() {
+		client.post().uri("/api/v1/url/short")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue("{}")
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectBody()
+			.jsonPath("$.error").isEqualTo("Bad Request")
+			.jsonPath("$.message").isEqualTo("Validation failed")
+			.jsonPath("$.details[0]").isEqualTo("url: must not be null");
+
+		verifyNoInteractions(urlShortenerService);
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.origin.technical.exercise.shorturl.reactive;
+
+import com.example.origin.technical.exercise.shorturl.api.SerializedJsonBody;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedJsonEncoderTest {
+
+	private final SerializedJsonEncoder encoder = new SerializedJsonEncoder();
+
+	@Test
+	void testEncodesOnlySerializedJsonBodiesAsJson() {
+		assertTrue(encoder.canEncode(ResolvableType.forClass(Body.class), MediaType.APPLICATION_JSON));
+		assertTrue(encoder.canEncode(ResolvableType.forClass(Body.class), null));
+		assertFalse(encoder.canEncode(ResolvableType.forClass(Body.class), MediaType.APPLICATION_XML));
+		assertFalse(encoder.canEncode(ResolvableType.forClass(GetFullUrlResponse.class), MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void testWritesSerializedJson() {
+		DataBuffer buffer = encoder.encode(Flux.just(new Body("{\"a\":1}")), DefaultDataBufferFactory.sharedInstance,
+				ResolvableType.forClass(Body.class), MediaType.APPLICATION_JSON, Map.of())
+			.blockFirst();
+
+		assertEquals("{\"a\":1}", buffer.toString(StandardCharsets.UTF_8));
+	}
+
+	private record Body(String json) implements SerializedJsonBody {
+
+		@Override
+		public byte[] serializedJson() {
+			return json.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.origin.technical.exercise.shorturl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A leader and a follower instance on different ports, the follower serving the redirects of the mappings created on
+ * either of them.
+ */
+class ReplicatedApplicationTests {
+
+	private static final int MAPPINGS = 20;
+	private static final String SECRET = "s3cret";
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@Test
+	void testFollowerServesMappingsOfLeader() throws Exception {
+		String leader = "http://localhost:" + freePort();
+		String follower = "http://localhost:" + freePort();
+		try (ConfigurableApplicationContext leaderInstance = start(leader,
+			"--url.shortener.replication.role=leader")) {
+			Map<String, String> fullUrlsByShortUrlPath = new LinkedHashMap<>();
+			for (int i = 0; i < MAPPINGS; i++) {
+				String fullUrl = "https://example.com/articles/" + i;
+				fullUrlsByShortUrlPath.put(shorten(leader, fullUrl), fullUrl);
+			}
+			assertEquals(401, get(leader + "/internal/v1/replication/changes?after=0&limit=10").statusCode());
+			assertEquals(401, get(leader + "/internal/v1/replication/snapshot").statusCode());
+			assertEquals(200, httpClient.send(HttpRequest.newBuilder(URI.create(leader + "/internal/v1/replication/changes?after=0&limit=10"))
+					.header("X-Internal-Secret", SECRET)
+					.build(),
+				HttpResponse.BodyHandlers.ofString()).statusCode());
+
+			try (ConfigurableApplicationContext followerInstance = start(follower,
+				"--url.shortener.replication.role=follower",
+				"--url.shortener.replication.leader=" + leader,
+				"--url.shortener.replication.poll-interval-millis=20")) {
+				// Ready once the mappings of the leader are copied
+				awaitTrue(() -> get(follower + "/actuator/health/readiness").body().contains("\"UP\""));
+				for (Map.Entry<String, String> mapping : fullUrlsByShortUrlPath.entrySet()) {
+					assertEquals(mapping.getValue(), redirect(follower, mapping.getKey()));
+				}
+
+				// Then applies the changes of the leader
+				String created = shorten(leader, "https://example.com/created-on-leader");
+				awaitTrue(() -> get(follower + "/" + created).statusCode() == 302);
+
+				// Writes go to the leader, and are found by the follower right away
+				String forwarded = shorten(follower, "https://example.com/created-on-follower");
+				assertEquals("https://example.com/created-on-follower", redirect(follower, forwarded));
+				assertEquals("https://example.com/created-on-follower", redirect(leader, forwarded));
+				assertEquals(forwarded, shorten(leader, "https://example.com/created-on-follower"));
+				String existing = fullUrlsByShortUrlPath.keySet().iterator().next();
+				assertEquals(existing, shorten(follower, fullUrlsByShortUrlPath.get(existing)));
+
+				awaitTrue(() -> get(follower + "/actuator/metrics/shorturl.replication.lag.changes").body()
+					.matches(".*\"value\"\\s*:\\s*0\\.0.*"));
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext start(String self, String... args) {
+		String[] arguments = new String[args.length + 4];
+		arguments[0] = "--server.port=" + URI.create(self).getPort();
+		arguments[1] = "--url.shortener.baseUrl=" + self + "/";
+		arguments[2] = "--spring.jmx.enabled=false";
+		arguments[3] = "--url.shortener.internal-secret=" + SECRET;
+		System.arraycopy(args, 0, arguments, 4, args.length);
+		return new SpringApplicationBuilder(ShorturlApplication.class).run(arguments);
+	}
+
+	private String shorten(String instance, String fullUrl) throws IOException, InterruptedException {
+		HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(instance + "/api/v1/url/short"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"url\":\"" + fullUrl + "\"}"))
+				.build(),
+			HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		String shortUrl = response.body().replaceAll(".*\"shortUrl\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+		return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+	}
+
+	private String redirect(String instance, String shortUrlPath) throws IOException, InterruptedException {
+		HttpResponse<String> response = get(instance + "/" + shortUrlPath);
+		assertEquals(302, response.statusCode(), shortUrlPath + " on " + instance);
+		return response.headers().firstValue("Location").orElseThrow();
+	}
+
+	private HttpResponse<String> get(String url) {
+		try {
+			return httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException | InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.origin.technical.exercise.shorturl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two instances on different ports sharing the URL mappings.
+ */
+class ShardedApplicationTests {
+
+	private static final int MAPPINGS = 50;
+	private static final String SECRET = "s3cret";
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@Test
+	void testInstancesShareMappingsAndHandThemOverOnLeaving() throws Exception {
+		String first = "http://localhost:" + freePort();
+		String second = "http://localhost:" + freePort();
+		try (ConfigurableApplicationContext firstInstance = start(first, "")) {
+			Map<String, String> fullUrlsByShortUrlPath = new LinkedHashMap<>();
+			for (int i = 0; i < MAPPINGS; i++) {
+				String fullUrl = "https://example.com/articles/" + i;
+				fullUrlsByShortUrlPath.put(shorten(first, fullUrl), fullUrl);
+			}
+			String clicked = fullUrlsByShortUrlPath.keySet().iterator().next();
+			assertEquals(401, get(first + "/internal/v1/shard/count").statusCode());
+			assertEquals(401, get(first + "/internal/v1/shard/mappings/" + clicked).statusCode());
+
+			try (ConfigurableApplicationContext secondInstance = start(second, first)) {
+				// The first instance learns about the second one and moves the mappings it now owns over to it
+				awaitTrue(() -> count(first) < MAPPINGS);
+
+				for (Map.Entry<String, String> mapping : fullUrlsByShortUrlPath.entrySet()) {
+					assertEquals(mapping.getValue(), redirect(first, mapping.getKey()));
+					assertEquals(mapping.getValue(), redirect(second, mapping.getKey()));
+					assertEquals(mapping.getKey(), shorten(second, mapping.getValue()));
+				}
+			}
+
+			// The second instance handed its mappings back on shutdown, along with the access it served
+			assertEquals(MAPPINGS, count(first));
+			for (Map.Entry<String, String> mapping : fullUrlsByShortUrlPath.entrySet()) {
+				assertEquals(mapping.getValue(), redirect(first, mapping.getKey()));
+			}
+			assertTrue(get(first + "/api/v1/url/full?shortUrl=" + URLEncoder.encode(first + "/" + clicked, StandardCharsets.UTF_8))
+				.body().matches(".*\"accessCount\":\\s*[1-9].*"));
+		}
+	}
+
+	@Test
+	void testPartitionedInstanceDoesNotStart() throws Exception {
+		String self = "http://localhost:" + freePort();
+
+		Exception exception = assertThrows(Exception.class, () -> start(self, "", "--url.shortener.sharding.partitions=4"));
+
+		Throwable cause = exception;
+		while (cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		assertEquals("Partitions cannot be combined with sharding over instances", cause.getMessage());
+	}
+
+	private static ConfigurableApplicationContext start(String self, String peers, String... arguments) {
+		List<String> allArguments = new ArrayList<>(List.of(
+			"--server.port=" + URI.create(self).getPort(),
+			"--url.shortener.baseUrl=" + self + "/",
+			"--url.shortener.sharding.self=" + self,
+			"--url.shortener.sharding.peers=" + peers,
+			"--url.shortener.sharding.rebalance-interval-millis=100",
+			"--url.shortener.internal-secret=" + SECRET,
+			"--spring.jmx.enabled=false"));
+		allArguments.addAll(List.of(arguments));
+		return new SpringApplicationBuilder(ShorturlApplication.class).run(allArguments.toArray(String[]::new));
+	}
+
+	private String shorten(String instance, String fullUrl) throws IOException, InterruptedException {
+		HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(instance + "/api/v1/url/short"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"url\":\"" + fullUrl + "\"}"))
+				.build(),
+			HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		String shortUrl = response.body().replaceAll(".*\"shortUrl\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+		return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+	}
+
+	private String redirect(String instance, String shortUrlPath) throws IOException, InterruptedException {
+		HttpResponse<String> response = get(instance + "/" + shortUrlPath);
+		assertEquals(302, response.statusCode(), shortUrlPath + " on " + instance);
+		return response.headers().firstValue("Location").orElseThrow();
+	}
+
+	private long count(String instance) {
+		try {
+			return Long.parseLong(httpClient.send(HttpRequest.newBuilder(URI.create(instance + "/internal/v1/shard/count"))
+					.header("X-Internal-Secret", SECRET)
+					.build(),
+				HttpResponse.BodyHandlers.ofString()).body());
+		} catch (IOException | InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private HttpResponse<String> get(String url) throws IOException, InterruptedException {
+		return httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -1,13 +1,37 @@
 package com.example.origin.technical.exercise.shorturl;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class ShorturlApplicationTests {
 
+	@Autowired
+	private ApplicationContext applicationContext;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void testNoDataSourceWithoutJdbcBackend() {
+		assertEquals(0, applicationContext.getBeanNamesForType(DataSource.class).length);
+	}
+
+	@Test
+	void testDataSourceOfJdbcBackend() {
+		try (ConfigurableApplicationContext jdbcInstance = new SpringApplicationBuilder(ShorturlApplication.class)
+			.run("--server.port=0", "--spring.jmx.enabled=false", "--url.shortener.repository=jdbc")) {
+			assertEquals(1, jdbcInstance.getBeanNamesForType(DataSource.class).length);
+		}
+	}
+
 }
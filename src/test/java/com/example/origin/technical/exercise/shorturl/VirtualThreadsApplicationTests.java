@@ -0,0 +1,56 @@
+package com.example.origin.technical.exercise.shorturl;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsApplicationTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AtomicReference<Thread> servingThread;
+
+	@Test
+	void testRequestsAreServedOnVirtualThreads() throws Exception {
+		HttpResponse<String> response = HttpClient.newHttpClient().send(
+			HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/missing")).build(),
+			HttpResponse.BodyHandlers.ofString());
+
+		assertEquals(404, response.statusCode());
+		assertTrue(servingThread.get().isVirtual(), "Served on " + servingThread.get());
+	}
+
+	@TestConfiguration
+	static class ServingThreadRecorder {
+
+		@Bean
+		AtomicReference<Thread> servingThread() {
+			return new AtomicReference<>();
+		}
+
+		@Bean
+		Filter servingThreadFilter(AtomicReference<Thread> servingThread) {
+			return (request, response, chain) -> {
+				servingThread.set(Thread.currentThread());
+				chain.doFilter(request, response);
+			};
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCachePolicyTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+	private UrlShortenerConfig.HttpCache settings;
+	private HttpCachePolicy policy;
+
+	@BeforeEach
+	void setUp() {
+		settings = new UrlShortenerConfig.HttpCache();
+		policy = new HttpCachePolicy(settings, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+	}
+
+	@Test
+	void testRedirectStatusDefaultsToFound() {
+		assertEquals(302, policy.redirectStatus(mapping(NOW.plusDays(1))));
+	}
+
+	@Test
+	void testRedirectStatusOfMappingOverridesDefault() {
+		settings.setRedirectStatus(308);
+		UrlMapping mapping = mapping(NOW.plusDays(1));
+
+		assertEquals(308, policy.redirectStatus(mapping));
+		mapping.setRedirectStatus(301);
+		assertEquals(301, policy.redirectStatus(mapping));
+	}
+
+	@Test
+	void testRejectsInvalidDefaultRedirectStatus() {
+		settings.setRedirectStatus(200);
+		Clock clock = Clock.systemUTC();
+
+		assertThrows(IllegalArgumentException.class, () -> new HttpCachePolicy(settings, clock));
+	}
+
+	@Test
+	void testRedirectsAreNotCacheableByDefault() {
+		assertEquals(HttpCachePolicy.NO_STORE, policy.redirectCacheControl(mapping(NOW.plusDays(1))));
+	}
+
+	@Test
+	void testCacheableRedirectIsCachedForMaxAge() {
+		settings.setCacheable(true);
+		settings.setMaxAgeSeconds(3600);
+
+		assertEquals("public, max-age=3600", policy.redirectCacheControl(mapping(NOW.plusDays(1))));
+		assertEquals("public, max-age=3600", policy.redirectCacheControl(mapping(null)));
+	}
+
+	@Test
+	void testCacheableRedirectIsCachedUntilExpiration() {
+		settings.setCacheable(true);
+		settings.setMaxAgeSeconds(3600);
+
+		assertEquals("public, max-age=600", policy.redirectCacheControl(mapping(NOW.plusMinutes(10))));
+		assertEquals(HttpCachePolicy.NO_STORE, policy.redirectCacheControl(mapping(NOW)));
+	}
+
+	@Test
+	void testCacheabilityOfMappingOverridesDefault() {
+		UrlMapping optedIn = mapping(NOW.plusDays(1));
+		optedIn.setCacheable(true);
+		assertEquals("public, max-age=86400", policy.redirectCacheControl(optedIn));
+
+		settings.setCacheable(true);
+		UrlMapping optedOut = mapping(NOW.plusDays(1));
+		optedOut.setCacheable(false);
+		assertEquals(HttpCachePolicy.NO_STORE, policy.redirectCacheControl(optedOut));
+	}
+
+	@Test
+	void testLookupETagChangesWithDetails() {
+		GetFullUrlResponse details = details(5);
+		String eTag = policy.lookupETag(details);
+
+		assertTrue(eTag.startsWith("W/\""));
+		assertEquals(eTag, policy.lookupETag(details(5)));
+		assertNotEquals(eTag, policy.lookupETag(details(6)));
+		assertNotEquals(eTag, policy.lookupETag(details(5).fullUrl("https://example.com/other")));
+	}
+
+	@Test
+	void testLookupLastModifiedIsLastAccess() {
+		assertEquals(NOW.minusMinutes(1).toInstant(ZoneOffset.UTC), policy.lookupLastModified(details(5)));
+		assertEquals(NOW.minusDays(1).toInstant(ZoneOffset.UTC), policy.lookupLastModified(details(0).lastAccessedAt(null)));
+	}
+
+	private static UrlMapping mapping(LocalDateTime expiresAt) {
+		return UrlMapping.builder()
+			.shortUrlPath("abc123")
+			.fullUrl("https://example.com")
+			.expiresAt(expiresAt)
+			.build();
+	}
+
+	private static GetFullUrlResponse details(long accessCount) {
+		return new GetFullUrlResponse()
+			.fullUrl("https://example.com")
+			.createdAt(NOW.minusDays(1))
+			.lastAccessedAt(NOW.minusMinutes(1))
+			.expiresAt(NOW.plusDays(1))
+			.accessCount(accessCount);
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.repository.RemoteUrlMappingRepository;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InternalApiSecretFilterTest {
+
+	@Mock
+	private FilterChain chain;
+
+	private InternalApiSecretFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new InternalApiSecretFilter("s3cret");
+	}
+
+	@Test
+	void testRejectsInternalCallWithoutSecret() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request("/internal/v1/shard/count", null), response, chain);
+
+		assertEquals(401, response.getStatus());
+		verifyNoInteractions(chain);
+	}
+
+	@Test
+	void testRejectsInternalCallWithWrongSecret() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request("/internal/v1/shard/mappings/abc", "s3cre"), response, chain);
+
+		assertEquals(401, response.getStatus());
+		verifyNoInteractions(chain);
+	}
+
+	@Test
+	void testPassesInternalCallWithSecret() throws Exception {
+		MockHttpServletRequest request = request("/internal/v1/shard/count", "s3cret");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, chain);
+
+		verify(chain).doFilter(request, response);
+	}
+
+	@Test
+	void testPassesOtherCallsWithoutSecret() throws Exception {
+		MockHttpServletRequest request = request("/api/v1/url/short", null);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, chain);
+
+		verify(chain).doFilter(request, response);
+	}
+
+	@Test
+	void testRequiresSecret() {
+		assertThrows(IllegalStateException.class, () -> new InternalApiSecretFilter(" "));
+		assertThrows(IllegalStateException.class, () -> new InternalApiSecretFilter((String) null));
+	}
+
+	private static MockHttpServletRequest request(String path, String secret) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		if (secret != null) {
+			request.addHeader(RemoteUrlMappingRepository.SECRET_HEADER, secret);
+		}
+		return request;
+	}
+}
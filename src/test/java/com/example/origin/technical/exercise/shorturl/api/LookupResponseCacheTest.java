@@ -0,0 +1,179 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupResponseCacheTest {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+	private final AtomicInteger builds = new AtomicInteger();
+	private final Function<UrlMapping, GetFullUrlResponse> detailsOf = mapping -> {
+		builds.incrementAndGet();
+		return new GetFullUrlResponse()
+			.fullUrl(mapping.getFullUrl())
+			.createdAt(mapping.getCreatedAt())
+			.lastAccessedAt(mapping.getLastAccessedAt())
+			.expiresAt(mapping.getExpiresAt())
+			.accessCount(mapping.getAccessCount());
+	};
+
+	private UrlShortenerConfig.LookupCache settings;
+	private MutableClock clock;
+
+	@BeforeEach
+	void setUp() {
+		settings = new UrlShortenerConfig.LookupCache();
+		clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+	}
+
+	@Test
+	void testSerializesDetailsWithValidators() {
+		HttpCachePolicy policy = new HttpCachePolicy(new UrlShortenerConfig());
+		LookupResponseCache cache = new LookupResponseCache(settings, JSON_MAPPER, policy, clock);
+
+		LookupResponseCache.CachedFullUrlResponse response = cache.get(mapping("abc123"), detailsOf);
+
+		JsonNode json = JSON_MAPPER.readTree(response.serializedJson());
+		assertEquals("https://example.com", json.get("fullUrl").asString());
+		assertEquals(3, json.get("accessCount").asLong());
+		assertEquals("https://example.com", response.getFullUrl());
+		assertEquals(policy.lookupETag(response), response.eTag());
+		assertEquals(policy.lookupLastModified(response), response.lastModified());
+	}
+
+	@Test
+	void testServesCachedResponseOfUnchangedMapping() {
+		LookupResponseCache cache = cache();
+
+		LookupResponseCache.CachedFullUrlResponse first = cache.get(mapping("abc123"), detailsOf);
+		LookupResponseCache.CachedFullUrlResponse second = cache.get(mapping("abc123"), detailsOf);
+
+		assertSame(first, second);
+		assertEquals(1, builds.get());
+	}
+
+	@Test
+	void testRebuildsResponseOfChangedMapping() {
+		LookupResponseCache cache = cache();
+		UrlMapping mapping = mapping("abc123");
+		cache.get(mapping, detailsOf);
+
+		mapping.setFullUrl("https://example.com/other");
+		LookupResponseCache.CachedFullUrlResponse response = cache.get(mapping, detailsOf);
+
+		assertEquals("https://example.com/other", response.getFullUrl());
+		assertEquals(2, builds.get());
+	}
+
+	@Test
+	void testRebuildsResponseWithStaleStatistics() {
+		settings.setStatsStalenessMillis(1000);
+		LookupResponseCache cache = cache();
+		cache.get(mapping("abc123"), detailsOf);
+
+		clock.advanceMillis(999);
+		cache.get(mapping("abc123"), detailsOf);
+		assertEquals(1, builds.get());
+
+		clock.advanceMillis(1);
+		cache.get(mapping("abc123"), detailsOf);
+		assertEquals(2, builds.get());
+	}
+
+	@Test
+	void testInvalidateDiscardsResponse() {
+		LookupResponseCache cache = cache();
+		cache.get(mapping("abc123"), detailsOf);
+
+		cache.invalidate("abc123");
+		cache.get(mapping("abc123"), detailsOf);
+
+		assertEquals(2, builds.get());
+	}
+
+	@Test
+	void testEvictsBeyondMaxEntries() {
+		settings.setMaxEntries(2);
+		LookupResponseCache cache = cache();
+
+		cache.get(mapping("abc123"), detailsOf);
+		cache.get(mapping("def456"), detailsOf);
+		cache.get(mapping("ghi789"), detailsOf);
+		cache.get(mapping("ghi789"), detailsOf);
+
+		assertEquals(2, cache.size());
+		assertEquals(3, builds.get());
+	}
+
+	@Test
+	void testDisabledCacheBuildsEveryResponse() {
+		settings.setMaxEntries(0);
+		LookupResponseCache cache = cache();
+
+		cache.get(mapping("abc123"), detailsOf);
+		cache.get(mapping("abc123"), detailsOf);
+
+		assertEquals(0, cache.size());
+		assertEquals(2, builds.get());
+	}
+
+	private LookupResponseCache cache() {
+		return new LookupResponseCache(settings, JSON_MAPPER, new HttpCachePolicy(new UrlShortenerConfig()), clock);
+	}
+
+	private static UrlMapping mapping(String shortPath) {
+		return UrlMapping.builder()
+			.shortUrlPath(shortPath)
+			.fullUrl("https://example.com")
+			.createdAt(NOW.minusDays(1))
+			.lastAccessedAt(NOW.minusMinutes(1))
+			.expiresAt(NOW.plusDays(1))
+			.accessCount(3)
+			.build();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advanceMillis(long millis) {
+			instant = instant.plusMillis(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
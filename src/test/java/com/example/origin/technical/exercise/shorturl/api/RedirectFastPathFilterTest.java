@@ -0,0 +1,132 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectFastPathFilterTest {
+
+	@Mock
+	private UrlMappingRepository repository;
+
+	@Mock
+	private AccessEventPipeline accessEventPipeline;
+
+	@Mock
+	private FilterChain chain;
+
+	private RedirectFastPathFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new RedirectFastPathFilter(repository, accessEventPipeline, new HttpCachePolicy(new UrlShortenerConfig()));
+	}
+
+	@Test
+	void testRedirectsKnownShortUrlWithoutDispatching() throws Exception {
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(new UrlMapping("abc123", "https://example.com/page?q=1")));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), response, chain);
+
+		assertEquals(302, response.getStatus());
+		assertEquals("https://example.com/page?q=1", response.getHeader("Location"));
+		assertEquals("no-store", response.getHeader("Cache-Control"));
+		verify(accessEventPipeline).publish("abc123");
+		verifyNoInteractions(chain);
+	}
+
+	@Test
+	void testRedirectsWithOptionsOfMapping() throws Exception {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		mapping.setRedirectStatus(308);
+		mapping.setCacheable(true);
+		mapping.setExpiresAt(LocalDateTime.now().plusDays(30));
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), response, chain);
+
+		assertEquals(308, response.getStatus());
+		assertEquals("public, max-age=86400", response.getHeader("Cache-Control"));
+		verifyNoInteractions(chain);
+	}
+
+	@Test
+	void testFallsThroughForUnknownShortUrl() throws Exception {
+		when(repository.findByShortUrlPath("missing")).thenReturn(Optional.empty());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/missing");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, chain);
+
+		verify(chain).doFilter(request, response);
+		verifyNoInteractions(accessEventPipeline);
+	}
+
+	@Test
+	void testFallsThroughWhenLookupFails() throws Exception {
+		when(repository.findByShortUrlPath("abc123")).thenThrow(new IllegalStateException("Store unavailable"));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc123");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, chain);
+
+		verify(chain).doFilter(request, response);
+	}
+
+	@Test
+	void testRedirectsToEncodedLocation() throws Exception {
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(new UrlMapping("abc123", "https://example.com/café")));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), response, chain);
+
+		assertEquals(302, response.getStatus());
+		assertEquals("https://example.com/caf%C3%A9", response.getHeader("Location"));
+	}
+
+	@Test
+	void testIgnoresOtherRequests() throws Exception {
+		for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+			new MockHttpServletRequest("POST", "/abc123"),
+			new MockHttpServletRequest("GET", "/"),
+			new MockHttpServletRequest("GET", "/api/v1/url/full"),
+			new MockHttpServletRequest("GET", "/abc%20123"),
+		}) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(request, response, chain);
+			verify(chain).doFilter(request, response);
+		}
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void testHonorsContextPath() throws Exception {
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(new UrlMapping("abc123", "https://example.com")));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/short/abc123");
+		request.setContextPath("/short");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, chain);
+
+		assertEquals(302, response.getStatus());
+		assertEquals("https://example.com", response.getHeader("Location"));
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.origin.technical.exercise.shorturl.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedJsonHttpMessageConverterTest {
+
+	private final SerializedJsonHttpMessageConverter converter = new SerializedJsonHttpMessageConverter();
+
+	@Test
+	void testOnlyWritesSerializedJsonBodies() {
+		assertTrue(converter.canWrite(SerializedJsonBody.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canWrite(String.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canRead(SerializedJsonBody.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canRead(SerializedJsonBody.class, null));
+	}
+
+	@Test
+	void testWritesSerializedJsonAsIs() throws IOException {
+		byte[] json = "{\"fullUrl\":\"https://example.com\"}".getBytes(StandardCharsets.UTF_8);
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+		converter.write(() -> json, MediaType.APPLICATION_JSON, outputMessage);
+
+		assertArrayEquals(json, outputMessage.getBodyAsBytes());
+		assertEquals(json.length, outputMessage.getHeaders().getContentLength());
+		assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+	}
+}
@@ -1,34 +1,56 @@
 package com.example.origin.technical.exercise.shorturl.api;
 
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
 import com.example.origin.technical.exercise.shorturl.model.GetFullUrlResponse;
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
-import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessStatisticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
-import java.net.URI;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class UrlLookupApiControllerTest {
 
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
 	@Mock
-	private InMemoryUrlMappingRepository repository;
+	private UrlMappingRepository repository;
 
+	private LookupResponseCache lookupResponseCache;
 	private UrlLookupApiController controller;
 
 	@BeforeEach
 	void setUp() {
-		controller = new UrlLookupApiController(repository);
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		lookupResponseCache = new LookupResponseCache(config, JSON_MAPPER, new HttpCachePolicy(config));
+		controller = new UrlLookupApiController(repository, new AccessStatisticsService(), lookupResponseCache, JSON_MAPPER);
 	}
 
 	@Test
@@ -53,7 +75,7 @@ class UrlLookupApiControllerTest {
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
-		assertEquals(URI.create(fullUrl), response.getBody().getFullUrl());
+		assertEquals(fullUrl, response.getBody().getFullUrl());
 		assertEquals(now, response.getBody().getCreatedAt());
 		assertEquals(now, response.getBody().getLastAccessedAt());
 		assertEquals(now.plusDays(360), response.getBody().getExpiresAt());
@@ -90,7 +112,7 @@ class UrlLookupApiControllerTest {
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
-		assertEquals(URI.create(fullUrl), response.getBody().getFullUrl());
+		assertEquals(fullUrl, response.getBody().getFullUrl());
 
 		verify(repository, times(1)).findByShortUrlPath(shortPath);
 	}
@@ -108,7 +130,7 @@ class UrlLookupApiControllerTest {
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
-		assertEquals(URI.create(fullUrl), response.getBody().getFullUrl());
+		assertEquals(fullUrl, response.getBody().getFullUrl());
 
 		verify(repository, times(1)).findByShortUrlPath(shortPath);
 	}
@@ -126,7 +148,7 @@ class UrlLookupApiControllerTest {
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
-		assertEquals(URI.create(fullUrl), response.getBody().getFullUrl());
+		assertEquals(fullUrl, response.getBody().getFullUrl());
 
 		verify(repository, times(1)).findByShortUrlPath(shortPath);
 	}
@@ -174,7 +196,7 @@ class UrlLookupApiControllerTest {
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		GetFullUrlResponse body = response.getBody();
 		assertNotNull(body);
-		assertEquals(URI.create(fullUrl), body.getFullUrl());
+		assertEquals(fullUrl, body.getFullUrl());
 		assertEquals(created, body.getCreatedAt());
 		assertEquals(accessed, body.getLastAccessedAt());
 		assertEquals(expires, body.getExpiresAt());
@@ -210,4 +232,166 @@ class UrlLookupApiControllerTest {
 		verify(repository, times(1)).findByShortUrlPath(eq(shortPath));
 		verify(repository, never()).findByShortUrlPath(argThat(arg -> arg.startsWith("/")));
 	}
+
+	@Test
+	void testGetFullUrlHasValidators() {
+		LocalDateTime accessed = LocalDateTime.of(2025, 1, 1, 10, 0);
+		UrlMapping mapping = UrlMapping.builder()
+			.shortUrlPath("abc123")
+			.fullUrl("https://example.com")
+			.createdAt(accessed.minusDays(1))
+			.lastAccessedAt(accessed)
+			.build();
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+
+		ResponseEntity<GetFullUrlResponse> response = controller._getFullUrl("http://localhost:8080/abc123");
+
+		assertEquals("no-cache", response.getHeaders().getCacheControl());
+		assertTrue(response.getHeaders().getETag().startsWith("W/\""));
+		assertEquals(accessed.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), response.getHeaders().getLastModified());
+	}
+
+	@Test
+	void testGetFullUrlAnswersUnchangedDetailsWithNotModified() throws Exception {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+		String eTag = mockMvc.perform(get("/api/v1/url/full").param("shortUrl", "http://localhost:8080/abc123"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/v1/url/full").param("shortUrl", "http://localhost:8080/abc123")
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+
+		mapping.setExpiresAt(mapping.getExpiresAt().plusDays(1));
+		mockMvc.perform(get("/api/v1/url/full").param("shortUrl", "http://localhost:8080/abc123")
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	void testGetFullUrlWritesSerializedResponse() throws Exception {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller)
+			.setMessageConverters(new SerializedJsonHttpMessageConverter())
+			.build();
+
+		String body = mockMvc.perform(get("/api/v1/url/full").param("shortUrl", "http://localhost:8080/abc123"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+			.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		JsonNode details = JSON_MAPPER.readTree(body);
+		assertEquals("https://example.com", details.get("fullUrl").asString());
+		assertEquals(0, details.get("accessCount").asLong());
+	}
+
+	@Test
+	void testGetFullUrlServesCachedResponse() {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+
+		ResponseEntity<GetFullUrlResponse> first = controller._getFullUrl("abc123");
+		ResponseEntity<GetFullUrlResponse> second = controller._getFullUrl("abc123");
+
+		assertSame(first.getBody(), second.getBody());
+		assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+		verify(repository, times(2)).findByShortUrlPath("abc123");
+	}
+
+	@Test
+	void testGetFullUrlNotFoundInvalidatesCachedResponse() {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping)).thenReturn(Optional.empty());
+
+		controller._getFullUrl("abc123");
+		assertEquals(1, lookupResponseCache.size());
+
+		assertEquals(HttpStatus.NOT_FOUND, controller._getFullUrl("abc123").getStatusCode());
+		assertEquals(0, lookupResponseCache.size());
+	}
+
+	@Test
+	void testGetFullUrlsAnswersEveryShortUrlInOrder() throws IOException {
+		UrlMapping first = new UrlMapping("abc123", "https://example.com/1");
+		first.setAccessCount(3);
+		UrlMapping second = new UrlMapping("def456", "https://example.com/2");
+		when(repository.findAllByShortUrlPaths(List.of("abc123", "missing", "def456", "abc123")))
+			.thenReturn(Map.of("abc123", first, "def456", second));
+
+		MockHttpServletResponse response = getFullUrls(BulkJsonStream.NDJSON, """
+			"http://localhost:8080/abc123"
+			"missing"
+			"def456"
+			"abc123"
+			""");
+
+		assertEquals(HttpStatus.OK.value(), response.getStatus());
+		List<JsonNode> results = readLines(response);
+		assertEquals(4, results.size());
+		assertEquals("https://example.com/1", results.get(0).get("fullUrl").asString());
+		assertEquals(3, results.get(0).get("accessCount").asLong());
+		assertEquals("Not Found", results.get(1).get("error").asString());
+		assertEquals("https://example.com/2", results.get(2).get("fullUrl").asString());
+		assertEquals("https://example.com/1", results.get(3).get("fullUrl").asString());
+		verify(repository, never()).findByShortUrlPath(anyString());
+	}
+
+	@Test
+	void testGetFullUrlsReportsInvalidShortUrlsInline() throws IOException {
+		when(repository.findAllByShortUrlPaths(List.of("abc123"))).thenReturn(Map.of());
+
+		MockHttpServletResponse response = getFullUrls("application/json", """
+			[42, "http://bad host/abc", "abc123"]
+			""");
+
+		JsonNode results = JSON_MAPPER.readTree(response.getContentAsString());
+		assertEquals(3, results.size());
+		assertEquals("Bad Request", results.get(0).get("error").asString());
+		assertEquals("Bad Request", results.get(1).get("error").asString());
+		assertEquals("Not Found", results.get(2).get("error").asString());
+	}
+
+	@Test
+	void testGetFullUrlsResolvesEachBatchWithSingleMultiGet() throws IOException {
+		when(repository.findAllByShortUrlPaths(anyList())).thenReturn(Map.of());
+
+		getFullUrls(BulkJsonStream.NDJSON, "\"abc\"\n".repeat(UrlLookupApiController.LOOKUP_BATCH_SIZE + 1));
+
+		verify(repository, times(2)).findAllByShortUrlPaths(anyList());
+	}
+
+	@Test
+	void testGetFullUrlsReportsRepositoryFailureInline() throws IOException {
+		when(repository.findAllByShortUrlPaths(anyList())).thenThrow(new IllegalStateException("Storage unavailable"));
+
+		MockHttpServletResponse response = getFullUrls(BulkJsonStream.NDJSON, """
+			"abc"
+			{"shortUrl": "def"}
+			""");
+
+		List<JsonNode> results = readLines(response);
+		assertEquals("Internal Server Error", results.get(0).get("error").asString());
+		assertEquals("Storage unavailable", results.get(0).get("message").asString());
+		assertEquals("Bad Request", results.get(1).get("error").asString());
+	}
+
+	private MockHttpServletResponse getFullUrls(String contentType, String body) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/url/full/batch");
+		request.setContentType(contentType);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller._getFullUrls(request, response);
+		return response;
+	}
+
+	private static List<JsonNode> readLines(MockHttpServletResponse response) throws IOException {
+		return response.getContentAsString(StandardCharsets.UTF_8).lines()
+			.map(JSON_MAPPER::readTree)
+			.toList();
+	}
 }
@@ -1,7 +1,9 @@
 package com.example.origin.technical.exercise.shorturl.api;
 
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
-import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.AccessEventPipeline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,13 +24,16 @@ import static org.mockito.Mockito.*;
 class UrlRedirectApiControllerTest {
 
 	@Mock
-	private InMemoryUrlMappingRepository repository;
+	private UrlMappingRepository repository;
+
+	@Mock
+	private AccessEventPipeline accessEventPipeline;
 
 	private UrlRedirectApiController controller;
 
 	@BeforeEach
 	void setUp() {
-		controller = new UrlRedirectApiController(repository);
+		controller = new UrlRedirectApiController(repository, accessEventPipeline, new HttpCachePolicy(new UrlShortenerConfig()));
 	}
 
 	@Test
@@ -48,6 +54,33 @@ class UrlRedirectApiControllerTest {
 		verify(repository, times(1)).findByShortUrlPath(shortPath);
 	}
 
+	@Test
+	void testRedirectIsNotCacheableByDefault() {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+
+		ResponseEntity<Void> response = controller._redirectToFullUrl("abc123");
+
+		assertEquals("no-store", response.getHeaders().getCacheControl());
+	}
+
+	@Test
+	void testRedirectUsesOptionsOfMapping() {
+		UrlMapping mapping = new UrlMapping("abc123", "https://example.com");
+		mapping.setRedirectStatus(301);
+		mapping.setCacheable(true);
+		mapping.setExpiresAt(LocalDateTime.now().plusDays(30));
+
+		when(repository.findByShortUrlPath("abc123")).thenReturn(Optional.of(mapping));
+
+		ResponseEntity<Void> response = controller._redirectToFullUrl("abc123");
+
+		assertEquals(HttpStatus.MOVED_PERMANENTLY, response.getStatusCode());
+		assertEquals("public, max-age=86400", response.getHeaders().getCacheControl());
+		verify(accessEventPipeline).publish("abc123");
+	}
+
 	@Test
 	void testRedirectToFullUrlNotFound() {
 		String shortPath = "nonexistent";
@@ -63,21 +96,21 @@ class UrlRedirectApiControllerTest {
 	}
 
 	@Test
-	void testRedirectIncrementsAccessCount() {
+	void testRedirectPublishesAccess() {
 		String shortPath = "xyz789";
 		String fullUrl = "https://test.com";
-		UrlMapping mapping = spy(new UrlMapping(shortPath, fullUrl));
+		UrlMapping mapping = new UrlMapping(shortPath, fullUrl);
 
 		when(repository.findByShortUrlPath(shortPath)).thenReturn(Optional.of(mapping));
 
 		controller._redirectToFullUrl(shortPath);
 
-		verify(mapping, times(1)).incrementAccessCount();
+		verify(accessEventPipeline, times(1)).publish(shortPath);
 		verify(repository, times(1)).findByShortUrlPath(shortPath);
 	}
 
 	@Test
-	void testRedirectDoesNotIncrementAccessCountWhenNotFound() {
+	void testRedirectDoesNotPublishAccessWhenNotFound() {
 		String shortPath = "notfound";
 
 		when(repository.findByShortUrlPath(shortPath)).thenReturn(Optional.empty());
@@ -86,6 +119,7 @@ class UrlRedirectApiControllerTest {
 
 		verify(repository, times(1)).findByShortUrlPath(shortPath);
 		verify(repository, never()).save(any());
+		verify(accessEventPipeline, never()).publish(any());
 	}
 
 	@Test
@@ -195,18 +229,17 @@ class UrlRedirectApiControllerTest {
 	}
 
 	@Test
-	void testAccessCountIncrementedBeforeRedirect() {
+	void testRedirectDoesNotMutateMapping() {
 		String shortPath = "increment";
 		String fullUrl = "https://example.com";
 		UrlMapping mapping = new UrlMapping(shortPath, fullUrl);
 
 		when(repository.findByShortUrlPath(shortPath)).thenReturn(Optional.of(mapping));
 
-		assertEquals(0, mapping.getAccessCount());
-
 		controller._redirectToFullUrl(shortPath);
 
-		assertEquals(1, mapping.getAccessCount());
+		assertEquals(0, mapping.getAccessCount());
+		verify(accessEventPipeline, times(1)).publish(shortPath);
 	}
 
 	@Test
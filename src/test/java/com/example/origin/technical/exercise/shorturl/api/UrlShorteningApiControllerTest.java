@@ -4,19 +4,31 @@ import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
 import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlRequest;
 import com.example.origin.technical.exercise.shorturl.model.CreateShortUrlResponse;
 import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
-import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
 import com.example.origin.technical.exercise.shorturl.service.UrlShortenerService;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,8 +36,10 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UrlShorteningApiControllerTest {
 
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
 	@Mock
-	private InMemoryUrlMappingRepository repository;
+	private UrlMappingRepository repository;
 
 	@Mock
 	private UrlShortenerService urlShortenerService;
@@ -37,7 +51,9 @@ class UrlShorteningApiControllerTest {
 
 	@BeforeEach
 	void setUp() {
-		controller = new UrlShorteningApiController(repository, urlShortenerService, config);
+		controller = new UrlShorteningApiController(repository, urlShortenerService, config,
+			JSON_MAPPER, Validation.buildDefaultValidatorFactory().getValidator());
+		lenient().when(repository.findOrCreateAllByFullUrls(anyCollection(), any())).thenCallRealMethod();
 	}
 
 	@Test
@@ -49,14 +65,8 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		UrlMapping mapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath)
-			.build();
-
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath);
-		when(repository.save(any(UrlMapping.class))).thenReturn(mapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -65,9 +75,8 @@ class UrlShorteningApiControllerTest {
 		assertNotNull(response.getBody());
 		assertEquals(URI.create(baseUrl + shortPath), response.getBody().getShortUrl());
 
-		verify(repository).findByFullUrl(fullUrl);
+		verify(repository).findOrCreateByFullUrl(eq(fullUrl), any());
 		verify(urlShortenerService).generateShortUrlPath();
-		verify(repository).save(any(UrlMapping.class));
 		verify(config).getBaseUrl();
 	}
 
@@ -85,7 +94,7 @@ class UrlShorteningApiControllerTest {
 			.shortUrlPath(existingShortPath)
 			.build();
 
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.of(existingMapping));
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenReturn(existingMapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -94,9 +103,8 @@ class UrlShorteningApiControllerTest {
 		assertNotNull(response.getBody());
 		assertEquals(URI.create(baseUrl + existingShortPath), response.getBody().getShortUrl());
 
-		verify(repository).findByFullUrl(fullUrl);
+		verify(repository).findOrCreateByFullUrl(eq(fullUrl), any());
 		verify(urlShortenerService, never()).generateShortUrlPath();
-		verify(repository, never()).save(any());
 		verify(config).getBaseUrl();
 	}
 
@@ -109,24 +117,61 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		ArgumentCaptor<UrlMapping> mappingCaptor = ArgumentCaptor.forClass(UrlMapping.class);
-		UrlMapping savedMapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath)
-			.build();
+		ArgumentCaptor<Function<String, UrlMapping>> factoryCaptor = ArgumentCaptor.captor();
 
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), factoryCaptor.capture())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath);
-		when(repository.save(mappingCaptor.capture())).thenReturn(savedMapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		controller._createShortUrl(request);
 
-		UrlMapping capturedMapping = mappingCaptor.getValue();
+		UrlMapping capturedMapping = factoryCaptor.getValue().apply(fullUrl);
 		assertEquals(fullUrl, capturedMapping.getFullUrl());
 		assertEquals(shortPath, capturedMapping.getShortUrlPath());
 	}
 
+	@Test
+	void testCreateShortUrlAppliesTimeToLive() {
+		String fullUrl = "https://test.com";
+
+		CreateShortUrlRequest request = new CreateShortUrlRequest();
+		request.setUrl(fullUrl);
+		request.setTtlSeconds(3600L);
+
+		ArgumentCaptor<Function<String, UrlMapping>> factoryCaptor = ArgumentCaptor.captor();
+
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), factoryCaptor.capture())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("ttl1");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		controller._createShortUrl(request);
+
+		UrlMapping capturedMapping = factoryCaptor.getValue().apply(fullUrl);
+		assertEquals(capturedMapping.getCreatedAt().plusHours(1), capturedMapping.getExpiresAt());
+	}
+
+	@Test
+	void testCreateShortUrlAppliesRedirectOptions() {
+		String fullUrl = "https://test.com";
+
+		CreateShortUrlRequest request = new CreateShortUrlRequest();
+		request.setUrl(fullUrl);
+		request.setRedirectStatus(CreateShortUrlRequest.RedirectStatusEnum.NUMBER_308);
+		request.setCacheable(true);
+
+		ArgumentCaptor<Function<String, UrlMapping>> factoryCaptor = ArgumentCaptor.captor();
+
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), factoryCaptor.capture())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("perm1");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		controller._createShortUrl(request);
+
+		UrlMapping capturedMapping = factoryCaptor.getValue().apply(fullUrl);
+		assertEquals(308, capturedMapping.getRedirectStatus());
+		assertEquals(true, capturedMapping.getCacheable());
+	}
+
 	@Test
 	void testCreateShortUrlWithQueryParameters() {
 		String fullUrl = "https://example.com/search?q=test&filter=active";
@@ -136,14 +181,8 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		UrlMapping mapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath)
-			.build();
-
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath);
-		when(repository.save(any(UrlMapping.class))).thenReturn(mapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -161,14 +200,8 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		UrlMapping mapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath)
-			.build();
-
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath);
-		when(repository.save(any(UrlMapping.class))).thenReturn(mapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -186,14 +219,8 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		UrlMapping mapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath1)
-			.build();
-
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath1);
-		when(repository.save(any(UrlMapping.class))).thenReturn(mapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -217,7 +244,7 @@ class UrlShorteningApiControllerTest {
 			.shortUrlPath(shortPath)
 			.build();
 
-		when(repository.findByFullUrl(anyString())).thenReturn(Optional.of(mapping));
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenReturn(mapping);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
 
@@ -233,14 +260,8 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		UrlMapping mapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath)
-			.build();
-
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath);
-		when(repository.save(any(UrlMapping.class))).thenReturn(mapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -262,15 +283,15 @@ class UrlShorteningApiControllerTest {
 			.shortUrlPath(shortPath)
 			.build();
 
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.of(existingMapping));
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenReturn(existingMapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response1 = controller._createShortUrl(request);
 		ResponseEntity<CreateShortUrlResponse> response2 = controller._createShortUrl(request);
 
 		assertEquals(response1.getBody().getShortUrl(), response2.getBody().getShortUrl());
-		verify(repository, times(2)).findByFullUrl(fullUrl);
-		verify(repository, never()).save(any());
+		verify(repository, times(2)).findOrCreateByFullUrl(eq(fullUrl), any());
+		verify(urlShortenerService, never()).generateShortUrlPath();
 	}
 
 	@Test
@@ -282,14 +303,8 @@ class UrlShorteningApiControllerTest {
 		CreateShortUrlRequest request = new CreateShortUrlRequest();
 		request.setUrl(fullUrl);
 
-		UrlMapping mapping = UrlMapping.builder()
-			.fullUrl(fullUrl)
-			.shortUrlPath(shortPath)
-			.build();
-
-		when(repository.findByFullUrl(fullUrl)).thenReturn(Optional.empty());
+		when(repository.findOrCreateByFullUrl(eq(fullUrl), any())).thenAnswer(createsMapping());
 		when(urlShortenerService.generateShortUrlPath()).thenReturn(shortPath);
-		when(repository.save(any(UrlMapping.class))).thenReturn(mapping);
 		when(config.getBaseUrl()).thenReturn(baseUrl);
 
 		ResponseEntity<CreateShortUrlResponse> response = controller._createShortUrl(request);
@@ -297,4 +312,208 @@ class UrlShorteningApiControllerTest {
 		assertNotNull(response.getBody());
 		assertNotNull(response.getBody().getShortUrl());
 	}
+
+	@Test
+	void testCreateShortUrlsAnswersEveryLineInOrder() throws IOException {
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("first", "second");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls(BulkJsonStream.NDJSON, """
+			{"url": "https://example.com/1"}
+			{"url": "https://example.com/2", "ttlSeconds": 60}
+
+			{"url": "https://example.com/1"}
+			""");
+
+		assertEquals(HttpStatus.OK.value(), response.getStatus());
+		assertEquals(BulkJsonStream.NDJSON, response.getContentType().split(";")[0]);
+		List<JsonNode> results = readLines(response);
+		assertEquals(3, results.size());
+		assertEquals("http://short.url/first", results.get(0).get("shortUrl").asString());
+		assertEquals("http://short.url/second", results.get(1).get("shortUrl").asString());
+		assertEquals("http://short.url/first", results.get(2).get("shortUrl").asString());
+
+		verify(repository).findOrCreateByFullUrl(eq("https://example.com/1"), any());
+		verify(repository).findOrCreateByFullUrl(eq("https://example.com/2"), any());
+	}
+
+	@Test
+	void testCreateShortUrlsCreatesEachBatchWithOneRepositoryCall() throws IOException {
+		when(repository.findOrCreateAllByFullUrls(anyCollection(), any())).thenAnswer(invocation -> {
+			Collection<String> fullUrls = invocation.getArgument(0);
+			Function<String, UrlMapping> factory = invocation.getArgument(1);
+			Map<String, UrlMapping> mappings = new HashMap<>();
+			fullUrls.forEach(fullUrl -> mappings.put(fullUrl, factory.apply(fullUrl)));
+			return mappings;
+		});
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("first", "second");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls(BulkJsonStream.NDJSON, """
+			{"url": "https://example.com/1"}
+			{"url": "https://example.com/2", "ttlSeconds": 60}
+			{"url": "https://example.com/1"}
+			""");
+
+		List<JsonNode> results = readLines(response);
+		assertEquals("http://short.url/first", results.get(0).get("shortUrl").asString());
+		assertEquals("http://short.url/second", results.get(1).get("shortUrl").asString());
+		assertEquals("http://short.url/first", results.get(2).get("shortUrl").asString());
+		verify(repository).findOrCreateAllByFullUrls(
+			argThat(fullUrls -> List.copyOf(fullUrls).equals(List.of("https://example.com/1", "https://example.com/2"))), any());
+		verify(repository, never()).findOrCreateByFullUrl(anyString(), any());
+	}
+
+	@Test
+	void testCreateShortUrlsReportsInvalidLines() throws IOException {
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("valid");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls(BulkJsonStream.NDJSON, """
+			{"url": "https://example.com/valid"
+			{"url": "not a url"}
+			{"ttlSeconds": 60}
+			{"url": "https://example.com/valid"}
+			""" + "x".repeat(BulkJsonStream.MAX_LINE_LENGTH + 1));
+
+		List<JsonNode> results = readLines(response);
+		assertEquals(5, results.size());
+		assertEquals("Malformed request line", results.get(0).get("message").asString());
+		assertEquals("Validation failed", results.get(1).get("message").asString());
+		assertTrue(results.get(1).get("details").get(0).asString().startsWith("url: "));
+		assertEquals("Validation failed", results.get(2).get("message").asString());
+		assertEquals("http://short.url/valid", results.get(3).get("shortUrl").asString());
+		assertEquals("Bad Request", results.get(4).get("error").asString());
+
+		verify(repository, times(1)).findOrCreateByFullUrl(anyString(), any());
+	}
+
+	@Test
+	void testCreateShortUrlsRejectsTimeToLiveBeyondHundredYears() throws IOException {
+		MockHttpServletResponse response = createShortUrls(BulkJsonStream.NDJSON, """
+			{"url": "https://example.com/1", "ttlSeconds": 8000000000}
+			{"url": "https://example.com/2", "ttlSeconds": 9223372036854775807}
+			""");
+
+		List<JsonNode> results = readLines(response);
+		assertEquals("Validation failed", results.get(0).get("message").asString());
+		assertTrue(results.get(0).get("details").get(0).asString().startsWith("ttlSeconds: "));
+		assertEquals("Validation failed", results.get(1).get("message").asString());
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void testCreateShortUrlsReportsRepositoryFailurePerUrl() throws IOException {
+		when(repository.findOrCreateByFullUrl(eq("https://example.com/bad"), any()))
+			.thenThrow(new IllegalArgumentException("Illegal character in path"));
+		when(repository.findOrCreateByFullUrl(eq("https://example.com/good"), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("good");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls(BulkJsonStream.NDJSON, """
+			{"url": "https://example.com/bad"}
+			{"url": "https://example.com/good"}
+			""");
+
+		List<JsonNode> results = readLines(response);
+		assertEquals("Illegal character in path", results.get(0).get("message").asString());
+		assertEquals("http://short.url/good", results.get(1).get("shortUrl").asString());
+	}
+
+	@Test
+	void testCreateShortUrlsDeduplicatesWithinBatchesOnly() throws IOException {
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("same");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		String line = "{\"url\": \"https://example.com/same\"}\n";
+		MockHttpServletResponse response = createShortUrls(BulkJsonStream.NDJSON,
+			line.repeat(UrlShorteningApiController.BULK_BATCH_SIZE + 1));
+
+		assertEquals(UrlShorteningApiController.BULK_BATCH_SIZE + 1, readLines(response).size());
+		verify(repository, times(2)).findOrCreateByFullUrl(eq("https://example.com/same"), any());
+	}
+
+	@Test
+	void testCreateShortUrlsAcceptsJsonArray() throws IOException {
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("first", "second");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls("application/json", """
+			[{"url": "https://example.com/1"}, 42, {"url": "https://example.com/2"}]
+			""");
+
+		assertEquals("application/json", response.getContentType().split(";")[0]);
+		JsonNode results = JSON_MAPPER.readTree(response.getContentAsString());
+		assertEquals(3, results.size());
+		assertEquals("http://short.url/first", results.get(0).get("shortUrl").asString());
+		assertEquals("Bad Request", results.get(1).get("error").asString());
+		assertEquals("http://short.url/second", results.get(2).get("shortUrl").asString());
+	}
+
+	@Test
+	void testCreateShortUrlsEndsMalformedJsonArrayWithError() throws IOException {
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("first");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls("application/json", """
+			[{"url": "https://example.com/1"}, {"url": ]
+			""");
+
+		JsonNode results = JSON_MAPPER.readTree(response.getContentAsString());
+		assertEquals(2, results.size());
+		assertEquals("http://short.url/first", results.get(0).get("shortUrl").asString());
+		assertEquals("Malformed JSON array", results.get(1).get("message").asString());
+	}
+
+	@Test
+	void testCreateShortUrlsEndsJsonArrayWithErrorAtOversizedElement() throws IOException {
+		when(repository.findOrCreateByFullUrl(anyString(), any())).thenAnswer(createsMapping());
+		when(urlShortenerService.generateShortUrlPath()).thenReturn("first");
+		when(config.getBaseUrl()).thenReturn("http://short.url/");
+
+		MockHttpServletResponse response = createShortUrls("application/json", "[{\"url\": \"https://example.com/1\"}, "
+			+ "{\"url\": \"https://example.com/" + "a".repeat(2 * BulkJsonStream.MAX_LINE_LENGTH) + "\"}, "
+			+ "{\"url\": \"https://example.com/3\"}]");
+
+		JsonNode results = JSON_MAPPER.readTree(response.getContentAsString());
+		assertEquals(2, results.size());
+		assertEquals("http://short.url/first", results.get(0).get("shortUrl").asString());
+		assertEquals("Array element exceeds " + BulkJsonStream.MAX_LINE_LENGTH + " bytes",
+			results.get(1).get("message").asString());
+		verify(repository, times(1)).findOrCreateByFullUrl(anyString(), any());
+	}
+
+	@Test
+	void testCreateShortUrlsOfEmptyBody() throws IOException {
+		assertEquals("", createShortUrls(BulkJsonStream.NDJSON, "").getContentAsString());
+		assertEquals("[]", createShortUrls("application/json", "[]").getContentAsString());
+		verifyNoInteractions(repository);
+	}
+
+	private MockHttpServletResponse createShortUrls(String contentType, String body) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/url/short/bulk");
+		request.setContentType(contentType);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller._createShortUrls(request, response);
+		return response;
+	}
+
+	private static List<JsonNode> readLines(MockHttpServletResponse response) throws IOException {
+		return response.getContentAsString(StandardCharsets.UTF_8).lines()
+			.map(JSON_MAPPER::readTree)
+			.toList();
+	}
+
+	private static Answer<UrlMapping> createsMapping() {
+		return invocation -> {
+			Function<String, UrlMapping> mappingFactory = invocation.getArgument(1);
+			return mappingFactory.apply(invocation.getArgument(0));
+		};
+	}
 }
@@ -0,0 +1,45 @@
+package com.example.origin.technical.exercise.shorturl.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceExclusionEnvironmentPostProcessorTest {
+
+	private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+	private final DataSourceExclusionEnvironmentPostProcessor postProcessor = new DataSourceExclusionEnvironmentPostProcessor();
+
+	@Test
+	void testExcludesDataSourceByDefault() {
+		MockEnvironment environment = new MockEnvironment();
+
+		postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+		assertEquals(DataSourceExclusionEnvironmentPostProcessor.DATA_SOURCE_AUTO_CONFIGURATION,
+			environment.getProperty(EXCLUDE_PROPERTY));
+	}
+
+	@Test
+	void testKeepsConfiguredExclusions() {
+		MockEnvironment environment = new MockEnvironment()
+			.withProperty("url.shortener.repository", "off-heap")
+			.withProperty(EXCLUDE_PROPERTY, "com.example.FirstAutoConfiguration, com.example.SecondAutoConfiguration");
+
+		postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+		assertEquals("com.example.FirstAutoConfiguration,com.example.SecondAutoConfiguration,"
+			+ DataSourceExclusionEnvironmentPostProcessor.DATA_SOURCE_AUTO_CONFIGURATION, environment.getProperty(EXCLUDE_PROPERTY));
+	}
+
+	@Test
+	void testKeepsDataSourceOfJdbcBackend() {
+		MockEnvironment environment = new MockEnvironment().withProperty("url.shortener.repository", "jdbc");
+
+		postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+		assertNull(environment.getProperty(EXCLUDE_PROPERTY));
+	}
+}
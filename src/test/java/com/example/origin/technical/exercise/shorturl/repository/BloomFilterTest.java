@@ -0,0 +1,60 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+	@Test
+	void testEmptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+
+		assertFalse(filter.mightContain("abc1234"));
+	}
+
+	@Test
+	void testNeverMissesAddedValues() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("code" + i);
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("code" + i), "code" + i);
+		}
+	}
+
+	@Test
+	void testFalsePositiveRateIsCloseToConfiguredRateWhenFull() {
+		BloomFilter filter = new BloomFilter(100_000, 0.01);
+		for (int i = 0; i < 100_000; i++) {
+			filter.add("code" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("probe" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 2000, "false positives " + falsePositives);
+	}
+
+	@Test
+	void testSizesFilterForExpectedEntries() {
+		BloomFilter small = new BloomFilter(1000, 0.01);
+		BloomFilter large = new BloomFilter(1_000_000, 0.01);
+
+		assertEquals(1000, small.expectedEntries());
+		assertTrue(large.sizeBytes() >= 1_000_000 * 9.6 / 8, "size " + large.sizeBytes());
+		assertTrue(large.sizeBytes() < 1_000_000 * 9.6 / 4, "size " + large.sizeBytes());
+	}
+
+	@Test
+	void testRejectsInvalidSizing() {
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1000, 0));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1000, 1));
+	}
+}
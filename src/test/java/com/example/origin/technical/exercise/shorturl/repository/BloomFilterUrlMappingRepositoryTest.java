@@ -0,0 +1,156 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BloomFilterUrlMappingRepositoryTest {
+
+	private static final String FULL_URL = "https://example.com/";
+
+	private InMemoryUrlMappingRepository storage;
+
+	@BeforeEach
+	void setUp() {
+		storage = spy(new InMemoryUrlMappingRepository());
+	}
+
+	@Test
+	void testRejectsUnknownShortUrlWithoutReachingStorage() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+
+		assertTrue(repository.findByShortUrlPath("unknown").isEmpty());
+		assertFalse(repository.existsByShortUrlPath("unknown"));
+
+		verify(storage, never()).findByShortUrlPath("unknown");
+		verify(storage, never()).existsByShortUrlPath("unknown");
+		assertEquals(1, repository.stats().rejectedCount());
+	}
+
+	@Test
+	void testFindsMappingsStoredBeforeCreation() {
+		storage.save(mapping(1));
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+
+		assertEquals(FULL_URL + "01", repository.findByShortUrlPath("code01").orElseThrow().getFullUrl());
+		assertTrue(repository.existsByShortUrlPath("code01"));
+	}
+
+	@Test
+	void testFindsSavedMapping() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+
+		repository.save(mapping(1));
+
+		assertEquals(FULL_URL + "01", repository.findByShortUrlPath("code01").orElseThrow().getFullUrl());
+		assertEquals(0, repository.stats().rejectedCount());
+	}
+
+	@Test
+	void testFindsCreatedMapping() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+
+		UrlMapping created = repository.findOrCreateByFullUrl(FULL_URL + "01", fullUrl -> new UrlMapping("code01", fullUrl));
+
+		assertSame(created, repository.findOrCreateByFullUrl(FULL_URL + "01", fullUrl -> new UrlMapping("code02", fullUrl)));
+		assertEquals(FULL_URL + "01", repository.findByShortUrlPath("code01").orElseThrow().getFullUrl());
+		assertTrue(repository.findByShortUrlPath("code02").isEmpty());
+	}
+
+	@Test
+	void testFindsMappingsCreatedInBulk() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+		repository.save(mapping(1));
+
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(List.of(FULL_URL + "01", FULL_URL + "02"),
+			fullUrl -> new UrlMapping("code02", fullUrl));
+
+		assertEquals("code01", mappings.get(FULL_URL + "01").getShortUrlPath());
+		assertEquals(FULL_URL + "02", repository.findByShortUrlPath("code02").orElseThrow().getFullUrl());
+		assertEquals(0, repository.stats().rejectedCount());
+	}
+
+	@Test
+	void testCountsLookupOfDeletedMappingAsFalsePositive() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+		repository.save(mapping(1));
+		repository.findByShortUrlPath("unknown");
+
+		assertTrue(repository.deleteByShortUrlPath("code01"));
+
+		assertTrue(repository.findByShortUrlPath("code01").isEmpty());
+		verify(storage).findByShortUrlPath("code01");
+		BloomFilterUrlMappingRepository.Stats stats = repository.stats();
+		assertEquals(1, stats.rejectedCount());
+		assertEquals(1, stats.falsePositiveCount());
+		assertEquals(0.5, stats.falsePositiveRatio());
+	}
+
+	@Test
+	void testFindAllOnlyLoadsShortUrlsPassingTheFilter() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+		repository.save(mapping(1));
+		repository.save(mapping(2));
+
+		Map<String, UrlMapping> mappings = repository.findAllByShortUrlPaths(List.of("code01", "unknown", "code02"));
+
+		assertEquals(Set.of("code01", "code02"), mappings.keySet());
+		verify(storage).findAllByShortUrlPaths(List.of("code01", "code02"));
+		assertEquals(1, repository.stats().rejectedCount());
+	}
+
+	@Test
+	void testFindAllOfUnknownShortUrlsReturnsModifiableMap() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+
+		Map<String, UrlMapping> mappings = repository.findAllByShortUrlPaths(List.of("unknown"));
+
+		assertTrue(mappings.isEmpty());
+		assertDoesNotThrow(() -> mappings.values().removeIf(mapping -> true));
+		verify(storage, never()).findAllByShortUrlPaths(anyCollection());
+	}
+
+	@Test
+	void testRebuildForgetsDeletedMappings() {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 1000, 0.01);
+		repository.save(mapping(1));
+		repository.save(mapping(2));
+		repository.deleteByShortUrlPath("code01");
+
+		repository.rebuild();
+
+		assertTrue(repository.findByShortUrlPath("code01").isEmpty());
+		assertEquals(FULL_URL + "02", repository.findByShortUrlPath("code02").orElseThrow().getFullUrl());
+		verify(storage, never()).findByShortUrlPath("code01");
+		assertEquals(1, repository.stats().rebuildCount());
+	}
+
+	@Test
+	void testRebuildsFilterInBackgroundOnceFull() throws InterruptedException {
+		BloomFilterUrlMappingRepository repository = new BloomFilterUrlMappingRepository(storage, 100, 0.01);
+
+		for (int i = 0; i < 1000; i++) {
+			repository.save(new UrlMapping("code" + i, FULL_URL + i));
+		}
+		for (int i = 0; i < 200 && repository.stats().expectedEntries() < 1000; i++) {
+			Thread.sleep(10);
+		}
+
+		assertTrue(repository.stats().rebuildCount() > 0);
+		assertTrue(repository.stats().expectedEntries() >= 1000, "expected entries " + repository.stats().expectedEntries());
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(repository.findByShortUrlPath("code" + i).isPresent(), "code" + i);
+		}
+	}
+
+	private static UrlMapping mapping(int i) {
+		return new UrlMapping(String.format("code%02d", i), String.format(FULL_URL + "%02d", i));
+	}
+}
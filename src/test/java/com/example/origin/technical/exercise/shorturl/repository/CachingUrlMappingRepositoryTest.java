@@ -0,0 +1,218 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingUrlMappingRepositoryTest {
+
+	private static final String FULL_URL = "https://example.com/";
+	private static final long ENTRY_BYTES = CachingUrlMappingRepository.weigh("code00", new UrlMapping("code00", FULL_URL + "00"));
+
+	private InMemoryUrlMappingRepository storage;
+
+	@BeforeEach
+	void setUp() {
+		storage = spy(new InMemoryUrlMappingRepository());
+	}
+
+	@Test
+	void testCachesMappingLoadedOnMiss() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 100 * ENTRY_BYTES);
+		storage.save(mapping(1));
+
+		assertEquals(FULL_URL + "01", repository.findByShortUrlPath("code01").orElseThrow().getFullUrl());
+		assertEquals(FULL_URL + "01", repository.findByShortUrlPath("code01").orElseThrow().getFullUrl());
+
+		verify(storage, times(1)).findByShortUrlPath("code01");
+		CachingUrlMappingRepository.Stats stats = repository.stats();
+		assertEquals(1, stats.hitCount());
+		assertEquals(1, stats.missCount());
+		assertEquals(0.5, stats.hitRatio());
+		assertEquals(1, stats.size());
+		assertEquals(ENTRY_BYTES, stats.weightedSizeBytes());
+	}
+
+	@Test
+	void testDoesNotCacheMissingMapping() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 100 * ENTRY_BYTES);
+
+		assertTrue(repository.findByShortUrlPath("unknown").isEmpty());
+		assertTrue(repository.findByShortUrlPath("unknown").isEmpty());
+
+		verify(storage, times(2)).findByShortUrlPath("unknown");
+		assertEquals(0, repository.stats().hitRatio());
+	}
+
+	@Test
+	void testSaveInvalidatesCachedMapping() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 100 * ENTRY_BYTES);
+		repository.save(mapping(1));
+		repository.findByShortUrlPath("code01");
+
+		repository.save(new UrlMapping("code01", "https://example.com/updated"));
+
+		assertEquals("https://example.com/updated", repository.findByShortUrlPath("code01").orElseThrow().getFullUrl());
+	}
+
+	@Test
+	void testIncrementAccessCountsUpdatesCachedMappings() {
+		OffHeapUrlMappingRepository copyingStorage = spy(new OffHeapUrlMappingRepository(16, 256));
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(copyingStorage, 100 * ENTRY_BYTES);
+		repository.save(mapping(1));
+		repository.save(mapping(2));
+		repository.findByShortUrlPath("code01");
+		LocalDateTime accessedAt = LocalDateTime.now().plusMinutes(1);
+
+		repository.incrementAccessCounts(List.of(new AccessIncrement("code01", 3, accessedAt),
+			new AccessIncrement("code02", 2, accessedAt)));
+
+		UrlMapping cached = repository.findByShortUrlPath("code01").orElseThrow();
+		assertEquals(3, cached.getAccessCount());
+		assertEquals(accessedAt, cached.getLastAccessedAt());
+		assertEquals(1, repository.stats().hitCount());
+		assertEquals(1, repository.stats().missCount());
+		verify(copyingStorage).findAllByShortUrlPaths(List.of("code01"));
+		assertEquals(2, repository.findByShortUrlPath("code02").orElseThrow().getAccessCount());
+	}
+
+	@Test
+	void testIncrementAccessCountsDropsCachedMappingDeletedMeanwhile() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 100 * ENTRY_BYTES);
+		repository.save(mapping(1));
+		repository.findByShortUrlPath("code01");
+		doAnswer(invocation -> {
+			storage.deleteByShortUrlPath("code01");
+			return invocation.callRealMethod();
+		}).when(storage).findAllByShortUrlPaths(List.of("code01"));
+
+		repository.incrementAccessCounts(List.of(new AccessIncrement("code01", 3, LocalDateTime.now())));
+
+		assertTrue(repository.findByShortUrlPath("code01").isEmpty());
+		assertEquals(0, repository.stats().size());
+	}
+
+	@Test
+	void testDeleteInvalidatesCachedMapping() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 100 * ENTRY_BYTES);
+		repository.save(mapping(1));
+		repository.findByShortUrlPath("code01");
+
+		assertTrue(repository.deleteByShortUrlPath("code01"));
+
+		assertTrue(repository.findByShortUrlPath("code01").isEmpty());
+		assertFalse(repository.existsByShortUrlPath("code01"));
+		assertEquals(0, repository.stats().size());
+	}
+
+	@Test
+	void testMappingLoadedConcurrentlyWithWriteIsNotCached() {
+		AtomicReference<CachingUrlMappingRepository> repository = new AtomicReference<>();
+		InMemoryUrlMappingRepository racingStorage = new InMemoryUrlMappingRepository() {
+			private boolean raced;
+
+			@Override
+			public Optional<UrlMapping> findByShortUrlPath(String shortUrlPath) {
+				Optional<UrlMapping> loaded = super.findByShortUrlPath(shortUrlPath);
+				if (!raced) {
+					raced = true;
+					repository.get().save(new UrlMapping(shortUrlPath, "https://example.com/updated"));
+				}
+				return loaded;
+			}
+		};
+		repository.set(new CachingUrlMappingRepository(racingStorage, 100 * ENTRY_BYTES));
+		racingStorage.save(mapping(1));
+
+		assertEquals(FULL_URL + "01", repository.get().findByShortUrlPath("code01").orElseThrow().getFullUrl());
+
+		assertEquals(0, repository.get().stats().size());
+		assertEquals("https://example.com/updated", repository.get().findByShortUrlPath("code01").orElseThrow().getFullUrl());
+	}
+
+	@Test
+	void testFindAllByShortUrlPathsLoadsOnlyMisses() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 100 * ENTRY_BYTES);
+		storage.save(mapping(1));
+		storage.save(mapping(2));
+		repository.findByShortUrlPath("code01");
+
+		Map<String, UrlMapping> mappings = repository.findAllByShortUrlPaths(List.of("code01", "code02", "unknown"));
+
+		assertEquals(Set.of("code01", "code02"), mappings.keySet());
+		verify(storage).findAllByShortUrlPaths(List.of("code02", "unknown"));
+		clearInvocations(storage);
+		assertTrue(repository.findByShortUrlPath("code02").isPresent());
+		verify(storage, never()).findByShortUrlPath("code02");
+	}
+
+	@Test
+	void testStaysWithinMaxBytes() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 10 * ENTRY_BYTES);
+		for (int i = 0; i < 100; i++) {
+			storage.save(mapping(i));
+			repository.findByShortUrlPath(code(i));
+		}
+
+		CachingUrlMappingRepository.Stats stats = repository.stats();
+		assertTrue(stats.weightedSizeBytes() <= 10 * ENTRY_BYTES);
+		assertTrue(stats.size() <= 10);
+		assertTrue(stats.evictionCount() >= 90);
+	}
+
+	@Test
+	void testFrequentMappingsSurviveScanOfOneOffLookups() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, 20 * ENTRY_BYTES);
+		for (int i = 0; i < 1000; i++) {
+			storage.save(mapping(i));
+		}
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 5; i++) {
+				repository.findByShortUrlPath(code(i));
+			}
+		}
+
+		for (int i = 100; i < 1000; i++) {
+			repository.findByShortUrlPath(code(i));
+		}
+		clearInvocations(storage);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(repository.findByShortUrlPath(code(i)).isPresent());
+		}
+
+		verify(storage, never()).findByShortUrlPath(anyString());
+	}
+
+	@Test
+	void testDoesNotCacheMappingLargerThanCache() {
+		CachingUrlMappingRepository repository = new CachingUrlMappingRepository(storage, ENTRY_BYTES);
+		storage.save(new UrlMapping("big", FULL_URL + "x".repeat(1000)));
+
+		assertTrue(repository.findByShortUrlPath("big").isPresent());
+
+		assertEquals(0, repository.stats().size());
+	}
+
+	@Test
+	void testRejectsNonPositiveSize() {
+		assertThrows(IllegalArgumentException.class, () -> new CachingUrlMappingRepository(storage, 0));
+	}
+
+	private static UrlMapping mapping(int i) {
+		return new UrlMapping(code(i), FULL_URL + String.format("%02d", i));
+	}
+
+	private static String code(int i) {
+		return String.format("code%02d", i);
+	}
+}
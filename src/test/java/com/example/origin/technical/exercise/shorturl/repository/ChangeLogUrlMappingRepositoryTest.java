@@ -0,0 +1,128 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogUrlMappingRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private final Function<String, UrlMapping> mappingFactory =
+		fullUrl -> new UrlMapping("c" + Integer.toHexString(fullUrl.hashCode()), fullUrl);
+
+	private ChangeLogUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = new ChangeLogUrlMappingRepository(new InMemoryUrlMappingRepository(), 8, 2);
+	}
+
+	@Test
+	void testLogsSavesAndDeletionsInOrder() {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		repository.saveAll(List.of(new UrlMapping("def", "https://example.com/2"), new UrlMapping("ghi", "https://example.com/3")));
+		assertTrue(repository.deleteByShortUrlPath("abc"));
+		assertFalse(repository.deleteByShortUrlPath("abc"));
+
+		UrlMappingChangeSource.Batch batch = repository.changesAfter(0, 10).orElseThrow();
+
+		assertEquals(4, batch.lastSequence());
+		assertEquals(List.of(1L, 2L, 3L, 4L), batch.changes().stream().map(UrlMappingChange::sequence).toList());
+		assertEquals(List.of("abc", "def", "ghi", "abc"), batch.changes().stream().map(UrlMappingChange::shortUrlPath).toList());
+		assertEquals(UrlMappingChange.Type.SAVE, batch.changes().get(2).type());
+		assertEquals("https://example.com/3", batch.changes().get(2).mapping().getFullUrl());
+		assertEquals(UrlMappingChange.Type.DELETE, batch.changes().get(3).type());
+		assertNull(batch.changes().get(3).mapping());
+	}
+
+	@Test
+	void testLogsOnlyCreatedMappings() {
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com/1", mappingFactory);
+		assertSame(created, repository.findOrCreateByFullUrl("https://example.com/1", mappingFactory));
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(
+			List.of("https://example.com/1", "https://example.com/2"), mappingFactory);
+		repository.incrementAccessCounts(List.of(new AccessIncrement(created.getShortUrlPath(), 3, LocalDateTime.now())));
+
+		List<UrlMappingChange> changes = repository.changesAfter(0, 10).orElseThrow().changes();
+
+		assertEquals(2, changes.size());
+		assertSame(created, changes.get(0).mapping());
+		assertSame(mappings.get("https://example.com/2"), changes.get(1).mapping());
+	}
+
+	@Test
+	void testLogsMappingsCreatedBeforeBulkCreateFails() {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+
+		assertThrows(IllegalArgumentException.class, () -> repository.findOrCreateAllByFullUrls(
+			List.of("https://example.com/1", "https://example.com/2", "https://example.com/a b"), mappingFactory));
+
+		List<UrlMappingChange> changes = repository.changesAfter(0, 10).orElseThrow().changes();
+		assertEquals(2, changes.size());
+		assertEquals("https://example.com/2", changes.get(1).mapping().getFullUrl());
+		assertEquals(repository.findByFullUrl("https://example.com/2").orElseThrow(), changes.get(1).mapping());
+	}
+
+	@Test
+	void testReturnsChangesAfterSequenceUpToLimit() {
+		for (int i = 0; i < 5; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+
+		UrlMappingChangeSource.Batch batch = repository.changesAfter(1, 2).orElseThrow();
+
+		assertEquals(5, batch.lastSequence());
+		assertEquals(List.of("code1", "code2"), batch.changes().stream().map(UrlMappingChange::shortUrlPath).toList());
+		assertTrue(repository.changesAfter(5, 2).orElseThrow().changes().isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> repository.changesAfter(0, 0));
+	}
+
+	@Test
+	void testOnlyRetainsLatestChanges() {
+		for (int i = 0; i < 20; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+
+		assertTrue(repository.changesAfter(11, 10).isEmpty());
+		assertEquals("code12", repository.changesAfter(12, 10).orElseThrow().changes().getFirst().shortUrlPath());
+		assertEquals(8, repository.changesAfter(12, 10).orElseThrow().changes().size());
+		// Ahead of the log, such as after a restart of the leader
+		assertTrue(repository.changesAfter(21, 10).isEmpty());
+	}
+
+	@Test
+	void testSnapshotHoldsMappingsAsOfItsPosition() throws Exception {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		repository.save(new UrlMapping("def", "https://example.com/2"));
+		repository.deleteByShortUrlPath("abc");
+		Path file = directory.resolve("url-mappings.snapshot");
+
+		UrlMappingChangeSource.Position position = repository.snapshot(file);
+
+		assertEquals(repository.changesAfter(0, 1).orElseThrow().logId(), position.logId());
+		assertEquals(3, position.sequence());
+		List<UrlMapping> restored = new ArrayList<>();
+		new UrlMappingSnapshot(file).restore(restored::add, Executors.newSingleThreadExecutor());
+		assertEquals(List.of("def"), restored.stream().map(UrlMapping::getShortUrlPath).toList());
+	}
+
+	@Test
+	void testLogsOfRestartedLeadersDiffer() {
+		ChangeLogUrlMappingRepository restarted = new ChangeLogUrlMappingRepository(new InMemoryUrlMappingRepository(), 8, 2);
+
+		assertNotEquals(repository.lastPosition().logId(), restarted.lastPosition().logId());
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+	private static final int KEYS = 100_000;
+
+	@Test
+	void testSpreadsKeysEvenlyOverMembers() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(members("a", "b", "c", "d"), 128);
+
+		Map<String, Integer> keysByMember = new HashMap<>();
+		for (int i = 0; i < KEYS; i++) {
+			keysByMember.merge(ring.route(Integer.toString(i, 36)), 1, Integer::sum);
+		}
+
+		assertEquals(4, keysByMember.size());
+		keysByMember.forEach((member, keys) ->
+			assertTrue(keys > KEYS / 4 * 0.8 && keys < KEYS / 4 * 1.2, member + " owns " + keys + " keys"));
+	}
+
+	@Test
+	void testRoutingDoesNotDependOnMemberOrder() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(members("a", "b", "c"), 16);
+		ConsistentHashRing<String> reordered = new ConsistentHashRing<>(members("c", "a", "b"), 16);
+
+		for (int i = 0; i < 10_000; i++) {
+			assertEquals(ring.route("key" + i), reordered.route("key" + i));
+		}
+	}
+
+	@Test
+	void testJoiningMemberOnlyTakesKeysOver() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(members("a", "b", "c"), 128);
+		ConsistentHashRing<String> joined = ring.withMembers(members("a", "b", "c", "d"));
+
+		int moved = 0;
+		for (int i = 0; i < KEYS; i++) {
+			String key = Integer.toString(i, 36);
+			if (!ring.route(key).equals(joined.route(key))) {
+				assertEquals("d", joined.route(key));
+				moved++;
+			}
+		}
+		assertTrue(moved > KEYS / 4 * 0.8 && moved < KEYS / 4 * 1.2, moved + " keys moved");
+	}
+
+	@Test
+	void testLeavingMemberOnlyMovesItsKeys() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(members("a", "b", "c", "d"), 128);
+		ConsistentHashRing<String> left = ring.withMembers(members("a", "b", "c"));
+
+		for (int i = 0; i < KEYS; i++) {
+			String key = Integer.toString(i, 36);
+			if (!ring.route(key).equals("d")) {
+				assertEquals(ring.route(key), left.route(key));
+			}
+		}
+	}
+
+	@Test
+	void testRejectsRoutingWithoutMembers() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<>(Map.of(), 128);
+
+		assertThrows(IllegalStateException.class, () -> ring.route("key"));
+	}
+
+	private static Map<String, String> members(String... names) {
+		Map<String, String> members = new LinkedHashMap<>();
+		for (String name : names) {
+			members.put(name, name);
+		}
+		return members;
+	}
+}
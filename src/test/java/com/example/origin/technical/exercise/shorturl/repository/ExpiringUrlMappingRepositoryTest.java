@@ -0,0 +1,190 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringUrlMappingRepositoryTest {
+
+	// Longer than any test, so the background sweep never interferes with the sweeps triggered by the tests
+	private static final long TICK_MILLIS = 60_000;
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+	private MutableClock clock;
+	private InMemoryUrlMappingRepository storage;
+	private List<String> expired;
+	private ExpiringUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+		storage = new InMemoryUrlMappingRepository();
+		expired = new ArrayList<>();
+		repository = new ExpiringUrlMappingRepository(storage, TICK_MILLIS, clock, expired::add);
+	}
+
+	@AfterEach
+	void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	void testExpiredMappingIsRemovedLazilyOnLookup() {
+		repository.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		assertTrue(repository.findByShortUrlPath("abc").isPresent());
+
+		clock.advance(5 * 60_000);
+
+		assertTrue(repository.findByShortUrlPath("abc").isEmpty());
+		assertFalse(storage.existsByShortUrlPath("abc"));
+		assertTrue(storage.findByFullUrl("https://example.com").isEmpty());
+		assertEquals(List.of("abc"), expired);
+	}
+
+	@Test
+	void testExpiredMappingIsRemovedBySweep() {
+		repository.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		repository.save(mapping("def", "https://other.com", NOW.plusDays(30)));
+		repository.sweep();
+
+		clock.advance(6 * 60_000);
+		repository.sweep();
+
+		assertFalse(storage.existsByShortUrlPath("abc"));
+		assertTrue(storage.existsByShortUrlPath("def"));
+		assertEquals(List.of("abc"), expired);
+	}
+
+	@Test
+	void testSweepDoesNotRemoveMappingReplacedWithLaterExpiration() {
+		repository.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		repository.save(mapping("abc", "https://example.com", NOW.plusDays(1)));
+
+		clock.advance(6 * 60_000);
+		repository.sweep();
+
+		assertTrue(repository.existsByShortUrlPath("abc"));
+		assertEquals(List.of(), expired);
+	}
+
+	@Test
+	void testMappingsStoredBeforeStartupAreSwept() {
+		repository.close();
+		storage.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		repository = new ExpiringUrlMappingRepository(storage, TICK_MILLIS, clock, expired::add);
+
+		clock.advance(6 * 60_000);
+		repository.sweep();
+
+		assertFalse(storage.existsByShortUrlPath("abc"));
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlReplacesExpiredMapping() {
+		repository.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		clock.advance(5 * 60_000);
+
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> mapping("def", fullUrl, NOW.plusDays(1)));
+
+		assertEquals("def", created.getShortUrlPath());
+		assertFalse(repository.existsByShortUrlPath("abc"));
+		assertEquals("def", repository.findByFullUrl("https://example.com").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testFindOrCreateAllByFullUrlsReplacesExpiredMappingsAndSchedulesCreatedOnes() {
+		repository.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		repository.save(mapping("live", "https://live.com", NOW.plusDays(1)));
+		clock.advance(5 * 60_000);
+
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(
+			List.of("https://example.com", "https://live.com", "https://new.com"),
+			fullUrl -> mapping(fullUrl.equals("https://example.com") ? "def" : "ghi", fullUrl, NOW.plusMinutes(10)));
+
+		assertEquals("def", mappings.get("https://example.com").getShortUrlPath());
+		assertEquals("live", mappings.get("https://live.com").getShortUrlPath());
+		assertEquals("ghi", mappings.get("https://new.com").getShortUrlPath());
+		assertFalse(storage.existsByShortUrlPath("abc"));
+
+		clock.advance(11 * 60_000);
+		repository.sweep();
+
+		assertFalse(storage.existsByShortUrlPath("def"));
+		assertFalse(storage.existsByShortUrlPath("ghi"));
+		assertTrue(storage.existsByShortUrlPath("live"));
+	}
+
+	@Test
+	void testMappingWithoutExpirationNeverExpires() {
+		repository.save(mapping("abc", "https://example.com", null));
+
+		clock.advance(1000L * 24 * 3_600_000);
+		repository.sweep();
+
+		assertTrue(repository.existsByShortUrlPath("abc"));
+	}
+
+	@Test
+	void testFindAllByShortUrlPathsRemovesExpiredMappings() {
+		repository.save(mapping("abc", "https://example.com", NOW.plusMinutes(5)));
+		repository.save(mapping("def", "https://other.com", NOW.plusDays(30)));
+
+		clock.advance(5 * 60_000);
+
+		Map<String, UrlMapping> found = repository.findAllByShortUrlPaths(List.of("abc", "def"));
+
+		assertEquals(Set.of("def"), found.keySet());
+		assertFalse(storage.existsByShortUrlPath("abc"));
+		assertEquals(List.of("abc"), expired);
+	}
+	private static UrlMapping mapping(String shortUrlPath, String fullUrl, LocalDateTime expiresAt) {
+		return UrlMapping.builder()
+			.shortUrlPath(shortUrlPath)
+			.fullUrl(fullUrl)
+			.createdAt(NOW)
+			.expiresAt(expiresAt)
+			.build();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private volatile Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advance(long millis) {
+			instant = instant.plusMillis(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
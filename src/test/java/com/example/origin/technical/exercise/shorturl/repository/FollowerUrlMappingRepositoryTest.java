@@ -0,0 +1,90 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FollowerUrlMappingRepositoryTest {
+
+	private final Function<String, UrlMapping> mappingFactory = fullUrl -> new UrlMapping("new", fullUrl);
+
+	private InMemoryUrlMappingRepository local;
+	private UrlMappingRepository leader;
+	private FollowerUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		local = new InMemoryUrlMappingRepository();
+		leader = spy(new InMemoryUrlMappingRepository());
+		repository = new FollowerUrlMappingRepository(local, leader);
+	}
+
+	@Test
+	void testReadsFromLocalRepository() {
+		local.save(new UrlMapping("abc", "https://example.com/1"));
+
+		assertEquals("https://example.com/1", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertEquals("abc", repository.findByFullUrl("https://example.com/1").orElseThrow().getShortUrlPath());
+		assertTrue(repository.existsByShortUrlPath("abc"));
+		assertEquals(1, repository.findAllByShortUrlPaths(List.of("abc", "def")).size());
+		assertEquals(1, repository.count());
+		verifyNoInteractions(leader);
+	}
+
+	@Test
+	void testCreatesOnLeaderAndStoresLocally() {
+		UrlMapping mapping = repository.findOrCreateByFullUrl("https://example.com/1", mappingFactory);
+
+		assertEquals("new", mapping.getShortUrlPath());
+		assertTrue(leader.existsByShortUrlPath("new"));
+		assertTrue(local.existsByShortUrlPath("new"));
+	}
+
+	@Test
+	void testFindsShortenedFullUrlWithoutLeader() {
+		local.save(new UrlMapping("abc", "https://example.com/1"));
+
+		assertEquals("abc", repository.findOrCreateByFullUrl("https://example.com/1", mappingFactory).getShortUrlPath());
+		verifyNoInteractions(leader);
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(
+			List.of("https://example.com/1", "https://example.com/2"), mappingFactory);
+
+		assertEquals("abc", mappings.get("https://example.com/1").getShortUrlPath());
+		assertEquals("new", mappings.get("https://example.com/2").getShortUrlPath());
+		verify(leader).findOrCreateAllByFullUrls(eq(List.of("https://example.com/2")), any());
+		assertTrue(local.existsByShortUrlPath("new"));
+	}
+
+	@Test
+	void testWritesThroughLeader() {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		assertTrue(leader.existsByShortUrlPath("abc"));
+		assertTrue(local.existsByShortUrlPath("abc"));
+
+		assertTrue(repository.deleteByShortUrlPath("abc"));
+		assertFalse(leader.existsByShortUrlPath("abc"));
+		assertFalse(local.existsByShortUrlPath("abc"));
+	}
+
+	@Test
+	void testAccessCountsOnlyGoToLeader() {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		local.save(new UrlMapping("abc", "https://example.com/1"));
+		List<AccessIncrement> increments = List.of(new AccessIncrement("abc", 2, LocalDateTime.now()));
+
+		repository.incrementAccessCounts(increments);
+
+		verify(leader).incrementAccessCounts(increments);
+		assertEquals(2, leader.findByShortUrlPath("abc").orElseThrow().getAccessCount());
+		assertEquals(0, local.findByShortUrlPath("abc").orElseThrow().getAccessCount());
+	}
+}
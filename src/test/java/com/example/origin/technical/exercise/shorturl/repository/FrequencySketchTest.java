@@ -0,0 +1,52 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+	@Test
+	void testUnseenKeyHasNoFrequency() {
+		FrequencySketch sketch = new FrequencySketch(1024);
+
+		assertEquals(0, sketch.frequency("abc".hashCode()));
+	}
+
+	@Test
+	void testCountsIncrementsUpToFifteen() {
+		FrequencySketch sketch = new FrequencySketch(1024);
+
+		for (int i = 1; i <= 20; i++) {
+			sketch.increment("abc".hashCode());
+			assertEquals(Math.min(i, 15), sketch.frequency("abc".hashCode()));
+		}
+	}
+
+	@Test
+	void testKeysAreCountedIndependently() {
+		FrequencySketch sketch = new FrequencySketch(1024);
+		for (int i = 0; i < 10; i++) {
+			sketch.increment("hot".hashCode());
+		}
+		sketch.increment("cold".hashCode());
+
+		assertEquals(10, sketch.frequency("hot".hashCode()));
+		assertEquals(1, sketch.frequency("cold".hashCode()));
+	}
+
+	@Test
+	void testHalvesFrequenciesOnceSampleSizeIsReached() {
+		FrequencySketch sketch = new FrequencySketch(1024);
+		for (int i = 0; i < 15; i++) {
+			sketch.increment("hot".hashCode());
+		}
+
+		for (int i = 0; i < 10 * 1024; i++) {
+			sketch.increment(("key" + i).hashCode());
+		}
+
+		int frequency = sketch.frequency("hot".hashCode());
+		assertTrue(frequency >= 7 && frequency < 15, "frequency " + frequency);
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullUrlIndexTest {
+
+	private FullUrlIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new FullUrlIndex();
+	}
+
+	@Test
+	void testFingerprintDependsOnEveryCharacter() {
+		String url = "https://example.com/path?utm_source=newsletter&utm_medium=email";
+
+		FullUrlIndex.Fingerprint fingerprint = FullUrlIndex.Fingerprint.of(url);
+
+		assertEquals(fingerprint, FullUrlIndex.Fingerprint.of(new String(url.toCharArray())));
+		for (int i = 0; i < url.length(); i++) {
+			String changed = url.substring(0, i) + '#' + url.substring(i + 1);
+			assertNotEquals(fingerprint, FullUrlIndex.Fingerprint.of(changed), "Character " + i);
+		}
+		assertNotEquals(FullUrlIndex.Fingerprint.of("a"), FullUrlIndex.Fingerprint.of("a\u0000"));
+	}
+
+	@Test
+	void testComputeIfAbsentCreatesOnlyOnce() {
+		UrlMapping created = index.computeIfAbsent("https://example.com", fullUrl -> new UrlMapping("abc", fullUrl));
+
+		UrlMapping found = index.computeIfAbsent("https://example.com", fullUrl -> {
+			throw new AssertionError("Factory must not be called for an existing full URL");
+		});
+
+		assertSame(created, found);
+		assertSame(created, index.get("https://example.com"));
+	}
+
+	@Test
+	void testFailingFactoryLeavesIndexUnchanged() {
+		assertThrows(IllegalStateException.class, () -> index.computeIfAbsent("https://example.com", fullUrl -> {
+			throw new IllegalStateException();
+		}));
+
+		assertNull(index.get("https://example.com"));
+	}
+
+	@Test
+	void testPutReplacesAndRemoveIsConditional() {
+		UrlMapping first = new UrlMapping("abc", "https://example.com");
+		UrlMapping second = new UrlMapping("def", "https://example.com");
+		index.put(first);
+		index.put(second);
+
+		assertFalse(index.remove(first));
+		assertSame(second, index.get("https://example.com"));
+		assertTrue(index.remove(second));
+		assertNull(index.get("https://example.com"));
+	}
+
+	@Test
+	void testGrowsAndKeepsAllEntriesReachable() {
+		int entries = 20_000;
+		UrlMapping[] mappings = new UrlMapping[entries];
+		for (int i = 0; i < entries; i++) {
+			mappings[i] = new UrlMapping(Integer.toString(i, 36), "https://example.com/" + i);
+			index.put(mappings[i]);
+		}
+		for (int i = 0; i < entries; i += 3) {
+			assertTrue(index.remove(mappings[i]));
+		}
+
+		for (int i = 0; i < entries; i++) {
+			UrlMapping found = index.get("https://example.com/" + i);
+			if (i % 3 == 0) {
+				assertNull(found);
+			} else {
+				assertSame(mappings[i], found);
+			}
+		}
+	}
+}
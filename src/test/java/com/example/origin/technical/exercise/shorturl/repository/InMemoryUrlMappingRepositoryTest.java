@@ -5,7 +5,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,4 +70,131 @@ class InMemoryUrlMappingRepositoryTest {
 		mapping.incrementAccessCount();
 		assertEquals(2, mapping.getAccessCount());
 	}
+
+	@Test
+	void testIncrementAccessCountsAddsToStoredStatistics() {
+		LocalDateTime lastAccessedAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+		repository.save(UrlMapping.builder().shortUrlPath("abc").fullUrl("https://example.com").lastAccessedAt(lastAccessedAt).accessCount(5).build());
+
+		repository.incrementAccessCounts(List.of(
+			new AccessIncrement("abc", 3, lastAccessedAt.minusMinutes(1)),
+			new AccessIncrement("missing", 1, lastAccessedAt)));
+		repository.incrementAccessCounts(List.of(new AccessIncrement("abc", 2, lastAccessedAt.plusMinutes(1))));
+
+		UrlMapping mapping = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals(10, mapping.getAccessCount());
+		assertEquals(lastAccessedAt.plusMinutes(1), mapping.getLastAccessedAt());
+		assertFalse(repository.existsByShortUrlPath("missing"));
+		assertEquals("abc", repository.findByFullUrl("https://example.com").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlCreatesMappingInBothIndexes() {
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com", fullUrl -> new UrlMapping("abc", fullUrl));
+
+		assertEquals("abc", created.getShortUrlPath());
+		assertEquals(Optional.of(created), repository.findByShortUrlPath("abc"));
+		assertEquals(Optional.of(created), repository.findByFullUrl("https://example.com"));
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlReturnsExistingMapping() {
+		UrlMapping existing = repository.save(new UrlMapping("abc", "https://example.com"));
+
+		UrlMapping found = repository.findOrCreateByFullUrl("https://example.com", fullUrl -> {
+			throw new AssertionError("Factory must not be called for an existing full URL");
+		});
+
+		assertSame(existing, found);
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlRetriesWhenShortUrlPathIsTaken() {
+		UrlMapping taken = repository.save(new UrlMapping("abc", "https://taken.com"));
+		AtomicInteger attempts = new AtomicInteger();
+
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping(attempts.getAndIncrement() == 0 ? "abc" : "def", fullUrl));
+
+		assertEquals("def", created.getShortUrlPath());
+		assertEquals(Optional.of(taken), repository.findByShortUrlPath("abc"));
+		assertEquals("https://taken.com", repository.findByShortUrlPath("abc").get().getFullUrl());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlGivesUpWhenShortUrlPathIsAlwaysTaken() {
+		repository.save(new UrlMapping("abc", "https://taken.com"));
+
+		assertThrows(IllegalStateException.class,
+			() -> repository.findOrCreateByFullUrl("https://example.com", fullUrl -> new UrlMapping("abc", fullUrl)));
+		assertTrue(repository.findByFullUrl("https://example.com").isEmpty());
+	}
+
+	@Test
+	void testConcurrentFindOrCreateByFullUrlCreatesSingleMapping() throws Exception {
+		int numberOfThreads = 16;
+		AtomicInteger sequence = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Callable<UrlMapping>> tasks = IntStream.range(0, numberOfThreads)
+				.<Callable<UrlMapping>>mapToObj(i -> () -> repository.findOrCreateByFullUrl("https://example.com",
+					fullUrl -> new UrlMapping("code" + sequence.incrementAndGet(), fullUrl)))
+				.toList();
+
+			List<Future<UrlMapping>> results = executor.invokeAll(tasks);
+
+			UrlMapping first = results.get(0).get();
+			for (Future<UrlMapping> result : results) {
+				assertSame(first, result.get());
+			}
+			assertEquals(1, sequence.get());
+			assertEquals(1, repository.count());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testSaveReplacingFullUrlUpdatesFullUrlIndex() {
+		repository.save(new UrlMapping("abc", "https://old.com"));
+		repository.save(new UrlMapping("abc", "https://new.com"));
+
+		assertTrue(repository.findByFullUrl("https://old.com").isEmpty());
+		assertEquals("abc", repository.findByFullUrl("https://new.com").get().getShortUrlPath());
+	}
+
+	@Test
+	void testDeleteByShortUrlPathRemovesFullUrlIndex() {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		repository.deleteByShortUrlPath("abc");
+
+		assertTrue(repository.findByFullUrl("https://example.com").isEmpty());
+	}
+
+	@Test
+	void testSavePreparesLocation() {
+		UrlMapping mapping = new UrlMapping("abc", "https://example.com/café?q=a%20b");
+
+		repository.save(mapping);
+
+		assertEquals("https://example.com/caf%C3%A9?q=a%20b", repository.findByShortUrlPath("abc").get().getLocation());
+	}
+
+	@Test
+	void testSaveRejectsInvalidFullUrl() {
+		assertThrows(IllegalArgumentException.class, () -> repository.save(new UrlMapping("abc", "https://example.com/a b")));
+		assertFalse(repository.existsByShortUrlPath("abc"));
+	}
+
+	@Test
+	void testFindAllByShortUrlPaths() {
+		UrlMapping first = repository.save(new UrlMapping("first", "https://example.com/1"));
+		UrlMapping second = repository.save(new UrlMapping("second", "https://example.com/2"));
+
+		Map<String, UrlMapping> found = repository.findAllByShortUrlPaths(List.of("first", "missing", "second"));
+
+		assertEquals(Map.of("first", first, "second", second), found);
+	}
 }
@@ -0,0 +1,292 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcUrlMappingRepositoryTest {
+
+	private HikariDataSource dataSource;
+	private JdbcUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+		config.setMaximumPoolSize(8);
+		dataSource = new HikariDataSource(config);
+		repository = new JdbcUrlMappingRepository(dataSource, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dataSource.close();
+	}
+
+	@Test
+	void testSaveAndFindByShortUrlPath() {
+		LocalDateTime created = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_789);
+		repository.save(UrlMapping.builder()
+			.shortUrlPath("aB3xK9p")
+			.fullUrl("https://example.com/café?q=1")
+			.createdAt(created)
+			.lastAccessedAt(created.plusHours(1))
+			.expiresAt(created.plusDays(360))
+			.accessCount(42)
+			.redirectStatus(308)
+			.cacheable(true)
+			.build());
+
+		UrlMapping found = repository.findByShortUrlPath("aB3xK9p").orElseThrow();
+		assertEquals("https://example.com/café?q=1", found.getFullUrl());
+		assertEquals("https://example.com/caf%C3%A9?q=1", found.getLocation());
+		assertEquals(created, found.getCreatedAt());
+		assertEquals(created.plusHours(1), found.getLastAccessedAt());
+		assertEquals(created.plusDays(360), found.getExpiresAt());
+		assertEquals(42, found.getAccessCount());
+		assertEquals(308, found.getRedirectStatus());
+		assertEquals(true, found.getCacheable());
+		assertTrue(repository.findByShortUrlPath("aB3xK9P").isEmpty());
+	}
+
+	@Test
+	void testStoresMissingOptionsAsNull() {
+		repository.save(UrlMapping.builder().shortUrlPath("abc").fullUrl("https://example.com").expiresAt(null).build());
+
+		UrlMapping found = repository.findByShortUrlPath("abc").orElseThrow();
+		assertNull(found.getExpiresAt());
+		assertNull(found.getRedirectStatus());
+		assertNull(found.getCacheable());
+	}
+
+	@Test
+	void testSaveReplacesExistingMapping() {
+		repository.save(new UrlMapping("abc", "https://example.com/old"));
+
+		repository.save(new UrlMapping("abc", "https://example.com/new"));
+
+		assertEquals(1, repository.count());
+		assertEquals("https://example.com/new", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertTrue(repository.findByFullUrl("https://example.com/old").isEmpty());
+		assertEquals("abc", repository.findByFullUrl("https://example.com/new").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testSavedMappingTakesOverFullUrl() {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		repository.save(new UrlMapping("def", "https://example.com"));
+
+		assertEquals(2, repository.count());
+		assertEquals("def", repository.findByFullUrl("https://example.com").orElseThrow().getShortUrlPath());
+		assertTrue(repository.existsByShortUrlPath("abc"));
+	}
+
+	@Test
+	void testDeleteByShortUrlPath() {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		assertTrue(repository.deleteByShortUrlPath("abc"));
+		assertFalse(repository.deleteByShortUrlPath("abc"));
+
+		assertFalse(repository.existsByShortUrlPath("abc"));
+		assertTrue(repository.findByFullUrl("https://example.com").isEmpty());
+		assertEquals(0, repository.count());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlReturnsExistingMapping() {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		UrlMapping found = repository.findOrCreateByFullUrl("https://example.com", fullUrl -> {
+			throw new AssertionError("Factory must not be called for an existing full URL");
+		});
+
+		assertEquals("abc", found.getShortUrlPath());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlRetriesWhenShortUrlPathIsTaken() {
+		repository.save(new UrlMapping("abc", "https://taken.com"));
+		AtomicInteger attempts = new AtomicInteger();
+
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping(attempts.getAndIncrement() == 0 ? "abc" : "def", fullUrl));
+
+		assertEquals("def", created.getShortUrlPath());
+		assertEquals("https://taken.com", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertEquals("def", repository.findByFullUrl("https://example.com").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testConcurrentFindOrCreateByFullUrlCreatesSingleMapping() throws Exception {
+		int numberOfThreads = 8;
+		AtomicInteger sequence = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Callable<UrlMapping>> tasks = IntStream.range(0, numberOfThreads * 20)
+				.<Callable<UrlMapping>>mapToObj(i -> () -> repository.findOrCreateByFullUrl("https://example.com/" + (i % 20),
+					fullUrl -> new UrlMapping(Integer.toString(sequence.incrementAndGet(), 36), fullUrl)))
+				.toList();
+
+			for (Future<UrlMapping> result : executor.invokeAll(tasks)) {
+				UrlMapping mapping = result.get();
+				assertEquals(mapping.getShortUrlPath(), repository.findByFullUrl(mapping.getFullUrl()).orElseThrow().getShortUrlPath());
+			}
+			assertEquals(20, repository.count());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testFullUrlsWithSameHashAreToldApart() throws Exception {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("UPDATE url_mapping SET full_url_hash = ?")) {
+			statement.setLong(1, JdbcUrlMappingRepository.hash("https://example.com/2"));
+			statement.executeUpdate();
+		}
+
+		assertTrue(repository.findByFullUrl("https://example.com/2").isEmpty());
+		assertEquals("def", repository.findOrCreateByFullUrl("https://example.com/2", fullUrl -> new UrlMapping("def", fullUrl)).getShortUrlPath());
+		assertEquals("ghi", repository.findOrCreateAllByFullUrls(List.of("https://example.com/3"),
+			fullUrl -> new UrlMapping("ghi", fullUrl)).get("https://example.com/3").getShortUrlPath());
+		assertEquals("def", repository.findByFullUrl("https://example.com/2").orElseThrow().getShortUrlPath());
+		assertEquals("https://example.com/1", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertEquals(3, repository.count());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlKeepsFirstMappingCreatedByAnotherInstance() {
+		JdbcUrlMappingRepository other = new JdbcUrlMappingRepository(dataSource, 4);
+
+		// The other instance creates the mapping after this one found none, and before it inserts its own
+		UrlMapping mapping = repository.findOrCreateByFullUrl("https://example.com/1", fullUrl -> {
+			other.findOrCreateByFullUrl(fullUrl, otherFullUrl -> new UrlMapping("abc", otherFullUrl));
+			return new UrlMapping("def", fullUrl);
+		});
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(List.of("https://example.com/2"), fullUrl -> {
+			other.findOrCreateByFullUrl(fullUrl, otherFullUrl -> new UrlMapping("ghi", otherFullUrl));
+			return new UrlMapping("jkl", fullUrl);
+		});
+
+		assertEquals("abc", mapping.getShortUrlPath());
+		assertEquals("ghi", mappings.get("https://example.com/2").getShortUrlPath());
+		assertFalse(repository.existsByShortUrlPath("def"));
+		assertFalse(repository.existsByShortUrlPath("jkl"));
+		assertEquals(2, repository.count());
+	}
+
+	@Test
+	void testFindOrCreateAllByFullUrlsCreatesMissingMappingsInBatches() {
+		repository.save(new UrlMapping("existing", "https://example.com/0"));
+		List<String> fullUrls = IntStream.range(0, 10).mapToObj(i -> "https://example.com/" + i).toList();
+		List<String> created = new ArrayList<>();
+
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(fullUrls, fullUrl -> {
+			created.add(fullUrl);
+			return new UrlMapping("code" + created.size(), fullUrl);
+		});
+
+		assertEquals(10, mappings.size());
+		assertEquals(9, created.size());
+		assertEquals("existing", mappings.get("https://example.com/0").getShortUrlPath());
+		assertEquals(10, repository.count());
+		for (String fullUrl : fullUrls) {
+			assertEquals(mappings.get(fullUrl).getShortUrlPath(), repository.findByFullUrl(fullUrl).orElseThrow().getShortUrlPath());
+		}
+	}
+
+	@Test
+	void testFindOrCreateAllByFullUrlsFallsBackToSingleCreationsWhenShortUrlPathIsTaken() {
+		repository.save(new UrlMapping("taken", "https://taken.com"));
+		AtomicInteger attempts = new AtomicInteger();
+
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(
+			List.of("https://example.com/1", "https://example.com/2"),
+			fullUrl -> new UrlMapping(attempts.getAndIncrement() == 0 ? "taken" : "code" + attempts.get(), fullUrl));
+
+		assertEquals(3, repository.count());
+		assertEquals("https://taken.com", repository.findByShortUrlPath("taken").orElseThrow().getFullUrl());
+		assertNotEquals("taken", mappings.get("https://example.com/1").getShortUrlPath());
+		assertEquals(mappings.get("https://example.com/1"), repository.findByFullUrl("https://example.com/1").orElseThrow());
+		assertEquals(mappings.get("https://example.com/2"), repository.findByFullUrl("https://example.com/2").orElseThrow());
+	}
+
+	@Test
+	void testFindOrCreateAllByFullUrlsRejectsInvalidUrlWithoutCreatingAny() {
+		assertThrows(IllegalArgumentException.class, () -> repository.findOrCreateAllByFullUrls(
+			List.of("https://example.com/1", "not a url"), fullUrl -> new UrlMapping("code" + fullUrl.length(), fullUrl)));
+
+		assertEquals(0, repository.count());
+	}
+
+	@Test
+	void testIncrementAccessCountsInBatches() {
+		LocalDateTime lastAccessedAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+		List<AccessIncrement> increments = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			repository.save(UrlMapping.builder().shortUrlPath("code" + i).fullUrl("https://example.com/" + i)
+				.lastAccessedAt(lastAccessedAt).accessCount(i).build());
+			increments.add(new AccessIncrement("code" + i, 2, i % 2 == 0 ? lastAccessedAt.plusMinutes(1) : lastAccessedAt.minusMinutes(1)));
+		}
+		increments.add(new AccessIncrement("missing", 1, lastAccessedAt));
+
+		repository.incrementAccessCounts(increments);
+		repository.incrementAccessCounts(List.of(new AccessIncrement("code0", 1, lastAccessedAt)));
+
+		assertEquals(3, repository.findByShortUrlPath("code0").orElseThrow().getAccessCount());
+		assertEquals(lastAccessedAt.plusMinutes(1), repository.findByShortUrlPath("code0").orElseThrow().getLastAccessedAt());
+		assertEquals(11, repository.findByShortUrlPath("code9").orElseThrow().getAccessCount());
+		assertEquals(lastAccessedAt, repository.findByShortUrlPath("code9").orElseThrow().getLastAccessedAt());
+		assertFalse(repository.existsByShortUrlPath("missing"));
+	}
+
+	@Test
+	void testFindAllByShortUrlPathsAcrossInLists() {
+		for (int i = 0; i < 100; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		List<String> shortUrlPaths = new ArrayList<>(IntStream.range(0, 70).mapToObj(i -> "code" + i).toList());
+		shortUrlPaths.add("missing");
+
+		Map<String, UrlMapping> found = repository.findAllByShortUrlPaths(shortUrlPaths);
+
+		assertEquals(70, found.size());
+		assertEquals("https://example.com/69", found.get("code69").getFullUrl());
+		assertEquals(Map.of("code1", found.get("code1")), repository.findAllByShortUrlPaths(List.of("code1", "missing")));
+	}
+
+	@Test
+	void testTableSurvivesNewRepositoryAndForEachVisitsAllMappings() {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		repository.save(new UrlMapping("def", "https://example.com/2"));
+
+		JdbcUrlMappingRepository reopened = new JdbcUrlMappingRepository(dataSource, 4);
+		List<String> visited = new ArrayList<>();
+		reopened.forEach(mapping -> visited.add(mapping.getShortUrlPath()));
+
+		assertEquals(List.of("abc", "def"), visited.stream().sorted().toList());
+		assertEquals(2, reopened.count());
+	}
+}
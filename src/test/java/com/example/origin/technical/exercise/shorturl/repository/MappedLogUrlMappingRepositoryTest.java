@@ -0,0 +1,265 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedLogUrlMappingRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private MappedLogUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		repository = open();
+	}
+
+	@AfterEach
+	void tearDown() {
+		repository.close();
+	}
+
+	@Test
+	void testMappingsSurviveRestart() throws IOException {
+		LocalDateTime created = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_789);
+		repository.save(UrlMapping.builder()
+			.shortUrlPath("abc")
+			.fullUrl("https://example.com/café")
+			.createdAt(created)
+			.lastAccessedAt(created.plusHours(1))
+			.expiresAt(created.plusDays(360))
+			.accessCount(42)
+			.build());
+		repository.findOrCreateByFullUrl("https://other.com", fullUrl -> new UrlMapping("def", fullUrl));
+
+		reopen();
+
+		assertEquals(2, repository.count());
+		UrlMapping found = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals("https://example.com/café", found.getFullUrl());
+		assertEquals(created, found.getCreatedAt());
+		assertEquals(created.plusHours(1), found.getLastAccessedAt());
+		assertEquals(created.plusDays(360), found.getExpiresAt());
+		assertEquals(42, found.getAccessCount());
+		assertEquals("def", repository.findByFullUrl("https://other.com").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testDeletesAndOverwritesAreReplayed() throws IOException {
+		repository.save(new UrlMapping("abc", "https://old.com"));
+		repository.save(new UrlMapping("abc", "https://new.com"));
+		repository.save(new UrlMapping("def", "https://deleted.com"));
+		assertTrue(repository.deleteByShortUrlPath("def"));
+		assertFalse(repository.deleteByShortUrlPath("missing"));
+
+		reopen();
+
+		assertEquals(1, repository.count());
+		assertEquals("https://new.com", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertTrue(repository.findByFullUrl("https://old.com").isEmpty());
+		assertFalse(repository.existsByShortUrlPath("def"));
+	}
+
+	@Test
+	void testRollsOverToNewSegments() throws IOException {
+		for (int i = 0; i < 100; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		repository.save(new UrlMapping("big", "https://example.com/" + "a".repeat(1_000)));
+
+		assertTrue(segments().size() > 1);
+		reopen();
+
+		assertEquals(101, repository.count());
+		assertEquals("https://example.com/99", repository.findByShortUrlPath("code99").orElseThrow().getFullUrl());
+		assertEquals(1_020, repository.findByShortUrlPath("big").orElseThrow().getFullUrl().length());
+	}
+
+	@Test
+	void testTruncatesTornTailAndKeepsAppending() throws IOException {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+		repository.save(new UrlMapping("def", "https://torn.com"));
+		repository.close();
+
+		// Corrupt the last byte of the second record, as if the crash happened while writing it
+		Path segment = segments().get(0);
+		int firstRecordLength;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+			channel.read(header, 0);
+			firstRecordLength = 2 * Integer.BYTES + header.flip().getInt();
+			header.clear();
+			channel.read(header, firstRecordLength);
+			int secondRecordEnd = firstRecordLength + 2 * Integer.BYTES + header.flip().getInt();
+			channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), secondRecordEnd - 1);
+		}
+
+		repository = open();
+		assertEquals(1, repository.count());
+		assertTrue(repository.existsByShortUrlPath("abc"));
+		assertFalse(repository.existsByShortUrlPath("def"));
+
+		repository.save(new UrlMapping("ghi", "https://after-crash.com"));
+		reopen();
+
+		assertEquals(2, repository.count());
+		assertEquals("https://after-crash.com", repository.findByShortUrlPath("ghi").orElseThrow().getFullUrl());
+	}
+
+	@Test
+	void testFailsOnCorruptRecordFollowedByLaterSegments() throws IOException {
+		for (int i = 0; i < 100; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		repository.close();
+		List<Path> segments = segments();
+		assertTrue(segments.size() > 1);
+
+		// Corrupt the payload of the first record, which no crash can do to a segment followed by others
+		try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), 2 * Integer.BYTES + 1);
+		}
+
+		assertThrows(IllegalStateException.class, this::open);
+		assertEquals(segments, segments());
+	}
+
+	@Test
+	void testFailsOnUndecodableRecordWithValidChecksum() throws IOException {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+		repository.close();
+
+		byte[] payload = {(byte) 9, 1, 2, 3};
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		Path segment = segments().get(0);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+			channel.read(header, 0);
+			int firstRecordEnd = 2 * Integer.BYTES + header.flip().getInt();
+			channel.write(ByteBuffer.allocate(2 * Integer.BYTES + payload.length)
+				.putInt(payload.length).putInt((int) crc.getValue()).put(payload)
+				.flip(), firstRecordEnd);
+		}
+
+		IllegalStateException exception = assertThrows(IllegalStateException.class, this::open);
+		assertTrue(exception.getMessage().contains(segment.toString()));
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlRetriesWhenShortUrlPathIsTaken() throws IOException {
+		repository.save(new UrlMapping("abc", "https://taken.com"));
+		AtomicInteger attempts = new AtomicInteger();
+
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping(attempts.getAndIncrement() == 0 ? "abc" : "def", fullUrl));
+		reopen();
+
+		assertEquals("def", created.getShortUrlPath());
+		assertEquals("https://taken.com", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertEquals("def", repository.findByFullUrl("https://example.com").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testRedirectOptionsSurviveRestart() throws IOException {
+		UrlMapping mapping = new UrlMapping("abc", "https://example.com");
+		mapping.setRedirectStatus(308);
+		mapping.setCacheable(false);
+		repository.save(mapping);
+		repository.save(new UrlMapping("def", "https://other.com"));
+
+		reopen();
+
+		UrlMapping found = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals(308, found.getRedirectStatus());
+		assertEquals(false, found.getCacheable());
+		assertNull(repository.findByShortUrlPath("def").orElseThrow().getRedirectStatus());
+		assertNull(repository.findByShortUrlPath("def").orElseThrow().getCacheable());
+	}
+
+	@Test
+	void testAccessCountsSurviveRestart() throws IOException {
+		LocalDateTime accessed = LocalDateTime.now().plusDays(1);
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		repository.incrementAccessCounts(List.of(new AccessIncrement("abc", 3, accessed), new AccessIncrement("unknown", 1, accessed)));
+		repository.incrementAccessCounts(List.of(new AccessIncrement("abc", 2, accessed.minusHours(1))));
+		reopen();
+
+		UrlMapping found = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals(5, found.getAccessCount());
+		assertEquals(accessed, found.getLastAccessedAt());
+		assertFalse(repository.existsByShortUrlPath("unknown"));
+	}
+
+	@Test
+	void testCompactionKeepsLogBoundedUnderRepeatedFlushes() throws IOException {
+		LocalDateTime accessed = LocalDateTime.now().plusDays(1);
+		for (int i = 0; i < 4; i++) {
+			repository.save(new UrlMapping("path" + i, "https://example.com/" + i));
+		}
+		repository.save(new UrlMapping("gone", "https://example.com/gone"));
+		repository.deleteByShortUrlPath("gone");
+
+		long maxLogSize = 0;
+		for (int flush = 1; flush <= 500; flush++) {
+			List<AccessIncrement> increments = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				increments.add(new AccessIncrement("path" + i, 1, accessed.plusSeconds(flush)));
+			}
+			repository.incrementAccessCounts(increments);
+			maxLogSize = Math.max(maxLogSize, logSize());
+		}
+		reopen();
+
+		// Without compaction the 2000 access records alone would take about 60 KB
+		assertTrue(maxLogSize <= 3 * 512, "Log grew to " + maxLogSize + " bytes");
+		assertEquals(4, repository.count());
+		assertFalse(repository.existsByShortUrlPath("gone"));
+		UrlMapping found = repository.findByShortUrlPath("path3").orElseThrow();
+		assertEquals(500, found.getAccessCount());
+		assertEquals(accessed.plusSeconds(500), found.getLastAccessedAt());
+	}
+
+	private MappedLogUrlMappingRepository open() throws IOException {
+		return new MappedLogUrlMappingRepository(directory, 512, 4, 0);
+	}
+
+	private void reopen() throws IOException {
+		repository.close();
+		repository = open();
+	}
+
+	private long logSize() throws IOException {
+		long size = 0;
+		for (Path segment : segments()) {
+			size += Files.size(segment);
+		}
+		return size;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+}
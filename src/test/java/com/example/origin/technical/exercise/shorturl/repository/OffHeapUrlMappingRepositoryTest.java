@@ -0,0 +1,248 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapUrlMappingRepositoryTest {
+
+	private OffHeapUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		repository = new OffHeapUrlMappingRepository(16, 256);
+	}
+
+	@Test
+	void testSaveAndFindByShortUrlPath() {
+		LocalDateTime created = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_789);
+		UrlMapping mapping = UrlMapping.builder()
+			.shortUrlPath("aB3xK9p")
+			.fullUrl("https://example.com/path?q=1")
+			.createdAt(created)
+			.lastAccessedAt(created.plusHours(1))
+			.expiresAt(created.plusDays(360))
+			.accessCount(42)
+			.build();
+
+		repository.save(mapping);
+
+		UrlMapping found = repository.findByShortUrlPath("aB3xK9p").orElseThrow();
+		assertEquals("aB3xK9p", found.getShortUrlPath());
+		assertEquals("https://example.com/path?q=1", found.getFullUrl());
+		assertEquals(created, found.getCreatedAt());
+		assertEquals(created.plusHours(1), found.getLastAccessedAt());
+		assertEquals(created.plusDays(360), found.getExpiresAt());
+		assertEquals(42, found.getAccessCount());
+	}
+
+	@Test
+	void testStoresLargeTimeToLiveOrRejectsItBeyondRange() {
+		UrlMapping mapping = new UrlMapping("abc", "https://example.com");
+		mapping.setExpiresAt(mapping.getCreatedAt().plusYears(100));
+		repository.save(mapping);
+
+		assertEquals(mapping.getExpiresAt(), repository.findByShortUrlPath("abc").orElseThrow().getExpiresAt());
+
+		// Past 2262, which epoch nanoseconds no longer reach
+		UrlMapping overflowing = new UrlMapping("abc", "https://example.com/overflowing");
+		overflowing.setExpiresAt(overflowing.getCreatedAt().plusSeconds(8_000_000_000L));
+		assertThrows(IllegalArgumentException.class, () -> repository.save(overflowing));
+
+		assertEquals(mapping.getExpiresAt(), repository.findByShortUrlPath("abc").orElseThrow().getExpiresAt());
+		assertTrue(repository.findByFullUrl("https://example.com/overflowing").isEmpty());
+		assertEquals(1, repository.count());
+	}
+
+	@Test
+	void testFindByFullUrl() {
+		repository.save(new UrlMapping("abc", "https://example.com/café"));
+
+		Optional<UrlMapping> found = repository.findByFullUrl("https://example.com/café");
+
+		assertTrue(found.isPresent());
+		assertEquals("abc", found.get().getShortUrlPath());
+		assertTrue(repository.findByFullUrl("https://example.com/cafe").isEmpty());
+	}
+
+	@Test
+	void testStoresLocationDifferingFromFullUrl() {
+		repository.save(new UrlMapping("abc", "https://example.com/café"));
+		repository.save(new UrlMapping("def", "https://example.com/cafe"));
+
+		assertEquals("https://example.com/caf%C3%A9", repository.findByShortUrlPath("abc").get().getLocation());
+		assertEquals("https://example.com/cafe", repository.findByShortUrlPath("def").get().getLocation());
+
+		// Overwrites release the previous Location and compact the arena, which must keep both strings readable
+		for (int i = 0; i < 100; i++) {
+			repository.save(new UrlMapping("abc", "https://example.com/café/" + i));
+		}
+		assertEquals("https://example.com/caf%C3%A9/99", repository.findByShortUrlPath("abc").get().getLocation());
+		assertEquals("https://example.com/café/99", repository.findByShortUrlPath("abc").get().getFullUrl());
+	}
+
+	@Test
+	void testStoresRedirectOptions() {
+		UrlMapping mapping = new UrlMapping("abc", "https://example.com");
+		mapping.setRedirectStatus(301);
+		mapping.setCacheable(true);
+		repository.save(mapping);
+		repository.save(new UrlMapping("def", "https://other.com"));
+
+		UrlMapping found = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals(301, found.getRedirectStatus());
+		assertEquals(true, found.getCacheable());
+		assertNull(repository.findByShortUrlPath("def").orElseThrow().getRedirectStatus());
+		assertNull(repository.findByShortUrlPath("def").orElseThrow().getCacheable());
+	}
+
+	@Test
+	void testLeadingZeroCharactersAreSignificant() {
+		repository.save(new UrlMapping("0a", "https://one.com"));
+		repository.save(new UrlMapping("00a", "https://two.com"));
+
+		assertEquals("https://one.com", repository.findByShortUrlPath("0a").orElseThrow().getFullUrl());
+		assertEquals("https://two.com", repository.findByShortUrlPath("00a").orElseThrow().getFullUrl());
+		assertTrue(repository.findByShortUrlPath("a").isEmpty());
+	}
+
+	@Test
+	void testPackRoundTrip() {
+		for (String shortUrlPath : List.of("0", "z", "0000000000", "zzzzzzzzzz", "aB3xK9p")) {
+			assertEquals(shortUrlPath, OffHeapUrlMappingRepository.unpack(OffHeapUrlMappingRepository.pack(shortUrlPath)));
+		}
+	}
+
+	@Test
+	void testRejectsShortUrlPathThatCannotBePacked() {
+		assertThrows(IllegalArgumentException.class, () -> repository.save(new UrlMapping("nested/path", "https://example.com")));
+		assertThrows(IllegalArgumentException.class, () -> repository.save(new UrlMapping("abcdefghijk", "https://example.com")));
+		assertTrue(repository.findByShortUrlPath("nested/path").isEmpty());
+		assertFalse(repository.deleteByShortUrlPath("nested/path"));
+	}
+
+	@Test
+	void testSaveReplacesExistingMapping() {
+		repository.save(new UrlMapping("abc", "https://old.com"));
+		repository.save(new UrlMapping("abc", "https://new.com"));
+
+		assertEquals(1, repository.count());
+		assertEquals("https://new.com", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertTrue(repository.findByFullUrl("https://old.com").isEmpty());
+		assertEquals("abc", repository.findByFullUrl("https://new.com").orElseThrow().getShortUrlPath());
+	}
+
+	@Test
+	void testDeleteByShortUrlPath() {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		assertTrue(repository.deleteByShortUrlPath("abc"));
+		assertFalse(repository.existsByShortUrlPath("abc"));
+		assertTrue(repository.findByFullUrl("https://example.com").isEmpty());
+		assertFalse(repository.deleteByShortUrlPath("abc"));
+		assertEquals(0, repository.count());
+	}
+
+	@Test
+	void testGrowsAndKeepsAllEntriesReachable() {
+		int entries = 5_000;
+		for (int i = 0; i < entries; i++) {
+			repository.save(new UrlMapping(Integer.toString(i, 36), "https://example.com/" + i));
+		}
+		for (int i = 0; i < entries; i += 2) {
+			assertTrue(repository.deleteByShortUrlPath(Integer.toString(i, 36)));
+		}
+
+		assertEquals(entries / 2, repository.count());
+		for (int i = 0; i < entries; i++) {
+			String shortUrlPath = Integer.toString(i, 36);
+			if (i % 2 == 0) {
+				assertFalse(repository.existsByShortUrlPath(shortUrlPath));
+				assertTrue(repository.findByFullUrl("https://example.com/" + i).isEmpty());
+			} else {
+				assertEquals("https://example.com/" + i, repository.findByShortUrlPath(shortUrlPath).orElseThrow().getFullUrl());
+				assertEquals(shortUrlPath, repository.findByFullUrl("https://example.com/" + i).orElseThrow().getShortUrlPath());
+			}
+		}
+	}
+
+	@Test
+	void testStoresUrlsLargerThanArenaChunk() {
+		String fullUrl = "https://example.com/" + "a".repeat(1_000);
+
+		repository.save(new UrlMapping("big", fullUrl));
+
+		assertEquals(fullUrl, repository.findByShortUrlPath("big").orElseThrow().getFullUrl());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlReturnsExistingMapping() {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+
+		UrlMapping found = repository.findOrCreateByFullUrl("https://example.com", fullUrl -> {
+			throw new AssertionError("Factory must not be called for an existing full URL");
+		});
+
+		assertEquals("abc", found.getShortUrlPath());
+	}
+
+	@Test
+	void testFindOrCreateByFullUrlRetriesWhenShortUrlPathIsTaken() {
+		repository.save(new UrlMapping("abc", "https://taken.com"));
+		AtomicInteger attempts = new AtomicInteger();
+
+		UrlMapping created = repository.findOrCreateByFullUrl("https://example.com",
+			fullUrl -> new UrlMapping(attempts.getAndIncrement() == 0 ? "abc" : "def", fullUrl));
+
+		assertEquals("def", created.getShortUrlPath());
+		assertEquals("https://taken.com", repository.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+	}
+
+	@Test
+	void testConcurrentFindOrCreateByFullUrlCreatesSingleMapping() throws Exception {
+		int numberOfThreads = 16;
+		AtomicInteger sequence = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Callable<UrlMapping>> tasks = IntStream.range(0, numberOfThreads * 50)
+				.<Callable<UrlMapping>>mapToObj(i -> () -> repository.findOrCreateByFullUrl("https://example.com/" + (i % 50),
+					fullUrl -> new UrlMapping(Integer.toString(sequence.incrementAndGet(), 36), fullUrl)))
+				.toList();
+
+			for (Future<UrlMapping> result : executor.invokeAll(tasks)) {
+				UrlMapping mapping = result.get();
+				assertEquals(mapping.getShortUrlPath(), repository.findByFullUrl(mapping.getFullUrl()).orElseThrow().getShortUrlPath());
+			}
+			assertEquals(50, sequence.get());
+			assertEquals(50, repository.count());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testFindAllByShortUrlPaths() {
+		repository.save(new UrlMapping("first", "https://example.com/1"));
+		repository.save(new UrlMapping("second", "https://example.com/2"));
+
+		Map<String, UrlMapping> found = repository.findAllByShortUrlPaths(List.of("first", "missing", "not-packable", "second"));
+
+		assertEquals(2, found.size());
+		assertEquals("https://example.com/1", found.get("first").getFullUrl());
+		assertEquals("https://example.com/2", found.get("second").getFullUrl());
+		assertEquals("second", found.get("second").getShortUrlPath());
+	}
+}
@@ -0,0 +1,256 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ShardedUrlMappingRepositoryTest {
+
+	private final AtomicLong counter = new AtomicLong();
+	private final Function<String, UrlMapping> mappingFactory =
+		fullUrl -> new UrlMapping(Long.toString(0x10000000L + counter.incrementAndGet(), 36), fullUrl);
+
+	private Map<String, IterableUrlMappingRepository> partitions;
+	private ShardedUrlMappingRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		partitions = new LinkedHashMap<>();
+		for (int i = 0; i < 4; i++) {
+			partitions.put("partition-" + i, spy(new InMemoryUrlMappingRepository()));
+		}
+		repository = new ShardedUrlMappingRepository(partitions, 64);
+	}
+
+	@Test
+	void testSpreadsMappingsOverPartitions() {
+		for (int i = 0; i < 1000; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+
+		for (IterableUrlMappingRepository partition : partitions.values()) {
+			assertTrue(partition.count() > 150, "Partition holds " + partition.count() + " mappings");
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("https://example.com/" + i, repository.findByShortUrlPath("code" + i).orElseThrow().getFullUrl());
+			assertEquals("code" + i, repository.findByFullUrl("https://example.com/" + i).orElseThrow().getShortUrlPath());
+		}
+		// The home partitions of the full URLs hold copies of the mappings saved on other partitions
+		assertTrue(repository.count() > 1000 && repository.count() < 2000, repository.count() + " mappings held");
+		List<UrlMapping> visited = new ArrayList<>();
+		repository.forEach(visited::add);
+		assertEquals(repository.count(), visited.size());
+	}
+
+	@Test
+	void testCreatesMappingOnTheShardOfItsFullUrl() {
+		for (int i = 0; i < 100; i++) {
+			String fullUrl = "https://example.com/" + i;
+			UrlMapping mapping = repository.findOrCreateByFullUrl(fullUrl, mappingFactory);
+
+			assertSame(mapping, repository.findOrCreateByFullUrl(fullUrl, mappingFactory));
+			assertSame(mapping, repository.findByFullUrl(fullUrl).orElseThrow());
+			assertSame(mapping, repository.findByShortUrlPath(mapping.getShortUrlPath()).orElseThrow());
+			// Both indexes of the same partition hold the mapping
+			assertEquals(1, partitions.values().stream()
+				.filter(partition -> partition.findByFullUrl(fullUrl).isPresent()
+					&& partition.existsByShortUrlPath(mapping.getShortUrlPath()))
+				.count());
+		}
+		assertEquals(100, repository.count());
+	}
+
+	@Test
+	void testParksShortUrlPathsRoutedToOtherShardsForThem() {
+		for (int i = 0; i < 100; i++) {
+			repository.findOrCreateByFullUrl("https://example.com/" + i, mappingFactory);
+		}
+		repository.findOrCreateAllByFullUrls(IntStream.range(100, 200).mapToObj(i -> "https://example.com/" + i).toList(),
+			mappingFactory);
+
+		// Every generated short URL path is either used by a mapping or parked for the next one on its shard
+		assertEquals(200, repository.count());
+		assertEquals(counter.get(), repository.count() + repository.parkedShortUrlPaths());
+		assertTrue(repository.parkedShortUrlPaths() < 200);
+		for (int i = 0; i < 200; i++) {
+			String fullUrl = "https://example.com/" + i;
+			UrlMapping mapping = repository.findByFullUrl(fullUrl).orElseThrow();
+			assertEquals(fullUrl, repository.findByShortUrlPath(mapping.getShortUrlPath()).orElseThrow().getFullUrl());
+		}
+	}
+
+	@Test
+	void testFindOrCreateAllCallsEachShardOnce() {
+		List<String> fullUrls = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			fullUrls.add("https://example.com/" + i);
+		}
+
+		Map<String, UrlMapping> mappings = repository.findOrCreateAllByFullUrls(fullUrls, mappingFactory);
+
+		assertEquals(200, mappings.size());
+		for (String fullUrl : fullUrls) {
+			UrlMapping mapping = mappings.get(fullUrl);
+			assertEquals(fullUrl, mapping.getFullUrl());
+			assertSame(mapping, repository.findByShortUrlPath(mapping.getShortUrlPath()).orElseThrow());
+		}
+		for (IterableUrlMappingRepository partition : partitions.values()) {
+			verify(partition, times(1)).findOrCreateAllByFullUrls(anyCollection(), any());
+		}
+	}
+
+	@Test
+	void testFindAllByShortUrlPathsAcrossShards() {
+		for (int i = 0; i < 50; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		List<String> shortUrlPaths = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			shortUrlPaths.add("code" + i);
+		}
+
+		Map<String, UrlMapping> mappings = repository.findAllByShortUrlPaths(shortUrlPaths);
+
+		assertEquals(50, mappings.size());
+		assertEquals("https://example.com/7", mappings.get("code7").getFullUrl());
+		assertFalse(mappings.containsKey("code55"));
+	}
+
+	@Test
+	void testIncrementsAccessCountsOnTheirShards() {
+		LocalDateTime accessedAt = LocalDateTime.of(2030, 1, 1, 0, 0);
+		List<AccessIncrement> increments = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+			increments.add(new AccessIncrement("code" + i, i, accessedAt));
+		}
+
+		repository.incrementAccessCounts(increments);
+
+		for (int i = 0; i < 20; i++) {
+			UrlMapping mapping = repository.findByShortUrlPath("code" + i).orElseThrow();
+			assertEquals(i, mapping.getAccessCount());
+			assertEquals(accessedAt, mapping.getLastAccessedAt());
+		}
+	}
+
+	@Test
+	void testDeleteAndExists() {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+
+		assertTrue(repository.existsByShortUrlPath("abc"));
+		assertTrue(repository.deleteByShortUrlPath("abc"));
+		assertFalse(repository.existsByShortUrlPath("abc"));
+		assertFalse(repository.deleteByShortUrlPath("abc"));
+		assertEquals(0, repository.count());
+	}
+
+	@Test
+	void testPartitionsHaveFixedMembers() {
+		assertThrows(IllegalStateException.class, () -> repository.addMember("partition-4"));
+		assertThrows(IllegalStateException.class, () -> repository.removeMember("partition-0"));
+	}
+
+	@Test
+	void testJoiningInstanceTakesMappingsOverOnRebalance() {
+		Map<String, UrlMappingRepository> peers = new HashMap<>();
+		InMemoryUrlMappingRepository local = new InMemoryUrlMappingRepository();
+		ShardedUrlMappingRepository cluster = new ShardedUrlMappingRepository("a", local, List.of(),
+			name -> peers.computeIfAbsent(name, key -> new InMemoryUrlMappingRepository()), 64);
+		List<UrlMapping> created = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			created.add(cluster.findOrCreateByFullUrl("https://example.com/" + i, mappingFactory));
+		}
+
+		assertTrue(cluster.addMember("b"));
+		assertFalse(cluster.addMember("b"));
+		assertEquals(1000, local.count());
+		long moved = cluster.rebalance();
+
+		// Only the mappings whose short URL path and full URL both route to the joining instance leave this one
+		assertTrue(moved > 150 && moved < 350, moved + " mappings moved");
+		assertEquals(1000 - moved, local.count());
+		assertTrue(peers.get("b").count() > 2 * moved, peers.get("b").count() + " mappings held by the joining instance");
+		assertEquals(local.count(), cluster.count());
+		for (UrlMapping mapping : created) {
+			assertEquals(mapping.getFullUrl(), cluster.findByShortUrlPath(mapping.getShortUrlPath()).orElseThrow().getFullUrl());
+			assertEquals(mapping.getShortUrlPath(), cluster.findOrCreateByFullUrl(mapping.getFullUrl(), mappingFactory).getShortUrlPath());
+		}
+		assertEquals(0, cluster.rebalance());
+	}
+
+	@Test
+	void testLeavingInstanceHandsAllMappingsOver() {
+		InMemoryUrlMappingRepository local = new InMemoryUrlMappingRepository();
+		InMemoryUrlMappingRepository peer = new InMemoryUrlMappingRepository();
+		ShardedUrlMappingRepository cluster = new ShardedUrlMappingRepository("a", local, List.of("b"), name -> peer, 64);
+		for (int i = 0; i < 500; i++) {
+			cluster.findOrCreateByFullUrl("https://example.com/" + i, mappingFactory);
+		}
+		long held = local.count();
+
+		assertTrue(cluster.removeMember("a"));
+		assertEquals(held, cluster.rebalance());
+
+		assertEquals(0, local.count());
+		assertEquals(500, peer.count());
+		assertThrows(IllegalStateException.class, () -> cluster.removeMember("b"));
+	}
+
+	@Test
+	void testCopiesKeepMoreRecentAccessStatistics() {
+		InMemoryUrlMappingRepository local = new InMemoryUrlMappingRepository();
+		InMemoryUrlMappingRepository peer = new InMemoryUrlMappingRepository();
+		ShardedUrlMappingRepository cluster = new ShardedUrlMappingRepository("a", local, List.of("b"), name -> peer, 64);
+		for (int i = 0; i < 100; i++) {
+			cluster.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		List<AccessIncrement> increments = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			increments.add(new AccessIncrement("code" + i, 3, LocalDateTime.of(2030, 1, 1, 0, 0)));
+		}
+		cluster.incrementAccessCounts(increments);
+
+		cluster.removeMember("a");
+		cluster.rebalance();
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(3, peer.findByShortUrlPath("code" + i).orElseThrow().getAccessCount());
+		}
+	}
+
+	@Test
+	void testMappingsFailingToMoveStayUntilNextRebalance() {
+		InMemoryUrlMappingRepository local = new InMemoryUrlMappingRepository();
+		UrlMappingRepository peer = mock(UrlMappingRepository.class);
+		doThrow(new IllegalStateException("Failed to reach b")).when(peer).saveAll(anyCollection());
+		ShardedUrlMappingRepository cluster = new ShardedUrlMappingRepository("a", local, List.of(), name -> peer, 64);
+		for (int i = 0; i < 100; i++) {
+			cluster.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		cluster.addMember("b");
+
+		assertEquals(0, cluster.rebalance());
+
+		assertEquals(100, local.count());
+		doNothing().when(peer).saveAll(anyCollection());
+		long moved = cluster.rebalance();
+		assertTrue(moved > 0);
+		assertEquals(100 - moved, local.count());
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+	private static final long TICK = 1_000;
+	private static final long START = 1_700_000_000_000L;
+
+	@Test
+	void testFiresItemsAfterTheirDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+		List<String> fired = new ArrayList<>();
+		wheel.add("soon", START + 1_500);
+		wheel.add("later", START + 10_000);
+
+		wheel.advance(START + 1_999, fired::add);
+		assertEquals(List.of(), fired);
+
+		wheel.advance(START + 2_000, fired::add);
+		assertEquals(List.of("soon"), fired);
+
+		wheel.advance(START + 11_000, fired::add);
+		assertEquals(List.of("soon", "later"), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void testItemsPastTheirDeadlineFireOnNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+		List<String> fired = new ArrayList<>();
+
+		wheel.add("past", START - 60_000);
+		wheel.advance(START + TICK, fired::add);
+
+		assertEquals(List.of("past"), fired);
+	}
+
+	@Test
+	void testCascadesDistantDeadlinesWithoutFiringEarly() {
+		TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+		Random random = new Random(42);
+		List<Long> deadlines = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			long deadline = START + (long) (random.nextDouble() * 3 * 24 * 3_600_000L);
+			deadlines.add(deadline);
+			wheel.add(deadline, deadline);
+		}
+
+		List<Long> fired = new ArrayList<>();
+		long now = START;
+		while (fired.size() < deadlines.size()) {
+			now += 37 * TICK;
+			long advancedTo = now;
+			wheel.advance(now, deadline -> {
+				assertTrue(deadline < advancedTo, "Fired before its deadline");
+				assertTrue(deadline >= advancedTo - 38 * TICK, "Fired too late");
+				fired.add(deadline);
+			});
+			assertTrue(now < START + 4 * 24 * 3_600_000L, "Not all items fired");
+		}
+		assertEquals(0, wheel.size());
+	}
+}
@@ -0,0 +1,209 @@
+package com.example.origin.technical.exercise.shorturl.repository;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlMappingSnapshotTest {
+
+	private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_789);
+
+	@TempDir
+	Path directory;
+
+	private ExecutorService executor;
+	private InMemoryUrlMappingRepository repository;
+	private UrlMappingSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+		repository = new InMemoryUrlMappingRepository();
+		snapshot = new UrlMappingSnapshot(directory.resolve("snapshot/url-mappings.snapshot"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testWriteAndRestoreAllFields() throws IOException {
+		repository.save(UrlMapping.builder()
+			.shortUrlPath("aB3xK9p")
+			.fullUrl("https://example.com/café?q=1")
+			.createdAt(CREATED)
+			.lastAccessedAt(CREATED.plusHours(1))
+			.expiresAt(CREATED.plusDays(360))
+			.accessCount(42)
+			.redirectStatus(308)
+			.cacheable(true)
+			.build());
+		repository.save(UrlMapping.builder()
+			.shortUrlPath("def")
+			.fullUrl("https://example.com/other")
+			.createdAt(CREATED.minusYears(3))
+			.lastAccessedAt(null)
+			.expiresAt(null)
+			.cacheable(false)
+			.build());
+
+		assertEquals(2, snapshot.write(repository, 4));
+		Map<String, UrlMapping> restored = restore();
+
+		UrlMapping first = restored.get("aB3xK9p");
+		assertEquals("https://example.com/café?q=1", first.getFullUrl());
+		assertEquals("https://example.com/caf%C3%A9?q=1", first.getLocation());
+		assertEquals(CREATED, first.getCreatedAt());
+		assertEquals(CREATED.plusHours(1), first.getLastAccessedAt());
+		assertEquals(CREATED.plusDays(360), first.getExpiresAt());
+		assertEquals(42, first.getAccessCount());
+		assertEquals(308, first.getRedirectStatus());
+		assertEquals(true, first.getCacheable());
+
+		UrlMapping second = restored.get("def");
+		assertEquals("https://example.com/other", second.getLocation());
+		assertEquals(CREATED.minusYears(3), second.getCreatedAt());
+		assertNull(second.getLastAccessedAt());
+		assertNull(second.getExpiresAt());
+		assertNull(second.getRedirectStatus());
+		assertEquals(false, second.getCacheable());
+	}
+
+	@Test
+	void testRestoresManyMappingsAcrossSections() throws IOException {
+		for (int i = 0; i < 10_000; i++) {
+			repository.save(UrlMapping.builder()
+				.shortUrlPath(Integer.toString(i, 36))
+				.fullUrl("https://host" + (i % 10) + ".example.com/articles/" + i)
+				.createdAt(CREATED.plusSeconds(i))
+				.lastAccessedAt(CREATED.plusSeconds(2L * i))
+				.expiresAt(CREATED.plusDays(360))
+				.accessCount(i)
+				.build());
+		}
+
+		assertEquals(10_000, snapshot.write(repository, 16));
+		Map<String, UrlMapping> restored = restore();
+
+		assertEquals(10_000, restored.size());
+		repository.forEach(mapping -> {
+			UrlMapping copy = restored.get(mapping.getShortUrlPath());
+			assertEquals(mapping.getFullUrl(), copy.getFullUrl());
+			assertEquals(mapping.getLastAccessedAt(), copy.getLastAccessedAt());
+			assertEquals(mapping.getAccessCount(), copy.getAccessCount());
+		});
+	}
+
+	@Test
+	void testSnapshotIsCompact() throws IOException {
+		for (int i = 0; i < 1_000; i++) {
+			repository.save(UrlMapping.builder()
+				.shortUrlPath(Long.toString(0x10000000L + i, 36))
+				.fullUrl("https://www.example.com/a/" + i)
+				.createdAt(CREATED.plusNanos(1_000_000L * i))
+				.lastAccessedAt(CREATED.plusNanos(1_000_000L * i))
+				.expiresAt(CREATED.plusNanos(1_000_000L * i).plusDays(360))
+				.build());
+		}
+
+		snapshot.write(repository, 1);
+
+		// Short URL path, rest of the full URL and varint timestamps, but no repeated origin
+		assertTrue(Files.size(directory.resolve("snapshot/url-mappings.snapshot")) < 1_000 * 32);
+	}
+
+	@Test
+	void testRestoreWithoutMappings() throws IOException {
+		assertEquals(0, snapshot.write(repository, 8));
+
+		assertEquals(new UrlMappingSnapshot.Restored(0, 0), snapshot.restore(mapping -> fail(), executor));
+	}
+
+	@Test
+	void testWriteReplacesPreviousSnapshot() throws IOException {
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		snapshot.write(repository, 2);
+		repository.deleteByShortUrlPath("abc");
+		repository.save(new UrlMapping("def", "https://example.com/2"));
+
+		snapshot.write(repository, 2);
+
+		assertEquals(List.of("def"), new ArrayList<>(restore().keySet()));
+		try (var files = Files.list(directory.resolve("snapshot"))) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void testSkipsCorruptSection() throws IOException {
+		for (int i = 0; i < 100; i++) {
+			repository.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		snapshot.write(repository, 4);
+		Path file = directory.resolve("snapshot/url-mappings.snapshot");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// Flips a byte at the end of the file, in the last section
+			ByteBuffer last = ByteBuffer.allocate(1);
+			channel.read(last, channel.size() - 1);
+			channel.write(ByteBuffer.wrap(new byte[]{(byte) ~last.get(0)}), channel.size() - 1);
+		}
+
+		List<UrlMapping> restored = Collections.synchronizedList(new ArrayList<>());
+		UrlMappingSnapshot.Restored outcome = snapshot.restore(restored::add, executor);
+
+		assertEquals(1, outcome.corruptSections());
+		assertEquals(restored.size(), outcome.mappings());
+		assertTrue(restored.size() > 0 && restored.size() < 100);
+	}
+
+	@Test
+	void testRejectsCorruptHeader() throws IOException {
+		repository.save(new UrlMapping("abc", "https://example.com"));
+		snapshot.write(repository, 2);
+		Path file = directory.resolve("snapshot/url-mappings.snapshot");
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[20] ^= 1;
+		Files.write(file, bytes);
+
+		assertThrows(IOException.class, () -> snapshot.restore(mapping -> {
+		}, executor));
+	}
+
+	@Test
+	void testRejectsOtherFile() throws IOException {
+		Path file = directory.resolve("snapshot/url-mappings.snapshot");
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, "not a snapshot, but long enough to hold a header");
+
+		assertThrows(IOException.class, () -> snapshot.restore(mapping -> {
+		}, executor));
+	}
+
+	private Map<String, UrlMapping> restore() throws IOException {
+		Map<String, UrlMapping> restored = new ConcurrentHashMap<>();
+		UrlMappingSnapshot.Restored outcome = snapshot.restore(mapping -> restored.put(mapping.getShortUrlPath(), mapping), executor);
+		assertEquals(0, outcome.corruptSections());
+		assertEquals(restored.size(), outcome.mappings());
+		return restored;
+	}
+}
@@ -0,0 +1,226 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class AccessCountWriteBehindTest {
+
+	private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+	private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+	private AccessStatisticsService accessStatisticsService;
+	private AccessEventPipeline pipeline;
+	private UrlMappingRepository repository;
+	private SimpleMeterRegistry meterRegistry;
+	private UrlShortenerConfig.AccessCounts settings;
+	private AccessCountWriteBehind writeBehind;
+
+	@BeforeEach
+	void setUp() {
+		Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+		accessStatisticsService = new AccessStatisticsService(clock);
+		UrlShortenerConfig.AccessEvents pipelineSettings = new UrlShortenerConfig.AccessEvents();
+		pipelineSettings.setConsumerThreads(0);
+		meterRegistry = new SimpleMeterRegistry();
+		pipeline = new AccessEventPipeline(accessStatisticsService, pipelineSettings, meterRegistry, clock);
+		repository = spy(new InMemoryUrlMappingRepository());
+		repository.save(mapping("abc"));
+		repository.save(mapping("def"));
+		settings = new UrlShortenerConfig.AccessCounts();
+		settings.setFlushIntervalMillis(3_600_000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (writeBehind != null) {
+			writeBehind.close();
+		}
+		pipeline.close();
+	}
+
+	@Test
+	void testFlushWritesRecordedAccessesInBatches() {
+		settings.setBatchSize(1);
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+		for (int i = 0; i < 3; i++) {
+			accessStatisticsService.recordAccess("abc");
+		}
+		accessStatisticsService.recordAccess("def");
+		accessStatisticsService.recordAccess("missing");
+		assertEquals(3.0, meterRegistry.get("shorturl.access.counts.pending").gauge().value());
+
+		assertTrue(writeBehind.flush());
+
+		verify(repository, times(3)).incrementAccessCounts(anyCollection());
+		UrlMapping stored = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals(3, stored.getAccessCount());
+		assertEquals(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC), stored.getLastAccessedAt());
+		assertEquals(3, accessStatisticsService.getAccessCount(stored));
+		assertEquals(1, repository.findByShortUrlPath("def").orElseThrow().getAccessCount());
+		assertEquals(0.0, meterRegistry.get("shorturl.access.counts.pending").gauge().value());
+		assertEquals(5.0, meterRegistry.get("shorturl.access.counts.flushed").counter().count());
+	}
+
+	@Test
+	void testFlushOnlyWritesShortUrlsPendingWhenItStarts() {
+		settings.setBatchSize(1);
+		// Every write is followed by another access to the short URL, as under steady load
+		doAnswer(invocation -> {
+			Object result = invocation.callRealMethod();
+			accessStatisticsService.recordAccess("abc");
+			accessStatisticsService.recordAccess("def");
+			return result;
+		}).when(repository).incrementAccessCounts(anyCollection());
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+		accessStatisticsService.recordAccess("abc");
+		accessStatisticsService.recordAccess("def");
+
+		assertTrue(writeBehind.flush());
+
+		verify(repository, times(2)).incrementAccessCounts(anyCollection());
+		assertEquals(1, repository.findByShortUrlPath("abc").orElseThrow().getAccessCount());
+		// Accessed again before its turn came
+		assertEquals(2, repository.findByShortUrlPath("def").orElseThrow().getAccessCount());
+		assertEquals(2.0, meterRegistry.get("shorturl.access.counts.pending").gauge().value());
+	}
+
+	@Test
+	void testFlushWithoutAccessesDoesNotWrite() {
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+
+		assertTrue(writeBehind.flush());
+
+		verify(repository, never()).incrementAccessCounts(anyCollection());
+	}
+
+	@Test
+	void testFailedFlushKeepsAccessesForNextFlush() {
+		AtomicBoolean failing = new AtomicBoolean(true);
+		doAnswer(invocation -> {
+			if (failing.get()) {
+				throw new IllegalStateException("Storage unavailable");
+			}
+			return invocation.callRealMethod();
+		}).when(repository).incrementAccessCounts(anyCollection());
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+		accessStatisticsService.recordAccess("abc");
+
+		assertFalse(writeBehind.flush());
+		accessStatisticsService.recordAccess("abc");
+		assertEquals(2, accessStatisticsService.getAccessCount(repository.findByShortUrlPath("abc").orElseThrow()));
+		assertEquals(1.0, meterRegistry.get("shorturl.access.counts.flush.failures").counter().count());
+
+		failing.set(false);
+		assertTrue(writeBehind.flush());
+
+		UrlMapping stored = repository.findByShortUrlPath("abc").orElseThrow();
+		assertEquals(2, stored.getAccessCount());
+		assertEquals(2, accessStatisticsService.getAccessCount(stored));
+	}
+
+	@Test
+	void testFlushLagGrowsUntilCompleteFlush() {
+		MutableClock clock = new MutableClock(NOW);
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, clock);
+
+		clock.advanceMillis(1500);
+		assertEquals(1500.0, meterRegistry.get("shorturl.access.counts.flush.lag").gauge().value());
+
+		writeBehind.flush();
+
+		assertEquals(0.0, meterRegistry.get("shorturl.access.counts.flush.lag").gauge().value());
+	}
+
+	@Test
+	void testCloseDrainsPipelineAndFlushes() {
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+		pipeline.publish("abc");
+		pipeline.publish("abc");
+
+		writeBehind.close();
+
+		assertEquals(2, repository.findByShortUrlPath("abc").orElseThrow().getAccessCount());
+	}
+
+	@Test
+	void testPeriodicFlushWritesRecordedAccesses() throws InterruptedException {
+		settings.setFlushIntervalMillis(10);
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+
+		accessStatisticsService.recordAccess("abc");
+
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (repository.findByShortUrlPath("abc").orElseThrow().getAccessCount() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(1, repository.findByShortUrlPath("abc").orElseThrow().getAccessCount());
+	}
+
+	@Test
+	void testDisabledWriteBehindDoesNotFlushPeriodically() throws InterruptedException {
+		settings.setWriteBehind(false);
+		settings.setFlushIntervalMillis(10);
+		writeBehind = new AccessCountWriteBehind(accessStatisticsService, pipeline, repository, settings, meterRegistry, Clock.systemUTC());
+		accessStatisticsService.recordAccess("abc");
+
+		Thread.sleep(100);
+		writeBehind.close();
+
+		assertEquals(0, repository.findByShortUrlPath("abc").orElseThrow().getAccessCount());
+		assertEquals(1, accessStatisticsService.getAccessCount(repository.findByShortUrlPath("abc").orElseThrow()));
+	}
+
+	private static UrlMapping mapping(String shortUrlPath) {
+		return UrlMapping.builder()
+			.shortUrlPath(shortUrlPath)
+			.fullUrl("https://example.com/" + shortUrlPath)
+			.createdAt(CREATED)
+			.lastAccessedAt(CREATED)
+			.build();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advanceMillis(long millis) {
+			instant = instant.plusMillis(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
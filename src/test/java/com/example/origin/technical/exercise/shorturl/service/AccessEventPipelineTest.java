@@ -0,0 +1,176 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig.AccessEvents.OverflowPolicy;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessEventPipelineTest {
+
+	private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+	private AccessStatisticsService accessStatisticsService;
+	private SimpleMeterRegistry meterRegistry;
+	private UrlShortenerConfig.AccessEvents settings;
+	private AccessEventPipeline pipeline;
+
+	@BeforeEach
+	void setUp() {
+		accessStatisticsService = new AccessStatisticsService();
+		meterRegistry = new SimpleMeterRegistry();
+		settings = new UrlShortenerConfig.AccessEvents();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (pipeline != null) {
+			pipeline.close();
+		}
+	}
+
+	@Test
+	void testPublishedEventsAreAggregatedIntoStatistics() {
+		settings.setConsumerThreads(0);
+		pipeline = new AccessEventPipeline(accessStatisticsService, settings, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+		pipeline.publish("abc");
+		pipeline.publish("abc");
+		pipeline.publish("def");
+		assertEquals(0, accessStatisticsService.getAccessCount(mapping("abc")));
+		assertEquals(3.0, meterRegistry.get("shorturl.access.events.pending").gauge().value());
+
+		pipeline.flush();
+
+		assertEquals(2, accessStatisticsService.getAccessCount(mapping("abc")));
+		assertEquals(1, accessStatisticsService.getAccessCount(mapping("def")));
+		assertEquals(LocalDateTime.ofInstant(NOW, Clock.systemDefaultZone().getZone()),
+			accessStatisticsService.getLastAccessedAt(mapping("abc")));
+	}
+
+	@Test
+	void testDropsEventsWhenBufferIsFull() {
+		settings.setConsumerThreads(0);
+		settings.setBufferSize(4);
+		pipeline = new AccessEventPipeline(accessStatisticsService, settings, meterRegistry, Clock.systemUTC());
+
+		for (int i = 0; i < 10; i++) {
+			pipeline.publish("abc");
+		}
+		pipeline.flush();
+
+		assertEquals(4, accessStatisticsService.getAccessCount(mapping("abc")));
+		assertEquals(6.0, meterRegistry.get("shorturl.access.events.overflow").tag("outcome", "dropped").counter().count());
+	}
+
+	@Test
+	void testSamplesEventsWhenBufferIsFull() {
+		settings.setConsumerThreads(0);
+		settings.setBufferSize(4);
+		settings.setOverflowPolicy(OverflowPolicy.SAMPLE);
+		settings.setSampleRate(1);
+		pipeline = new AccessEventPipeline(accessStatisticsService, settings, meterRegistry, Clock.systemUTC());
+
+		for (int i = 0; i < 10; i++) {
+			pipeline.publish("abc");
+		}
+
+		assertEquals(6, accessStatisticsService.getAccessCount(mapping("abc")));
+		assertEquals(6.0, meterRegistry.get("shorturl.access.events.overflow").tag("outcome", "sampled").counter().count());
+		pipeline.flush();
+		assertEquals(10, accessStatisticsService.getAccessCount(mapping("abc")));
+	}
+
+	@Test
+	void testConsumersRecordConcurrentlyPublishedEvents() throws InterruptedException {
+		settings.setConsumerThreads(2);
+		settings.setBatchSize(64);
+		pipeline = new AccessEventPipeline(accessStatisticsService, settings, meterRegistry, Clock.systemUTC());
+		int numberOfThreads = 8;
+		int eventsPerThread = 10_000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			String shortUrlPath = "code" + (i % 2);
+			executor.execute(() -> {
+				for (int j = 0; j < eventsPerThread; j++) {
+					pipeline.publish(shortUrlPath);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		pipeline.close();
+
+		double dropped = meterRegistry.get("shorturl.access.events.overflow").tag("outcome", "dropped").counter().count();
+		long recorded = accessStatisticsService.getAccessCount(mapping("code0")) + accessStatisticsService.getAccessCount(mapping("code1"));
+		assertEquals((long) numberOfThreads * eventsPerThread, recorded + (long) dropped);
+	}
+
+	@Test
+	void testIdleConsumersAreWokenUpByPublishedEvents() throws InterruptedException {
+		settings.setConsumerThreads(2);
+		pipeline = new AccessEventPipeline(accessStatisticsService, settings, meterRegistry, Clock.systemUTC());
+		awaitTrue(() -> pipeline.idleConsumers() == 2);
+
+		pipeline.publish("abc");
+
+		// Well before the consumers would wake up on their own
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+		while (accessStatisticsService.getAccessCount(mapping("abc")) == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(1, accessStatisticsService.getAccessCount(mapping("abc")));
+		awaitTrue(() -> pipeline.idleConsumers() == 2);
+	}
+
+	@Test
+	void testRingBufferPreservesOrderAndCapacity() {
+		AccessEventRingBuffer ringBuffer = new AccessEventRingBuffer(3);
+		assertEquals(4, ringBuffer.capacity());
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(ringBuffer.offer("code" + i, i));
+		}
+		assertFalse(ringBuffer.offer("code4", 4));
+
+		List<String> drained = new ArrayList<>();
+		assertEquals(3, ringBuffer.drain((shortUrlPath, accessedAtMillis) -> drained.add(shortUrlPath + "@" + accessedAtMillis), 3));
+		assertTrue(ringBuffer.offer("code5", 5));
+		assertEquals(2, ringBuffer.drain((shortUrlPath, accessedAtMillis) -> drained.add(shortUrlPath + "@" + accessedAtMillis), 10));
+
+		assertEquals(List.of("code0@0", "code1@1", "code2@2", "code3@3", "code5@5"), drained);
+		assertEquals(0, ringBuffer.size());
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	private static UrlMapping mapping(String shortUrlPath) {
+		return UrlMapping.builder()
+			.shortUrlPath(shortUrlPath)
+			.fullUrl("https://example.com")
+			.lastAccessedAt(null)
+			.build();
+	}
+}
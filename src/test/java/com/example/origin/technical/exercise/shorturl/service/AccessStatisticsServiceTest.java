@@ -0,0 +1,192 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.AccessIncrement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessStatisticsServiceTest {
+
+	private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+	private MutableClock clock;
+	private AccessStatisticsService accessStatisticsService;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(CREATED.plusHours(1).toInstant(ZoneOffset.UTC));
+		accessStatisticsService = new AccessStatisticsService(clock);
+	}
+
+	@Test
+	void testUnaccessedMappingKeepsStoredStatistics() {
+		UrlMapping mapping = mapping(7);
+
+		assertEquals(7, accessStatisticsService.getAccessCount(mapping));
+		assertEquals(CREATED, accessStatisticsService.getLastAccessedAt(mapping));
+	}
+
+	@Test
+	void testRecordedAccessesAddToStoredStatistics() {
+		UrlMapping mapping = mapping(7);
+
+		accessStatisticsService.recordAccess("abc");
+		accessStatisticsService.recordAccess("abc");
+		accessStatisticsService.recordAccess("other");
+
+		assertEquals(9, accessStatisticsService.getAccessCount(mapping));
+		assertEquals(CREATED.plusHours(1), accessStatisticsService.getLastAccessedAt(mapping));
+		assertEquals(7, mapping.getAccessCount());
+	}
+
+	@Test
+	void testLastAccessIsStampedAtCoarseResolution() {
+		UrlMapping mapping = mapping(0);
+		accessStatisticsService.recordAccess("abc");
+
+		clock.advanceMillis(AccessStatisticsService.LAST_ACCESS_RESOLUTION_MILLIS - 1);
+		accessStatisticsService.recordAccess("abc");
+		assertEquals(CREATED.plusHours(1), accessStatisticsService.getLastAccessedAt(mapping));
+
+		clock.advanceMillis(1);
+		accessStatisticsService.recordAccess("abc");
+		assertEquals(CREATED.plusHours(1).plusSeconds(1), accessStatisticsService.getLastAccessedAt(mapping));
+	}
+
+	@Test
+	void testRemoveDiscardsRecordedAccesses() {
+		UrlMapping mapping = mapping(7);
+		accessStatisticsService.recordAccess("abc");
+
+		accessStatisticsService.remove("abc");
+
+		assertEquals(7, accessStatisticsService.getAccessCount(mapping));
+		assertEquals(CREATED, accessStatisticsService.getLastAccessedAt(mapping));
+	}
+
+	@Test
+	void testFlushMovesRecordedAccessesOnceEachIntoStoredStatistics() {
+		UrlMapping mapping = mapping(7);
+		accessStatisticsService.recordAccess("abc");
+		accessStatisticsService.recordAccess("abc");
+		accessStatisticsService.recordAccess("other");
+		assertEquals(2, accessStatisticsService.pendingCount());
+
+		List<AccessIncrement> increments = accessStatisticsService.startFlush(10);
+
+		assertEquals(List.of(new AccessIncrement("abc", 2, CREATED.plusHours(1)), new AccessIncrement("other", 1, CREATED.plusHours(1))),
+			increments.stream().sorted(Comparator.comparing(AccessIncrement::shortUrlPath)).toList());
+		assertEquals(0, accessStatisticsService.pendingCount());
+		assertEquals(9, accessStatisticsService.getAccessCount(mapping));
+
+		accessStatisticsService.recordAccess("abc");
+		mapping.setAccessCount(9);
+		accessStatisticsService.completeFlush(increments);
+
+		assertEquals(10, accessStatisticsService.getAccessCount(mapping));
+		assertEquals(List.of(new AccessIncrement("abc", 1, CREATED.plusHours(1))), accessStatisticsService.startFlush(10));
+	}
+
+	@Test
+	void testStartFlushTakesAtMostGivenNumberOfShortUrls() {
+		for (int i = 0; i < 5; i++) {
+			accessStatisticsService.recordAccess("code" + i);
+		}
+
+		assertEquals(3, accessStatisticsService.startFlush(3).size());
+		assertEquals(2, accessStatisticsService.startFlush(3).size());
+		assertTrue(accessStatisticsService.startFlush(3).isEmpty());
+	}
+
+	@Test
+	void testAbortedFlushIsRetriedWithLaterAccesses() {
+		UrlMapping mapping = mapping(7);
+		accessStatisticsService.recordAccess("abc");
+		List<AccessIncrement> increments = accessStatisticsService.startFlush(10);
+
+		accessStatisticsService.abortFlush(increments);
+		accessStatisticsService.recordAccess("abc");
+
+		assertEquals(9, accessStatisticsService.getAccessCount(mapping));
+		assertEquals(1, accessStatisticsService.pendingCount());
+		assertEquals(List.of(new AccessIncrement("abc", 2, CREATED.plusHours(1))), accessStatisticsService.startFlush(10));
+	}
+
+	@Test
+	void testRemovedShortUrlIsNotFlushed() {
+		accessStatisticsService.recordAccess("abc");
+
+		accessStatisticsService.remove("abc");
+
+		assertTrue(accessStatisticsService.startFlush(10).isEmpty());
+	}
+
+	@Test
+	void testConcurrentAccessesAreNotLost() throws InterruptedException {
+		int numberOfThreads = 8;
+		int accessesPerThread = 10_000;
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			executor.execute(() -> {
+				for (int j = 0; j < accessesPerThread; j++) {
+					accessStatisticsService.recordAccess("abc");
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals((long) numberOfThreads * accessesPerThread, accessStatisticsService.getAccessCount(mapping(0)));
+	}
+
+	private static UrlMapping mapping(long accessCount) {
+		return UrlMapping.builder()
+			.shortUrlPath("abc")
+			.fullUrl("https://example.com")
+			.createdAt(CREATED)
+			.lastAccessedAt(CREATED)
+			.accessCount(accessCount)
+			.build();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		void advanceMillis(long millis) {
+			instant = instant.plusMillis(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
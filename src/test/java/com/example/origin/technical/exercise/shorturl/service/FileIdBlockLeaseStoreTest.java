@@ -0,0 +1,84 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileIdBlockLeaseStoreTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void testLeasesConsecutiveBlocks() {
+		FileIdBlockLeaseStore store = new FileIdBlockLeaseStore(tempDir.resolve("leases"));
+
+		assertEquals(0, store.lease(10));
+		assertEquals(10, store.lease(10));
+		assertEquals(20, store.lease(5));
+	}
+
+	@Test
+	void testRestartKeepsKeyAndContinuesAfterLeasedBlocks() {
+		Path file = tempDir.resolve("nested").resolve("leases");
+		FileIdBlockLeaseStore store = new FileIdBlockLeaseStore(file);
+		store.lease(100);
+		assertTrue(Files.exists(file));
+
+		FileIdBlockLeaseStore restarted = new FileIdBlockLeaseStore(file);
+
+		assertEquals(store.key(), restarted.key());
+		assertEquals(100, restarted.lease(100));
+		assertEquals(200, store.lease(100));
+	}
+
+	@Test
+	void testConcurrentLeasesAreDisjoint() throws Exception {
+		Path file = tempDir.resolve("leases");
+		FileIdBlockLeaseStore store1 = new FileIdBlockLeaseStore(file);
+		FileIdBlockLeaseStore store2 = new FileIdBlockLeaseStore(file);
+		Set<Long> firstIds = ConcurrentHashMap.newKeySet();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			FileIdBlockLeaseStore store = i % 2 == 0 ? store1 : store2;
+			futures.add(executor.submit(() -> {
+				for (int j = 0; j < 50; j++) {
+					assertTrue(firstIds.add(store.lease(10)));
+				}
+			}));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		for (Future<?> future : futures) {
+			future.get();
+		}
+
+		Set<Long> expected = new HashSet<>();
+		for (long first = 0; first < 400 * 10; first += 10) {
+			expected.add(first);
+		}
+		assertEquals(expected, firstIds);
+	}
+
+	@Test
+	void testRejectsNonPositiveBlockSize() {
+		FileIdBlockLeaseStore store = new FileIdBlockLeaseStore(tempDir.resolve("leases"));
+
+		assertThrows(IllegalArgumentException.class, () -> store.lease(0));
+	}
+}
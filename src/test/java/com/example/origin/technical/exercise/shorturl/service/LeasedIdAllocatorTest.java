@@ -0,0 +1,84 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeasedIdAllocatorTest {
+
+	@Test
+	void testHandsOutIdentifiersOfLeasedBlock() {
+		CountingLeaseStore leaseStore = new CountingLeaseStore();
+		LeasedIdAllocator allocator = new LeasedIdAllocator(leaseStore, 100, Long.MAX_VALUE);
+
+		for (long expected = 0; expected < 100; expected++) {
+			assertEquals(expected, allocator.next());
+		}
+		assertEquals(1, leaseStore.leases.get());
+
+		assertEquals(100, allocator.next());
+		assertEquals(2, leaseStore.leases.get());
+	}
+
+	@Test
+	void testConcurrentIdentifiersAreUnique() throws InterruptedException {
+		CountingLeaseStore leaseStore = new CountingLeaseStore();
+		LeasedIdAllocator allocator = new LeasedIdAllocator(leaseStore, 1000, Long.MAX_VALUE);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		int numberOfThreads = 8;
+		int idsPerThread = 10_000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			executor.execute(() -> {
+				for (int j = 0; j < idsPerThread; j++) {
+					assertTrue(ids.add(allocator.next()));
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(numberOfThreads * idsPerThread, ids.size());
+		assertTrue(leaseStore.leases.get() < numberOfThreads * idsPerThread / 100);
+	}
+
+	@Test
+	void testFailsOnceLimitIsLeased() {
+		LeasedIdAllocator allocator = new LeasedIdAllocator(new CountingLeaseStore(), 10, 15);
+
+		for (long expected = 0; expected < 10; expected++) {
+			assertEquals(expected, allocator.next());
+		}
+		for (long expected = 10; expected < 15; expected++) {
+			assertEquals(expected, allocator.next());
+		}
+		assertThrows(IllegalStateException.class, allocator::next);
+	}
+
+	private static final class CountingLeaseStore implements IdBlockLeaseStore {
+
+		private final AtomicInteger leases = new AtomicInteger();
+		private long nextId;
+
+		@Override
+		public long key() {
+			return 42;
+		}
+
+		@Override
+		public synchronized long lease(long blockSize) {
+			leases.incrementAndGet();
+			long first = nextId;
+			nextId += blockSize;
+			return first;
+		}
+	}
+}
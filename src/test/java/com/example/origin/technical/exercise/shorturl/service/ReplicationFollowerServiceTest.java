@@ -0,0 +1,146 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.ChangeLogUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingChangeSource;
+import com.example.origin.technical.exercise.shorturl.service.ReplicationFollowerService.SyncState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationFollowerServiceTest {
+
+	private UrlShortenerConfig.Replication settings;
+	private SimpleMeterRegistry meterRegistry;
+	private ChangeLogUrlMappingRepository leader;
+	private InMemoryUrlMappingRepository follower;
+	private ReplicationFollowerService service;
+
+	@BeforeEach
+	void setUp() {
+		settings = new UrlShortenerConfig.Replication();
+		settings.setRole(UrlShortenerConfig.Replication.Role.FOLLOWER);
+		settings.setBatchSize(4);
+		meterRegistry = new SimpleMeterRegistry();
+		leader = new ChangeLogUrlMappingRepository(new InMemoryUrlMappingRepository(), 16, 2);
+		follower = new InMemoryUrlMappingRepository();
+		service = new ReplicationFollowerService(leader, follower, settings, meterRegistry);
+	}
+
+	@Test
+	void testCopiesMappingsThenAppliesChanges() throws Exception {
+		leader.save(new UrlMapping("abc", "https://example.com/1"));
+		leader.save(new UrlMapping("def", "https://example.com/2"));
+		follower.save(new UrlMapping("stale", "https://example.com/stale"));
+		assertEquals(SyncState.SYNCING, service.syncState());
+
+		assertEquals(0, service.sync());
+
+		assertEquals(SyncState.SYNCED, service.syncState());
+		assertEquals(2, follower.count());
+		assertFalse(follower.existsByShortUrlPath("stale"));
+		assertEquals(2, service.appliedSequence());
+
+		for (int i = 0; i < 10; i++) {
+			leader.save(new UrlMapping("code" + i, "https://example.com/code" + i));
+		}
+		leader.deleteByShortUrlPath("abc");
+		leader.save(new UrlMapping("abc", "https://example.com/3"));
+
+		// Fetched in batches until none is left
+		assertEquals(12, service.sync());
+
+		assertEquals(14, service.appliedSequence());
+		assertEquals(0, service.lagChanges());
+		assertEquals(12, follower.count());
+		assertEquals("https://example.com/3", follower.findByShortUrlPath("abc").orElseThrow().getFullUrl());
+		assertEquals(12.0, meterRegistry.get("shorturl.replication.applied").counter().count());
+		assertEquals(0.0, meterRegistry.get("shorturl.replication.lag.changes").gauge().value());
+		assertTrue(meterRegistry.get("shorturl.replication.lag").gauge().value() < 60);
+	}
+
+	@Test
+	void testAppliesDeletions() throws Exception {
+		leader.save(new UrlMapping("abc", "https://example.com/1"));
+		service.sync();
+
+		leader.deleteByShortUrlPath("abc");
+		service.sync();
+
+		assertFalse(follower.existsByShortUrlPath("abc"));
+	}
+
+	@Test
+	void testCopiesMappingsAgainOnceChangesAreNoLongerRetained() throws Exception {
+		leader.save(new UrlMapping("abc", "https://example.com/1"));
+		service.sync();
+		for (int i = 0; i < 20; i++) {
+			leader.save(new UrlMapping("code" + i, "https://example.com/code" + i));
+		}
+		leader.deleteByShortUrlPath("abc");
+
+		service.sync();
+
+		assertEquals(20, follower.count());
+		assertFalse(follower.existsByShortUrlPath("abc"));
+		assertEquals(22, service.appliedSequence());
+		assertEquals(2.0, meterRegistry.get("shorturl.replication.resyncs").counter().count());
+	}
+
+	@Test
+	void testCopiesMappingsAgainOnceLeaderRestarted() throws Exception {
+		RestartingLeader restartingLeader = new RestartingLeader(leader);
+		ReplicationFollowerService restartingService = new ReplicationFollowerService(restartingLeader, follower, settings,
+			new SimpleMeterRegistry());
+		leader.save(new UrlMapping("abc", "https://example.com/1"));
+		leader.save(new UrlMapping("def", "https://example.com/2"));
+		restartingService.sync();
+
+		restartingLeader.current = new ChangeLogUrlMappingRepository(new InMemoryUrlMappingRepository(), 16, 2);
+		restartingLeader.current.save(new UrlMapping("ghi", "https://example.com/3"));
+		restartingLeader.current.save(new UrlMapping("jkl", "https://example.com/4"));
+		restartingLeader.current.save(new UrlMapping("mno", "https://example.com/5"));
+		restartingService.sync();
+
+		assertEquals(3, follower.count());
+		assertFalse(follower.existsByShortUrlPath("abc"));
+		assertEquals(3, restartingService.appliedSequence());
+	}
+
+	@Test
+	void testDisabledWithoutLeader() {
+		settings.setRole(UrlShortenerConfig.Replication.Role.NONE);
+		ReplicationFollowerService disabled = new ReplicationFollowerService(null, follower, settings, new SimpleMeterRegistry());
+
+		assertEquals(SyncState.DISABLED, disabled.syncState());
+		disabled.start();
+		disabled.close();
+	}
+
+	private static class RestartingLeader implements UrlMappingChangeSource {
+
+		private ChangeLogUrlMappingRepository current;
+
+		RestartingLeader(ChangeLogUrlMappingRepository current) {
+			this.current = current;
+		}
+
+		@Override
+		public Optional<Batch> changesAfter(long sequence, int limit) {
+			return current.changesAfter(sequence, limit);
+		}
+
+		@Override
+		public Position snapshot(Path file) throws IOException {
+			return current.snapshot(file);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.service.ReplicationFollowerService.SyncState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicationHealthIndicatorTest {
+
+	private ReplicationFollowerService replicationFollowerService;
+	private ReplicationHealthIndicator healthIndicator;
+
+	@BeforeEach
+	void setUp() {
+		replicationFollowerService = mock(ReplicationFollowerService.class);
+		healthIndicator = new ReplicationHealthIndicator(replicationFollowerService);
+	}
+
+	@Test
+	void testOutOfServiceWhileSyncing() {
+		when(replicationFollowerService.syncState()).thenReturn(SyncState.SYNCING);
+
+		assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+	}
+
+	@Test
+	void testUpOnceSynced() {
+		when(replicationFollowerService.syncState()).thenReturn(SyncState.SYNCED);
+		when(replicationFollowerService.appliedSequence()).thenReturn(42L);
+		when(replicationFollowerService.lagChanges()).thenReturn(3L);
+
+		Health health = healthIndicator.health();
+
+		assertEquals(Status.UP, health.getStatus());
+		assertEquals(42L, health.getDetails().get("appliedSequence"));
+		assertEquals(3L, health.getDetails().get("lagChanges"));
+	}
+
+	@Test
+	void testUpWhenDisabled() {
+		when(replicationFollowerService.syncState()).thenReturn(SyncState.DISABLED);
+
+		assertEquals(Status.UP, healthIndicator.health().getStatus());
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortUrlPathPermutationTest {
+
+	@Test
+	void testPermutationIsBijectiveOverCodeSpace() {
+		ShortUrlPathPermutation permutation = new ShortUrlPathPermutation(3, 42L);
+		assertEquals(62 * 62 * 62, permutation.size());
+
+		BitSet seen = new BitSet((int) permutation.size());
+		for (long value = 0; value < permutation.size(); value++) {
+			long permuted = permutation.permute(value);
+			assertTrue(permuted >= 0 && permuted < permutation.size());
+			assertFalse(seen.get((int) permuted), "Value " + permuted + " produced twice");
+			seen.set((int) permuted);
+		}
+	}
+
+	@Test
+	void testPermutationDependsOnKey() {
+		ShortUrlPathPermutation permutation1 = new ShortUrlPathPermutation(7, 1L);
+		ShortUrlPathPermutation permutation2 = new ShortUrlPathPermutation(7, 2L);
+
+		int equal = 0;
+		for (long value = 0; value < 1000; value++) {
+			if (permutation1.permute(value) == permutation2.permute(value)) {
+				equal++;
+			}
+		}
+		assertTrue(equal < 5);
+	}
+
+	@Test
+	void testConsecutiveValuesAreNotSequential() {
+		ShortUrlPathPermutation permutation = new ShortUrlPathPermutation(7, 42L);
+
+		long previous = permutation.permute(0);
+		for (long value = 1; value < 100; value++) {
+			long permuted = permutation.permute(value);
+			assertTrue(Math.abs(permuted - previous) > 1);
+			previous = permuted;
+		}
+	}
+
+	@Test
+	void testEncodePadsToLength() {
+		ShortUrlPathPermutation permutation = new ShortUrlPathPermutation(7, 42L);
+
+		assertEquals("0000000", permutation.encode(0));
+		assertEquals("000000z", permutation.encode(61));
+		assertEquals("0000010", permutation.encode(62));
+		assertEquals("zzzzzzz", permutation.encode(permutation.size() - 1));
+	}
+
+	@Test
+	void testRejectsUnsupportedLengthAndValues() {
+		assertThrows(IllegalArgumentException.class, () -> new ShortUrlPathPermutation(0, 42L));
+		assertThrows(IllegalArgumentException.class, () -> new ShortUrlPathPermutation(11, 42L));
+
+		ShortUrlPathPermutation permutation = new ShortUrlPathPermutation(2, 42L);
+		assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+		assertThrows(IllegalArgumentException.class, () -> permutation.permute(permutation.size()));
+	}
+}
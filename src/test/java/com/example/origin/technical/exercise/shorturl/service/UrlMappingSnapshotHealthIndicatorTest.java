@@ -0,0 +1,56 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.repository.UrlMappingSnapshot;
+import com.example.origin.technical.exercise.shorturl.service.UrlMappingSnapshotService.RestoreState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UrlMappingSnapshotHealthIndicatorTest {
+
+	private UrlMappingSnapshotService urlMappingSnapshotService;
+	private UrlMappingSnapshotHealthIndicator healthIndicator;
+
+	@BeforeEach
+	void setUp() {
+		urlMappingSnapshotService = mock(UrlMappingSnapshotService.class);
+		healthIndicator = new UrlMappingSnapshotHealthIndicator(urlMappingSnapshotService);
+	}
+
+	@Test
+	void testOutOfServiceWhileRestoring() {
+		when(urlMappingSnapshotService.restoreState()).thenReturn(RestoreState.RESTORING);
+
+		assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+	}
+
+	@Test
+	void testUpOnceRestored() {
+		when(urlMappingSnapshotService.restoreState()).thenReturn(RestoreState.RESTORED);
+		when(urlMappingSnapshotService.restored()).thenReturn(new UrlMappingSnapshot.Restored(42, 1));
+
+		Health health = healthIndicator.health();
+
+		assertEquals(Status.UP, health.getStatus());
+		assertEquals(42L, health.getDetails().get("restoredMappings"));
+		assertEquals(1, health.getDetails().get("corruptSections"));
+	}
+
+	@Test
+	void testUpWhenDisabled() {
+		when(urlMappingSnapshotService.restoreState()).thenReturn(RestoreState.DISABLED);
+
+		assertEquals(Status.UP, healthIndicator.health().getStatus());
+	}
+
+	@Test
+	void testDownWhenRestoreFailed() {
+		when(urlMappingSnapshotService.restoreState()).thenReturn(RestoreState.FAILED);
+
+		assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+	}
+}
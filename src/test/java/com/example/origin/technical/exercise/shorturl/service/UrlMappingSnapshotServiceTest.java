@@ -0,0 +1,158 @@
+package com.example.origin.technical.exercise.shorturl.service;
+
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
+import com.example.origin.technical.exercise.shorturl.model.UrlMapping;
+import com.example.origin.technical.exercise.shorturl.repository.InMemoryUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.repository.IterableUrlMappingRepository;
+import com.example.origin.technical.exercise.shorturl.service.UrlMappingSnapshotService.RestoreState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UrlMappingSnapshotServiceTest {
+
+	@TempDir
+	Path directory;
+
+	private UrlShortenerConfig.Snapshot settings;
+	private AccessCountWriteBehind accessCountWriteBehind;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		settings = new UrlShortenerConfig.Snapshot();
+		settings.setEnabled(true);
+		settings.setFile(directory.resolve("url-mappings.snapshot").toString());
+		settings.setIntervalMillis(3_600_000);
+		settings.setSections(4);
+		settings.setRestoreThreads(2);
+		accessCountWriteBehind = mock(AccessCountWriteBehind.class);
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void testShutdownSnapshotIsRestoredOnNextStartup() throws Exception {
+		InMemoryUrlMappingRepository repository = new InMemoryUrlMappingRepository();
+		UrlMappingSnapshotService service = start(repository);
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		repository.save(new UrlMapping("def", "https://example.com/2"));
+
+		service.close();
+
+		verify(accessCountWriteBehind).close();
+		assertEquals(2, service.lastSnapshotMappings());
+
+		InMemoryUrlMappingRepository restarted = new InMemoryUrlMappingRepository();
+		UrlMappingSnapshotService restartedService = start(restarted);
+		assertEquals(RestoreState.RESTORED, restartedService.restoreState());
+		assertEquals(2, restartedService.restored().mappings());
+		assertEquals("https://example.com/2", restarted.findByShortUrlPath("def").orElseThrow().getFullUrl());
+		assertEquals("def", restarted.findByFullUrl("https://example.com/2").orElseThrow().getShortUrlPath());
+		restartedService.close();
+	}
+
+	@Test
+	void testStaysRestoringUntilAllSectionsAreRestored() throws Exception {
+		InMemoryUrlMappingRepository source = new InMemoryUrlMappingRepository();
+		for (int i = 0; i < 100; i++) {
+			source.save(new UrlMapping("code" + i, "https://example.com/" + i));
+		}
+		UrlMappingSnapshotService writer = start(source);
+		writer.snapshot();
+		writer.close();
+
+		CountDownLatch proceed = new CountDownLatch(1);
+		IterableUrlMappingRepository repository = spy(new InMemoryUrlMappingRepository());
+		doAnswer(invocation -> {
+			proceed.await();
+			return invocation.callRealMethod();
+		}).when(repository).save(any());
+		UrlMappingSnapshotService service = new UrlMappingSnapshotService(repository, accessCountWriteBehind, settings, meterRegistry);
+
+		assertEquals(RestoreState.RESTORING, service.restoreState());
+		assertThrows(IllegalStateException.class, service::snapshot);
+		proceed.countDown();
+
+		assertTrue(service.awaitRestore(10, TimeUnit.SECONDS));
+		assertEquals(RestoreState.RESTORED, service.restoreState());
+		assertEquals(100, repository.count());
+		service.close();
+	}
+
+	@Test
+	void testDoesNotRestoreIntoNonEmptyRepository() throws Exception {
+		InMemoryUrlMappingRepository source = new InMemoryUrlMappingRepository();
+		source.save(new UrlMapping("abc", "https://example.com/1"));
+		start(source).close();
+
+		InMemoryUrlMappingRepository repository = new InMemoryUrlMappingRepository();
+		repository.save(new UrlMapping("def", "https://example.com/2"));
+		UrlMappingSnapshotService service = start(repository);
+
+		assertEquals(RestoreState.RESTORED, service.restoreState());
+		assertEquals(0, service.restored().mappings());
+		assertFalse(repository.existsByShortUrlPath("abc"));
+		service.close();
+	}
+
+	@Test
+	void testFailedRestoreKeepsSnapshot() throws Exception {
+		Path file = directory.resolve("url-mappings.snapshot");
+		Files.writeString(file, "not a snapshot, but long enough to hold a header");
+		InMemoryUrlMappingRepository repository = new InMemoryUrlMappingRepository();
+
+		UrlMappingSnapshotService service = start(repository);
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		service.close();
+
+		assertEquals(RestoreState.FAILED, service.restoreState());
+		assertEquals("not a snapshot, but long enough to hold a header", Files.readString(file));
+		verify(accessCountWriteBehind, never()).close();
+	}
+
+	@Test
+	void testPeriodicSnapshots() throws Exception {
+		settings.setIntervalMillis(10);
+		InMemoryUrlMappingRepository repository = new InMemoryUrlMappingRepository();
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+		UrlMappingSnapshotService service = new UrlMappingSnapshotService(repository, accessCountWriteBehind, settings, meterRegistry);
+
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!Files.exists(directory.resolve("url-mappings.snapshot")) && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertTrue(Files.exists(directory.resolve("url-mappings.snapshot")));
+		service.close();
+		assertEquals(1.0, meterRegistry.get("shorturl.snapshot.mappings").gauge().value());
+	}
+
+	@Test
+	void testDisabledSnapshotsNeitherRestoreNorWrite() throws IOException {
+		settings.setEnabled(false);
+		InMemoryUrlMappingRepository repository = new InMemoryUrlMappingRepository();
+		repository.save(new UrlMapping("abc", "https://example.com/1"));
+
+		UrlMappingSnapshotService service = new UrlMappingSnapshotService(repository, accessCountWriteBehind, settings, meterRegistry);
+		service.close();
+
+		assertEquals(RestoreState.DISABLED, service.restoreState());
+		assertFalse(Files.exists(directory.resolve("url-mappings.snapshot")));
+	}
+
+	private UrlMappingSnapshotService start(IterableUrlMappingRepository repository) throws InterruptedException {
+		UrlMappingSnapshotService service = new UrlMappingSnapshotService(repository, accessCountWriteBehind, settings, meterRegistry);
+		assertTrue(service.awaitRestore(10, TimeUnit.SECONDS));
+		return service;
+	}
+}
@@ -1,9 +1,12 @@
 package com.example.origin.technical.exercise.shorturl.service;
 
+import com.example.origin.technical.exercise.shorturl.config.UrlShortenerConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -13,6 +16,9 @@ class UrlShortenerServiceTest {
 
 	private UrlShortenerService urlShortenerService;
 
+	@TempDir
+	Path tempDir;
+
 	@BeforeEach
 	void setUp() {
 		urlShortenerService = new UrlShortenerService();
@@ -156,6 +162,57 @@ class UrlShortenerServiceTest {
 		}
 	}
 
+	@Test
+	void testPermutationGeneratorNeverRepeatsShortUrlPaths() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		config.setGenerator("permutation");
+		config.setShortUrlLength(6);
+		config.getLeases().setFile(tempDir.resolve("leases").toString());
+		config.getLeases().setBlockSize(1000);
+		UrlShortenerService service = new UrlShortenerService(config);
+
+		Set<String> generatedUrls = new HashSet<>();
+		for (int i = 0; i < 100_000; i++) {
+			String shortUrl = service.generateShortUrlPath();
+			assertTrue(service.isValidShortUrlFormat(shortUrl), "Generated URL '" + shortUrl + "' should be valid");
+			assertTrue(generatedUrls.add(shortUrl), "Generated URL '" + shortUrl + "' twice");
+		}
+	}
+
+	@Test
+	void testPermutationGeneratorDoesNotReissueShortUrlPathsAfterRestart() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		config.setGenerator("permutation");
+		config.getLeases().setFile(tempDir.resolve("leases").toString());
+		config.getLeases().setBlockSize(100);
+
+		Set<String> generatedUrls = new HashSet<>();
+		for (int instance = 0; instance < 3; instance++) {
+			UrlShortenerService service = new UrlShortenerService(config);
+			for (int i = 0; i < 250; i++) {
+				String shortUrl = service.generateShortUrlPath();
+				assertTrue(generatedUrls.add(shortUrl), "Generated URL '" + shortUrl + "' twice");
+			}
+		}
+	}
+
+	@Test
+	void testPermutationGeneratorFailsWhenCodeSpaceIsExhausted() {
+		UrlShortenerConfig config = new UrlShortenerConfig();
+		config.setGenerator("permutation");
+		config.setShortUrlLength(1);
+		config.getLeases().setFile(tempDir.resolve("leases").toString());
+		UrlShortenerService service = new UrlShortenerService(config);
+
+		Set<String> generatedUrls = new HashSet<>();
+		for (int i = 0; i < 62; i++) {
+			generatedUrls.add(service.generateShortUrlPath());
+		}
+
+		assertEquals(62, generatedUrls.size());
+		assertThrows(IllegalStateException.class, service::generateShortUrlPath);
+	}
+
 	@Test
 	void testServiceNotNullAfterConstruction() {
 		UrlShortenerService service = new UrlShortenerService();
@@ -0,0 +1,22 @@
+package com.example.origin.technical.exercise.shorturl.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingTest {
+
+	@Test
+	void testFmix64MatchesMurmurHash3() {
+		assertEquals(0L, Hashing.fmix64(0L));
+		assertEquals(0xB456BCFC34C2CB2CL, Hashing.fmix64(1L));
+	}
+
+	@Test
+	void testFmix64SpreadsSingleBitChanges() {
+		for (int bit = 0; bit < Long.SIZE; bit++) {
+			int changedBits = Long.bitCount(Hashing.fmix64(42L) ^ Hashing.fmix64(42L ^ (1L << bit)));
+			assertTrue(changedBits > 16 && changedBits < 48, "bit " + bit + " changed " + changedBits + " bits");
+		}
+	}
+}